@@ -0,0 +1,91 @@
+package edu.missouri.bayesianConstructor;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Computes the sums behind the moments of a pair of columns with the
+ * {@code jdk.incubator.vector} API. Rows are processed one vector at a time;
+ * the lanes where a value is missing are masked out using the columns'
+ * validity bitsets, so no value is tested for {@code NaN}.
+ * <p/>
+ * This class needs Java 16 or later and is therefore kept outside the Java 8
+ * {@code src} folder. To use it, compile it against the compiled
+ * {@code src} folder, e.g.
+ *
+ * <pre>
+ * javac --release 17 --add-modules jdk.incubator.vector -cp bin -d bin \
+ *     src-vector/edu/missouri/bayesianConstructor/VectorMomentKernel.java
+ * </pre>
+ *
+ * and start the program with {@code --add-modules jdk.incubator.vector}.
+ * {@link MomentKernel} selects it automatically when both conditions hold.
+ * See {@link MomentKernel} for the tolerance within which its results agree
+ * with the scalar kernel.
+ *
+ * @author <a href="mailto:fthc8@missouri.edu">Fernando J. Torre-Mora</a>
+ * @version 0.01 2026-10-16
+ * @since {@code bayesianConstructor} version 0.29 2026-10-16
+ */
+class VectorMomentKernel extends MomentKernel {
+	/** The vector shape used; its length must divide 64 */
+	private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+	/** Number of lanes in each vector */
+	private static final int LANES = SPECIES.length();
+
+	/**
+	 * Mask with one bit set for every lane of a vector, used to extract the
+	 * validity bits of a single vector from a mask word
+	 */
+	private static final long LANE_BITS = LANES == 64 ? -1L : (1L << LANES) - 1;
+
+	@Override
+	String name() {
+		return "vector";
+	}
+
+	@Override
+	void accumulate(LayerMoments.ShiftedColumn x,
+			LayerMoments.ShiftedColumn y, int start, int end, double[] sums,
+			int k) {
+		long[] mx = x.mask;
+		double[] ax = x.value;
+		double[] qx = x.square;
+		long[] my = y.mask;
+		double[] ay = y.value;
+		double[] qy = y.square;
+		long count = 0;
+		DoubleVector sumX = DoubleVector.zero(SPECIES);
+		DoubleVector sumY = sumX, sumXX = sumX, sumYY = sumX, sumXY = sumX;
+		for (int t = start; t < end; t += LANES) {
+			long wx = (mx[t >>> 6] >>> (t & 63)) & LANE_BITS;
+			long wy = (my[t >>> 6] >>> (t & 63)) & LANE_BITS;
+			count += Long.bitCount(wx & wy);
+			if ((wx | wy) == 0)
+				continue;
+			VectorMask<Double> validX = VectorMask.fromLong(SPECIES, wx);
+			VectorMask<Double> validY = VectorMask.fromLong(SPECIES, wy);
+			VectorMask<Double> inRange = SPECIES.indexInRange(t, end);
+			DoubleVector vx = DoubleVector.fromArray(SPECIES, ax, t, inRange);
+			DoubleVector vy = DoubleVector.fromArray(SPECIES, ay, t, inRange);
+			// missing values are stored as 0, so they only need masking
+			// where the other value of the pair is missing
+			sumX = sumX.add(vx, validY);
+			sumY = sumY.add(vy, validX);
+			sumXX = sumXX.add(
+					DoubleVector.fromArray(SPECIES, qx, t, inRange), validY);
+			sumYY = sumYY.add(
+					DoubleVector.fromArray(SPECIES, qy, t, inRange), validX);
+			sumXY = vx.fma(vy, sumXY);
+		}
+		sums[k] += count;
+		sums[k + 1] += sumX.reduceLanes(VectorOperators.ADD);
+		sums[k + 2] += sumY.reduceLanes(VectorOperators.ADD);
+		sums[k + 3] += sumXX.reduceLanes(VectorOperators.ADD);
+		sums[k + 4] += sumYY.reduceLanes(VectorOperators.ADD);
+		sums[k + 5] += sumXY.reduceLanes(VectorOperators.ADD);
+	}
+}
@@ -1,5 +1,6 @@
 package edu.missouri.WorldBankModelBuilder;
 
+import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.IOException;
@@ -15,21 +16,66 @@ import java.util.Vector;
 
 import com.opencsv.CSVReader;
 
+import edu.missouri.bayesianConstructor.Column;
+import edu.missouri.bayesianConstructor.DependencyBuilder;
+import edu.missouri.bayesianConstructor.DependencyMeasure;
+import edu.missouri.bayesianConstructor.DependencyCache;
+import edu.missouri.bayesianConstructor.DependencyMatrix;
+import edu.missouri.bayesianConstructor.DependencyStream;
 import edu.missouri.bayesianConstructor.DomainKnowledge;
+import edu.missouri.bayesianConstructor.GroupIndex;
+import edu.missouri.bayesianConstructor.LayerMoments;
 import edu.missouri.bayesianConstructor.NodePlacer;
+import edu.missouri.bayesianConstructor.Panel;
+import edu.missouri.bayesianConstructor.PanelCache;
+import edu.missouri.bayesianConstructor.ParallelCSV;
+import edu.missouri.bayesianConstructor.SlidingWindow;
 import edu.missouri.bayesianConstructor.Main;
 import edu.missouri.bayesianEvaluator.Trainer;
 import edu.ucla.belief.BeliefNetwork;
+import edu.ucla.structure.DirectedEdge;
 import edu.ucla.structure.DirectedGraph;
 
 /**
  * Provides a way to generate all the economic models, and group countries by it
  *
  * @author <a href="mailto:fthc8@missouri.edu">Fernando J. Torre-Mora</a>
- * @version 0.07 2016-04-27
+ * @version 0.26 2026-10-16
  * @since {@code WorldBankModelBuilder} version 0.01 2016-04-19
  */
 public class ModelClusterizer {
+	/** The name of the layer of the economic indicators both models explain */
+	public static final String ECONOMIC = "Economic";
+
+	/** The name of the layer of the previous year's economy (Unesco model) */
+	public static final String PREVIOUS_ECONOMY = "Previous Economy";
+
+	/** The name of the layer of education indicators (Unesco model) */
+	public static final String EDUCATION = "Education";
+
+	/** The name of the layer of innovation indicators (Unesco model) */
+	public static final String INNOVATION = "Innovation";
+
+	/** The name of the layer of production indicators (Unesco model) */
+	public static final String PRODUCTION = "Production";
+
+	/** The name of the layer of resources (Smets-Woulters model) */
+	public static final String RESOURCE = "Resource";
+
+	/** The name of the layer of estimations (Smets-Woulters model) */
+	public static final String ESTIMATION = "Estimation";
+
+	/**
+	 * The name of the layer of the previous year's resources (Smets-Woulters
+	 * model)
+	 */
+	public static final String PREV_RESOURCE = "PrevResource";
+
+	/**
+	 * The name of the layer of the previous year's estimations
+	 * (Smets-Woulters model)
+	 */
+	public static final String PREV_ESTIMATION = "PrevEstimation";
 
 	/**
 	 * Gets the set of all countries in the given file
@@ -81,15 +127,39 @@ public class ModelClusterizer {
 	 * argument.
 	 * 
 	 * @param args
-	 *            An array of length 4 or 5, where the first position contains
-	 *            the name of the file containing the input data, the second
+	 *            An array of length 4 to 9, where the first position contains
+	 *            the name of the file containing the input data (read from its
+	 *            {@link PanelCache} when the file has not changed), the second
 	 *            contains a directory to save the resulting networks in, the
 	 *            third position indicates whether to use the Unesco model (
 	 *            {@code true}) or the Smets-Woulters model ({@code false}), the
 	 *            fourth position optionally contains the index with the values
 	 *            to group the results by (zero by default), and the fifth
-	 *            position (in the case of length 5) contains one of the
-	 *            {@link NodePlacer} configuration codes.
+	 *            position (in the case of length 5 or more) contains one of the
+	 *            {@link NodePlacer} configuration codes. The sixth position
+	 *            optionally names a directory (or is empty, for none) where
+	 *            the moments of every pair of variables of each country are
+	 *            kept (see
+	 *            {@link #countryMatrix(File, Map)}): the models are then
+	 *            assembled from those moments, which are only computed when
+	 *            the data has changed. Otherwise, the models of all the
+	 *            countries are built together (see
+	 *            {@link #buildModels(Map, boolean)}). The seventh position
+	 *            optionally names the {@link DependencyMeasure} to score the
+	 *            dependencies with (see {@link DependencyMeasure#forName(String)});
+	 *            with any measure other than the default, each country's model
+	 *            is built from its own data, and since only the moments of the
+	 *            default measure can be kept, the sixth position must then be
+	 *            empty. The eighth and ninth positions optionally give the
+	 *            width and stride (one by default) of a sliding window, in
+	 *            years: how the structure of each country changes from window
+	 *            to window, scored with the same measure, is then printed (see
+	 *            {@link #evolution(Map, boolean, SlidingWindow)}).
+	 *            If the system property
+	 *            {@value edu.missouri.bayesianConstructor.DependencyCache#PROPERTY}
+	 *            names a file, the moments cached while building the models
+	 *            are kept in it for the next run (see
+	 *            {@link DependencyCache#saveShared()}).
 	 * @throws IOException
 	 *             if the input file could not be read
 	 * @throws FileNotFoundException
@@ -107,29 +177,66 @@ public class ModelClusterizer {
 			ArrayIndexOutOfBoundsException {
 		if (args.length < 2) {
 			System.err
-					.println("Usage: java Main <input data file> <output directory> <Use Unesco Model> <group-by column> [plot mode]");
+					.println("Usage: java Main <input data file> <output directory> <Use Unesco Model> <group-by column> [plot mode] [matrix directory] [measure] [window width] [window stride]");
 			return;
 		}
 		String filename = args[0];
 		boolean useUnesco = Boolean.parseBoolean(args[2]);
 		int groupByIndex = Integer.parseInt(args[3]);
+		DependencyMeasure measure = args.length > 6 ? DependencyMeasure
+				.forName(args[6]) : DependencyMeasure.DEFAULT;
+		boolean moments = measure == DependencyMeasure.DEFAULT;
+		String matrices = args.length > 5 && args[5].length() > 0 ? args[5]
+				: null;
+		if (!moments && matrices != null) {
+			System.err.println("Only the moments of the "
+					+ DependencyMeasure.DEFAULT.name()
+					+ " measure can be kept; leave the matrix directory empty to use "
+					+ measure.name());
+			return;
+		}
+		SlidingWindow windows = args.length > 7 ? new SlidingWindow(
+				Integer.parseInt(args[7]), args.length > 8 ? Integer
+						.parseInt(args[8]) : 1, measure,
+				measure.defaultMinimum(), .03) : null;
 
-		Set<String> countries = getCountries(filename, groupByIndex);
+		// read the file once, rather than once per country, or its cache
+		GroupIndex index = new PanelCache(new ParallelCSV()).load(new File(
+				filename), groupByIndex);
+		Set<String> countries = index.groups();
 		Iterator<String> C = countries.iterator();
 		Map<DirectedGraph, List<String>> clustering = new HashMap<DirectedGraph, List<String>>();
 
+		// without a matrix directory, all the models are built in one sweep
+		Map<String, DomainKnowledge> models = null;
+		Map<String, Map<String, List<Double>>> panel = null;
+		if (moments && matrices == null) {
+			panel = new LinkedHashMap<String, Map<String, List<Double>>>();
+			for (String country : countries)
+				panel.put(country, index.data(country));
+			models = buildModels(panel, useUnesco);
+		}
+
 		// TODO: perform in a method to allow others to call it and get their
 		// clusterings
 		while (C.hasNext()) {
-			String country = C.next().trim();
-			Map<String, List<Double>> data = Main.loadCSVwithFiltering(
-					new FileReader(filename), country, groupByIndex);
+			String country = C.next();
 
 			DomainKnowledge m;
-			if (useUnesco)
-				m = buildUnescoModel(data);
-			else
-				m = buildSWModel(data);
+			Map<String, List<Double>> data;
+			if (models != null) {
+				m = models.get(country);
+				data = panel.get(country);
+			} else if (!moments) {
+				data = index.data(country);
+				m = useUnesco ? buildUnescoModel(data, measure) : buildSWModel(
+						data, measure);
+			} else {
+				data = index.data(country);
+				DependencyMatrix matrix = countryMatrix(new File(matrices,
+						country + ".matrix"), data);
+				m = useUnesco ? buildUnescoModel(matrix) : buildSWModel(matrix);
+			}
 
 			DirectedGraph variableGraph = m.variableDependency(.03);
 			if (!clustering.containsKey(variableGraph))
@@ -148,25 +255,25 @@ public class ModelClusterizer {
 				// "satellite dish" display
 				orderedLayers.put("spacer1", new Vector<String>());
 				orderedLayers.put("spacer2", new Vector<String>());
-				orderedLayers.put("Economic", m.getLayer("Economic"));
+				orderedLayers.put(ECONOMIC, m.getLayer(ECONOMIC));
 				orderedLayers.put("spacer3", new Vector<String>());
 				orderedLayers.put("spacer4", new Vector<String>());
 			}
 			if (useUnesco) {
-				orderedLayers.put("Previous Economy",
-						m.getLayer("Previous Economy"));
-				orderedLayers.put("Education", m.getLayer("Education"));
-				orderedLayers.put("Innovation", m.getLayer("Innovation"));
-				orderedLayers.put("Production", m.getLayer("Production"));
+				orderedLayers.put(PREVIOUS_ECONOMY,
+						m.getLayer(PREVIOUS_ECONOMY));
+				orderedLayers.put(EDUCATION, m.getLayer(EDUCATION));
+				orderedLayers.put(INNOVATION, m.getLayer(INNOVATION));
+				orderedLayers.put(PRODUCTION, m.getLayer(PRODUCTION));
 			} else {
-				orderedLayers.put("PrevResource", m.getLayer("PrevResource"));
-				orderedLayers.put("PrevEstimation",
-						m.getLayer("PrevEstimation"));
-				orderedLayers.put("Resource", m.getLayer("Resource"));
-				orderedLayers.put("Estimation", m.getLayer("Estimation"));
+				orderedLayers.put(PREV_RESOURCE, m.getLayer(PREV_RESOURCE));
+				orderedLayers.put(PREV_ESTIMATION,
+						m.getLayer(PREV_ESTIMATION));
+				orderedLayers.put(RESOURCE, m.getLayer(RESOURCE));
+				orderedLayers.put(ESTIMATION, m.getLayer(ESTIMATION));
 			}
 			if (args.length <= 4 || config != NodePlacer.STAR) {
-				orderedLayers.put("Economic", m.getLayer("Economic"));
+				orderedLayers.put(ECONOMIC, m.getLayer(ECONOMIC));
 			}
 
 			BeliefNetwork out;
@@ -186,6 +293,11 @@ public class ModelClusterizer {
 			else
 				System.err.println("Could not write file \"" + fileOut + "\".");
 			// but does it change with the years?
+			if (windows != null)
+				for (SlidingWindow.Window w : evolution(data, useUnesco,
+						windows))
+					System.out.println(country + ", " + w + " " + w.added()
+							+ " " + w.removed());
 		}
 
 		System.out
@@ -193,6 +305,8 @@ public class ModelClusterizer {
 		Iterator<DirectedGraph> I = clustering.keySet().iterator();
 		while (I.hasNext())
 			System.out.println("Cluster: " + clustering.get(I.next()));
+		System.out.println(DependencyCache.shared());
+		DependencyCache.saveShared();
 		// TODO: Print only those clusters that have more than one element
 		// TODO: can we cluster hierarchically? (score by average inter-layer
 		// degree?)
@@ -223,6 +337,51 @@ public class ModelClusterizer {
 	 */
 	public static DomainKnowledge buildUnescoModel(
 			Map<String, List<Double>> data) throws IllegalArgumentException {
+		return buildUnescoModel(data, DependencyMeasure.DEFAULT);
+	}
+
+	/**
+	 * Builds a full {@link DomainKnowledge} model following the structure
+	 * proposed in the UNESCO world engineering report (see
+	 * {@link #buildUnescoModel(Map)}), scoring its dependencies with the given
+	 * measure and its {@link DependencyMeasure#defaultMinimum() default
+	 * minimum}
+	 * 
+	 * @param data
+	 *            A {@code Map} representing a column-majoral table, where each
+	 *            key is the table's header and the list mapped to is the
+	 *            contents of the column with that name.
+	 * @param measure
+	 *            the measure the dependency tables are computed with
+	 * @return A {@link DomainKnowledge} model with dependency tables reflecting
+	 *         the relations in the given data
+	 * @throws IllegalArgumentException
+	 *             If the lists in {@code data} are not all the same size
+	 * @since 0.14 2026-10-16
+	 */
+	public static DomainKnowledge buildUnescoModel(
+			Map<String, List<Double>> data, DependencyMeasure measure)
+			throws IllegalArgumentException {
+		DomainKnowledge m = unescoStructure();
+		new DependencyBuilder(DependencyCache.shared()).buildColumns(m,
+				unescoColumns(data), measure.defaultMinimum(), measure);
+		return m;
+	}
+
+	/**
+	 * Groups the variables of the Unesco model by layer, as
+	 * {@link #buildUnescoModel(Map)} computes its tables from them (the
+	 * previous economy being estimated from the current year's values)
+	 * 
+	 * @param data
+	 *            A {@code Map} representing a column-majoral table, where each
+	 *            key is the table's header and the list mapped to is the
+	 *            contents of the column with that name.
+	 * @return the columns of each layer, keyed by layer name
+	 * @since 0.16 2026-10-16
+	 */
+	public static Map<String, Column[]> unescoColumns(
+			Map<String, List<Double>> data) {
 		// expected names
 		String primary = "Labor force with primary education (% of total) [SL.TLF.PRIM.ZS]";
 		String secondary = "Labor force with secondary education (% of total) [SL.TLF.SECO.ZS]";
@@ -239,50 +398,95 @@ public class ModelClusterizer {
 		String growth = "GDP growth (annual %) [NY.GDP.MKTP.KD.ZG]";
 		String PPP = "GDP per capita, PPP (constant 2011 international $) [NY.GDP.PCAP.PP.KD]";
 
-		// Create previous year category
-		// TODO: offer this as an option for when it's read from a file
-		data.put("Previous " + PPP, Trainer.shiftBy(data.get(PPP), 1));
-		data.put("Previous " + growth, Trainer.shiftBy(data.get(growth), 1));
-
 		// set categories
-		List<List<Double>> education = Arrays.asList(data.get(primary),
-				data.get(secondary), data.get(tertiary));
-		List<List<Double>> innovation = Arrays
+		Column[] education = Column.ofLists(Arrays.asList(data.get(primary),
+				data.get(secondary), data.get(tertiary)));
+		Column[] innovation = Column.ofLists(Arrays
 				.asList(data.get(journal), data.get(trademark),
-						data.get(government), data.get(foreignAid));
-		List<List<Double>> production = Arrays.asList(data.get(agriculture),
+						data.get(government), data.get(foreignAid)));
+		Column[] production = Column.ofLists(Arrays.asList(data.get(agriculture),
 				data.get(industry), data.get(manufacture), data.get(services),
-				data.get(unemployed));
-		List<List<Double>> economic = Arrays.asList(data.get(growth),
-				data.get(PPP));
-		List<List<Double>> prevEcon = Arrays.asList(data.get(growth),
-				data.get(PPP));
+				data.get(unemployed)));
+		Column[] economic = Column.ofLists(Arrays.asList(data.get(growth),
+				data.get(PPP)));
+		Column[] prevEcon = Column.ofLists(Arrays.asList(data.get(growth),
+				data.get(PPP)));
+
+		Map<String, Column[]> columns = new HashMap<String, Column[]>();
+		columns.put(PREVIOUS_ECONOMY, prevEcon);
+		columns.put(PRODUCTION, production);
+		columns.put(EDUCATION, education);
+		columns.put(INNOVATION, innovation);
+		columns.put(ECONOMIC, economic);
+		return columns;
+	}
+
+	/**
+	 * Builds a {@link DomainKnowledge} model following the structure proposed
+	 * in the UNESCO world engineering report (see
+	 * {@link #buildUnescoModel(Map)}), with the dependency tables assembled
+	 * from a precomputed matrix of every pair of variables (see
+	 * {@link #countryMatrix(Map)}). The tables are identical to the ones
+	 * {@link #buildUnescoModel(Map)} computes from the same data.
+	 * 
+	 * @param matrix
+	 *            The moments of every pair of variables of one country
+	 * @return A {@link DomainKnowledge} model with dependency tables reflecting
+	 *         the relations in the data the matrix was computed from
+	 * @throws IllegalArgumentException
+	 *             If a variable of the model is not in {@code matrix}
+	 * @since 0.12 2026-10-16
+	 */
+	public static DomainKnowledge buildUnescoModel(DependencyMatrix matrix)
+			throws IllegalArgumentException {
+		DomainKnowledge m = unescoStructure();
+		matrix.build(m);
+		return m;
+	}
+
+	/**
+	 * Creates the layers and relations of the UNESCO model (see
+	 * {@link #buildUnescoModel(Map)}), without computing its dependency tables
+	 * 
+	 * @return A {@link DomainKnowledge} model with every relation of the
+	 *         UNESCO model and empty dependency tables
+	 * @since 0.12 2026-10-16
+	 */
+	public static DomainKnowledge unescoStructure() {
+		// expected names
+		String primary = "Labor force with primary education (% of total) [SL.TLF.PRIM.ZS]";
+		String secondary = "Labor force with secondary education (% of total) [SL.TLF.SECO.ZS]";
+		String tertiary = "Labor force with tertiary education (% of total) [SL.TLF.TERT.ZS]";
+		String journal = "Scientific and technical journal articles [IP.JRN.ARTC.SC]";
+		String trademark = "Trademark applications, total [IP.TMK.TOTL]";
+		String government = "General government final consumption expenditure (% of GDP) [NE.CON.GOVT.ZS]";
+		String foreignAid = "Net official development assistance and official aid received (constant 2012 US$) [DT.ODA.ALLD.KD]";
+		String agriculture = "Agriculture, value added (% of GDP) [NV.AGR.TOTL.ZS]";
+		String industry = "Industry, value added (% of GDP) [NV.IND.TOTL.ZS]";
+		String manufacture = "Manufacturing, value added (% of GDP) [NV.IND.MANF.ZS]";
+		String services = "Services, etc., value added (% of GDP) [NV.SRV.TETC.ZS]";
+		String unemployed = "Unemployment, total (% of total labor force) [SL.UEM.TOTL.ZS]";
+		String growth = "GDP growth (annual %) [NY.GDP.MKTP.KD.ZG]";
+		String PPP = "GDP per capita, PPP (constant 2011 international $) [NY.GDP.PCAP.PP.KD]";
 
 		// Hardwire 3-layer structure
 		// TODO: read domain knowledge structure from file
 		DomainKnowledge m = new DomainKnowledge();
-		m.addLayer("Economic", Arrays.asList(growth, PPP));
-		m.addLayer("Previous Economy",
+		m.addLayer(ECONOMIC, Arrays.asList(growth, PPP));
+		m.addLayer(PREVIOUS_ECONOMY,
 				Arrays.asList("Previous " + growth, "Previous " + PPP));
-		m.addLayer("Education", Arrays.asList(primary, secondary, tertiary));
-		m.addLayer("Innovation",
+		m.addLayer(EDUCATION, Arrays.asList(primary, secondary, tertiary));
+		m.addLayer(INNOVATION,
 				Arrays.asList(journal, trademark, government, foreignAid));
-		m.addLayer("Production", Arrays.asList(agriculture, industry,
+		m.addLayer(PRODUCTION, Arrays.asList(agriculture, industry,
 				manufacture, services, unemployed));
-		m.addDependency("Previous Economy", "Production",
-				Main.getDependency(prevEcon, production));
-		m.addDependency("Previous Economy", "Education",
-				Main.getDependency(prevEcon, education));
-		m.addDependency("Education", "Innovation",
-				Main.getDependency(education, innovation));
-		m.addDependency("Education", "Production",
-				Main.getDependency(education, production));
-		m.addDependency("Innovation", "Production",
-				Main.getDependency(innovation, production));
-		m.addDependency("Innovation", "Economic",
-				Main.getDependency(innovation, economic));
-		m.addDependency("Production", "Economic",
-				Main.getDependency(production, economic));
+		m.addDependency(PREVIOUS_ECONOMY, PRODUCTION);
+		m.addDependency(PREVIOUS_ECONOMY, EDUCATION);
+		m.addDependency(EDUCATION, INNOVATION);
+		m.addDependency(EDUCATION, PRODUCTION);
+		m.addDependency(INNOVATION, PRODUCTION);
+		m.addDependency(INNOVATION, ECONOMIC);
+		m.addDependency(PRODUCTION, ECONOMIC);
 		return m;
 	}
 
@@ -303,6 +507,48 @@ public class ModelClusterizer {
 	 */
 	public static DomainKnowledge buildSWModel(Map<String, List<Double>> data)
 			throws IllegalArgumentException {
+		return buildSWModel(data, DependencyMeasure.DEFAULT);
+	}
+
+	/**
+	 * Builds a {@link DomainKnowledge} model following the Smets-Woulters
+	 * structure (see {@link #buildSWModel(Map)}), scoring its dependencies with
+	 * the given measure and its {@link DependencyMeasure#defaultMinimum()
+	 * default minimum}
+	 * 
+	 * @param data
+	 *            A {@code Map} representing a column-majoral table, where each
+	 *            key is the table's header and the list mapped to is the
+	 *            contents of the column with that name.
+	 * @param measure
+	 *            the measure the dependency tables are computed with
+	 * @return A {@link DomainKnowledge} model with dependency tables reflecting
+	 *         the relations in the given data
+	 * @throws IllegalArgumentException
+	 *             If the lists in {@code data} are not all the same size
+	 * @since 0.14 2026-10-16
+	 */
+	public static DomainKnowledge buildSWModel(Map<String, List<Double>> data,
+			DependencyMeasure measure) throws IllegalArgumentException {
+		DomainKnowledge m = swStructure();
+		new DependencyBuilder(DependencyCache.shared()).buildColumns(m,
+				swColumns(data), measure.defaultMinimum(), measure);
+		return m;
+	}
+
+	/**
+	 * Adds the previous-year variables of the Smets-Woulters model to
+	 * {@code data} and groups the variables by layer, as
+	 * {@link #buildSWModel(Map)} computes its tables from them
+	 * 
+	 * @param data
+	 *            A {@code Map} representing a column-majoral table, where each
+	 *            key is the table's header and the list mapped to is the
+	 *            contents of the column with that name.
+	 * @return the columns of each layer, keyed by layer name
+	 * @since 0.16 2026-10-16
+	 */
+	public static Map<String, Column[]> swColumns(Map<String, List<Double>> data) {
 		// expected names
 		String consump = "Final consumption expenditure (constant LCU) [NE.CON.TOTL.KN]";
 		String worker = "Wage and salaried workers, total (% of total employed) [SL.EMP.WORK.ZS]";
@@ -321,57 +567,356 @@ public class ModelClusterizer {
 		String prevWages = "Previous " + wages;
 		String prevForm = "Previous " + form;
 
-		// Create previous year category
+		// Create previous year category (lagged views, not copies)
 		// TODO: offer this as an option for when it's read from a file
-		data.put(prevConsump, Trainer.shiftBy(data.get(consump), 1));
-		data.put(prevInvest, Trainer.shiftBy(data.get(invest), 1));
-		data.put(prevCapital, Trainer.shiftBy(data.get(capital), 1));
-		data.put(prevWages, Trainer.shiftBy(data.get(wages), 1));
-		data.put(prevForm, Trainer.shiftBy(data.get(form), 1));
+		data.put(prevConsump, Column.of(data.get(consump)).lag(1).asList());
+		data.put(prevInvest, Column.of(data.get(invest)).lag(1).asList());
+		data.put(prevCapital, Column.of(data.get(capital)).lag(1).asList());
+		data.put(prevWages, Column.of(data.get(wages)).lag(1).asList());
+		data.put(prevForm, Column.of(data.get(form)).lag(1).asList());
 
-		// Hardwire 3-layer structure
-		// TODO: read domain knowledge structure from file
-		DomainKnowledge m = new DomainKnowledge();
-		m.addLayer("Resource", Arrays.asList(wages, interest, form, ratio));
-		m.addLayer("Estimation",
-				Arrays.asList(consump, invest, worker, capital, exog));
-		m.addLayer("Economic", Arrays.asList(GDP));
-		m.addLayer("PrevEstimation",
-				Arrays.asList(prevConsump, prevInvest, prevCapital));
-		m.addLayer("PrevResource",
-				Arrays.asList(inflation, prevWages, prevForm));
 		// set categories
-		List<List<Double>> resource = Arrays.asList(data.get(wages),
-				data.get(interest), data.get(form), data.get(ratio));
-		List<List<Double>> estimation = Arrays.asList(data.get(consump),
+		Column[] resource = Column.ofLists(Arrays.asList(data.get(wages),
+				data.get(interest), data.get(form), data.get(ratio)));
+		Column[] estimation = Column.ofLists(Arrays.asList(data.get(consump),
 				data.get(invest), data.get(worker), data.get(capital),
-				data.get(exog));
-		List<List<Double>> economy = Arrays.asList(data.get(GDP));
-		List<List<Double>> prevEstimation = Arrays.asList(
+				data.get(exog)));
+		Column[] economy = Column.ofLists(Arrays.asList(data.get(GDP)));
+		Column[] prevEstimation = Column.ofLists(Arrays.asList(
 				data.get(prevConsump), data.get(prevInvest),
-				data.get(prevCapital));
-		List<List<Double>> prevResource = Arrays.asList(data.get(inflation),
-				data.get(prevWages), data.get(prevForm));
+				data.get(prevCapital)));
+		Column[] prevResource = Column.ofLists(Arrays.asList(data.get(inflation),
+				data.get(prevWages), data.get(prevForm)));
+
+		Map<String, Column[]> columns = new HashMap<String, Column[]>();
+		columns.put(PREV_RESOURCE, prevResource);
+		columns.put(RESOURCE, resource);
+		columns.put(ESTIMATION, estimation);
+		columns.put(PREV_ESTIMATION, prevEstimation);
+		columns.put(ECONOMIC, economy);
+		return columns;
+	}
+
+	/**
+	 * Builds a {@link DomainKnowledge} model following the Smets-Woulters
+	 * standard economic model (see {@link #buildSWModel(Map)}), with the
+	 * dependency tables assembled from a precomputed matrix of every pair of
+	 * variables (see {@link #countryMatrix(Map)}). The tables are identical to
+	 * the ones {@link #buildSWModel(Map)} computes from the same data.
+	 * 
+	 * @param matrix
+	 *            The moments of every pair of variables of one country
+	 * @return A {@link DomainKnowledge} model with dependency tables reflecting
+	 *         the relations in the data the matrix was computed from
+	 * @throws IllegalArgumentException
+	 *             If a variable of the model is not in {@code matrix}
+	 * @since 0.12 2026-10-16
+	 */
+	public static DomainKnowledge buildSWModel(DependencyMatrix matrix)
+			throws IllegalArgumentException {
+		DomainKnowledge m = swStructure();
+		matrix.build(m);
+		return m;
+	}
+
+	/**
+	 * Creates the layers and relations of the Smets-Woulters model (see
+	 * {@link #buildSWModel(Map)}), without computing its dependency tables
+	 * 
+	 * @return A {@link DomainKnowledge} model with every relation of the
+	 *         Smets-Woulters model and empty dependency tables
+	 * @since 0.12 2026-10-16
+	 */
+	public static DomainKnowledge swStructure() {
+		// expected names
+		String consump = "Final consumption expenditure (constant LCU) [NE.CON.TOTL.KN]";
+		String worker = "Wage and salaried workers, total (% of total employed) [SL.EMP.WORK.ZS]";
+		String interest = "Lending interest rate (%) [FR.INR.LEND]";
+		String invest = "Portfolio Investment, net (BoP, current US$) [BN.KLT.PTXL.CD]";
+		String capital = "Net capital account (BoP, current US$) [BN.TRF.KOGT.CD]";
+		String form = "Gross capital formation (current LCU) [NE.GDI.TOTL.CN]";
+		String GDP = "GDP (constant LCU) [NY.GDP.MKTP.KN]";
+		String exog = "Exogenous spending";
+		String wages = "Compensation of employees (current LCU) [GC.XPN.COMP.CN]";
+		String inflation = "Inflation, consumer prices (annual %) [FP.CPI.TOTL.ZG]";
+		String ratio = "Capital-labour ratio";
 
 		// Hardwire 3-layer structure
-		m.addDependency("PrevResource", "Resource",
-				Main.getDependency(prevResource, resource));
-		m.addDependency("Resource", "Estimation",
-				Main.getDependency(resource, estimation));
-		m.addDependency("PrevEstimation", "Estimation",
-				Main.getDependency(prevEstimation, estimation));
-		m.addDependency("Estimation", "Economic",
-				Main.getDependency(estimation, economy));
+		// TODO: read domain knowledge structure from file
+		DomainKnowledge m = new DomainKnowledge();
+		m.addLayer(RESOURCE, Arrays.asList(wages, interest, form, ratio));
+		m.addLayer(ESTIMATION,
+				Arrays.asList(consump, invest, worker, capital, exog));
+		m.addLayer(ECONOMIC, Arrays.asList(GDP));
+		m.addLayer(PREV_ESTIMATION, Arrays.asList("Previous " + consump,
+				"Previous " + invest, "Previous " + capital));
+		m.addLayer(PREV_RESOURCE, Arrays.asList(inflation, "Previous "
+				+ wages, "Previous " + form));
+		m.addDependency(PREV_RESOURCE, RESOURCE);
+		m.addDependency(RESOURCE, ESTIMATION);
+		m.addDependency(PREV_ESTIMATION, ESTIMATION);
+		m.addDependency(ESTIMATION, ECONOMIC);
 		return m;
 	}
 
+	/**
+	 * Builds the model of every country at once, laying the data of all the
+	 * countries out as a single {@link Panel} so that each dependency table is
+	 * computed for every country in one sweep. The models are identical to
+	 * the ones {@link #buildUnescoModel(Map)} or {@link #buildSWModel(Map)}
+	 * build for each country separately, and share their
+	 * {@link DependencyCache#shared() cache}: pairs either of them computed
+	 * are looked up rather than swept again, and the pairs swept are stored
+	 * for them.
+	 * 
+	 * @param countries
+	 *            The data of each country, keyed by country; each is a
+	 *            {@code Map} representing a column-majoral table, where each
+	 *            key is the table's header and the list mapped to is the
+	 *            contents of the column with that name.
+	 * @param useUnesco
+	 *            Specifies whether to use the Unesco structure. If
+	 *            {@code false}, the Smets-Woulters structure will be used
+	 *            instead.
+	 * @return The model of each country, keyed by country, in the same order
+	 *         as {@code countries}
+	 * @throws IllegalArgumentException
+	 *             If the lists of a country are not all the same size
+	 * @since 0.13 2026-10-16
+	 */
+	public static Map<String, DomainKnowledge> buildModels(
+			Map<String, Map<String, List<Double>>> countries, boolean useUnesco)
+			throws IllegalArgumentException {
+		Map<String, Map<String, Column>> columns = new LinkedHashMap<String, Map<String, Column>>();
+		for (Map.Entry<String, Map<String, List<Double>>> e : countries
+				.entrySet()) {
+			columns.put(e.getKey(), countryColumns(e.getValue()));
+		}
+		Panel panel = new Panel(columns);
+		List<Map<DirectedEdge, LayerMoments>> moments = panel.moments(
+				useUnesco ? unescoStructure() : swStructure(),
+				DependencyCache.shared());
+
+		Map<String, DomainKnowledge> out = new LinkedHashMap<String, DomainKnowledge>();
+		for (int g = 0; g < panel.groups().size(); g++) {
+			DomainKnowledge m = useUnesco ? unescoStructure() : swStructure();
+			DependencyBuilder.tabulate(m, moments.get(g), 0.5);
+			out.put(panel.groups().get(g), m);
+		}
+		return out;
+	}
+
+	/**
+	 * Creates a stream with no rows for one country (see
+	 * {@link DependencyStream}), declaring the previous-year variables of the
+	 * chosen structure the way {@link #buildUnescoModel(Map)} and
+	 * {@link #buildSWModel(Map)} compute them
+	 *
+	 * @param useUnesco
+	 *            Specifies whether to use the Unesco structure. If
+	 *            {@code false}, the Smets-Woulters structure will be used
+	 *            instead.
+	 * @return a stream keeping the tables of a new model up to date, with a
+	 *         threshold of 0.03 for its variable graph
+	 * @since 0.15 2026-10-16
+	 */
+	public static DependencyStream stream(boolean useUnesco) {
+		DependencyStream out = new DependencyStream(
+				useUnesco ? unescoStructure() : swStructure(), 0.5, .03);
+		if (useUnesco) {
+			// as buildUnescoModel(Map) does, the previous economy layer is
+			// estimated from the current year's values
+			for (String name : Arrays.asList(
+					"GDP growth (annual %) [NY.GDP.MKTP.KD.ZG]",
+					"GDP per capita, PPP (constant 2011 international $) [NY.GDP.PCAP.PP.KD]"))
+				out.derive("Previous " + name, name, 0);
+		} else {
+			for (String name : Arrays.asList(
+					"Final consumption expenditure (constant LCU) [NE.CON.TOTL.KN]",
+					"Portfolio Investment, net (BoP, current US$) [BN.KLT.PTXL.CD]",
+					"Net capital account (BoP, current US$) [BN.TRF.KOGT.CD]",
+					"Compensation of employees (current LCU) [GC.XPN.COMP.CN]",
+					"Gross capital formation (current LCU) [NE.GDI.TOTL.CN]"))
+				out.derive("Previous " + name, name, 1);
+		}
+		return out;
+	}
+
+	/**
+	 * Adds new years of data to the models of the given countries, creating
+	 * the stream of a country the first time it appears (see
+	 * {@link #stream(boolean)}). Only the countries in {@code rows} are
+	 * touched, and only the tables of their relations that gained pairs are
+	 * recomputed, so the first call costs as much as building every model
+	 * and later ones as much as the years added. {@link #main(String[])},
+	 * which reads every year at once, does not use it; it is meant for
+	 * callers that receive the years as they are published.
+	 *
+	 * @param streams
+	 *            the stream of each country, keyed by country, to which new
+	 *            countries are added
+	 * @param rows
+	 *            The new years of each country, keyed by country; each is a
+	 *            {@code Map} representing a column-majoral table, where each
+	 *            key is the table's header and the list mapped to is the
+	 *            contents of the column with that name.
+	 * @param useUnesco
+	 *            Specifies whether to use the Unesco structure for new
+	 *            countries. If {@code false}, the Smets-Woulters structure
+	 *            will be used instead.
+	 * @return The relations whose tables were recomputed, keyed by country
+	 * @throws IllegalArgumentException
+	 *             If the lists of a country are not all the same size
+	 * @since 0.15 2026-10-16
+	 */
+	public static Map<String, Set<DirectedEdge>> ingest(
+			Map<String, DependencyStream> streams,
+			Map<String, Map<String, List<Double>>> rows, boolean useUnesco)
+			throws IllegalArgumentException {
+		Map<String, Set<DirectedEdge>> out = new LinkedHashMap<String, Set<DirectedEdge>>();
+		for (Map.Entry<String, Map<String, List<Double>>> e : rows.entrySet()) {
+			DependencyStream s = streams.get(e.getKey());
+			if (s == null) {
+				s = stream(useUnesco);
+				streams.put(e.getKey(), s);
+			}
+			out.put(e.getKey(), s.ingest(e.getValue()));
+		}
+		return out;
+	}
+
+	/**
+	 * Follows how the structure of one country's model changes with the
+	 * years (see {@link SlidingWindow})
+	 * 
+	 * @param data
+	 *            A {@code Map} representing a column-majoral table, where each
+	 *            key is the table's header and the list mapped to is the
+	 *            contents of the column with that name, one row per year.
+	 * @param useUnesco
+	 *            Specifies whether to use the Unesco structure. If
+	 *            {@code false}, the Smets-Woulters structure will be used
+	 *            instead.
+	 * @param windows
+	 *            the width and stride of the windows, and the measure,
+	 *            minimum and threshold the models are built with
+	 * @return the structure over each window, in order
+	 * @throws IllegalArgumentException
+	 *             If the lists in {@code data} are not all the same size
+	 * @since 0.16 2026-10-16
+	 */
+	public static List<SlidingWindow.Window> evolution(
+			Map<String, List<Double>> data, boolean useUnesco,
+			SlidingWindow windows) throws IllegalArgumentException {
+		return useUnesco ? windows.evolve(unescoStructure(),
+				unescoColumns(data)) : windows.evolve(swStructure(),
+				swColumns(data));
+	}
+
+	/**
+	 * Computes the moments of every pair of variables of one country, from
+	 * which any model over those variables can be built (see
+	 * {@link #buildUnescoModel(DependencyMatrix)} and
+	 * {@link #buildSWModel(DependencyMatrix)}). The previous-year variables
+	 * of both models are added to {@code data} first, the way each model
+	 * computes them, so one matrix serves both.
+	 * 
+	 * @param data
+	 *            A {@code Map} representing a column-majoral table, where each
+	 *            key is the table's header and the list mapped to is the
+	 *            contents of the column with that name.
+	 * @return The moments of every pair of columns of {@code data}
+	 * @throws IllegalArgumentException
+	 *             If the lists in {@code data} are not all the same size
+	 * @since 0.12 2026-10-16
+	 */
+	public static DependencyMatrix countryMatrix(Map<String, List<Double>> data)
+			throws IllegalArgumentException {
+		return new DependencyBuilder(DependencyCache.shared())
+				.matrix(countryColumns(data));
+	}
+
+	/**
+	 * Adds the previous-year variables of both models to {@code data} and
+	 * wraps every column in a {@link Column} (see
+	 * {@link #countryMatrix(Map)}). As {@link #buildUnescoModel(Map)} does,
+	 * the previous economy of the Unesco model is estimated from the current
+	 * year's values; the previous-year variables of the Smets-Woulters model
+	 * are lagged views, as {@link #buildSWModel(Map)} computes them.
+	 * 
+	 * @param data
+	 *            A {@code Map} representing a column-majoral table
+	 * @return The column of every variable in {@code data}, keyed by name
+	 * @since 0.12 2026-10-16
+	 */
+	public static Map<String, Column> countryColumns(
+			Map<String, List<Double>> data) {
+		String[] current = {
+				"GDP per capita, PPP (constant 2011 international $) [NY.GDP.PCAP.PP.KD]",
+				"GDP growth (annual %) [NY.GDP.MKTP.KD.ZG]" };
+		String[] lagged = {
+				"Final consumption expenditure (constant LCU) [NE.CON.TOTL.KN]",
+				"Portfolio Investment, net (BoP, current US$) [BN.KLT.PTXL.CD]",
+				"Net capital account (BoP, current US$) [BN.TRF.KOGT.CD]",
+				"Compensation of employees (current LCU) [GC.XPN.COMP.CN]",
+				"Gross capital formation (current LCU) [NE.GDI.TOTL.CN]" };
+		Map<String, Column> out = new LinkedHashMap<String, Column>();
+		for (Map.Entry<String, List<Double>> e : data.entrySet())
+			out.put(e.getKey(), Column.of(e.getValue()));
+		for (String name : current)
+			if (out.containsKey(name)) {
+				out.put("Previous " + name, out.get(name));
+				data.put("Previous " + name, data.get(name));
+			}
+		for (String name : lagged)
+			if (out.containsKey(name)) {
+				Column previous = out.get(name).lag(1);
+				out.put("Previous " + name, previous);
+				data.put("Previous " + name, previous.asList());
+			}
+		return out;
+	}
+
+	/**
+	 * Gets the matrix of one country (see {@link #countryMatrix(Map)}) from
+	 * the given file, if it exists, can be read and was computed from the same
+	 * data; otherwise, computes it and saves it to the file, creating its
+	 * directory if needed
+	 * 
+	 * @param file
+	 *            The file where the matrix is kept
+	 * @param data
+	 *            A {@code Map} representing a column-majoral table
+	 * @return The moments of every pair of columns of {@code data}
+	 * @throws IOException
+	 *             If the file could not be written
+	 * @since 0.12 2026-10-16
+	 */
+	public static DependencyMatrix countryMatrix(File file,
+			Map<String, List<Double>> data) throws IOException {
+		Map<String, Column> columns = countryColumns(data);
+		if (file.isFile())
+			try {
+				DependencyMatrix saved = DependencyMatrix.read(file);
+				if (saved.matches(columns))
+					return saved;
+			} catch (IOException e) {
+				// corrupt or from an older format: compute it again
+			}
+		DependencyMatrix out = new DependencyBuilder(DependencyCache.shared())
+				.matrix(columns);
+		File parent = file.getAbsoluteFile().getParentFile();
+		if (parent != null)
+			parent.mkdirs();
+		out.write(file);
+		return out;
+	}
+
 	/**
 	 * Creates a copy of the list where all element indices are shifted ahead by
 	 * the amount indicated. The size of the list is preserved: Elements near
-	 * the end are dropped off, and {@code NaN} is used as a filler element
-	 * <p/>
-	 * Note that, for now, {@code i} should be positive; support for negative
-	 * shifts may be added at a later date
+	 * the end are dropped off, and {@code NaN} is used as a filler element.
+	 * Negative shifts are supported since {@link Trainer} version 0.16.
 	 * 
 	 * @param list
 	 *            The list to be shifted
@@ -386,6 +931,7 @@ public class ModelClusterizer {
 	 *             subject to be moved!) Use {@link
 	 *             Trainer#shiftBy(List<Double>,int)} instead
 	 */
+	@Deprecated
 	public static List<Double> shiftBy(List<Double> list, int i) {
 		return Trainer.shiftBy(list, i);
 	}
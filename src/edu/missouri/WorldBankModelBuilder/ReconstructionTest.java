@@ -8,6 +8,7 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.Set;
 import java.util.Vector;
 import java.util.concurrent.TimeUnit;
@@ -21,23 +22,38 @@ import weka.core.Instances;
 import weka.core.UnassignedClassException;
 import weka.core.converters.CSVLoader;
 import weka.core.converters.ConverterUtils.DataSource;
+import edu.missouri.bayesianConstructor.DependencyBuilder;
+import edu.missouri.bayesianConstructor.DependencyCache;
 import edu.missouri.bayesianConstructor.DomainKnowledge;
+import edu.missouri.bayesianConstructor.LayerMoments;
 import edu.missouri.bayesianConstructor.Main;
 import edu.missouri.bayesianEvaluator.BifUpdate;
 import edu.missouri.bayesianEvaluator.Evaluator;
 import edu.missouri.bayesianEvaluator.Trainer;
 import edu.ucla.belief.BeliefNetwork;
 import edu.ucla.belief.StateNotFoundException;
+import edu.ucla.structure.DirectedEdge;
 
 /**
  * @author <a href="mailto:fthc8@missouri.edu">Fernando J. Torre-Mora</a>
- * @version 0.06 2016-04-28
+ * @version 0.14 2026-10-16
  * @since {@code WorldBankModelBuilder} version 0.04 2016-04-24
  */
 public class ReconstructionTest {
+	/**
+	 * The name of the output layer of the Smets-Woulters model in the
+	 * networks of this test (the other layers are named as in
+	 * {@link ModelClusterizer})
+	 */
+	private static final String ECONOMY = "Economy";
 
 	/**
-	 * Gets the values from this data as column vectors.
+	 * Gets the values from this data as column vectors. As of version 0.07,
+	 * each column is a fixed-size view of the array returned by
+	 * {@code Instances.attributeToDoubleArray} (see
+	 * {@link Main#asList(double[])}), so that
+	 * {@link Main#toArrays(List)} can hand the columns to
+	 * {@link Main#getDependency(double[][], double[][])} without boxing them.
 	 * 
 	 * @param data
 	 *            The dataset to be ordered
@@ -53,9 +69,7 @@ public class ReconstructionTest {
 		// convert each attribute to column vectors and reinsert
 		for (int i = 0; i < m; i++) {
 			double[] d = data.attributeToDoubleArray(i);
-			Vector<Double> col = arrayToList(d);
-
-			out.put(data.attribute(i).name(), col);
+			out.put(data.attribute(i).name(), Main.asList(d));
 		}
 		return out;
 	}
@@ -194,7 +208,6 @@ public class ReconstructionTest {
 			long t = System.nanoTime();
 			Map.Entry<Instances, Instances> current = trains.next();
 			Instances training = current.getKey();
-			long tt = System.nanoTime();
 			boolean fileCreated;
 			if(useUnesco)
 				fileCreated = constructUnescoToFile(training, filename,
@@ -203,27 +216,213 @@ public class ReconstructionTest {
 				fileCreated = constructSWToFile(training, filename,
 						values);
 			assert fileCreated;
-			results.get("__ConstructionTime__").accept(secondsElapsed(t));
-			EditableBayesNet bn = BifUpdate.loadBayesNet(filename);
-			tt = System.nanoTime();
-			Trainer.trainToFile(bn, training, filename);
-			results.get("__TrainingTime__").accept(secondsElapsed(tt));
-			BeliefNetwork bn1 = Evaluator.loadSamiamBayes(filename);
-			results.get("__Arcs__").accept(bn1.numEdges());
-			Evaluator.allAttributesAccuracies(bn1, current.getValue(), results);
-
-			// String summary = wekaEvaluation(bn, current,
-			// Trainset.get(current));
-			// System.out.println(summary);
-			double time = secondsElapsed(t);
-			results.get("__ProcessingTime__").accept(time);
 			folds--;
-			System.out.println("\tProcessed split in " + time + " seconds; "
-					+ folds + " folds remain");
+			evaluateSplit(training, current.getValue(), filename, results,
+					t, folds);
 		}
 		return results;
 	}
 
+	/**
+	 * Generates and evaluates a Bayesian network for each of {@code folds}
+	 * random splits of {@code data}, like
+	 * {@link #crossValidationAccuracies(Map, String, int, boolean)} does for
+	 * the splits produced by
+	 * {@link Evaluator#randomSplit(Instances, float, int)}, but without
+	 * rescanning the training data of each split to build its dependency
+	 * tables. Instead, the moments of every pair of variables over the whole
+	 * of {@code data} are computed once, and the moments of each training set
+	 * are obtained by removing those of its test set (see
+	 * {@link LayerMoments#subtract(LayerMoments)}). The tables of each split
+	 * thus cost time proportional to the size of the test set rather than
+	 * the training set. The tables obtained agree with those built from the
+	 * training set directly up to floating-point rounding.
+	 * <p/>
+	 * Unlike {@link Evaluator#randomSplit(Instances, float, int)}, this
+	 * method splits a copy of {@code data}, leaving the order of its
+	 * instances as it is.
+	 * 
+	 * @param data
+	 *            The data to be split
+	 * @param ratio
+	 *            The fraction of {@code data} used for training in each split
+	 * @param folds
+	 *            The number of splits to be evaluated
+	 * @param filename
+	 *            The name of a file to write intermediate networks to
+	 * @param values
+	 *            The number of values of each node
+	 * @param useUnesco
+	 *            Specifies whether to use the Unesco structure for the
+	 *            domain knowledge. If {@code false}, the Smets-Woulters
+	 *            structure will be used instead.
+	 * @return A {@code Map} where each key is an attribute name (or
+	 *         "__ProcessingTime__", "__Arcs__", "__ConstructionTime__",
+	 *         "__TrainingTime__") as in
+	 *         {@link #crossValidationAccuracies(Map, String, int, boolean)}
+	 * @throws Exception
+	 *             If a network could not be trained, written or read (see
+	 *             {@link #crossValidationAccuracies(Map, String, int, boolean)})
+	 * @since 0.10 2026-10-16
+	 */
+	public static Map<String, DoubleSummaryStatistics> crossValidationAccuracies(
+			Instances data, float ratio, int folds, final String filename,
+			final int values, boolean useUnesco) throws Exception {
+		final Map<String, DoubleSummaryStatistics> results = new HashMap<String, DoubleSummaryStatistics>();
+		results.put("__ProcessingTime__", new DoubleSummaryStatistics());
+		results.put("__ConstructionTime__", new DoubleSummaryStatistics());
+		results.put("__TrainingTime__", new DoubleSummaryStatistics());
+		results.put("__Arcs__", new DoubleSummaryStatistics());
+		splits(data, ratio, folds, new Random(), useUnesco, new Split() {
+			@Override
+			public void run(DomainKnowledge m,
+					Map<DirectedEdge, LayerMoments> train, Instances training,
+					Instances test, long t, int folds) throws Exception {
+				DependencyBuilder.tabulate(m, train, 0.5);
+				BeliefNetwork out = Main.graphToNetwork(
+						m.variableDependency(.03), Main.genValues(values),
+						m.layerMap());
+				boolean fileCreated = Main.networkToFile(out, filename);
+				assert fileCreated;
+				evaluateSplit(training, test, filename, results, t, folds);
+			}
+		});
+		return results;
+	}
+
+	/**
+	 * Receives each split drawn by
+	 * {@link ReconstructionTest#splits(Instances, float, int, Random, boolean, Split)}
+	 */
+	interface Split {
+		/**
+		 * Evaluates one split
+		 * 
+		 * @param m
+		 *            the empty model, with its layers and relations in place
+		 * @param train
+		 *            the moments of every relation of {@code m} over the
+		 *            training set
+		 * @param training
+		 *            the training set
+		 * @param test
+		 *            the test set
+		 * @param t
+		 *            the time at which the split started to be processed
+		 * @param folds
+		 *            the number of splits that remain after this one
+		 * @throws Exception
+		 *             If a network could not be trained, written or read
+		 */
+		void run(DomainKnowledge m, Map<DirectedEdge, LayerMoments> train,
+				Instances training, Instances test, long t, int folds)
+				throws Exception;
+	}
+
+	/**
+	 * Draws {@code folds} random splits of a copy of {@code data} and
+	 * obtains the moments of each training set by removing those of its test
+	 * set from the moments of the whole, which are computed once (see
+	 * {@link #crossValidationAccuracies(Instances, float, int, String, int, boolean)}).
+	 * The order of the instances in {@code data} is left as it is.
+	 * 
+	 * @param data
+	 *            The data to be split
+	 * @param ratio
+	 *            The fraction of {@code data} used for training in each split
+	 * @param folds
+	 *            The number of splits to be drawn
+	 * @param random
+	 *            The generator the splits are drawn with
+	 * @param useUnesco
+	 *            Specifies whether to use the Unesco structure. If
+	 *            {@code false}, the Smets-Woulters structure will be used
+	 *            instead.
+	 * @param split
+	 *            receives each split, in order
+	 * @throws Exception
+	 *             If {@code split} throws it
+	 * @since 0.13 2026-10-16
+	 */
+	static void splits(Instances data, float ratio, int folds, Random random,
+			boolean useUnesco, Split split) throws Exception {
+		// moments over every instance, computed once
+		Map<String, List<Double>> columns = toColumns(data);
+		DomainKnowledge m = useUnesco ? buildEmptyUnescoModel(columns)
+				: buildEmptySWModel(columns);
+		if (useUnesco)
+			addUnescoDependencies(m);
+		else
+			addSWDependencies(m);
+		DependencyBuilder builder = new DependencyBuilder();
+		Map<DirectedEdge, LayerMoments> full = builder.moments(m,
+				useUnesco ? unescoColumns(columns) : swColumns(columns));
+
+		Instances shuffled = new Instances(data, 0, data.numInstances());
+		int trainSize = Math.round(data.numInstances() * ratio);
+		int testSize = data.numInstances() - trainSize;
+		while (folds > 0) {
+			long t = System.nanoTime();
+			shuffled.randomize(random);
+			Instances training = new Instances(shuffled, 0, trainSize);
+			Instances test = new Instances(shuffled, trainSize, testSize);
+
+			// training moments = all moments - test moments
+			Map<String, List<Double>> testColumns = toColumns(test);
+			Map<DirectedEdge, LayerMoments> held = builder.moments(m,
+					useUnesco ? unescoColumns(testColumns)
+							: swColumns(testColumns));
+			Map<DirectedEdge, LayerMoments> train = new HashMap<DirectedEdge, LayerMoments>();
+			for (Map.Entry<DirectedEdge, LayerMoments> e : full.entrySet())
+				train.put(e.getKey(), new LayerMoments(e.getValue())
+						.subtract(held.get(e.getKey())));
+			folds--;
+			split.run(m, train, training, test, t, folds);
+		}
+	}
+
+	/**
+	 * Trains the network stored in {@code filename} with {@code training},
+	 * tests it with {@code test}, and records the results of the split in
+	 * {@code results} (see
+	 * {@link #crossValidationAccuracies(Map, String, int, boolean)})
+	 * 
+	 * @param training
+	 *            the data to train the network with
+	 * @param test
+	 *            the data to test the network with
+	 * @param filename
+	 *            the file where the network was constructed
+	 * @param results
+	 *            the statistics to which the results are added
+	 * @param t
+	 *            the time at which the split started to be processed
+	 * @param folds
+	 *            the number of splits that remain to be processed
+	 * @throws Exception
+	 *             If the network could not be trained, written or read
+	 */
+	private static void evaluateSplit(Instances training, Instances test,
+			String filename, Map<String, DoubleSummaryStatistics> results,
+			long t, int folds) throws Exception {
+		results.get("__ConstructionTime__").accept(secondsElapsed(t));
+		EditableBayesNet bn = BifUpdate.loadBayesNet(filename);
+		long tt = System.nanoTime();
+		Trainer.trainToFile(bn, training, filename);
+		results.get("__TrainingTime__").accept(secondsElapsed(tt));
+		BeliefNetwork bn1 = Evaluator.loadSamiamBayes(filename);
+		results.get("__Arcs__").accept(bn1.numEdges());
+		Evaluator.allAttributesAccuracies(bn1, test, results);
+
+		// String summary = wekaEvaluation(bn, current,
+		// Trainset.get(current));
+		// System.out.println(summary);
+		double time = secondsElapsed(t);
+		results.get("__ProcessingTime__").accept(time);
+		System.out.println("\tProcessed split in " + time + " seconds; "
+				+ folds + " folds remain");
+	}
+
 	/**
 	 * @param sinceTime
 	 * @return
@@ -265,7 +464,19 @@ public class ReconstructionTest {
 	 *            optionally, at {@code args[4]} the index with the values to
 	 *            group the results by (zero by default); at {@code args[5]} the
 	 *            number of bins to use in discretization, and at
-	 *            {@code args[6]}, "true" if frequency discrtization is desired.
+	 *            {@code args[6]}, "true" if frequency discrtization is desired;
+	 *            and at {@code args[7]}, "true" if the dependency tables of
+	 *            each split should be obtained by removing the test set from
+	 *            the whole country's statistics (see
+	 *            {@link #crossValidationAccuracies(Instances, float, int, String, int, boolean)});
+	 *            and at {@code args[8]}, "true" if the minimum dependency and
+	 *            the threshold of each country, and of all of them together,
+	 *            should be tuned (see {@link ThresholdTuner}).
+	 *            If the system property
+	 *            {@value edu.missouri.bayesianConstructor.DependencyCache#PROPERTY}
+	 *            names a file, the moments cached while building the models
+	 *            are kept in it for the next run (see
+	 *            {@link DependencyCache#saveShared()}).
 	 * @throws Exception
 	 *             If any of the files could not be read
 	 * @since {@code bayesianEvaluator} 0.01 2016-04-10
@@ -274,7 +485,7 @@ public class ReconstructionTest {
 	public static void main(String[] args) throws Exception {
 		if (args.length < 3) {
 			System.err
-					.println("Usage: java RecontructionTest <input data file> <output directory> <working directory> <Use Unesco Model> <group-by column> [number of discrete values] [use equal frequency]");
+					.println("Usage: java RecontructionTest <input data file> <output directory> <working directory> <Use Unesco Model> <group-by column> [number of discrete values] [use equal frequency] [downdate folds] [tune thresholds]");
 			return;
 		}
 		String filename = args[0];
@@ -293,8 +504,19 @@ public class ReconstructionTest {
 			(args[6]);
 		else
 			useEqualFrequency = false;
+		boolean downdate;
+		if (args.length > 7)
+			downdate = Boolean.parseBoolean(args[7]);
+		else
+			downdate = false;
+		boolean tune;
+		if (args.length > 8)
+			tune = Boolean.parseBoolean(args[8]);
+		else
+			tune = false;
 		float trainSize = 0.85f;
 		int folds = 20;
+		List<ThresholdTuner.Result> tuned = new Vector<ThresholdTuner.Result>();
 
 		Set<String> countries = ModelClusterizer.getCountries(filename,
 				groupByIndex);
@@ -379,10 +601,14 @@ public class ReconstructionTest {
 				@SuppressWarnings("deprecation")
 				String date = new java.util.Date().toLocaleString();
 				System.out.println("\nRESULTS\nat " + date + "\n-------");
-				Map<Instances, Instances> crossVal = Evaluator.randomSplit(
-						countryData, trainSize, folds);
-				Map<String, DoubleSummaryStatistics> results = crossValidationAccuracies(
-						crossVal, BN_File, values, useUnesco);
+				Map<String, DoubleSummaryStatistics> results;
+				if (downdate)
+					results = crossValidationAccuracies(countryData,
+							trainSize, folds, BN_File, values, useUnesco);
+				else
+					results = crossValidationAccuracies(
+							Evaluator.randomSplit(countryData, trainSize,
+									folds), BN_File, values, useUnesco);
 				double time = secondsElapsed(t);
 				Iterator<Map.Entry<String, DoubleSummaryStatistics>> I = results
 						.entrySet().iterator();
@@ -412,6 +638,14 @@ public class ReconstructionTest {
 				}
 				System.out.println("Processed " + country + " in " + time
 						+ " seconds");
+				if (tune) {
+					ThresholdTuner.Result best = new ThresholdTuner().tune(
+							countryData, trainSize, folds, BN_File, values,
+							useUnesco, country.hashCode());
+					tuned.add(best);
+					System.out.println("Best thresholds for " + country
+							+ ": " + best);
+				}
 				minCSV.writeNext(mins);
 				maxCSV.writeNext(maxs);
 				avgCSV.writeNext(avgs);
@@ -426,6 +660,10 @@ public class ReconstructionTest {
 			totalCountries--;
 			System.out.println(totalCountries + " countries remain");
 		}
+		if (!tuned.isEmpty())
+			System.out.println("Best thresholds for all countries: "
+					+ ThresholdTuner.global(tuned));
+		DependencyCache.saveShared();
 	}
 
 	/**
@@ -444,6 +682,7 @@ public class ReconstructionTest {
 	 *             <a href="../Trainer#addShifted(Instances,String,String, int)">{@code Trainer.addShifted}</a>{@code (data, "Previous ", name, 1}
 	 *             instead
 	 */
+	@Deprecated
 	public static void addPrevious(Instances data, String name){
 				Trainer.addShifted(data, "Previous ", name, 1);
 			}
@@ -470,7 +709,45 @@ public class ReconstructionTest {
 	 */
 	public static DomainKnowledge buildUnescoModel(
 			Map<String, List<Double>> data) throws IllegalArgumentException {
-		// expected names
+		DomainKnowledge m = buildEmptyUnescoModel(data);
+		addUnescoDependencies(m);
+		new DependencyBuilder(DependencyCache.shared()).build(m,
+				unescoColumns(data));
+		return m;
+	}
+
+	/**
+	 * Adds the dependency relations proposed in the UNESCO world engineering
+	 * report to a model built with {@link #buildEmptyUnescoModel(Map)}. The
+	 * dependency tables are not initialized.
+	 * 
+	 * @param m
+	 *            the model to which the relations are to be added
+	 * @since 0.10 2026-10-16
+	 */
+	public static void addUnescoDependencies(DomainKnowledge m) {
+		m.addDependency(ModelClusterizer.PREVIOUS_ECONOMY, ModelClusterizer.PRODUCTION);
+		m.addDependency(ModelClusterizer.PREVIOUS_ECONOMY, ModelClusterizer.EDUCATION);
+		m.addDependency(ModelClusterizer.EDUCATION, ModelClusterizer.INNOVATION);
+		m.addDependency(ModelClusterizer.EDUCATION, ModelClusterizer.PRODUCTION);
+		m.addDependency(ModelClusterizer.INNOVATION, ModelClusterizer.PRODUCTION);
+		m.addDependency(ModelClusterizer.INNOVATION, ModelClusterizer.ECONOMIC);
+		m.addDependency(ModelClusterizer.PRODUCTION, ModelClusterizer.ECONOMIC);
+	}
+
+	/**
+	 * Gets the columns of values of each layer of the UNESCO model, as used
+	 * by {@link #buildUnescoModel(Map)}
+	 * 
+	 * @param data
+	 *            A {@code Map} representing a column-majoral table, where each
+	 *            key is the table's header and the list mapped to is the
+	 *            contents of the column with that name.
+	 * @return A {@code Map} from each layer's name to its columns
+	 * @since 0.10 2026-10-16
+	 */
+	public static Map<String, double[][]> unescoColumns(
+			Map<String, List<Double>> data) {
 		// expected names
 		String primary = "Labor force with primary education (% of total) [SL.TLF.PRIM.ZS]";
 		String secondary = "Labor force with secondary education (% of total) [SL.TLF.SECO.ZS]";
@@ -486,50 +763,28 @@ public class ReconstructionTest {
 		String unemployed = "Unemployment, total (% of total labor force) [SL.UEM.TOTL.ZS]";
 		String growth = "GDP growth (annual %) [NY.GDP.MKTP.KD.ZG]";
 		String PPP = "GDP per capita, PPP (constant 2011 international $) [NY.GDP.PCAP.PP.KD]";
-		String prevPPP = "Previous " + PPP;
-		String prevGrowth = "Previous " + growth;
 
-		// Hardwire 3-layer structure
-		// TODO: read domain knowledge structure from file
-		DomainKnowledge m = new DomainKnowledge();
-		m.addLayer("Economic", Arrays.asList(growth, PPP));
-		m.addLayer("Previous Economy", Arrays.asList(prevGrowth, prevPPP));
-		m.addLayer("Education", Arrays.asList(primary, secondary, tertiary));
-		m.addLayer("Innovation",
-				Arrays.asList(journal, trademark, government, foreignAid));
-		m.addLayer("Production", Arrays.asList(agriculture, industry,
-				manufacture, services, unemployed));
-		
 		// set categories
-		List<List<Double>> education = Arrays.asList(data.get(primary),
-				data.get(secondary), data.get(tertiary));
-		List<List<Double>> innovation = Arrays
+		double[][] education = Main.toArrays(Arrays.asList(data.get(primary),
+				data.get(secondary), data.get(tertiary)));
+		double[][] innovation = Main.toArrays(Arrays
 				.asList(data.get(journal), data.get(trademark),
-						data.get(government), data.get(foreignAid));
-		List<List<Double>> production = Arrays.asList(data.get(agriculture),
+						data.get(government), data.get(foreignAid)));
+		double[][] production = Main.toArrays(Arrays.asList(data.get(agriculture),
 				data.get(industry), data.get(manufacture), data.get(services),
-				data.get(unemployed));
-		List<List<Double>> economic = Arrays.asList(data.get(growth),
-				data.get(PPP));
-		List<List<Double>> prevEcon = Arrays.asList(data.get(growth),
-				data.get(PPP));
+				data.get(unemployed)));
+		double[][] economic = Main.toArrays(Arrays.asList(data.get(growth),
+				data.get(PPP)));
+		double[][] prevEcon = Main.toArrays(Arrays.asList(data.get(growth),
+				data.get(PPP)));
 
-		// Hardwire 3-layer structure
-		m.addDependency("Previous Economy", "Production",
-				Main.getDependency(prevEcon, production));
-		m.addDependency("Previous Economy", "Education",
-				Main.getDependency(prevEcon, education));
-		m.addDependency("Education", "Innovation",
-				Main.getDependency(education, innovation));
-		m.addDependency("Education", "Production",
-				Main.getDependency(education, production));
-		m.addDependency("Innovation", "Production",
-				Main.getDependency(innovation, production));
-		m.addDependency("Innovation", "Economic",
-				Main.getDependency(innovation, economic));
-		m.addDependency("Production", "Economic",
-				Main.getDependency(production, economic));
-		return m;
+		Map<String, double[][]> columns = new HashMap<String, double[][]>();
+		columns.put(ModelClusterizer.PREVIOUS_ECONOMY, prevEcon);
+		columns.put(ModelClusterizer.PRODUCTION, production);
+		columns.put(ModelClusterizer.EDUCATION, education);
+		columns.put(ModelClusterizer.INNOVATION, innovation);
+		columns.put(ModelClusterizer.ECONOMIC, economic);
+		return columns;
 	}
 
 	/**
@@ -628,6 +883,42 @@ public class ReconstructionTest {
 	 */
 	public static DomainKnowledge buildSWModel(
 			Map<String, List<Double>> data) throws IllegalArgumentException {
+		DomainKnowledge m = buildEmptySWModel(data);
+		addSWDependencies(m);
+		new DependencyBuilder(DependencyCache.shared()).build(m,
+				swColumns(data));
+		return m;
+	}
+
+	/**
+	 * Adds the dependency relations of the Smets-Woulters model to a model
+	 * built with {@link #buildEmptySWModel(Map)}. The dependency tables are not
+	 * initialized.
+	 * 
+	 * @param m
+	 *            the model to which the relations are to be added
+	 * @since 0.10 2026-10-16
+	 */
+	public static void addSWDependencies(DomainKnowledge m) {
+		m.addDependency(ModelClusterizer.PREV_RESOURCE, ModelClusterizer.RESOURCE);
+		m.addDependency(ModelClusterizer.RESOURCE, ModelClusterizer.ESTIMATION);
+		m.addDependency(ModelClusterizer.PREV_ESTIMATION, ModelClusterizer.ESTIMATION);
+		m.addDependency(ModelClusterizer.ESTIMATION, ECONOMY);
+	}
+
+	/**
+	 * Gets the columns of values of each layer of the Smets-Woulters model, as
+	 * used by {@link #buildSWModel(Map)}
+	 * 
+	 * @param data
+	 *            A {@code Map} representing a column-majoral table, where each
+	 *            key is the table's header and the list mapped to is the
+	 *            contents of the column with that name.
+	 * @return A {@code Map} from each layer's name to its columns
+	 * @since 0.10 2026-10-16
+	 */
+	public static Map<String, double[][]> swColumns(
+			Map<String, List<Double>> data) {
 		// expected names
 		String consump = "Final consumption expenditure (constant LCU) [NE.CON.TOTL.KN]";
 		String worker = "Wage and salaried workers, total (% of total employed) [SL.EMP.WORK.ZS]";
@@ -646,36 +937,25 @@ public class ReconstructionTest {
 		String prevWages = "Previous Compensation of employees (current LCU) [GC.XPN.COMP.CN]";
 		String prevForm = "Previous Gross capital formation (current LCU) [NE.GDI.TOTL.CN]";
 
-		// Hardwire 3-layer structure
-		// TODO: read domain knowledge structure from file
-		DomainKnowledge m = new DomainKnowledge();
-		m.addLayer("Resource", Arrays.asList(wages, interest, form, ratio));
-		m.addLayer("Estimation", Arrays.asList(consump, invest, worker, capital, exog));
-		m.addLayer("Economy", Arrays.asList(GDP));
-		m.addLayer("PrevEstimation", Arrays.asList(prevConsump, prevInvest, prevCapital));
-		m.addLayer("PrevResource", Arrays.asList(inflation, prevWages, prevForm));
 		// set categories
-		List<List<Double>> resource = Arrays.asList(data.get(wages),
-				data.get(interest), data.get(form), data.get(ratio));
-		List<List<Double>> estimation = Arrays
+		double[][] resource = Main.toArrays(Arrays.asList(data.get(wages),
+				data.get(interest), data.get(form), data.get(ratio)));
+		double[][] estimation = Main.toArrays(Arrays
 				.asList(data.get(consump), data.get(invest),
-						data.get(worker), data.get(capital), data.get(exog));
-		List<List<Double>> economy = Arrays.asList(data.get(GDP));
-		List<List<Double>> prevEstimation = Arrays.asList(data.get(prevConsump),
-				data.get(prevInvest), data.get(prevCapital));
-		List<List<Double>> prevResource = Arrays.asList(data.get(inflation),
-				data.get(prevWages), data.get(prevForm));
+						data.get(worker), data.get(capital), data.get(exog)));
+		double[][] economy = Main.toArrays(Arrays.asList(data.get(GDP)));
+		double[][] prevEstimation = Main.toArrays(Arrays.asList(data.get(prevConsump),
+				data.get(prevInvest), data.get(prevCapital)));
+		double[][] prevResource = Main.toArrays(Arrays.asList(data.get(inflation),
+				data.get(prevWages), data.get(prevForm)));
 
-		// Hardwire 3-layer structure
-		m.addDependency("PrevResource", "Resource",
-				Main.getDependency(prevResource, resource));
-		m.addDependency("Resource", "Estimation",
-				Main.getDependency(resource, estimation));
-		m.addDependency("PrevEstimation", "Estimation",
-				Main.getDependency(prevEstimation, estimation));
-		m.addDependency("Estimation", "Economy",
-				Main.getDependency(estimation, economy));
-		return m;
+		Map<String, double[][]> columns = new HashMap<String, double[][]>();
+		columns.put(ModelClusterizer.PREV_RESOURCE, prevResource);
+		columns.put(ModelClusterizer.RESOURCE, resource);
+		columns.put(ModelClusterizer.ESTIMATION, estimation);
+		columns.put(ModelClusterizer.PREV_ESTIMATION, prevEstimation);
+		columns.put(ECONOMY, economy);
+		return columns;
 	}
 	
 	/**
@@ -721,12 +1001,12 @@ public class ReconstructionTest {
 		// Hardwire 3-layer structure
 		// TODO: read domain knowledge structure from file
 		DomainKnowledge m = new DomainKnowledge();
-		m.addLayer("Economic", Arrays.asList(growth, PPP));
-		m.addLayer("Previous Economy", Arrays.asList(prevGrowth, prevPPP));
-		m.addLayer("Education", Arrays.asList(primary, secondary, tertiary));
-		m.addLayer("Innovation",
+		m.addLayer(ModelClusterizer.ECONOMIC, Arrays.asList(growth, PPP));
+		m.addLayer(ModelClusterizer.PREVIOUS_ECONOMY, Arrays.asList(prevGrowth, prevPPP));
+		m.addLayer(ModelClusterizer.EDUCATION, Arrays.asList(primary, secondary, tertiary));
+		m.addLayer(ModelClusterizer.INNOVATION,
 				Arrays.asList(journal, trademark, government, foreignAid));
-		m.addLayer("Production", Arrays.asList(agriculture, industry,
+		m.addLayer(ModelClusterizer.PRODUCTION, Arrays.asList(agriculture, industry,
 				manufacture, services, unemployed));
 		return m;
 	}
@@ -827,11 +1107,14 @@ public class ReconstructionTest {
 		// Hardwire 3-layer structure
 		// TODO: read domain knowledge structure from file
 		DomainKnowledge m = new DomainKnowledge();
-		m.addLayer("Resource", Arrays.asList(wages, interest, form, ratio));
-		m.addLayer("Estimation", Arrays.asList(consump, invest, worker, capital, exog));
-		m.addLayer("Economy", Arrays.asList(GDP));
-		m.addLayer("PrevEstimation", Arrays.asList(prevConsump, prevInvest, prevCapital));
-		m.addLayer("PrevResource", Arrays.asList(inflation, prevWages, prevForm));
+		m.addLayer(ModelClusterizer.RESOURCE, Arrays.asList(wages, interest, form, ratio));
+		m.addLayer(ModelClusterizer.ESTIMATION,
+				Arrays.asList(consump, invest, worker, capital, exog));
+		m.addLayer(ECONOMY, Arrays.asList(GDP));
+		m.addLayer(ModelClusterizer.PREV_ESTIMATION,
+				Arrays.asList(prevConsump, prevInvest, prevCapital));
+		m.addLayer(ModelClusterizer.PREV_RESOURCE,
+				Arrays.asList(inflation, prevWages, prevForm));
 		return m;
 	}
 
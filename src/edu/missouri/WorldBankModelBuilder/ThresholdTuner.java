@@ -0,0 +1,560 @@
+package edu.missouri.WorldBankModelBuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.DoubleSummaryStatistics;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import weka.classifiers.bayes.net.EditableBayesNet;
+import weka.core.Instances;
+import edu.missouri.bayesianConstructor.DependencyBuilder;
+import edu.missouri.bayesianConstructor.DomainKnowledge;
+import edu.missouri.bayesianConstructor.LayerMoments;
+import edu.missouri.bayesianConstructor.Main;
+import edu.missouri.bayesianEvaluator.BifUpdate;
+import edu.missouri.bayesianEvaluator.Evaluator;
+import edu.missouri.bayesianEvaluator.Trainer;
+import edu.ucla.belief.BeliefNetwork;
+import edu.ucla.structure.DirectedEdge;
+import edu.ucla.structure.DirectedGraph;
+
+/**
+ * Chooses the two numbers that decide the structure of the models: the
+ * minimum forward dependency of
+ * {@link Main#getDependency(double[][], double[][], double)} (0.5 by default)
+ * and the threshold given to {@link DomainKnowledge#variableDependency(Double)}
+ * (.03 so far). Every combination of a grid of minimums and a grid of
+ * thresholds is evaluated on random held-out splits of the data, and the one
+ * with the best trade-off between the accuracy of the resulting networks and
+ * their number of arcs is chosen, for one country ({@link #tune(Instances,
+ * float, int, String, int, boolean, long)}) or for all of them ({@link
+ * #global(Collection)}).
+ * <p/>
+ * The dependency tables are not recomputed for each combination. The splits
+ * are drawn as in {@link ReconstructionTest#crossValidationAccuracies(Instances,
+ * float, int, String, int, boolean)}: the moments of the whole country are
+ * computed once and those of each training set are obtained by removing its
+ * test set. Each
+ * minimum then only re-tabulates those moments (see
+ * {@link DependencyBuilder#tabulate(DomainKnowledge, Map, double)}) and each
+ * threshold only re-thresholds the tables. Since many combinations lead to
+ * the same network, each distinct network is trained and evaluated only once
+ * per split.
+ *
+ * @author <a href="mailto:fthc8@missouri.edu">Fernando J. Torre-Mora</a>
+ * @version 0.03 2026-10-16
+ * @since {@code WorldBankModelBuilder} version 0.19 2026-10-16
+ */
+public class ThresholdTuner {
+	/** The minimum forward dependencies tried by default */
+	public static final double[] DEFAULT_MINIMUMS = { 0.3, 0.4, 0.5, 0.6, 0.7 };
+
+	/** The thresholds of {@code variableDependency} tried by default */
+	public static final double[] DEFAULT_THRESHOLDS = { 0.01, 0.02, 0.03,
+			0.05, 0.1 };
+
+	/** The accuracy an arc must add to be worth keeping, by default */
+	public static final double DEFAULT_PENALTY = 0.001;
+
+	/** The minimum forward dependencies tried */
+	private final double[] minimums;
+
+	/** The thresholds tried */
+	private final double[] thresholds;
+
+	/** The accuracy subtracted from the score for each arc */
+	private final double penalty;
+
+	/**
+	 * Creates a tuner over the default grids, with the default penalty
+	 */
+	public ThresholdTuner() {
+		this(DEFAULT_MINIMUMS, DEFAULT_THRESHOLDS, DEFAULT_PENALTY);
+	}
+
+	/**
+	 * Creates a tuner
+	 *
+	 * @param minimums
+	 *            the minimum forward dependencies to be tried
+	 * @param thresholds
+	 *            the thresholds of {@code variableDependency} to be tried
+	 * @param penalty
+	 *            the accuracy subtracted from the score of a combination for
+	 *            each arc of its network
+	 * @throws IllegalArgumentException
+	 *             if either grid is empty
+	 */
+	public ThresholdTuner(double[] minimums, double[] thresholds,
+			double penalty) throws IllegalArgumentException {
+		if (minimums.length == 0 || thresholds.length == 0)
+			throw new IllegalArgumentException("The grids must not be empty");
+		this.minimums = minimums.clone();
+		this.thresholds = thresholds.clone();
+		this.penalty = penalty;
+	}
+
+	/**
+	 * Evaluates every combination of the grids on {@code folds} random splits
+	 * of the data of one country, drawn from the given seed (see
+	 * {@link ReconstructionTest#splits(Instances, float, int, Random, boolean, ReconstructionTest.Split)}).
+	 * The order of the instances in {@code data} is left as it is.
+	 *
+	 * @param data
+	 *            The data of the country, discretized to the network (see
+	 *            {@link Trainer#conformToNetwork(Instances, weka.classifiers.bayes.BayesNet, boolean)})
+	 * @param ratio
+	 *            The fraction of {@code data} used for training in each split
+	 * @param folds
+	 *            The number of splits to be evaluated
+	 * @param filename
+	 *            The name of a file to write intermediate networks to
+	 * @param values
+	 *            The number of values of each node
+	 * @param useUnesco
+	 *            Specifies whether to use the Unesco structure for the
+	 *            domain knowledge. If {@code false}, the Smets-Woulters
+	 *            structure will be used instead.
+	 * @param seed
+	 *            the seed the splits are drawn from, so that the same data
+	 *            is always split the same way
+	 * @return the average accuracy and number of arcs of every combination,
+	 *         and the best one
+	 * @throws Exception
+	 *             If a network could not be trained, written or read
+	 */
+	public Result tune(Instances data, float ratio, int folds,
+			final String filename, final int values, boolean useUnesco,
+			long seed) throws Exception {
+		final double[][] accuracy = new double[this.minimums.length][this.thresholds.length];
+		final double[][] arcs = new double[this.minimums.length][this.thresholds.length];
+		final int splits = folds;
+		ReconstructionTest.splits(data, ratio, folds, new Random(seed),
+				useUnesco, new ReconstructionTest.Split() {
+					@Override
+					public void run(DomainKnowledge m,
+							Map<DirectedEdge, LayerMoments> train,
+							Instances training, Instances test, long t,
+							int folds) throws Exception {
+						ThresholdTuner.this.grid(m, train, training, test,
+								values, filename, splits, accuracy, arcs);
+					}
+				});
+		return new Result(this.minimums, this.thresholds, this.penalty,
+				accuracy, arcs);
+	}
+
+	/**
+	 * Evaluates every combination of the grids on one split, adding its
+	 * accuracy and number of arcs, divided by {@code folds}, to their
+	 * averages
+	 *
+	 * @throws Exception
+	 *             If a network could not be trained, written or read
+	 */
+	private void grid(DomainKnowledge m,
+			Map<DirectedEdge, LayerMoments> train, Instances training,
+			Instances test, int values, String filename, int folds,
+			double[][] accuracy, double[][] arcs) throws Exception {
+		// each distinct network is evaluated once per split
+		Map<DirectedGraph, Double> evaluated = new HashMap<DirectedGraph, Double>();
+		for (int a = 0; a < this.minimums.length; a++) {
+			DependencyBuilder.tabulate(m, train, this.minimums[a]);
+			for (int b = 0; b < this.thresholds.length; b++) {
+				DirectedGraph graph = m.variableDependency(this.thresholds[b]);
+				Double found = evaluated.get(graph);
+				if (found == null) {
+					found = Double.valueOf(evaluate(graph, m, values, training,
+							test, filename));
+					evaluated.put(graph, found);
+				}
+				accuracy[a][b] += found.doubleValue() / folds;
+				arcs[a][b] += (double) graph.numEdges() / folds;
+			}
+		}
+	}
+
+	/**
+	 * Combines the results of several countries, evaluated over the same
+	 * grids, into one whose accuracy and number of arcs in each combination
+	 * are the averages over the countries
+	 *
+	 * @param results
+	 *            the results of each country
+	 * @return the combined result, whose best combination is the best one
+	 *         for all the countries together
+	 * @throws IllegalArgumentException
+	 *             if there are no results, or they were not evaluated over the
+	 *             same grids with the same penalty
+	 */
+	public static Result global(Collection<Result> results)
+			throws IllegalArgumentException {
+		if (results.isEmpty())
+			throw new IllegalArgumentException("There are no results to combine");
+		Result first = results.iterator().next();
+		double[][] accuracy = new double[first.minimums.length][first.thresholds.length];
+		double[][] arcs = new double[first.minimums.length][first.thresholds.length];
+		for (Result r : results) {
+			if (!Arrays.equals(r.minimums, first.minimums)
+					|| !Arrays.equals(r.thresholds, first.thresholds)
+					|| r.penalty != first.penalty)
+				throw new IllegalArgumentException(
+						"All results must be evaluated over the same grids");
+			for (int a = 0; a < accuracy.length; a++)
+				for (int b = 0; b < accuracy[a].length; b++) {
+					accuracy[a][b] += r.accuracy[a][b] / results.size();
+					arcs[a][b] += r.arcs[a][b] / results.size();
+				}
+		}
+		return new Result(first.minimums, first.thresholds, first.penalty,
+				accuracy, arcs);
+	}
+
+	/**
+	 * Builds, trains and tests the network of the given graph
+	 *
+	 * @return the average accuracy over every attribute that could be tested
+	 * @throws Exception
+	 *             If the network could not be trained, written or read
+	 */
+	private static double evaluate(DirectedGraph graph, DomainKnowledge m,
+			int values, Instances training, Instances test, String filename)
+			throws Exception {
+		BeliefNetwork out = Main.graphToNetwork(graph, Main.genValues(values),
+				m.layerMap());
+		boolean fileCreated = Main.networkToFile(out, filename);
+		assert fileCreated;
+		EditableBayesNet bn = BifUpdate.loadBayesNet(filename);
+		Trainer.trainToFile(bn, training, filename);
+		BeliefNetwork trained = Evaluator.loadSamiamBayes(filename);
+		Map<String, DoubleSummaryStatistics> accuracies = new HashMap<String, DoubleSummaryStatistics>();
+		Evaluator.allAttributesAccuracies(trained, test, accuracies);
+		DoubleSummaryStatistics total = new DoubleSummaryStatistics();
+		for (DoubleSummaryStatistics s : accuracies.values())
+			total.accept(s.getAverage());
+		return total.getCount() > 0 ? total.getAverage() : 0;
+	}
+
+	/**
+	 * Checks the shortcuts {@link #tune(Instances, float, int, String, int,
+	 * boolean, long)} takes on random layers and splits: for every minimum of
+	 * the default grid, the tables tabulated from the moments of the whole
+	 * minus those of the test rows agree, within 1e-9, with those
+	 * {@link Main#getDependency(double[][], double[][], double)} computes
+	 * from the training rows alone; for every threshold, the network is the
+	 * one of those tables, and is found again when looked up among the
+	 * networks already evaluated. Also checks that the best combination of a
+	 * result has the highest score and, among those, the fewest arcs, and
+	 * that {@link #global(Collection)} averages the countries and rejects
+	 * results over other grids. The networks are not trained here. Run with
+	 * assertions enabled ({@code -ea}).
+	 *
+	 * @param args
+	 *            (ignored)
+	 * @throws AssertionError
+	 *             if a shortcut disagrees
+	 * @since 0.03 2026-10-16
+	 */
+	public static void main(String[] args) throws AssertionError {
+		System.err.println("Validating class...");
+		Random random = new Random(107);
+		String[][] relations = { { "L0", "L1" }, { "L0", "L2" },
+				{ "L1", "L2" } };
+		DependencyBuilder builder = new DependencyBuilder();
+		for (int test = 0; test < 20; test++) {
+			int rows = 40 + random.nextInt(160);
+			float ratio = 0.75f + 0.2f * random.nextFloat();
+			double[] factor = new double[rows];
+			for (int t = 1; t < rows; t++)
+				factor[t] = factor[t - 1] + random.nextGaussian();
+			DomainKnowledge m = new DomainKnowledge(3);
+			Map<String, double[][]> columns = new LinkedHashMap<String, double[][]>();
+			for (int l = 0; l < 3; l++) {
+				double[][] values = new double[1 + random.nextInt(5)][rows];
+				List<String> names = new ArrayList<String>();
+				for (int i = 0; i < values.length; i++) {
+					double level = 10 + 10 * random.nextDouble();
+					double weight = random.nextGaussian();
+					for (int t = 0; t < rows; t++)
+						values[i][t] = random.nextDouble() < 0.1 ? Double.NaN
+								: level + weight * factor[t]
+										+ random.nextGaussian();
+					names.add("L" + l + "v" + i);
+				}
+				m.addLayer("L" + l, names);
+				columns.put("L" + l, values);
+			}
+			for (String[] r : relations)
+				m.addDependency(r[0], r[1]);
+
+			// a split, as drawn by ReconstructionTest.splits
+			List<Integer> order = new ArrayList<Integer>();
+			for (int t = 0; t < rows; t++)
+				order.add(Integer.valueOf(t));
+			Collections.shuffle(order, random);
+			int trainSize = Math.round(rows * ratio);
+			Map<String, double[][]> training = new LinkedHashMap<String, double[][]>();
+			Map<String, double[][]> held = new LinkedHashMap<String, double[][]>();
+			for (Map.Entry<String, double[][]> e : columns.entrySet()) {
+				double[][] values = e.getValue();
+				double[][] train = new double[values.length][trainSize];
+				double[][] rest = new double[values.length][rows - trainSize];
+				for (int i = 0; i < values.length; i++)
+					for (int k = 0; k < rows; k++) {
+						int t = order.get(k).intValue();
+						if (k < trainSize)
+							train[i][k] = values[i][t];
+						else
+							rest[i][k - trainSize] = values[i][t];
+					}
+				training.put(e.getKey(), train);
+				held.put(e.getKey(), rest);
+			}
+			Map<DirectedEdge, LayerMoments> full = builder.moments(m, columns);
+			Map<DirectedEdge, LayerMoments> removed = builder.moments(m, held);
+			Map<DirectedEdge, LayerMoments> train = new HashMap<DirectedEdge, LayerMoments>();
+			for (Map.Entry<DirectedEdge, LayerMoments> e : full.entrySet())
+				train.put(e.getKey(), new LayerMoments(e.getValue())
+						.subtract(removed.get(e.getKey())));
+
+			Map<DirectedGraph, Integer> evaluated = new HashMap<DirectedGraph, Integer>();
+			for (double minimum : DEFAULT_MINIMUMS) {
+				DependencyBuilder.tabulate(m, train, minimum);
+				DomainKnowledge expected = new DomainKnowledge(3);
+				for (int l = 0; l < 3; l++)
+					expected.addLayer("L" + l, m.getLayer("L" + l));
+				for (String[] r : relations) {
+					Double[][] table = Main.getDependency(training.get(r[0]),
+							training.get(r[1]), minimum);
+					expected.addDependency(r[0], r[1]);
+					expected.setDependency(r[0], r[1], table);
+					Double[][] actual = m.getDependencyTable(r[0], r[1]);
+					for (int i = 0; i < table.length; i++)
+						for (int j = 0; j < table[i].length; j++) {
+							double a = actual[i][j].doubleValue();
+							double b = table[i][j].doubleValue();
+							assert Double.compare(a, b) == 0
+									|| Math.abs(a - b) <= 1e-9 : "Test "
+									+ test + ", minimum " + minimum + ": "
+									+ r[0] + "->" + r[1] + " cell " + i + ", "
+									+ j + " is " + a + " instead of " + b;
+						}
+				}
+				for (double threshold : DEFAULT_THRESHOLDS) {
+					DirectedGraph graph = m.variableDependency(threshold);
+					DirectedGraph serial = expected
+							.variableDependency(threshold);
+					assert graph.equals(serial)
+							&& graph.numEdges() == serial.numEdges() : "Test "
+							+ test + ": minimum " + minimum + ", threshold "
+							+ threshold + " gives another network";
+					Integer found = evaluated.get(serial);
+					if (found == null)
+						evaluated.put(graph, Integer.valueOf(graph.numEdges()));
+					else
+						assert found.intValue() == graph.numEdges() : "Test "
+								+ test + ": another network was found";
+				}
+			}
+		}
+		System.err.println("Passed tabulation test");
+
+		List<Result> countries = new ArrayList<Result>();
+		for (int test = 0; test < 50; test++) {
+			double[][] accuracy = new double[DEFAULT_MINIMUMS.length][DEFAULT_THRESHOLDS.length];
+			double[][] arcs = new double[accuracy.length][accuracy[0].length];
+			for (int a = 0; a < accuracy.length; a++)
+				for (int b = 0; b < accuracy[a].length; b++) {
+					// few distinct values, so that there are ties
+					accuracy[a][b] = random.nextInt(4) / 4.0;
+					arcs[a][b] = random.nextInt(3);
+				}
+			Result r = new Result(DEFAULT_MINIMUMS, DEFAULT_THRESHOLDS, 0.125,
+					accuracy, arcs);
+			double best = r.accuracy() - 0.125 * r.arcs();
+			for (int a = 0; a < accuracy.length; a++)
+				for (int b = 0; b < accuracy[a].length; b++)
+					assert r.score(a, b) < best || r.score(a, b) == best
+							&& r.arcs(a, b) >= r.arcs() : "Combination " + a
+							+ ", " + b + " is better than " + r;
+			countries.add(r);
+		}
+		Result all = global(countries);
+		for (int a = 0; a < DEFAULT_MINIMUMS.length; a++)
+			for (int b = 0; b < DEFAULT_THRESHOLDS.length; b++) {
+				double accuracy = 0;
+				double arcs = 0;
+				for (Result r : countries) {
+					accuracy += r.accuracy(a, b);
+					arcs += r.arcs(a, b);
+				}
+				accuracy /= countries.size();
+				arcs /= countries.size();
+				assert Math.abs(all.accuracy(a, b) - accuracy) <= 1e-9
+						&& Math.abs(all.arcs(a, b) - arcs) <= 1e-9 : "Combination "
+						+ a + ", " + b + " is not averaged";
+			}
+		try {
+			global(Arrays.asList(countries.get(0), new Result(
+					new double[] { 0.5 }, DEFAULT_THRESHOLDS, 0.125,
+					new double[1][DEFAULT_THRESHOLDS.length],
+					new double[1][DEFAULT_THRESHOLDS.length])));
+			assert false : "Results over other grids were combined";
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+		try {
+			global(Collections.<Result> emptyList());
+			assert false : "No results were combined";
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+		System.err.println("Passed result test");
+		System.err.println("Validation complete");
+	}
+
+	/**
+	 * The accuracy and complexity of every combination of a minimum and a
+	 * threshold, and the best one
+	 */
+	public static class Result {
+		/** The minimum forward dependencies tried */
+		private final double[] minimums;
+
+		/** The thresholds tried */
+		private final double[] thresholds;
+
+		/** The accuracy subtracted from the score for each arc */
+		private final double penalty;
+
+		/** The average accuracy of each combination */
+		private final double[][] accuracy;
+
+		/** The average number of arcs of each combination */
+		private final double[][] arcs;
+
+		/** The index of the best minimum */
+		private final int bestMinimum;
+
+		/** The index of the best threshold */
+		private final int bestThreshold;
+
+		/**
+		 * Stores the results of a grid and finds its best combination: the
+		 * one with the highest score, or the fewest arcs among those that tie
+		 */
+		Result(double[] minimums, double[] thresholds, double penalty,
+				double[][] accuracy, double[][] arcs) {
+			this.minimums = minimums;
+			this.thresholds = thresholds;
+			this.penalty = penalty;
+			this.accuracy = accuracy;
+			this.arcs = arcs;
+			int bestA = 0;
+			int bestB = 0;
+			for (int a = 0; a < minimums.length; a++)
+				for (int b = 0; b < thresholds.length; b++) {
+					double score = this.score(a, b);
+					double best = this.score(bestA, bestB);
+					if (score > best || score == best
+							&& arcs[a][b] < arcs[bestA][bestB]) {
+						bestA = a;
+						bestB = b;
+					}
+				}
+			this.bestMinimum = bestA;
+			this.bestThreshold = bestB;
+		}
+
+		/**
+		 * Gets the best minimum forward dependency
+		 *
+		 * @return the minimum to be given to
+		 *         {@link Main#getDependency(double[][], double[][], double)}
+		 */
+		public double minimum() {
+			return this.minimums[this.bestMinimum];
+		}
+
+		/**
+		 * Gets the best threshold
+		 *
+		 * @return the threshold to be given to
+		 *         {@link DomainKnowledge#variableDependency(Double)}
+		 */
+		public double threshold() {
+			return this.thresholds[this.bestThreshold];
+		}
+
+		/**
+		 * Gets the average accuracy of the best combination
+		 *
+		 * @return the accuracy, averaged over attributes and splits
+		 */
+		public double accuracy() {
+			return this.accuracy[this.bestMinimum][this.bestThreshold];
+		}
+
+		/**
+		 * Gets the average number of arcs of the best combination
+		 *
+		 * @return the number of arcs, averaged over splits
+		 */
+		public double arcs() {
+			return this.arcs[this.bestMinimum][this.bestThreshold];
+		}
+
+		/**
+		 * Gets the average accuracy of a combination
+		 *
+		 * @param a
+		 *            the index of the minimum
+		 * @param b
+		 *            the index of the threshold
+		 * @return the accuracy, averaged over attributes and splits
+		 */
+		public double accuracy(int a, int b) {
+			return this.accuracy[a][b];
+		}
+
+		/**
+		 * Gets the average number of arcs of a combination
+		 *
+		 * @param a
+		 *            the index of the minimum
+		 * @param b
+		 *            the index of the threshold
+		 * @return the number of arcs, averaged over splits
+		 */
+		public double arcs(int a, int b) {
+			return this.arcs[a][b];
+		}
+
+		/**
+		 * Gets the score of a combination: its accuracy minus the penalty for
+		 * each of its arcs
+		 *
+		 * @param a
+		 *            the index of the minimum
+		 * @param b
+		 *            the index of the threshold
+		 * @return the score
+		 */
+		public double score(int a, int b) {
+			return this.accuracy[a][b] - this.penalty * this.arcs[a][b];
+		}
+
+		@Override
+		public String toString() {
+			return "minimum " + this.minimum() + ", threshold "
+					+ this.threshold() + ": accuracy " + this.accuracy()
+					+ " with " + this.arcs() + " arcs";
+		}
+	}
+}
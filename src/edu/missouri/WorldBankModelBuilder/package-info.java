@@ -1,6 +1,6 @@
 /**Contains classes to build economic models using World Bank data
  * @author	<a href="mailto:fthc8@missouri.edu">Fernando J. Torre-Mora</a> 
- * @version	0.10 2016-04-27
+ * @version	0.34 2026-10-16
  * 
  * <h2>Version history</h2>
  * <table>
@@ -10,6 +10,182 @@
  * 		<th>Changes</th>
  * 	</tr>
  * 	<tr>
+ * 		<td>0.34</td>
+ * 		<td>2026-10-16</td>
+ * 		<td>ModelClusterizer builds the panel of every country through the shared
+ * 			dependency cache, so the cache it reports and saves is the one it used</td>
+ * 	</tr>
+ * 	<tr>
+ * 		<td>0.33</td>
+ * 		<td>2026-10-16</td>
+ * 		<td>ThresholdTuner checks its tabulated tables and networks against
+ * 			Main.getDependency over each training set</td>
+ * 	</tr>
+ * 	<tr>
+ * 		<td>0.32</td>
+ * 		<td>2026-10-16</td>
+ * 		<td>The layer names are shared constants of {@link ModelClusterizer};
+ * 			{@link ModelClusterizer#unescoColumns(Map)} no longer adds unused
+ * 			lagged columns to its data</td>
+ * 	</tr>
+ * 	<tr>
+ * 		<td>0.31</td>
+ * 		<td>2026-10-16</td>
+ * 		<td>Fixed the spacing around {@link ModelClusterizer#evolution(Map,
+ * 			boolean, SlidingWindow)}</td>
+ * 	</tr>
+ * 	<tr>
+ * 		<td>0.30</td>
+ * 		<td>2026-10-16</td>
+ * 		<td>{@link ThresholdTuner} draws its splits from a seed, on a copy of
+ * 			the data, through the fold loop it now shares with
+ * 			{@link ReconstructionTest}</td>
+ * 	</tr>
+ * 	<tr>
+ * 		<td>0.29</td>
+ * 		<td>2026-10-16</td>
+ * 		<td>ModelClusterizer rejects a matrix directory with a measure other
+ * 			than the default, and scores its sliding windows with the chosen
+ * 			measure</td>
+ * 	</tr>
+ * 	<tr>
+ * 		<td>0.28</td>
+ * 		<td>2026-10-16</td>
+ * 		<td>The precomputed matrices estimate the previous economy of the
+ * 			Unesco model from the current year, as every other path does;
+ * 			unreadable matrix files are computed again, and their directory
+ * 			is created</td>
+ * 	</tr>
+ * 	<tr>
+ * 		<td>0.27</td>
+ * 		<td>2026-10-16</td>
+ * 		<td>The deprecated {@link ModelClusterizer#shiftBy(java.util.List, int)} and
+ * 			{@link ReconstructionTest#addPrevious(weka.core.Instances, String)} are annotated
+ * 			as such</td>
+ * 	</tr>
+ * 	<tr>
+ * 		<td>0.26</td>
+ * 		<td>2026-10-16</td>
+ * 		<td>{@link ModelClusterizer} and {@link ReconstructionTest} save the shared
+ * 			{@link edu.missouri.bayesianConstructor.DependencyCache} when done, so that the
+ * 			next run can reuse it ({@link ModelClusterizer} is now version 0.21,
+ * 			{@link ReconstructionTest} is now version 0.12)</td>
+ * 	</tr>
+ * 	<tr>
+ * 		<td>0.25</td>
+ * 		<td>2026-10-16</td>
+ * 		<td>{@link ModelClusterizer} parses its input file in parallel, through a
+ * 			{@link edu.missouri.bayesianConstructor.ParallelCSV}, when its cache
+ * 			cannot be used ({@link ModelClusterizer} is now version 0.20)</td>
+ * 	</tr>
+ * 	<tr>
+ * 		<td>0.24</td>
+ * 		<td>2026-10-16</td>
+ * 		<td>{@link ModelClusterizer} reads its input file from a
+ * 			{@link edu.missouri.bayesianConstructor.PanelCache} when the file
+ * 			has not changed ({@link ModelClusterizer} is now version 0.19)</td>
+ * 	</tr>
+ * 	<tr>
+ * 		<td>0.23</td>
+ * 		<td>2026-10-16</td>
+ * 		<td>{@link ModelClusterizer} parses its input file with a
+ * 			{@link edu.missouri.bayesianConstructor.MappedCSV}
+ * 			({@link ModelClusterizer} is now version 0.18)</td>
+ * 	</tr>
+ * 	<tr>
+ * 		<td>0.22</td>
+ * 		<td>2026-10-16</td>
+ * 		<td>{@link ModelClusterizer} reads its input file once, through a
+ * 			{@link edu.missouri.bayesianConstructor.GroupIndex}, instead of once
+ * 			per country ({@link ModelClusterizer} is now version 0.17)</td>
+ * 	</tr>
+ * 	<tr>
+ * 		<td>0.21</td>
+ * 		<td>2026-10-16</td>
+ * 		<td>{@link ModelClusterizer} can report how the structure of each country
+ * 			changes over sliding windows of years ({@link ModelClusterizer} is
+ * 			now version 0.16)</td>
+ * 	</tr>
+ * 	<tr>
+ * 		<td>0.20</td>
+ * 		<td>2026-10-16</td>
+ * 		<td>{@link ModelClusterizer} can keep the models of every country up to
+ * 			date as new years arrive, through
+ * 			{@link edu.missouri.bayesianConstructor.DependencyStream}s
+ * 			({@link ModelClusterizer} is now version 0.15)</td>
+ * 	</tr>
+ * 	<tr>
+ * 		<td>0.19</td>
+ * 		<td>2026-10-16</td>
+ * 		<td>Added {@link ThresholdTuner}, which chooses the minimum dependency and
+ * 			the threshold of the models on held-out splits, re-thresholding the
+ * 			same moments for every combination ({@link ReconstructionTest} is now
+ * 			version 0.11)</td>
+ * 	</tr>
+ * 	<tr>
+ * 		<td>0.18</td>
+ * 		<td>2026-10-16</td>
+ * 		<td>{@link ModelClusterizer} can score dependencies with any
+ * 			{@link edu.missouri.bayesianConstructor.DependencyMeasure}, such as
+ * 			mutual information ({@link ModelClusterizer} is now version 0.14)</td>
+ * 	</tr>
+ * 	<tr>
+ * 		<td>0.17</td>
+ * 		<td>2026-10-16</td>
+ * 		<td>{@link ModelClusterizer} builds the models of all the countries in one
+ * 			batched sweep over a {@link edu.missouri.bayesianConstructor.Panel}
+ * 			({@link ModelClusterizer} is now version 0.13)</td>
+ * 	</tr>
+ * 	<tr>
+ * 		<td>0.16</td>
+ * 		<td>2026-10-16</td>
+ * 		<td>{@link ModelClusterizer} can compute the moments of every pair of
+ * 			variables of a country once, keep them on disk, and assemble either model
+ * 			from them; the structure of each model is now available on its own
+ * 			({@link ModelClusterizer} is now version 0.12)</td>
+ * 	</tr>
+ * 	<tr>
+ * 		<td>0.15</td>
+ * 		<td>2026-10-16</td>
+ * 		<td>The previous-year variables of {@link ModelClusterizer} are now lagged
+ * 			views of the current-year ones instead of shifted copies
+ * 			({@link ModelClusterizer} is now version 0.11)</td>
+ * 	</tr>
+ * 	<tr>
+ * 		<td>0.14</td>
+ * 		<td>2026-10-16</td>
+ * 		<td>{@link ReconstructionTest} can now cross-validate by removing the
+ * 			statistics of each test set from those of the whole country, instead of
+ * 			rebuilding the dependency tables from each training set
+ * 			({@link ReconstructionTest} is now version 0.10)</td>
+ * 	</tr>
+ * 	<tr>
+ * 		<td>0.13</td>
+ * 		<td>2026-10-16</td>
+ * 		<td>Model builders now reuse the moments in
+ * 			{@link edu.missouri.bayesianConstructor.DependencyCache#shared()}, and
+ * 			{@link ModelClusterizer#main(String[])} reports its hits and misses
+ * 			({@link ModelClusterizer} is now version 0.10;
+ * 			{@link ReconstructionTest} is now version 0.09)</td>
+ * 	</tr>
+ * 	<tr>
+ * 		<td>0.12</td>
+ * 		<td>2026-10-16</td>
+ * 		<td>Model builders now compute all their dependency tables in parallel with
+ * 			{@link edu.missouri.bayesianConstructor.DependencyBuilder}
+ * 			({@link ModelClusterizer} is now version 0.09;
+ * 			{@link ReconstructionTest} is now version 0.08)</td>
+ * 	</tr>
+ * 	<tr>
+ * 		<td>0.11</td>
+ * 		<td>2026-10-16</td>
+ * 		<td>Model builders now unbox each layer once and use
+ * 			{@link edu.missouri.bayesianConstructor.Main#getDependency(double[][], double[][])};
+ * 			{@link ReconstructionTest#toColumns(weka.core.Instances)} no longer boxes the columns
+ * 			({@link ModelClusterizer} is now version 0.08;
+ * 			{@link ReconstructionTest} is now version 0.07)</td>
+ * 	</tr>
+ * 	<tr>
  * 		<td>0.10</td>
  * 		<td>2016-04-28</td>
  * 		<td>Moved {@link ModelClusterizer#shiftBy(java.util.List, int)}
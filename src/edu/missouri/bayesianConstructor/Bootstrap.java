@@ -0,0 +1,446 @@
+package edu.missouri.bayesianConstructor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import edu.ucla.structure.DirectedEdge;
+
+/**
+ * Computes lower confidence bounds for the cells of dependency tables by
+ * resampling the rows (typically, the years) of the data with replacement.
+ * Tables computed from 20 to 50 observations vary widely from one sample to
+ * the next, so a relation whose dependency only barely exceeds a threshold
+ * may appear or disappear between folds; thresholding the lower bound of
+ * each cell instead (e.g. with {@link DomainKnowledge#variableDependency(double)})
+ * keeps only the relations that survive most resamples.
+ * <p/>
+ * Each replicate draws <i>n</i> rows out of <i>n</i> and counts how many
+ * times each row was drawn. The shifted sums of every cell (see
+ * {@link PairMoments#fromShiftedSums(long, double, double, double, double,
+ * double, double, double)}) are then accumulated over the rows drawn, each
+ * weighted by its count, which is the same as summing the resample itself
+ * since the sums are additive. Every relation of a model is computed from the
+ * same resample, so that the bounds of a model are those of one bootstrap.
+ * <p/>
+ * The replicates are split over a {@link ForkJoinPool} in chunks of
+ * {@value #CHUNK}, each of which reuses its arrays of counts and drawn rows
+ * for all of its replicates. Replicate <i>b</i> is always drawn from a
+ * generator seeded with the seed of the bootstrap plus <i>b</i>, so the bounds
+ * depend only on the seed, not on the number of threads.
+ *
+ * @author <a href="mailto:fthc8@missouri.edu">Fernando J. Torre-Mora</a>
+ * @version 0.02 2026-10-16
+ * @since {@code bayesianConstructor} version 0.37 2026-10-16
+ */
+public class Bootstrap {
+	/** Number of replicates used by default */
+	public static final int DEFAULT_REPLICATES = 1000;
+
+	/** Confidence level used by default */
+	public static final double DEFAULT_CONFIDENCE = 0.95;
+
+	/** Number of replicates computed by a single task */
+	public static final int CHUNK = 32;
+
+	/** The pool the replicates are computed in */
+	private final ForkJoinPool pool;
+
+	/** The number of replicates */
+	private final int replicates;
+
+	/** The probability that a cell is at least its bound */
+	private final double confidence;
+
+	/** The seed of the first replicate */
+	private final long seed;
+
+	/**
+	 * Creates a bootstrap of {@value #DEFAULT_REPLICATES} replicates with a
+	 * confidence of {@value #DEFAULT_CONFIDENCE}, running on the common
+	 * {@link ForkJoinPool}
+	 *
+	 * @param seed
+	 *            the seed the resamples are drawn from
+	 */
+	public Bootstrap(long seed) {
+		this(DEFAULT_REPLICATES, DEFAULT_CONFIDENCE, seed);
+	}
+
+	/**
+	 * Creates a bootstrap running on the common {@link ForkJoinPool}
+	 *
+	 * @param replicates
+	 *            the number of resamples drawn
+	 * @param confidence
+	 *            the probability that a cell is at least its lower bound
+	 * @param seed
+	 *            the seed the resamples are drawn from
+	 * @throws IllegalArgumentException
+	 *             if {@code replicates} is not positive or
+	 *             {@code confidence} is not between 0 and 1
+	 */
+	public Bootstrap(int replicates, double confidence, long seed)
+			throws IllegalArgumentException {
+		this(ForkJoinPool.commonPool(), replicates, confidence, seed);
+	}
+
+	/**
+	 * Creates a bootstrap running on the given pool
+	 *
+	 * @param pool
+	 *            the pool the replicates will be computed in
+	 * @param replicates
+	 *            the number of resamples drawn
+	 * @param confidence
+	 *            the probability that a cell is at least its lower bound
+	 * @param seed
+	 *            the seed the resamples are drawn from
+	 * @throws IllegalArgumentException
+	 *             if {@code replicates} is not positive or
+	 *             {@code confidence} is not between 0 and 1
+	 */
+	public Bootstrap(ForkJoinPool pool, int replicates, double confidence,
+			long seed) throws IllegalArgumentException {
+		if (replicates <= 0)
+			throw new IllegalArgumentException(
+					"The number of replicates must be positive");
+		if (!(confidence > 0 && confidence < 1))
+			throw new IllegalArgumentException(
+					"The confidence must be between 0 and 1");
+		this.pool = pool;
+		this.replicates = replicates;
+		this.confidence = confidence;
+		this.seed = seed;
+	}
+
+	/**
+	 * Computes the lower confidence bound of every cell of the dependency
+	 * table of {@code dependent} on {@code independent} (see
+	 * {@link Main#getDependency(double[][], double[][], double)})
+	 *
+	 * @param independent
+	 *            The variables assumed to be independent
+	 * @param dependent
+	 *            The variables assumed to be dependent
+	 * @param minimum
+	 *            Value for the forward dependency below which a replicate of
+	 *            a cell is discarded
+	 * @return a table holding, in each position <i>i</i>, <i>j</i>, the value
+	 *         that the cell exceeded in a fraction {@code confidence} of the
+	 *         replicates; {@code Double.NEGATIVE_INFINITY} if more than
+	 *         1&minus;{@code confidence} of them were discarded
+	 * @throws IllegalArgumentException
+	 *             If the columns are not all of the same size
+	 */
+	public Double[][] lowerBound(Column[] independent, Column[] dependent,
+			double minimum) throws IllegalArgumentException {
+		return this.lowerBounds(new Column[][] { independent },
+				new Column[][] { dependent }, minimum)[0];
+	}
+
+	/**
+	 * Computes the lower confidence bound of every cell of every relation in
+	 * {@code m}, from the same resamples, without modifying {@code m}
+	 *
+	 * @param m
+	 *            the model whose relations are to be bounded
+	 * @param columns
+	 *            the columns of each layer, keyed by layer name, in the same
+	 *            order as the layer's variables
+	 * @param minimum
+	 *            Value for the forward dependency below which a replicate of
+	 *            a cell is discarded
+	 * @return the table of bounds of each relation (see
+	 *         {@link #lowerBound(Column[], Column[], double)})
+	 * @throws IllegalArgumentException
+	 *             if the columns do not match the layers of {@code m} or are
+	 *             not all the same size
+	 */
+	public Map<DirectedEdge, Double[][]> lowerBounds(DomainKnowledge m,
+			Map<String, Column[]> columns, double minimum)
+			throws IllegalArgumentException {
+		List<String[]> edges = DependencyBuilder.edges(m);
+		DependencyBuilder.layers(m, edges, columns);
+		Column[][] x = new Column[edges.size()][];
+		Column[][] y = new Column[edges.size()][];
+		for (int e = 0; e < x.length; e++) {
+			x[e] = columns.get(edges.get(e)[0]);
+			y[e] = columns.get(edges.get(e)[1]);
+		}
+		Double[][][] bounds = this.lowerBounds(x, y, minimum);
+		Map<DirectedEdge, Double[][]> out = new LinkedHashMap<DirectedEdge, Double[][]>();
+		for (int e = 0; e < bounds.length; e++)
+			out.put(new DirectedEdge(edges.get(e)[0], edges.get(e)[1]),
+					bounds[e]);
+		return out;
+	}
+
+	/**
+	 * Stores in {@code m} the lower confidence bounds of every relation, in
+	 * place of its dependency table, so that
+	 * {@link DomainKnowledge#variableDependency(double)} keeps only the
+	 * relations that are above the threshold with the confidence of this
+	 * bootstrap
+	 *
+	 * @param m
+	 *            the model whose relations are to be bounded
+	 * @param columns
+	 *            the columns of each layer, keyed by layer name
+	 * @param minimum
+	 *            Value for the forward dependency below which a replicate of
+	 *            a cell is discarded
+	 * @throws IllegalArgumentException
+	 *             if the columns do not match the layers of {@code m} or are
+	 *             not all the same size
+	 */
+	public void build(DomainKnowledge m, Map<String, Column[]> columns,
+			double minimum) throws IllegalArgumentException {
+		for (Map.Entry<DirectedEdge, Double[][]> e : this.lowerBounds(m,
+				columns, minimum).entrySet())
+			m.setDependency((String) e.getKey().v1(),
+					(String) e.getKey().v2(), e.getValue());
+	}
+
+	/**
+	 * Computes the bounds of several relations over the same rows
+	 *
+	 * @throws IllegalArgumentException
+	 *             if the columns are not all the same size
+	 */
+	private Double[][][] lowerBounds(Column[][] independent,
+			Column[][] dependent, final double minimum)
+			throws IllegalArgumentException {
+		final int edgeCount = independent.length;
+		final LayerMoments.ShiftedColumn[][] x = new LayerMoments.ShiftedColumn[edgeCount][];
+		final LayerMoments.ShiftedColumn[][] y = new LayerMoments.ShiftedColumn[edgeCount][];
+		int rows = -1;
+		for (int e = 0; e < edgeCount; e++) {
+			x[e] = prepare(independent[e]);
+			y[e] = prepare(dependent[e]);
+			for (LayerMoments.ShiftedColumn[] layer : Arrays.asList(x[e], y[e]))
+				for (LayerMoments.ShiftedColumn c : layer) {
+					if (rows >= 0 && c.rows != rows)
+						throw new IllegalArgumentException(
+								"All columns must have the same number of elements");
+					rows = c.rows;
+				}
+		}
+		final int n = Math.max(0, rows);
+
+		// the value of every cell in every replicate
+		final double[][][][] samples = new double[edgeCount][][][];
+		for (int e = 0; e < edgeCount; e++)
+			samples[e] = new double[x[e].length][y[e].length][this.replicates];
+
+		final int chunks = (this.replicates + CHUNK - 1) / CHUNK;
+		this.pool.invoke(new DependencyBuilder.Fan(0, chunks, 1,
+				new DependencyBuilder.Job() {
+					@Override
+					public void run(int k) {
+						int[] counts = new int[n];
+						int[] drawn = new int[n];
+						int end = Math.min(Bootstrap.this.replicates, (k + 1)
+								* CHUNK);
+						for (int b = k * CHUNK; b < end; b++) {
+							int distinct = Bootstrap.this.resample(b, counts,
+									drawn);
+							for (int e = 0; e < edgeCount; e++)
+								for (int i = 0; i < x[e].length; i++)
+									for (int j = 0; j < y[e].length; j++)
+										samples[e][i][j][b] = cell(x[e][i],
+												y[e][j], counts, drawn,
+												distinct).netDependency(
+												minimum);
+						}
+					}
+				}));
+
+		int rank = (int) Math.floor((1 - this.confidence) * this.replicates);
+		Double[][][] out = new Double[edgeCount][][];
+		for (int e = 0; e < edgeCount; e++) {
+			out[e] = new Double[x[e].length][y[e].length];
+			for (int i = 0; i < x[e].length; i++)
+				for (int j = 0; j < y[e].length; j++) {
+					double[] cell = samples[e][i][j];
+					Arrays.sort(cell);
+					out[e][i][j] = Double.valueOf(cell[rank]);
+				}
+		}
+		return out;
+	}
+
+	/**
+	 * Draws the rows of replicate {@code b}
+	 *
+	 * @param counts
+	 *            filled with the number of times each row is drawn
+	 * @param drawn
+	 *            filled with the rows drawn at least once, in order
+	 * @return the number of rows drawn at least once
+	 */
+	private int resample(int b, int[] counts, int[] drawn) {
+		SplittableRandom random = new SplittableRandom(this.seed + b);
+		Arrays.fill(counts, 0);
+		for (int t = 0; t < counts.length; t++)
+			counts[random.nextInt(counts.length)]++;
+		int distinct = 0;
+		for (int t = 0; t < counts.length; t++)
+			if (counts[t] > 0)
+				drawn[distinct++] = t;
+		return distinct;
+	}
+
+	/**
+	 * Computes the moments of a pair over the rows drawn, each counted as
+	 * many times as it was drawn
+	 */
+	private static PairMoments cell(LayerMoments.ShiftedColumn x,
+			LayerMoments.ShiftedColumn y, int[] counts, int[] drawn,
+			int distinct) {
+		long n = 0;
+		double sumX = 0;
+		double sumY = 0;
+		double sumXX = 0;
+		double sumYY = 0;
+		double sumXY = 0;
+		for (int d = 0; d < distinct; d++) {
+			int t = drawn[d];
+			if ((x.mask[t >>> 6] & y.mask[t >>> 6] & (1L << t)) == 0)
+				continue;
+			int w = counts[t];
+			n += w;
+			sumX += w * x.value[t];
+			sumY += w * y.value[t];
+			sumXX += w * x.square[t];
+			sumYY += w * y.square[t];
+			sumXY += w * x.value[t] * y.value[t];
+		}
+		return PairMoments.fromShiftedSums(n, x.shift, y.shift, sumX, sumY,
+				sumXX, sumYY, sumXY);
+	}
+
+	/**
+	 * Prepares the given columns
+	 */
+	private static LayerMoments.ShiftedColumn[] prepare(Column[] columns) {
+		LayerMoments.ShiftedColumn[] out = new LayerMoments.ShiftedColumn[columns.length];
+		for (int i = 0; i < out.length; i++)
+			out[i] = new LayerMoments.ShiftedColumn(columns[i]);
+		return out;
+	}
+
+	/**
+	 * Checks that the bounds of random tables agree, within
+	 * {@link Main#TOLERANCE}, with those found by drawing every resample as
+	 * rows (each repeated as many times as it was drawn), scoring it with the
+	 * code the shifted sums replaced
+	 * ({@link Main#serialDependency(double[][], double[][], double)}) and
+	 * ranking the scores of each cell; that the bounds are the same with one
+	 * thread or four; and that the bounds of a model are those of each of its
+	 * relations on its own. Run with assertions enabled ({@code -ea}).
+	 *
+	 * @param args
+	 *            (ignored)
+	 * @throws AssertionError
+	 *             if a bound disagrees
+	 * @since 0.02 2026-10-16
+	 */
+	public static void main(String[] args) throws AssertionError {
+		System.err.println("Validating class...");
+		Random random = new Random(101);
+		ForkJoinPool one = new ForkJoinPool(1);
+		ForkJoinPool four = new ForkJoinPool(4);
+		try {
+			for (int test = 0; test < 20; test++) {
+				int rows = 20 + random.nextInt(40);
+				double[] factor = Main.factor(random, rows);
+				double[][] x = Main.sample(random, factor,
+						1 + random.nextInt(4));
+				double[][] y = Main.sample(random, factor,
+						1 + random.nextInt(4));
+				double[][] z = Main.sample(random, factor,
+						1 + random.nextInt(4));
+				int replicates = 1 + random.nextInt(150);
+				double confidence = 0.5 + 0.49 * random.nextDouble();
+				double minimum = random.nextBoolean() ? Double.NEGATIVE_INFINITY
+						: 0.5;
+				long seed = random.nextLong();
+				Bootstrap bootstrap = new Bootstrap(one, replicates,
+						confidence, seed);
+				Double[][] bound = bootstrap.lowerBound(Column.of(x),
+						Column.of(y), minimum);
+
+				// every resample, drawn row by row
+				double[][][] cells = new double[x.length][y.length][replicates];
+				int[] counts = new int[rows];
+				int[] drawn = new int[rows];
+				for (int b = 0; b < replicates; b++) {
+					bootstrap.resample(b, counts, drawn);
+					double[][] rx = new double[x.length][rows];
+					double[][] ry = new double[y.length][rows];
+					for (int t = 0, r = 0; t < rows; t++)
+						for (int c = 0; c < counts[t]; c++, r++) {
+							for (int i = 0; i < x.length; i++)
+								rx[i][r] = x[i][t];
+							for (int j = 0; j < y.length; j++)
+								ry[j][r] = y[j][t];
+						}
+					Double[][] table = Main.serialDependency(rx, ry, minimum);
+					for (int i = 0; i < x.length; i++)
+						for (int j = 0; j < y.length; j++)
+							cells[i][j][b] = table[i][j].doubleValue();
+				}
+				int rank = (int) Math.floor((1 - confidence) * replicates);
+				Double[][] expected = new Double[x.length][y.length];
+				for (int i = 0; i < x.length; i++)
+					for (int j = 0; j < y.length; j++) {
+						Arrays.sort(cells[i][j]);
+						expected[i][j] = Double.valueOf(cells[i][j][rank]);
+					}
+				assert Main.agree(bound, expected, Main.TOLERANCE) : "Test "
+						+ test + " disagrees with the serial resamples";
+				assert Main.agree(bound, new Bootstrap(four, replicates,
+						confidence, seed).lowerBound(Column.of(x),
+						Column.of(y), minimum), 0) : "Test " + test
+						+ " depends on the threads";
+
+				DomainKnowledge m = new DomainKnowledge(3);
+				double[][][] layers = { x, y, z };
+				Map<String, Column[]> columns = new LinkedHashMap<String, Column[]>();
+				for (int l = 0; l < layers.length; l++) {
+					List<String> names = new ArrayList<String>();
+					for (int i = 0; i < layers[l].length; i++)
+						names.add("L" + l + "v" + i);
+					m.addLayer("L" + l, names);
+					columns.put("L" + l, Column.of(layers[l]));
+				}
+				m.addDependency("L0", "L1");
+				m.addDependency("L1", "L2");
+				m.addDependency("L0", "L2");
+				bootstrap = new Bootstrap(four, replicates, confidence, seed);
+				bootstrap.build(m, columns, minimum);
+				for (String[] e : DependencyBuilder.edges(m))
+					assert Main.agree(m.getDependencyTable(e[0], e[1]),
+							bootstrap.lowerBound(columns.get(e[0]),
+									columns.get(e[1]), minimum), 0) : e[0]
+							+ "->" + e[1] + " is not bounded on its own";
+			}
+		} finally {
+			one.shutdown();
+			four.shutdown();
+		}
+		System.err.println("Validation complete");
+	}
+
+	@Override
+	public String toString() {
+		return "Bootstrap[" + this.replicates + " replicates, "
+				+ this.confidence + " confidence]";
+	}
+}
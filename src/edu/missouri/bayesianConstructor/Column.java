@@ -0,0 +1,495 @@
+package edu.missouri.bayesianConstructor;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.RandomAccess;
+
+/**
+ * A column of values for a single variable, together with a bitset marking
+ * which of its values are known. Bit <i>t</i> of the mask (bit
+ * <i>t</i>&amp;63 of word <i>t</i>&gt;&gt;&gt;6) is set if and only if the
+ * <i>t</i><sup>th</sup> value is not {@code NaN}.
+ * <p/>
+ * The mask is computed once, when the column is created, so the observations
+ * two columns have in common (their pairwise-complete observations) can be
+ * found a word at a time by {@link #pairwiseCount(Column, Column)} and the
+ * moment loops in {@link PairMoments} and {@link LayerMoments} can visit only
+ * those observations, rather than testing every value of both columns for
+ * {@code NaN} for every pair of variables.
+ * <p/>
+ * Each column also carries a 64-bit {@link #fingerprint()} of its contents,
+ * which {@link DependencyCache} uses to recognize columns it has already
+ * seen, even when they are different arrays.
+ * <p/>
+ * A column may also be a {@link #lag(int) lagged view} of another: row
+ * <i>t</i> of the view is row <i>t</i>&minus;<i>k</i> of the original, and
+ * rows that fall outside the original are missing. Views share the array of
+ * the column they were made from; only the mask is new. The same holds for
+ * {@link #slice(int, int) slices}, which hold a range of rows of the original.
+ *
+ * @author <a href="mailto:fthc8@missouri.edu">Fernando J. Torre-Mora</a>
+ * @version 0.05 2026-10-16
+ * @since {@code bayesianConstructor} version 0.28 2026-10-16
+ */
+public class Column {
+	/** The values of the variable, with {@code NaN} marking a missing value */
+	private final double[] values;
+
+	/** The index in {@link #values} of row 0 (see {@link #offset()}) */
+	private final int offset;
+
+	/** The number of rows in the column */
+	private final int size;
+
+	/** The validity bitset: a bit is set if the corresponding value is known */
+	private final long[] mask;
+
+	/** The number of bits set in {@link #mask} */
+	private final int validCount;
+
+	/** A hash of the contents of the column (see {@link #fingerprint()}) */
+	private final long fingerprint;
+
+	/** Multiplier used to spread each value over the hash */
+	private static final long SPREAD = 0x9E3779B97F4A7C15L;
+
+	/**
+	 * Creates a column backed by the given array. The array is not copied, so
+	 * it must not be modified after the column is created; otherwise the mask
+	 * will no longer reflect its contents.
+	 *
+	 * @param values
+	 *            the values of the variable, with {@code NaN} marking a
+	 *            missing value
+	 */
+	public Column(double[] values) {
+		this(values, 0, values.length);
+	}
+
+	/**
+	 * Creates a column of {@code size} rows where row <i>t</i> is
+	 * {@code values[t+offset]}, or missing if that index is outside
+	 * {@code values}
+	 */
+	private Column(double[] values, int offset, int size) {
+		this.values = values;
+		this.offset = offset;
+		this.size = size;
+		this.mask = new long[words(size)];
+		int first = Math.max(0, Math.min(size, -offset));
+		int last = Math.max(first, Math.min(size, values.length - offset));
+		int count = 0;
+		long hash = size;
+		long missing = Double.doubleToLongBits(Double.NaN);
+		for (int t = 0; t < first; t++)
+			hash = mix(hash, missing);
+		for (int t = first; t < last; t++) {
+			double d = values[t + offset];
+			if (!Double.isNaN(d)) {
+				this.mask[t >>> 6] |= 1L << t;
+				count++;
+			}
+			hash = mix(hash, Double.doubleToLongBits(d));
+		}
+		for (int t = last; t < size; t++)
+			hash = mix(hash, missing);
+		this.validCount = count;
+		this.fingerprint = finish(hash);
+	}
+
+	/**
+	 * Adds the bits of one value to the hash of the values before it
+	 */
+	private static long mix(long hash, long bits) {
+		return Long.rotateLeft(hash ^ (bits * SPREAD), 31)
+				* 0xBF58476D1CE4E5B9L;
+	}
+
+	/**
+	 * Mixes the bits of the given hash so that every bit of the result
+	 * depends on every bit of the input (the finalizer of SplitMix64)
+	 */
+	private static long finish(long z) {
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+	/**
+	 * Creates a column from a list of values, where {@code null} and
+	 * {@code NaN} mark a missing value (see {@link Main#toArray(List)})
+	 *
+	 * @param values
+	 *            the values of the variable
+	 * @return a column with the same values
+	 */
+	public static Column of(List<Double> values) {
+		if (values instanceof ColumnList)
+			return ((ColumnList) values).column;
+		return new Column(Main.toArray(values));
+	}
+
+	/**
+	 * Creates a column for each of the given arrays
+	 *
+	 * @param columns
+	 *            the values of each variable
+	 * @return an array containing {@code new Column(columns[i])} in each
+	 *         position <i>i</i>
+	 */
+	public static Column[] of(double[][] columns) {
+		Column[] out = new Column[columns.length];
+		for (int i = 0; i < columns.length; i++)
+			out[i] = new Column(columns[i]);
+		return out;
+	}
+
+	/**
+	 * Creates a column for each of the given lists (see {@link #of(List)}).
+	 * Typically used to convert all the variables of a layer at once.
+	 *
+	 * @param lists
+	 *            the values of each variable
+	 * @return an array containing {@code Column.of(lists.get(i))} in each
+	 *         position <i>i</i>
+	 * @since 0.03 2026-10-16
+	 */
+	public static Column[] ofLists(List<List<Double>> lists) {
+		Column[] out = new Column[lists.size()];
+		for (int i = 0; i < out.length; i++)
+			out[i] = of(lists.get(i));
+		return out;
+	}
+
+	/**
+	 * Gets a view of this column lagged by {@code k} rows: row <i>t</i> of the
+	 * view holds row <i>t</i>&minus;{@code k} of this column, so that, for
+	 * time series, each row sees the value from {@code k} steps earlier. The
+	 * view has the same size as this column; the first {@code k} rows (or, if
+	 * {@code k} is negative, the last &minus;{@code k}) are missing. A
+	 * negative {@code k} therefore gives the value {@code -k} steps later.
+	 * <p/>
+	 * The values are not copied: the view shares this column's array, and
+	 * only its mask and fingerprint are computed, in a single pass.
+	 *
+	 * @param k
+	 *            the number of rows to shift the values by
+	 * @return a column where {@code get(t)} equals {@code this.get(t-k)}
+	 *         whenever {@code t-k} is a row of this column, and {@code NaN}
+	 *         otherwise
+	 * @since 0.03 2026-10-16
+	 */
+	public Column lag(int k) {
+		if (k == 0)
+			return this;
+		return new Column(this.values, this.offset - k, this.size);
+	}
+
+	/**
+	 * Gets a view of rows {@code from} (inclusive) to {@code to} (exclusive)
+	 * of this column: row <i>t</i> of the view is row {@code from}+<i>t</i>
+	 * of this column. As with {@link #lag(int)}, the values are not copied.
+	 *
+	 * @param from
+	 *            the first row of the view
+	 * @param to
+	 *            the row after the last row of the view
+	 * @return a column of {@code to-from} rows where {@code get(t)} equals
+	 *         {@code this.get(from+t)}
+	 * @throws IndexOutOfBoundsException
+	 *             if the range is not within this column
+	 * @since 0.04 2026-10-16
+	 */
+	public Column slice(int from, int to) throws IndexOutOfBoundsException {
+		if (from < 0 || to > this.size || from > to)
+			throw new IndexOutOfBoundsException("Rows " + from + " to " + to
+					+ " are not within a column of " + this.size + " rows");
+		if (from == 0 && to == this.size)
+			return this;
+		return new Column(this.values, this.offset + from, to - from);
+	}
+
+	/**
+	 * Wraps this column in a fixed-size, read-only {@code List}, without
+	 * copying it. Values are only boxed when they are retrieved with
+	 * {@code get}, and {@link #of(List)} recovers this column from the list.
+	 *
+	 * @return a {@code List} whose <i>t</i><sup>th</sup> element is
+	 *         {@code get(t)}
+	 * @since 0.03 2026-10-16
+	 */
+	public List<Double> asList() {
+		return new ColumnList(this);
+	}
+
+	/**
+	 * Gets the number of 64-bit words needed to hold one bit per row
+	 *
+	 * @param rows
+	 *            the number of rows
+	 * @return &lceil;{@code rows}/64&rceil;
+	 */
+	public static int words(int rows) {
+		return (rows + 63) >>> 6;
+	}
+
+	/**
+	 * Gets the number of values in the column, known or not
+	 *
+	 * @return the length of the column
+	 */
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * Gets the number of known values in the column
+	 *
+	 * @return the number of values that are not {@code NaN}
+	 */
+	public int validCount() {
+		return this.validCount;
+	}
+
+	/**
+	 * Gets the <i>t</i><sup>th</sup> value of the column
+	 *
+	 * @param t
+	 *            the index of the value
+	 * @return the value, or {@code NaN} if it is missing
+	 */
+	public double get(int t) {
+		return this.isValid(t) ? this.values[t + this.offset] : Double.NaN;
+	}
+
+	/**
+	 * Indicates whether the <i>t</i><sup>th</sup> value of the column is known
+	 *
+	 * @param t
+	 *            the index of the value
+	 * @return {@code true} if the value is not {@code NaN}
+	 */
+	public boolean isValid(int t) {
+		return (this.mask[t >>> 6] & (1L << t)) != 0;
+	}
+
+	/**
+	 * Gets a 64-bit hash of the length and contents of this column. Columns
+	 * with the same values (with every {@code NaN} considered equal) have the
+	 * same fingerprint; columns with different values have the same
+	 * fingerprint only with probability about 2<sup>&minus;64</sup>.
+	 *
+	 * @return the fingerprint of the column
+	 * @since 0.02 2026-10-16
+	 */
+	public long fingerprint() {
+		return this.fingerprint;
+	}
+
+	/**
+	 * Gets the array backing this column. It is not a copy, and must not be
+	 * modified. Row <i>t</i> of the column is at index <i>t</i>+
+	 * {@link #offset()} of the array, which is only guaranteed to exist for
+	 * the rows set in the {@link #mask()}.
+	 *
+	 * @return the values of the column
+	 */
+	public double[] values() {
+		return this.values;
+	}
+
+	/**
+	 * Gets the index in {@link #values()} of the first row of this column:
+	 * zero for a column created from an array, and &minus;<i>k</i> for a view
+	 * lagged by <i>k</i> (see {@link #lag(int)})
+	 *
+	 * @return the offset of this column within its array
+	 * @since 0.03 2026-10-16
+	 */
+	public int offset() {
+		return this.offset;
+	}
+
+	/**
+	 * Gets the validity bitset of this column. It is not a copy, and must not
+	 * be modified.
+	 *
+	 * @return a bitset with one bit per row, set where the value is known
+	 */
+	public long[] mask() {
+		return this.mask;
+	}
+
+	/**
+	 * Computes the pairwise-complete mask of two columns: the rows where both
+	 * values are known
+	 *
+	 * @param a
+	 *            a column
+	 * @param b
+	 *            another column of the same size
+	 * @return the word-wise AND of both masks
+	 * @throws IllegalArgumentException
+	 *             if the columns are not of the same size
+	 */
+	public static long[] both(Column a, Column b)
+			throws IllegalArgumentException {
+		sameSize(a, b);
+		long[] out = new long[a.mask.length];
+		for (int w = 0; w < out.length; w++)
+			out[w] = a.mask[w] & b.mask[w];
+		return out;
+	}
+
+	/**
+	 * Counts the rows where the values of both columns are known
+	 *
+	 * @param a
+	 *            a column
+	 * @param b
+	 *            another column of the same size
+	 * @return the number of pairwise-complete observations
+	 * @throws IllegalArgumentException
+	 *             if the columns are not of the same size
+	 */
+	public static int pairwiseCount(Column a, Column b)
+			throws IllegalArgumentException {
+		sameSize(a, b);
+		int out = 0;
+		for (int w = 0; w < a.mask.length; w++)
+			out += Long.bitCount(a.mask[w] & b.mask[w]);
+		return out;
+	}
+
+	/**
+	 * Checks that the given columns are of the same size
+	 *
+	 * @throws IllegalArgumentException
+	 *             if they are not
+	 */
+	private static void sameSize(Column a, Column b)
+			throws IllegalArgumentException {
+		if (a.size != b.size)
+			throw new IllegalArgumentException(
+					"Both columns must have the same number of elements");
+	}
+
+	/**
+	 * Checks that the masks, counts, views and fingerprints of random columns
+	 * with missing values agree with what testing every value for {@code NaN}
+	 * gives, as the code before this class did: that {@link #lag(int) lagged
+	 * views} and {@link #slice(int, int) slices} hold the same values as the
+	 * arrays shifted or cut by hand, and have the same fingerprint, that
+	 * {@link #pairwiseCount(Column, Column)} counts the rows where both values
+	 * are known, and that {@link #of(List)} recovers the column of
+	 * {@link #asList()}. Run with assertions enabled ({@code -ea}).
+	 *
+	 * @param args
+	 *            (ignored)
+	 * @throws AssertionError
+	 *             if a column disagrees with its values
+	 * @since 0.05 2026-10-16
+	 */
+	public static void main(String[] args) throws AssertionError {
+		System.err.println("Validating class...");
+		Random random = new Random(37);
+		for (int test = 0; test < 500; test++) {
+			int rows = random.nextInt(300);
+			double[] a = new double[rows];
+			double[] b = new double[rows];
+			for (int t = 0; t < rows; t++) {
+				a[t] = random.nextDouble() < .2 ? Double.NaN : random
+						.nextGaussian();
+				b[t] = random.nextDouble() < .2 ? Double.NaN : random
+						.nextGaussian();
+			}
+			Column x = new Column(a);
+			Column y = new Column(b);
+			check(x, a);
+
+			int both = 0;
+			for (int t = 0; t < rows; t++)
+				if (!Double.isNaN(a[t]) && !Double.isNaN(b[t]))
+					both++;
+			assert pairwiseCount(x, y) == both : pairwiseCount(x, y)
+					+ " rows in common instead of " + both;
+			long[] mask = both(x, y);
+			for (int t = 0; t < rows; t++)
+				assert ((mask[t >>> 6] & (1L << t)) != 0) == (x.isValid(t) && y
+						.isValid(t)) : "Row " + t + " of the common mask";
+
+			int k = random.nextInt(2 * rows + 1) - rows;
+			double[] lagged = new double[rows];
+			for (int t = 0; t < rows; t++)
+				lagged[t] = t - k >= 0 && t - k < rows ? a[t - k] : Double.NaN;
+			check(x.lag(k), lagged);
+			assert x.lag(k).fingerprint() == new Column(lagged).fingerprint() : "Lag "
+					+ k + " has another fingerprint than its values";
+
+			int from = random.nextInt(rows + 1);
+			int to = from + random.nextInt(rows - from + 1);
+			double[] sliced = Arrays.copyOfRange(a, from, to);
+			check(x.slice(from, to), sliced);
+			assert x.slice(from, to).fingerprint() == new Column(sliced)
+					.fingerprint() : "Rows " + from + " to " + to
+					+ " have another fingerprint than their values";
+
+			assert of(x.asList()) == x : "The list lost its column";
+			Column copy = of(new ArrayList<Double>(x.asList()));
+			check(copy, a);
+			assert copy.fingerprint() == x.fingerprint() : "A copy has another fingerprint";
+			assert x.fingerprint() != y.fingerprint() || Arrays.equals(a, b) : "Different columns share a fingerprint";
+		}
+		System.err.println("Validation complete");
+	}
+
+	/**
+	 * Checks that the given column holds the given values, testing each one
+	 * for {@code NaN}
+	 */
+	private static void check(Column c, double[] values) throws AssertionError {
+		assert c.size() == values.length : c.size() + " rows instead of "
+				+ values.length;
+		int known = 0;
+		for (int t = 0; t < values.length; t++) {
+			assert c.isValid(t) == !Double.isNaN(values[t]) : "Row " + t
+					+ " of the mask";
+			assert Double.compare(c.get(t), values[t]) == 0 : "Row " + t
+					+ " holds " + c.get(t) + " instead of " + values[t];
+			assert Double.compare(c.asList().get(t).doubleValue(), values[t]) == 0 : "Row "
+					+ t + " of the list";
+			if (!Double.isNaN(values[t]))
+				known++;
+		}
+		assert c.validCount() == known : c.validCount() + " known values instead of "
+				+ known;
+	}
+
+	/**
+	 * A read-only {@code List} view of a column (see {@link Column#asList()})
+	 */
+	private static class ColumnList extends AbstractList<Double> implements
+			RandomAccess {
+		private final Column column;
+
+		ColumnList(Column column) {
+			this.column = column;
+		}
+
+		@Override
+		public Double get(int index) {
+			if (index < 0 || index >= this.column.size)
+				throw new IndexOutOfBoundsException("Index: " + index
+						+ ", Size: " + this.column.size);
+			return Double.valueOf(this.column.get(index));
+		}
+
+		@Override
+		public int size() {
+			return this.column.size;
+		}
+	}
+}
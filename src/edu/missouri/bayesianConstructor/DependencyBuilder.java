@@ -0,0 +1,825 @@
+package edu.missouri.bayesianConstructor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import edu.ucla.structure.DirectedEdge;
+
+/**
+ * Computes every dependency table of a {@link DomainKnowledge} model in
+ * parallel. Instead of calling
+ * {@link Main#getDependency(double[][], double[][], double)} for one relation
+ * after another, the builder takes the layer structure already present in the
+ * model and the columns of values for each layer, and splits the computation
+ * of every cell of every table over a {@link ForkJoinPool}.
+ * <p/>
+ * Each column is prepared only once, no matter how many relations it takes
+ * part in, and each cell is computed by exactly one task using the same
+ * arithmetic, in the same order, as
+ * {@link LayerMoments#compute(double[][], double[][])}. The tables produced are
+ * therefore identical, bit for bit, to the ones produced by the serial path,
+ * regardless of the number of threads or how the work is scheduled.
+ * <p/>
+ * The model itself is only modified by the thread calling
+ * {@link #build(DomainKnowledge, Map, double)}, once every table has been
+ * computed, so {@link DomainKnowledge} does not need to be thread-safe.
+ * <p/>
+ * A builder may be given a {@link DependencyCache}, in which case the moments
+ * of every pair are looked up in it before being computed, and stored in it
+ * afterwards. Since the cache holds moments computed by the same kernel, the
+ * tables are the same with or without it.
+ * <p/>
+ * The columns of each layer may be given either as arrays or as
+ * {@link Column}s (see {@link #buildColumns(DomainKnowledge, Map, double)}),
+ * which lets lagged variables be passed as {@link Column#lag(int) views} of
+ * the variables they are lagged from rather than as copies.
+ * <p/>
+ * The tables may also be computed with a {@link DependencyMeasure} other than
+ * the default (see
+ * {@link #buildColumns(DomainKnowledge, Map, double, DependencyMeasure)}), in
+ * which case each relation is computed by a single task.
+ *
+ * @author <a href="mailto:fthc8@missouri.edu">Fernando J. Torre-Mora</a>
+ * @version 0.10 2026-10-16
+ * @since {@code bayesianConstructor} version 0.27 2026-10-16
+ */
+public class DependencyBuilder {
+	/**
+	 * Approximate number of row-pairs a single task should process before it
+	 * stops splitting its work into subtasks
+	 */
+	public static final int GRAIN = 1 << 14;
+
+	/** The pool the tables are computed in */
+	private final ForkJoinPool pool;
+
+	/** The cache of moments used, or {@code null} if none */
+	private final DependencyCache cache;
+
+	/**
+	 * Creates a builder that runs on the common {@link ForkJoinPool}
+	 */
+	public DependencyBuilder() {
+		this(ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Creates a builder that runs on the given pool
+	 *
+	 * @param pool
+	 *            the pool the tables will be computed in
+	 */
+	public DependencyBuilder(ForkJoinPool pool) {
+		this(pool, null);
+	}
+
+	/**
+	 * Creates a builder that runs on the common {@link ForkJoinPool} and
+	 * reuses the moments stored in the given cache
+	 *
+	 * @param cache
+	 *            the cache of moments to be used
+	 * @since 0.03 2026-10-16
+	 */
+	public DependencyBuilder(DependencyCache cache) {
+		this(ForkJoinPool.commonPool(), cache);
+	}
+
+	/**
+	 * Creates a builder that runs on the given pool and reuses the moments
+	 * stored in the given cache
+	 *
+	 * @param pool
+	 *            the pool the tables will be computed in
+	 * @param cache
+	 *            the cache of moments to be used, or {@code null} to compute
+	 *            every pair
+	 * @since 0.03 2026-10-16
+	 */
+	public DependencyBuilder(ForkJoinPool pool, DependencyCache cache) {
+		this.pool = pool;
+		this.cache = cache;
+	}
+
+	/**
+	 * Computes the dependency table of every relation in {@code m} (see
+	 * {@link Main#getDependency(double[][], double[][], double)}) and stores it
+	 * in {@code m} with
+	 * {@link DomainKnowledge#setDependency(String, String, Double[][])}. The
+	 * relations must already have been created, for instance with
+	 * {@link DomainKnowledge#addDependency(String, String)}.
+	 *
+	 * @param m
+	 *            the model whose dependency tables are to be computed
+	 * @param columns
+	 *            the columns of values for each layer, keyed by layer name, in
+	 *            the same order as the layer's variables. {@code NaN} marks a
+	 *            missing value.
+	 * @param minimum
+	 *            Value for the forward dependency below which a cell is
+	 *            discarded
+	 * @return the moments each table was computed from, keyed by relation, so
+	 *         that they can be reused (e.g. merged or tabulated with another
+	 *         minimum) without scanning the data again
+	 * @throws IllegalArgumentException
+	 *             if a layer taking part in a relation has no columns in
+	 *             {@code columns} or the wrong number of them, or if the
+	 *             columns of two related layers are not all the same length
+	 */
+	public Map<DirectedEdge, LayerMoments> build(DomainKnowledge m,
+			Map<String, double[][]> columns, double minimum)
+			throws IllegalArgumentException {
+		Map<DirectedEdge, LayerMoments> out = this.moments(m, columns);
+		tabulate(m, out, minimum);
+		return out;
+	}
+
+	/**
+	 * Computes every dependency table of {@code m} using the default minimum
+	 * of 0.5 (see {@link #build(DomainKnowledge, Map, double)}).
+	 *
+	 * @param m
+	 *            the model whose dependency tables are to be computed
+	 * @param columns
+	 *            the columns of values for each layer, keyed by layer name
+	 * @return the moments each table was computed from, keyed by relation
+	 * @throws IllegalArgumentException
+	 *             if the columns do not match the layers of {@code m}
+	 */
+	public Map<DirectedEdge, LayerMoments> build(DomainKnowledge m,
+			Map<String, double[][]> columns) throws IllegalArgumentException {
+		return this.build(m, columns, 0.5);
+	}
+
+	/**
+	 * Computes every dependency table of {@code m} (see
+	 * {@link #build(DomainKnowledge, Map, double)}) from columns that have
+	 * already been wrapped in {@link Column}s, such as
+	 * {@link Column#lag(int) lagged views}
+	 *
+	 * @param m
+	 *            the model whose dependency tables are to be computed
+	 * @param columns
+	 *            the columns of each layer, keyed by layer name, in the same
+	 *            order as the layer's variables
+	 * @param minimum
+	 *            Value for the forward dependency below which a cell is
+	 *            discarded
+	 * @return the moments each table was computed from, keyed by relation
+	 * @throws IllegalArgumentException
+	 *             if the columns do not match the layers of {@code m}
+	 * @since 0.05 2026-10-16
+	 */
+	public Map<DirectedEdge, LayerMoments> buildColumns(DomainKnowledge m,
+			Map<String, Column[]> columns, double minimum)
+			throws IllegalArgumentException {
+		Map<DirectedEdge, LayerMoments> out = this.columnMoments(m, columns);
+		tabulate(m, out, minimum);
+		return out;
+	}
+
+	/**
+	 * Computes every dependency table of {@code m} from the given
+	 * {@link Column}s using the default minimum of 0.5 (see
+	 * {@link #buildColumns(DomainKnowledge, Map, double)}).
+	 *
+	 * @param m
+	 *            the model whose dependency tables are to be computed
+	 * @param columns
+	 *            the columns of each layer, keyed by layer name
+	 * @return the moments each table was computed from, keyed by relation
+	 * @throws IllegalArgumentException
+	 *             if the columns do not match the layers of {@code m}
+	 * @since 0.05 2026-10-16
+	 */
+	public Map<DirectedEdge, LayerMoments> buildColumns(DomainKnowledge m,
+			Map<String, Column[]> columns) throws IllegalArgumentException {
+		return this.buildColumns(m, columns, 0.5);
+	}
+
+	/**
+	 * Computes every dependency table of {@code m} with the given
+	 * {@link DependencyMeasure} (see
+	 * {@link #buildColumns(DomainKnowledge, Map, double, DependencyMeasure)})
+	 *
+	 * @param m
+	 *            the model whose dependency tables are to be computed
+	 * @param columns
+	 *            the columns of values for each layer, keyed by layer name
+	 * @param minimum
+	 *            Value for the forward dependency below which a cell is
+	 *            discarded, on the scale of {@code measure}
+	 * @param measure
+	 *            the measure each cell is computed with
+	 * @throws IllegalArgumentException
+	 *             if the columns do not match the layers of {@code m}
+	 * @since 0.07 2026-10-16
+	 */
+	public void build(DomainKnowledge m, Map<String, double[][]> columns,
+			double minimum, DependencyMeasure measure)
+			throws IllegalArgumentException {
+		this.buildColumns(m, this.wrap(edges(m), columns), minimum, measure);
+	}
+
+	/**
+	 * Computes every dependency table of {@code m} with the given
+	 * {@link DependencyMeasure}, one relation per task, and stores it in
+	 * {@code m}. If the measure is the {@link SteMeasure}, this is the same as
+	 * {@link #buildColumns(DomainKnowledge, Map, double)}, using the cache if
+	 * there is one; otherwise each table is computed by
+	 * {@link DependencyMeasure#getDependency(Column[], Column[], double)}.
+	 *
+	 * @param m
+	 *            the model whose dependency tables are to be computed
+	 * @param columns
+	 *            the columns of each layer, keyed by layer name
+	 * @param minimum
+	 *            Value for the forward dependency below which a cell is
+	 *            discarded, on the scale of {@code measure}
+	 * @param measure
+	 *            the measure each cell is computed with
+	 * @throws IllegalArgumentException
+	 *             if the columns do not match the layers of {@code m}
+	 * @since 0.07 2026-10-16
+	 */
+	public void buildColumns(DomainKnowledge m, Map<String, Column[]> columns,
+			double minimum, final DependencyMeasure measure)
+			throws IllegalArgumentException {
+		if (measure instanceof SteMeasure) {
+			this.buildColumns(m, columns, minimum);
+			return;
+		}
+		final List<String[]> edges = edges(m);
+		layers(m, edges, columns);
+		final Column[][] x = new Column[edges.size()][];
+		final Column[][] y = new Column[edges.size()][];
+		for (int e = 0; e < x.length; e++) {
+			x[e] = columns.get(edges.get(e)[0]);
+			y[e] = columns.get(edges.get(e)[1]);
+		}
+		final double min = minimum;
+		final Double[][][] tables = new Double[edges.size()][][];
+		this.pool.invoke(new Fan(0, tables.length, 1, new Job() {
+			@Override
+			public void run(int e) {
+				tables[e] = measure.getDependency(x[e], y[e], min);
+			}
+		}));
+		for (int e = 0; e < tables.length; e++)
+			m.setDependency(edges.get(e)[0], edges.get(e)[1], tables[e]);
+	}
+
+	/**
+	 * Computes the moments of every relation in {@code m} without modifying
+	 * it (see {@link #build(DomainKnowledge, Map, double)})
+	 *
+	 * @param m
+	 *            the model whose relations are to be computed
+	 * @param columns
+	 *            the columns of values for each layer, keyed by layer name
+	 * @return the moments of each relation
+	 * @throws IllegalArgumentException
+	 *             if the columns do not match the layers of {@code m}
+	 * @since 0.04 2026-10-16
+	 */
+	public Map<DirectedEdge, LayerMoments> moments(DomainKnowledge m,
+			Map<String, double[][]> columns) throws IllegalArgumentException {
+		List<String[]> edges = edges(m);
+		layers(m, edges, columns);
+		return toMap(edges, this.moments(edges, this.wrap(edges, columns)));
+	}
+
+	/**
+	 * Computes the moments of every relation in {@code m} from the given
+	 * {@link Column}s, without modifying it (see
+	 * {@link #buildColumns(DomainKnowledge, Map, double)})
+	 *
+	 * @param m
+	 *            the model whose relations are to be computed
+	 * @param columns
+	 *            the columns of each layer, keyed by layer name
+	 * @return the moments of each relation
+	 * @throws IllegalArgumentException
+	 *             if the columns do not match the layers of {@code m}
+	 * @since 0.05 2026-10-16
+	 */
+	public Map<DirectedEdge, LayerMoments> columnMoments(DomainKnowledge m,
+			Map<String, Column[]> columns) throws IllegalArgumentException {
+		List<String[]> edges = edges(m);
+		layers(m, edges, columns);
+		return toMap(edges, this.moments(edges, columns));
+	}
+
+	/**
+	 * Computes the moments of every pair of the given variables, so that the
+	 * dependency tables of any model over them can later be assembled
+	 * without going back to the data (see {@link DependencyMatrix}). Each
+	 * pair is computed once, in one orientation, by the same kernel (and
+	 * cache, if any) as the tables of {@link #build(DomainKnowledge, Map)},
+	 * so the tables assembled from the matrix are identical to the ones
+	 * built from the columns.
+	 *
+	 * @param variables
+	 *            the column of each variable, keyed by name
+	 * @return the matrix of the moments of every pair
+	 * @throws IllegalArgumentException
+	 *             if the columns are not all the same size
+	 * @since 0.06 2026-10-16
+	 */
+	public DependencyMatrix matrix(Map<String, Column> variables)
+			throws IllegalArgumentException {
+		final String[] names = variables.keySet().toArray(new String[0]);
+		final Column[] columns = new Column[names.length];
+		long[] fingerprints = new long[names.length];
+		for (int i = 0; i < names.length; i++) {
+			columns[i] = variables.get(names[i]);
+			fingerprints[i] = columns[i].fingerprint();
+		}
+		final LayerMoments.ShiftedColumn[] prepared = new LayerMoments.ShiftedColumn[names.length];
+		this.pool.invoke(new Fan(0, names.length, 1, new Job() {
+			@Override
+			public void run(int k) {
+				prepared[k] = new LayerMoments.ShiftedColumn(columns[k]);
+			}
+		}));
+		int rows = sameLength(prepared, prepared);
+
+		// one cell per pair i <= j, packed as in DependencyMatrix
+		final PairMoments[] cells = new PairMoments[DependencyMatrix
+				.pairs(names.length)];
+		this.pool.invoke(new Fan(0, names.length, Math.max(1, GRAIN
+				/ Math.max(1, rows * names.length)), new Job() {
+			@Override
+			public void run(int j) {
+				for (int i = 0; i <= j; i++)
+					cells[DependencyMatrix.pair(i, j)] = DependencyBuilder.this
+							.cell(prepared[i], prepared[j]);
+			}
+		}));
+		return DependencyMatrix.of(names, fingerprints, cells);
+	}
+
+	/**
+	 * Keys the moments of each relation by the relation
+	 */
+	private static Map<DirectedEdge, LayerMoments> toMap(List<String[]> edges,
+			LayerMoments[] moments) {
+		Map<DirectedEdge, LayerMoments> out = new LinkedHashMap<DirectedEdge, LayerMoments>();
+		for (int e = 0; e < moments.length; e++)
+			out.put(new DirectedEdge(edges.get(e)[0], edges.get(e)[1]),
+					moments[e]);
+		return out;
+	}
+
+	/**
+	 * Stores in {@code m} the dependency table of each of the given relations
+	 *
+	 * @param m
+	 *            the model in which the relations already exist
+	 * @param moments
+	 *            the moments of each relation, as returned by
+	 *            {@link #moments(DomainKnowledge, Map)}
+	 * @param minimum
+	 *            Value for the forward dependency below which a cell is
+	 *            discarded
+	 * @throws IllegalArgumentException
+	 *             if a table does not match the size of its layers
+	 * @throws IllegalStateException
+	 *             if a relation does not exist in {@code m}
+	 * @since 0.04 2026-10-16
+	 */
+	public static void tabulate(DomainKnowledge m,
+			Map<DirectedEdge, LayerMoments> moments, double minimum)
+			throws IllegalArgumentException, IllegalStateException {
+		for (Map.Entry<DirectedEdge, LayerMoments> e : moments.entrySet())
+			m.setDependency((String) e.getKey().v1(),
+					(String) e.getKey().v2(), e.getValue().table(minimum));
+	}
+
+	/**
+	 * Lists the relations of the model as {independent, dependent} pairs
+	 */
+	static List<String[]> edges(DomainKnowledge m) {
+		List<String[]> out = new ArrayList<String[]>();
+		for (String independent : m.layerSet())
+			for (String dependent : m.getDependents(independent))
+				out.add(new String[] { independent, dependent });
+		return out;
+	}
+
+	/**
+	 * Lists the layers taking part in {@code edges}, each once
+	 *
+	 * @throws IllegalArgumentException
+	 *             if a layer has no columns in {@code columns}
+	 */
+	static List<String> layers(List<String[]> edges,
+			Map<String, ?> columns) throws IllegalArgumentException {
+		List<String> names = new ArrayList<String>();
+		for (String[] edge : edges)
+			for (String layer : edge)
+				if (!names.contains(layer)) {
+					if (columns.get(layer) == null)
+						throw new IllegalArgumentException(
+								"No columns were given for layer " + layer);
+					names.add(layer);
+				}
+		return names;
+	}
+
+	/**
+	 * Lists the layers taking part in the relations of {@code m}, each once,
+	 * checking that each has one column per variable
+	 *
+	 * @throws IllegalArgumentException
+	 *             if a layer has no columns in {@code columns}, or a number of
+	 *             them other than its number of variables
+	 * @since 0.08 2026-10-16
+	 */
+	static List<String> layers(DomainKnowledge m, List<String[]> edges,
+			Map<String, ? extends Object[]> columns)
+			throws IllegalArgumentException {
+		List<String> names = layers(edges, columns);
+		for (String layer : names) {
+			List<String> variables = m.getLayer(layer);
+			int expected = variables == null ? 0 : variables.size();
+			if (columns.get(layer).length != expected)
+				throw new IllegalArgumentException("Layer " + layer + " has "
+						+ expected + " variables, but "
+						+ columns.get(layer).length + " columns were given");
+		}
+		return names;
+	}
+
+	/**
+	 * Wraps the arrays of every layer taking part in {@code edges} in
+	 * {@link Column}s, in parallel
+	 *
+	 * @throws IllegalArgumentException
+	 *             if a layer has no columns in {@code columns}
+	 */
+	private Map<String, Column[]> wrap(List<String[]> edges,
+			final Map<String, double[][]> columns)
+			throws IllegalArgumentException {
+		final List<String> names = layers(edges, columns);
+		final Map<String, Column[]> out = new HashMap<String, Column[]>();
+		final int[] columnOffsets = new int[names.size() + 1];
+		for (int l = 0; l < names.size(); l++) {
+			double[][] layerColumns = columns.get(names.get(l));
+			out.put(names.get(l), new Column[layerColumns.length]);
+			columnOffsets[l + 1] = columnOffsets[l] + layerColumns.length;
+		}
+		this.pool.invoke(new Fan(0, columnOffsets[names.size()], 1, new Job() {
+			@Override
+			public void run(int k) {
+				int l = locate(columnOffsets, k);
+				String layer = names.get(l);
+				out.get(layer)[k - columnOffsets[l]] = new Column(
+						columns.get(layer)[k - columnOffsets[l]]);
+			}
+		}));
+		return out;
+	}
+
+	/**
+	 * Computes the moments of every relation in {@code edges}
+	 *
+	 * @throws IllegalArgumentException
+	 *             if the columns do not match the relations
+	 */
+	private LayerMoments[] moments(List<String[]> edges,
+			final Map<String, Column[]> columns)
+			throws IllegalArgumentException {
+		// prepare every layer used, once
+		final List<String> names = layers(edges, columns);
+		final Map<String, LayerMoments.ShiftedColumn[]> prepared = new HashMap<String, LayerMoments.ShiftedColumn[]>();
+		final int[] columnOffsets = new int[names.size() + 1];
+		for (int l = 0; l < names.size(); l++) {
+			Column[] layerColumns = columns.get(names.get(l));
+			prepared.put(names.get(l),
+					new LayerMoments.ShiftedColumn[layerColumns.length]);
+			columnOffsets[l + 1] = columnOffsets[l] + layerColumns.length;
+		}
+		this.pool.invoke(new Fan(0, columnOffsets[names.size()], 1, new Job() {
+			@Override
+			public void run(int k) {
+				int l = locate(columnOffsets, k);
+				String layer = names.get(l);
+				prepared.get(layer)[k - columnOffsets[l]] = new LayerMoments.ShiftedColumn(
+						columns.get(layer)[k - columnOffsets[l]]);
+			}
+		}));
+
+		// lay every cell of every table out in a single range
+		final int edgeCount = edges.size();
+		final LayerMoments.ShiftedColumn[][] x = new LayerMoments.ShiftedColumn[edgeCount][];
+		final LayerMoments.ShiftedColumn[][] y = new LayerMoments.ShiftedColumn[edgeCount][];
+		final PairMoments[][][] cells = new PairMoments[edgeCount][][];
+		final int[] cellOffsets = new int[edgeCount + 1];
+		int rows = 0;
+		for (int e = 0; e < edgeCount; e++) {
+			x[e] = prepared.get(edges.get(e)[0]);
+			y[e] = prepared.get(edges.get(e)[1]);
+			int length = sameLength(x[e], y[e]);
+			rows = Math.max(rows, length);
+			cells[e] = new PairMoments[x[e].length][y[e].length];
+			cellOffsets[e + 1] = cellOffsets[e] + x[e].length * y[e].length;
+		}
+
+		this.pool.invoke(new Fan(0, cellOffsets[edgeCount], Math.max(1, GRAIN
+				/ Math.max(1, rows)), new Job() {
+			@Override
+			public void run(int k) {
+				int e = locate(cellOffsets, k);
+				int width = y[e].length;
+				int i = (k - cellOffsets[e]) / width;
+				int j = (k - cellOffsets[e]) % width;
+				cells[e][i][j] = DependencyBuilder.this.cell(x[e][i], y[e][j]);
+			}
+		}));
+
+		LayerMoments[] out = new LayerMoments[edgeCount];
+		for (int e = 0; e < edgeCount; e++)
+			out[e] = new LayerMoments(cells[e]);
+		return out;
+	}
+
+	/**
+	 * Computes the moments of a single pair, using the cache if there is one
+	 */
+	private PairMoments cell(LayerMoments.ShiftedColumn x,
+			LayerMoments.ShiftedColumn y) {
+		if (this.cache == null)
+			return LayerMoments.cell(x, y);
+		PairMoments out = this.cache.get(x.fingerprint, y.fingerprint);
+		if (out == null) {
+			out = LayerMoments.cell(x, y);
+			this.cache.put(x.fingerprint, y.fingerprint, out);
+		}
+		return out;
+	}
+
+	/**
+	 * Checks that all the given columns have the same number of rows
+	 *
+	 * @return the number of rows, or 0 if there are no columns
+	 * @throws IllegalArgumentException
+	 *             if they do not
+	 */
+	private static int sameLength(LayerMoments.ShiftedColumn[] x,
+			LayerMoments.ShiftedColumn[] y) throws IllegalArgumentException {
+		int rows = x.length > 0 ? x[0].rows : y.length > 0 ? y[0].rows : 0;
+		for (LayerMoments.ShiftedColumn[] layer : Arrays.asList(x, y))
+			for (LayerMoments.ShiftedColumn c : layer)
+				if (c.rows != rows)
+					throw new IllegalArgumentException(
+							"All columns must have the same number of elements");
+		return rows;
+	}
+
+	/**
+	 * Finds the segment that contains index {@code k}
+	 *
+	 * @param offsets
+	 *            the first index of each segment, followed by the total
+	 * @return the largest <i>s</i> such that {@code offsets[s] <= k}, skipping
+	 *         empty segments
+	 */
+	private static int locate(int[] offsets, int k) {
+		int s = Arrays.binarySearch(offsets, 0, offsets.length - 1, k);
+		if (s < 0)
+			return -s - 2;
+		// several empty segments may start at k; use the last one
+		while (s + 1 < offsets.length - 1 && offsets[s + 1] == k)
+			s++;
+		return s;
+	}
+
+	/**
+	 * Checks that the tables built for random models are identical, bit for
+	 * bit, to those of {@link LayerMoments#compute(double[][], double[][])}
+	 * whether they are built on one thread or four, with or without a
+	 * {@link DependencyCache} (and again once it holds every pair), through
+	 * the {@link DependencyMeasure} path or from a {@link DependencyMatrix};
+	 * and that they agree with the tables computed one cell after the other
+	 * by the code this class replaced
+	 * ({@link Main#serialDependency(double[][], double[][], double)}) within
+	 * {@link Main#TOLERANCE}. Also checks, on models of a handful of rows,
+	 * that the tables built are those
+	 * {@link Main#dependency(java.util.List, java.util.List)} gives cell by
+	 * cell, cells with fewer than three rows where both values are known
+	 * included. Run with assertions enabled ({@code -ea}).
+	 *
+	 * @param args
+	 *            (ignored)
+	 * @throws AssertionError
+	 *             if a table disagrees
+	 * @since 0.09 2026-10-16
+	 */
+	public static void main(String[] args) throws AssertionError {
+		System.err.println("Validating class...");
+		Random random = new Random(47);
+		ForkJoinPool one = new ForkJoinPool(1);
+		ForkJoinPool four = new ForkJoinPool(4);
+		try {
+			for (int test = 0; test < 30; test++) {
+				int rows = 20 + random.nextInt(300);
+				double[] factor = Main.factor(random, rows);
+				Map<String, double[][]> columns = new LinkedHashMap<String, double[][]>();
+				Map<String, Column> variables = new LinkedHashMap<String, Column>();
+				List<String> layers = new ArrayList<String>();
+				List<List<String>> names = new ArrayList<List<String>>();
+				for (int l = 0; l < 4; l++) {
+					String layer = "L" + l;
+					double[][] values = Main.sample(random, factor,
+							1 + random.nextInt(l == 1 ? 40 : 6));
+					List<String> vars = new ArrayList<String>();
+					for (int i = 0; i < values.length; i++) {
+						vars.add(layer + "v" + i);
+						variables.put(layer + "v" + i, new Column(values[i]));
+					}
+					layers.add(layer);
+					names.add(vars);
+					columns.put(layer, values);
+				}
+				double minimum = random.nextBoolean() ? Double.NEGATIVE_INFINITY
+						: 0.5;
+				DomainKnowledge expected = model(layers, names);
+				for (String[] e : edges(expected)) {
+					Double[][] table = LayerMoments.compute(columns.get(e[0]),
+							columns.get(e[1])).table(minimum);
+					expected.setDependency(e[0], e[1], table);
+					assert Main.agree(table, Main.serialDependency(
+							columns.get(e[0]), columns.get(e[1]), minimum),
+							Main.TOLERANCE) : e[0] + "->" + e[1]
+							+ " disagrees with the serial table";
+				}
+
+				DependencyCache cache = new DependencyCache(1 << 12);
+				DependencyBuilder[] builders = {
+						new DependencyBuilder(one),
+						new DependencyBuilder(four),
+						new DependencyBuilder(four, cache),
+						new DependencyBuilder(one, cache) };
+				for (DependencyBuilder builder : builders) {
+					DomainKnowledge m = model(layers, names);
+					builder.build(m, columns, minimum);
+					same(expected, m, "Builder");
+					m = model(layers, names);
+					builder.build(m, columns, minimum, DependencyMeasure.DEFAULT);
+					same(expected, m, "Measure path");
+				}
+				assert cache.hits() > 0 : "The cache was never used";
+				DomainKnowledge m = model(layers, names);
+				new DependencyBuilder(four).matrix(variables).build(m, minimum);
+				same(expected, m, "Matrix");
+			}
+			System.err.println("Passed random test");
+
+			for (int test = 0; test < 300; test++) {
+				double[][] all = Main.sparse(random, 4 + random.nextInt(8));
+				Map<String, double[][]> columns = new LinkedHashMap<String, double[][]>();
+				List<String> layers = new ArrayList<String>();
+				List<List<String>> names = new ArrayList<List<String>>();
+				// three layers, each with at least one of the columns
+				int[] cuts = { 0, 1 + random.nextInt(all.length - 2), 0,
+						all.length };
+				cuts[2] = cuts[1] + 1 + random.nextInt(all.length - cuts[1] - 1);
+				for (int l = 0; l < 3; l++) {
+					double[][] values = Arrays.copyOfRange(all, cuts[l],
+							cuts[l + 1]);
+					List<String> vars = new ArrayList<String>();
+					for (int i = 0; i < values.length; i++)
+						vars.add("L" + l + "v" + i);
+					layers.add("L" + l);
+					names.add(vars);
+					columns.put("L" + l, values);
+				}
+				double minimum = random.nextBoolean() ? Double.NEGATIVE_INFINITY
+						: 0.5;
+				for (DependencyBuilder builder : new DependencyBuilder[] {
+						new DependencyBuilder(one),
+						new DependencyBuilder(four, new DependencyCache(64)) }) {
+					DomainKnowledge m = model(layers, names);
+					builder.build(m, columns, minimum);
+					for (String[] e : edges(m))
+						assert Main.agree(m.getDependencyTable(e[0], e[1]),
+								Main.pairDependency(columns.get(e[0]),
+										columns.get(e[1]), minimum),
+								Main.TOLERANCE) : e[0] + "->" + e[1]
+								+ " is not the table of Main.dependency";
+					for (String[] e : edges(m)) {
+						double[][] x = columns.get(e[0]);
+						double[][] y = columns.get(e[1]);
+						for (int i = 0; i < x.length; i++)
+							for (int j = 0; j < y.length; j++)
+								if (PairMoments.of(x[i], y[j]).count() < 3)
+									assert Double.isNaN(Main.dependency(
+											Main.asList(x[i]),
+											Main.asList(y[j])))
+											&& m.getDependencyTable(e[0], e[1])[i][j]
+													.doubleValue() == Double.NEGATIVE_INFINITY : e[0]
+											+ "->" + e[1]
+											+ " scores a cell of fewer than three rows";
+					}
+				}
+			}
+			System.err.println("Passed sparse test");
+		} finally {
+			one.shutdown();
+			four.shutdown();
+		}
+		System.err.println("Validation complete");
+	}
+
+	/**
+	 * Creates a model with the given layers, where each layer depends on the
+	 * one before it and the first layer is related to every other
+	 */
+	private static DomainKnowledge model(List<String> layers,
+			List<List<String>> names) {
+		DomainKnowledge out = new DomainKnowledge(layers.size());
+		for (int l = 0; l < layers.size(); l++)
+			out.addLayer(layers.get(l), names.get(l));
+		for (int l = 1; l < layers.size(); l++) {
+			out.addDependency(layers.get(l - 1), layers.get(l));
+			if (l > 1)
+				out.addDependency(layers.get(0), layers.get(l));
+		}
+		return out;
+	}
+
+	/**
+	 * Checks that both models hold identical tables
+	 */
+	private static void same(DomainKnowledge expected, DomainKnowledge actual,
+			String path) throws AssertionError {
+		for (String[] e : edges(expected))
+			assert Main.agree(expected.getDependencyTable(e[0], e[1]),
+					actual.getDependencyTable(e[0], e[1]), 0) : path + ": "
+					+ e[0] + "->" + e[1] + " is not the same";
+	}
+
+	/** A unit of work identified by its index */
+	interface Job {
+		/**
+		 * Performs the work for the given index
+		 *
+		 * @param k
+		 *            the index of the unit of work
+		 */
+		void run(int k);
+	}
+
+	/**
+	 * Runs a {@link Job} for every index in a range, splitting the range in
+	 * halves until it is no longer than a given size
+	 */
+	static class Fan extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final int start;
+
+		private final int end;
+
+		private final int grain;
+
+		private final Job job;
+
+		/**
+		 * @param start
+		 *            first index (inclusive)
+		 * @param end
+		 *            last index (exclusive)
+		 * @param grain
+		 *            number of indices below which the range is run directly
+		 * @param job
+		 *            the work to run for each index
+		 */
+		Fan(int start, int end, int grain, Job job) {
+			this.start = start;
+			this.end = end;
+			this.grain = grain;
+			this.job = job;
+		}
+
+		@Override
+		protected void compute() {
+			if (this.end - this.start <= this.grain) {
+				for (int k = this.start; k < this.end; k++)
+					this.job.run(k);
+			} else {
+				int middle = (this.start + this.end) >>> 1;
+				invokeAll(new Fan(this.start, middle, this.grain, this.job),
+						new Fan(middle, this.end, this.grain, this.job));
+			}
+		}
+	}
+}
@@ -0,0 +1,579 @@
+package edu.missouri.bayesianConstructor;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * A bounded cache of the moments of pairs of columns, so that pairs that are
+ * scored again (the same indicators in different models, the same country
+ * data in different experiments, or identical layers such as
+ * {@code prevEcon} and {@code economic} in the UNESCO model) are not scanned
+ * again.
+ * <p/>
+ * Entries are keyed by the {@link Column#fingerprint() fingerprints} of both
+ * columns, so a pair is recognized by its contents rather than by the arrays
+ * holding it. What is cached are the {@link PairMoments} of the pair, from
+ * which the forward and backward dependencies, and therefore the dependency
+ * table entry for any minimum, are derived; one entry thus serves every
+ * direction and threshold. When the cache is full, the least recently used
+ * entry is discarded.
+ * <p/>
+ * The moments are computed with the same kernel as
+ * {@link LayerMoments#compute(Column[], Column[])}, so a table built from
+ * cached moments is identical to one computed directly. This class is
+ * thread-safe.
+ * <p/>
+ * Since fingerprints depend only on the contents of the columns, the entries
+ * remain valid from one run to the next: {@link #write(File)} saves them and
+ * {@link #read(File)} loads them back, so that repeated experiments over the
+ * same data do not scan it again. A file is only loaded if it was written
+ * with the same moment kernel (see {@link MomentKernel}), whose rounding it
+ * holds. If the system property {@value #PROPERTY} names a file, the
+ * {@link #shared() shared cache} is loaded from it when first used (if it
+ * exists and can be read) and {@link #saveShared()} saves it back.
+ * <p/>
+ * The shared cache is used by every entry point that scores pairs with the
+ * standard error of estimate: {@link Main#dependency(double[], double[])}
+ * and its overloads, {@link Main#getDependency(double[][], double[][], double)}
+ * and its overloads, the {@link SteMeasure}, and the model builders
+ * ({@link DependencyBuilder}, {@link Panel}) given a cache. Only moments are
+ * cached, so the measures that are not derived from them (such as the
+ * {@link MutualInformationMeasure} and the {@link SpearmanMeasure}) are
+ * scored directly every time and never consult a cache.
+ *
+ * @author <a href="mailto:fthc8@missouri.edu">Fernando J. Torre-Mora</a>
+ * @version 0.04 2026-10-16
+ * @since {@code bayesianConstructor} version 0.30 2026-10-16
+ */
+public class DependencyCache {
+	/**
+	 * System property naming the file the {@link #shared() shared cache} is
+	 * kept in between runs
+	 *
+	 * @since 0.02 2026-10-16
+	 */
+	public static final String PROPERTY = "bayesianConstructor.cache";
+
+	/** Marks the start of a cache file */
+	private static final int MAGIC = 0x44434348; // "DCCH"
+
+	/** Version of the file format written by {@link #write(File)} */
+	private static final int FORMAT = 1;
+
+	/** Number of entries kept by {@link #shared()} */
+	public static final int DEFAULT_CAPACITY = 1 << 16;
+
+	/** The cache shared by all the model builders */
+	private static final DependencyCache SHARED = loadShared();
+
+	/** The cached moments, in access order */
+	private final LinkedHashMap<Key, PairMoments> entries;
+
+	/** Maximum number of entries */
+	private final int capacity;
+
+	/** Number of lookups that found an entry */
+	private long hits;
+
+	/** Number of lookups that did not find an entry */
+	private long misses;
+
+	/**
+	 * Creates an empty cache
+	 *
+	 * @param capacity
+	 *            the maximum number of pairs to be kept
+	 * @throws IllegalArgumentException
+	 *             if {@code capacity} is not positive
+	 */
+	public DependencyCache(final int capacity) throws IllegalArgumentException {
+		if (capacity <= 0)
+			throw new IllegalArgumentException("capacity must be positive");
+		this.capacity = capacity;
+		this.entries = new LinkedHashMap<Key, PairMoments>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(
+					Map.Entry<Key, PairMoments> eldest) {
+				return this.size() > capacity;
+			}
+		};
+	}
+
+	/**
+	 * Gets the cache shared by every model builder in this virtual machine,
+	 * which holds up to {@link #DEFAULT_CAPACITY} pairs
+	 *
+	 * @return the shared cache
+	 */
+	public static DependencyCache shared() {
+		return SHARED;
+	}
+
+	/**
+	 * Creates the shared cache, loading it from the file named by
+	 * {@value #PROPERTY} if there is one
+	 */
+	private static DependencyCache loadShared() {
+		DependencyCache out = new DependencyCache(DEFAULT_CAPACITY);
+		String file = System.getProperty(PROPERTY);
+		if (file != null && new File(file).isFile())
+			try {
+				out.read(new File(file));
+			} catch (IOException e) {
+				// unreadable or from another kernel: start empty
+				out.clear();
+			}
+		return out;
+	}
+
+	/**
+	 * Saves the {@link #shared() shared cache} to the file named by the
+	 * system property {@value #PROPERTY}, if it is set
+	 *
+	 * @throws IOException
+	 *             if the file could not be written
+	 * @since 0.02 2026-10-16
+	 */
+	public static void saveShared() throws IOException {
+		String file = System.getProperty(PROPERTY);
+		if (file != null)
+			SHARED.write(new File(file));
+	}
+
+	/**
+	 * Saves every entry to the given file, in a binary format that
+	 * {@link #read(File)} can read back. Entries are written from the least
+	 * to the most recently used, so reading them back keeps their order.
+	 *
+	 * @param file
+	 *            the file to be written
+	 * @throws IOException
+	 *             if the file could not be written
+	 * @since 0.02 2026-10-16
+	 */
+	public synchronized void write(File file) throws IOException {
+		File parent = file.getAbsoluteFile().getParentFile();
+		if (parent != null)
+			parent.mkdirs();
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+				new FileOutputStream(file)));
+		try {
+			out.writeInt(MAGIC);
+			out.writeInt(FORMAT);
+			out.writeUTF(MomentKernel.INSTANCE.name());
+			out.writeInt(this.entries.size());
+			for (Map.Entry<Key, PairMoments> e : this.entries.entrySet()) {
+				PairMoments m = e.getValue();
+				out.writeLong(e.getKey().x);
+				out.writeLong(e.getKey().y);
+				out.writeLong(m.count());
+				out.writeDouble(m.meanX());
+				out.writeDouble(m.meanY());
+				out.writeDouble(m.m2X());
+				out.writeDouble(m.m2Y());
+				out.writeDouble(m.coMoment());
+			}
+		} finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * Adds the entries saved with {@link #write(File)} to this cache, as the
+	 * most recently used ones. If the file holds more entries than fit, the
+	 * oldest are discarded. The counters are not changed.
+	 *
+	 * @param file
+	 *            the file to be read
+	 * @throws IOException
+	 *             if the file could not be read, does not hold a cache, or was
+	 *             written with another moment kernel
+	 * @since 0.02 2026-10-16
+	 */
+	public synchronized void read(File file) throws IOException {
+		DataInputStream in = new DataInputStream(new BufferedInputStream(
+				new FileInputStream(file)));
+		try {
+			if (in.readInt() != MAGIC)
+				throw new IOException(file + " does not hold a dependency cache");
+			int format = in.readInt();
+			if (format != FORMAT)
+				throw new IOException("Unsupported cache format " + format
+						+ " in " + file);
+			String kernel = in.readUTF();
+			if (!kernel.equals(MomentKernel.INSTANCE.name()))
+				throw new IOException(file + " was computed by the " + kernel
+						+ " kernel, not the " + MomentKernel.INSTANCE.name()
+						+ " kernel");
+			int k = in.readInt();
+			if (k < 0)
+				throw new IOException("Corrupt cache in " + file);
+			for (int e = 0; e < k; e++) {
+				long x = in.readLong();
+				long y = in.readLong();
+				this.entries.put(new Key(x, y), PairMoments.fromMoments(
+						in.readLong(), in.readDouble(), in.readDouble(),
+						in.readDouble(), in.readDouble(), in.readDouble()));
+			}
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * Gets the moments of the given pair of columns, computing them only if
+	 * they are not cached
+	 *
+	 * @param X
+	 *            The column of values for the variable thought to be
+	 *            independent
+	 * @param Y
+	 *            The column of values for the variable thought to be dependent
+	 * @return a copy of the moments of the pair
+	 * @throws IllegalArgumentException
+	 *             If {@code X} and {@code Y} are not of equal size
+	 */
+	public PairMoments moments(Column X, Column Y)
+			throws IllegalArgumentException {
+		PairMoments out = this.get(X.fingerprint(), Y.fingerprint());
+		if (out != null)
+			return out;
+		if (X.size() != Y.size())
+			throw new IllegalArgumentException(
+					"Both columns must have the same number of elements");
+		out = LayerMoments.cell(new LayerMoments.ShiftedColumn(X),
+				new LayerMoments.ShiftedColumn(Y));
+		this.put(X.fingerprint(), Y.fingerprint(), out);
+		return out;
+	}
+
+	/**
+	 * Computes the dependency between the two given columns of data (see
+	 * {@link Main#dependency(Column, Column)}), using the cached moments if
+	 * available. The result agrees with
+	 * {@link Main#dependency(Column, Column)} up to rounding.
+	 *
+	 * @param X
+	 *            The column of values for the variable thought to be
+	 *            independent
+	 * @param Y
+	 *            The column of values for the variable thought to be dependent
+	 * @return the dependency score, a number between 0 and <i>Y</i>&#x305;
+	 * @throws IllegalArgumentException
+	 *             If {@code X} and {@code Y} are not of equal size
+	 */
+	public double dependency(Column X, Column Y)
+			throws IllegalArgumentException {
+		return this.moments(X, Y).dependency();
+	}
+
+	/**
+	 * Computes the dependency between the two given lists of data (see
+	 * {@link Main#dependency(List, List)}), using the cached moments if
+	 * available
+	 *
+	 * @param X
+	 *            The list of values for the variable thought to be independent
+	 * @param Y
+	 *            The list of values for the variable thought to be dependent
+	 * @return the dependency score, a number between 0 and <i>Y</i>&#x305;
+	 * @throws IllegalArgumentException
+	 *             If {@code X} and {@code Y} are not of equal size
+	 */
+	public double dependency(List<Double> X, List<Double> Y)
+			throws IllegalArgumentException {
+		return this.dependency(Column.of(X), Column.of(Y));
+	}
+
+	/**
+	 * Computes the dependency table of {@code dependent} on
+	 * {@code independent} (see
+	 * {@link Main#getDependency(double[][], double[][], double)}), using the
+	 * cached moments of each pair if available
+	 *
+	 * @param independent
+	 *            The columns of values for the variables assumed to be
+	 *            independent
+	 * @param dependent
+	 *            The columns of values for the variables assumed to be
+	 *            dependent
+	 * @param minimum
+	 *            Value for the forward dependency below which the result is
+	 *            discarded
+	 * @return the dependency table of the relation
+	 * @throws IllegalArgumentException
+	 *             If the columns are not all of the same length
+	 */
+	public Double[][] getDependency(double[][] independent,
+			double[][] dependent, double minimum)
+			throws IllegalArgumentException {
+		return this.getDependency(Column.of(independent),
+				Column.of(dependent), minimum);
+	}
+
+	/**
+	 * Computes the dependency table of {@code dependent} on
+	 * {@code independent} (see
+	 * {@link #getDependency(double[][], double[][], double)}), taking the
+	 * variables as columns. If any pair is missing from the cache, the whole
+	 * table is computed in one blocked sweep (see
+	 * {@link LayerMoments#compute(Column[], Column[])}) and all its pairs
+	 * stored.
+	 *
+	 * @param x
+	 *            The columns of values for the variables assumed to be
+	 *            independent
+	 * @param y
+	 *            The columns of values for the variables assumed to be
+	 *            dependent
+	 * @param minimum
+	 *            Value for the forward dependency below which the result is
+	 *            discarded
+	 * @return the dependency table of the relation
+	 * @throws IllegalArgumentException
+	 *             If the columns are not all of the same length
+	 * @since 0.04 2026-10-16
+	 */
+	public Double[][] getDependency(Column[] x, Column[] y, double minimum)
+			throws IllegalArgumentException {
+		PairMoments[][] cells = new PairMoments[x.length][y.length];
+		boolean missed = false;
+		for (int i = 0; i < x.length; i++)
+			for (int j = 0; j < y.length; j++) {
+				cells[i][j] = this.get(x[i].fingerprint(), y[j].fingerprint());
+				missed |= cells[i][j] == null;
+			}
+		if (!missed)
+			return new LayerMoments(cells).table(minimum);
+
+		// one blocked sweep is cheaper than scanning the missing cells apart
+		LayerMoments computed = LayerMoments.compute(x, y);
+		for (int i = 0; i < x.length; i++)
+			for (int j = 0; j < y.length; j++)
+				this.put(x[i].fingerprint(), y[j].fingerprint(),
+						computed.get(i, j));
+		return computed.table(minimum);
+	}
+
+	/**
+	 * Looks up the moments of the pair of columns with the given fingerprints
+	 *
+	 * @return a copy of the cached moments, or {@code null} if the pair is not
+	 *         cached
+	 */
+	synchronized PairMoments get(long x, long y) {
+		PairMoments found = this.entries.get(new Key(x, y));
+		if (found == null) {
+			this.misses++;
+			return null;
+		}
+		this.hits++;
+		return new PairMoments(found);
+	}
+
+	/**
+	 * Stores the moments of the pair of columns with the given fingerprints
+	 */
+	synchronized void put(long x, long y, PairMoments moments) {
+		this.entries.put(new Key(x, y), new PairMoments(moments));
+	}
+
+	/**
+	 * Gets the number of lookups that found the pair in the cache
+	 *
+	 * @return the number of hits since the cache was created or cleared
+	 */
+	public synchronized long hits() {
+		return this.hits;
+	}
+
+	/**
+	 * Gets the number of lookups that did not find the pair in the cache
+	 *
+	 * @return the number of misses since the cache was created or cleared
+	 */
+	public synchronized long misses() {
+		return this.misses;
+	}
+
+	/**
+	 * Gets the number of pairs currently cached
+	 *
+	 * @return the number of entries, at most the capacity of the cache
+	 */
+	public synchronized int size() {
+		return this.entries.size();
+	}
+
+	/**
+	 * Removes every entry and resets the counters
+	 */
+	public synchronized void clear() {
+		this.entries.clear();
+		this.hits = 0;
+		this.misses = 0;
+	}
+
+	/**
+	 * Checks that the tables of random layers computed through a cache are
+	 * identical to those of {@link LayerMoments#compute(double[][], double[][])}
+	 * and agree with those computed one cell after the other by the code the
+	 * moments replaced
+	 * ({@link Main#serialDependency(double[][], double[][], double)}) within
+	 * {@link Main#TOLERANCE}, whether the pairs are computed, found again
+	 * (also in copies of the arrays), or read back from a file written by
+	 * another cache; that lookups are counted; that no more entries than the
+	 * capacity are kept; that {@link Main#dependency(double[], double[])},
+	 * {@link Main#getDependency(double[][], double[][], double)} and the
+	 * {@link SteMeasure} find the pairs in the {@link #shared() shared cache}
+	 * once any of them has scored them; and that a file that does not hold a
+	 * cache is rejected. Run with assertions enabled ({@code -ea}).
+	 *
+	 * @param args
+	 *            (ignored)
+	 * @throws IOException
+	 *             if the temporary file could not be written or read
+	 * @throws AssertionError
+	 *             if a check fails
+	 * @since 0.03 2026-10-16
+	 */
+	public static void main(String[] args) throws IOException, AssertionError {
+		System.err.println("Validating class...");
+		Random random = new Random(73);
+		File file = File.createTempFile("dependencies", ".cache");
+		file.deleteOnExit();
+		for (int test = 0; test < 50; test++) {
+			int rows = 10 + random.nextInt(200);
+			double[] factor = Main.factor(random, rows);
+			double[][] x = Main.sample(random, factor, 1 + random.nextInt(6));
+			double[][] y = Main.sample(random, factor, 1 + random.nextInt(6));
+			int cells = x.length * y.length;
+			double minimum = random.nextBoolean() ? Double.NEGATIVE_INFINITY
+					: 0.5;
+			Double[][] expected = LayerMoments.compute(x, y).table(minimum);
+			assert Main.agree(expected, Main.serialDependency(x, y, minimum),
+					Main.TOLERANCE) : "The moments disagree with the serial table";
+
+			DependencyCache cache = new DependencyCache(DEFAULT_CAPACITY);
+			assert Main.agree(cache.getDependency(x, y, minimum), expected, 0) : "Computed";
+			assert cache.misses() == cells && cache.hits() == 0;
+			assert cache.size() == cells;
+			double[][] copy = new double[x.length][];
+			for (int i = 0; i < x.length; i++)
+				copy[i] = x[i].clone();
+			assert Main.agree(cache.getDependency(copy, y, minimum), expected,
+					0) : "Found again";
+			assert cache.misses() == cells && cache.hits() == cells : cache;
+			for (int i = 0; i < x.length; i++)
+				for (int j = 0; j < y.length; j++)
+					assert Main.agree(cache.dependency(new Column(x[i]),
+							new Column(y[j])), Main.serialDependency(x[i],
+							y[j]), Main.TOLERANCE) : "Cell " + i + ", " + j;
+
+			cache.write(file);
+			DependencyCache read = new DependencyCache(DEFAULT_CAPACITY);
+			read.read(file);
+			assert read.size() == cells;
+			assert Main.agree(read.getDependency(x, y, minimum), expected, 0) : "Read back";
+			assert read.misses() == 0 && read.hits() == cells : read;
+
+			DependencyCache small = new DependencyCache(2);
+			assert Main.agree(small.getDependency(x, y, minimum), expected, 0) : "Evicted";
+			assert small.size() == Math.min(2, cells) : small;
+			small.clear();
+			assert small.size() == 0 && small.hits() == 0
+					&& small.misses() == 0;
+		}
+
+		// the entry points of Main and the SteMeasure share one cache
+		DependencyMeasure ste = new SteMeasure();
+		for (int test = 0; test < 20; test++) {
+			int rows = 10 + random.nextInt(200);
+			double[] factor = Main.factor(random, rows);
+			double[][] x = Main.sample(random, factor, 1 + random.nextInt(6));
+			double[][] y = Main.sample(random, factor, 1 + random.nextInt(6));
+			int cells = x.length * y.length;
+			Double[][] expected = LayerMoments.compute(x, y).table(0.5);
+			long hits = shared().hits();
+			long misses = shared().misses();
+			assert Main.agree(Main.getDependency(x, y, 0.5), expected, 0) : "Main";
+			assert shared().misses() - misses == cells
+					&& shared().hits() == hits : shared();
+			assert Main.agree(Main.getDependency(x, y, 0.5, ste), expected, 0) : "Measure";
+			assert shared().hits() - hits == cells : shared();
+			for (int i = 0; i < x.length; i++)
+				for (int j = 0; j < y.length; j++) {
+					double forward = Main.dependency(x[i], y[j]);
+					assert Main.agree(forward, Main.serialDependency(x[i],
+							y[j]), Main.TOLERANCE) : "Cell " + i + ", " + j;
+					assert Main.agree(Main.dependency(Main.asList(x[i]),
+							Main.asList(y[j])), forward, 0);
+					assert Main.agree(ste.dependency(new Column(x[i]),
+							new Column(y[j])), forward, 0);
+				}
+			assert shared().hits() - hits == 4 * cells
+					&& shared().misses() - misses == cells : shared();
+		}
+
+		FileOutputStream out = new FileOutputStream(file);
+		try {
+			out.write(new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 });
+		} finally {
+			out.close();
+		}
+		try {
+			new DependencyCache(1).read(file);
+			assert false : "A file that is not a cache was read";
+		} catch (IOException e) {
+			// expected
+		}
+		System.err.println("Validation complete");
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "DependencyCache[size=" + this.entries.size() + "/"
+				+ this.capacity + ", hits=" + this.hits + ", misses="
+				+ this.misses + "]";
+	}
+
+	/**
+	 * Identifies an ordered pair of columns by their fingerprints
+	 */
+	private static final class Key {
+		private final long x;
+
+		private final long y;
+
+		Key(long x, long y) {
+			this.x = x;
+			this.y = y;
+		}
+
+		@Override
+		public int hashCode() {
+			long h = this.x * 31 + this.y;
+			return (int) (h ^ (h >>> 32));
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof Key))
+				return false;
+			Key other = (Key) o;
+			return this.x == other.x && this.y == other.y;
+		}
+	}
+}
@@ -0,0 +1,507 @@
+package edu.missouri.bayesianConstructor;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import edu.ucla.structure.DirectedEdge;
+
+/**
+ * The moments of every pair of variables in a dataset (typically, every
+ * indicator of one country), from which the dependency table of any relation
+ * between any two layers of those variables can be assembled without going
+ * back to the data.
+ * <p/>
+ * Since every statistic kept by {@link PairMoments} is symmetric in the pair
+ * (see {@link PairMoments#reverse()}), only one triangle of the matrix is
+ * stored, diagonal included: the six statistics of each pair are packed in a
+ * single array, so a matrix over <i>k</i> variables takes
+ * 6&middot;<i>k</i>(<i>k</i>+1)/2 doubles. The matrix is computed once (see
+ * {@link DependencyBuilder#matrix(Map)}); afterwards, building a
+ * {@link DomainKnowledge} model with any layering of its variables (see
+ * {@link #build(DomainKnowledge, double)}) only looks up the pairs each
+ * relation needs, so different structures (e.g. UNESCO, Smets-Woulters or a
+ * custom one) can be compared at almost no cost. The tables obtained are
+ * identical to the ones {@link DependencyBuilder} computes from the columns.
+ * <p/>
+ * A matrix can be {@link #write(File) saved} and {@link #read(File) read
+ * back}; the {@link Column#fingerprint() fingerprint} of each column is saved
+ * along with it, so that {@link #matches(Map)} can tell whether a saved
+ * matrix still describes the data at hand.
+ *
+ * @author <a href="mailto:fthc8@missouri.edu">Fernando J. Torre-Mora</a>
+ * @version 0.02 2026-10-16
+ * @since {@code bayesianConstructor} version 0.33 2026-10-16
+ */
+public class DependencyMatrix {
+	/** Number of statistics stored for each pair */
+	private static final int STATS = 6;
+
+	/** Marks the start of a saved matrix */
+	private static final int MAGIC = 0x444D5458; // "DMTX"
+
+	/** Version of the file format written by {@link #write(File)} */
+	private static final int FORMAT = 1;
+
+	/** The names of the variables, in index order */
+	private final List<String> names;
+
+	/** The index of each variable */
+	private final Map<String, Integer> index;
+
+	/** The fingerprint of each variable's column */
+	private final long[] fingerprints;
+
+	/** The statistics of each pair, packed (see {@link #pair(int, int)}) */
+	private final double[] stats;
+
+	/**
+	 * Creates a matrix from its packed statistics
+	 */
+	private DependencyMatrix(String[] names, long[] fingerprints,
+			double[] stats) {
+		this.names = Collections.unmodifiableList(Arrays.asList(names));
+		this.index = new HashMap<String, Integer>(names.length * 2);
+		for (int i = 0; i < names.length; i++)
+			if (this.index.put(names[i], Integer.valueOf(i)) != null)
+				throw new IllegalArgumentException("Variable " + names[i]
+						+ " appears more than once");
+		this.fingerprints = fingerprints;
+		this.stats = stats;
+	}
+
+	/**
+	 * Creates a matrix from the moments of each pair
+	 *
+	 * @param names
+	 *            the names of the variables
+	 * @param fingerprints
+	 *            the fingerprint of each variable's column
+	 * @param moments
+	 *            the moments of variables <i>i</i> (as <i>X</i>) and <i>j</i>
+	 *            (as <i>Y</i>) for every <i>i</i>&le;<i>j</i>, at position
+	 *            {@link #pair(int, int) pair(i, j)}
+	 */
+	static DependencyMatrix of(String[] names, long[] fingerprints,
+			PairMoments[] moments) {
+		double[] stats = new double[moments.length * STATS];
+		for (int p = 0; p < moments.length; p++) {
+			PairMoments m = moments[p];
+			int k = p * STATS;
+			stats[k] = m.count();
+			stats[k + 1] = m.meanX();
+			stats[k + 2] = m.meanY();
+			stats[k + 3] = m.m2X();
+			stats[k + 4] = m.m2Y();
+			stats[k + 5] = m.coMoment();
+		}
+		return new DependencyMatrix(names, fingerprints, stats);
+	}
+
+	/**
+	 * Computes the matrix of the given variables on the common
+	 * {@link java.util.concurrent.ForkJoinPool} (see
+	 * {@link DependencyBuilder#matrix(Map)})
+	 *
+	 * @param variables
+	 *            the column of each variable, keyed by name
+	 * @return the moments of every pair of variables
+	 * @throws IllegalArgumentException
+	 *             if the columns are not all the same size
+	 */
+	public static DependencyMatrix compute(Map<String, Column> variables)
+			throws IllegalArgumentException {
+		return new DependencyBuilder().matrix(variables);
+	}
+
+	/**
+	 * Gets the position of the pair (<i>i</i>, <i>j</i>) in the packed
+	 * triangle, for <i>i</i>&le;<i>j</i>
+	 *
+	 * @return <i>j</i>(<i>j</i>+1)/2+<i>i</i>
+	 */
+	static int pair(int i, int j) {
+		return (int) ((long) j * (j + 1) / 2) + i;
+	}
+
+	/**
+	 * Gets the number of pairs stored for {@code k} variables
+	 *
+	 * @return <i>k</i>(<i>k</i>+1)/2
+	 */
+	static int pairs(int k) {
+		return pair(0, k);
+	}
+
+	/**
+	 * Gets the number of variables in this matrix
+	 *
+	 * @return the number of rows (and columns) of the matrix
+	 */
+	public int size() {
+		return this.names.size();
+	}
+
+	/**
+	 * Gets the names of the variables in this matrix
+	 *
+	 * @return an unmodifiable list of the names, in index order
+	 */
+	public List<String> names() {
+		return this.names;
+	}
+
+	/**
+	 * Gets the index of the given variable
+	 *
+	 * @param name
+	 *            the name of the variable
+	 * @return its index, or -1 if it is not in the matrix
+	 */
+	public int indexOf(String name) {
+		Integer i = this.index.get(name);
+		return i == null ? -1 : i.intValue();
+	}
+
+	/**
+	 * Gets the fingerprint of the column the given variable was computed
+	 * from
+	 *
+	 * @param name
+	 *            the name of the variable
+	 * @return the {@link Column#fingerprint()} of its column
+	 * @throws IllegalArgumentException
+	 *             if the variable is not in the matrix
+	 */
+	public long fingerprint(String name) throws IllegalArgumentException {
+		return this.fingerprints[this.require(name)];
+	}
+
+	/**
+	 * Checks whether this matrix was computed from exactly the given
+	 * variables, by name and {@link Column#fingerprint() fingerprint}
+	 *
+	 * @param variables
+	 *            the column of each variable, keyed by name
+	 * @return {@code true} if the matrix has the same variables, with the
+	 *         same contents
+	 */
+	public boolean matches(Map<String, Column> variables) {
+		if (variables.size() != this.size())
+			return false;
+		for (Map.Entry<String, Column> e : variables.entrySet()) {
+			int i = this.indexOf(e.getKey());
+			if (i < 0 || this.fingerprints[i] != e.getValue().fingerprint())
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Gets the moments of the <i>i</i><sup>th</sup> variable (as <i>X</i>) and
+	 * the <i>j</i><sup>th</sup> (as <i>Y</i>)
+	 *
+	 * @param i
+	 *            the index of the independent variable
+	 * @param j
+	 *            the index of the dependent variable
+	 * @return a new accumulator holding the moments of the pair
+	 * @throws IndexOutOfBoundsException
+	 *             if either index is not that of a variable
+	 */
+	public PairMoments get(int i, int j) throws IndexOutOfBoundsException {
+		if (i < 0 || j < 0 || i >= this.size() || j >= this.size())
+			throw new IndexOutOfBoundsException("(" + i + ", " + j
+					+ ") is outside a matrix of " + this.size() + " variables");
+		int k = pair(Math.min(i, j), Math.max(i, j)) * STATS;
+		PairMoments out = PairMoments.fromMoments((long) this.stats[k],
+				this.stats[k + 1], this.stats[k + 2], this.stats[k + 3],
+				this.stats[k + 4], this.stats[k + 5]);
+		return i <= j ? out : out.reverse();
+	}
+
+	/**
+	 * Gets the moments of the given pair of variables
+	 *
+	 * @param x
+	 *            the name of the independent variable
+	 * @param y
+	 *            the name of the dependent variable
+	 * @return a new accumulator holding the moments of the pair
+	 * @throws IllegalArgumentException
+	 *             if either variable is not in the matrix
+	 */
+	public PairMoments get(String x, String y) throws IllegalArgumentException {
+		return this.get(this.require(x), this.require(y));
+	}
+
+	/**
+	 * Assembles the moments of every pair formed by one variable of
+	 * {@code independent} and one of {@code dependent}
+	 *
+	 * @param independent
+	 *            the names of the variables of the independent layer
+	 * @param dependent
+	 *            the names of the variables of the dependent layer
+	 * @return the moments of the relation, as
+	 *         {@link LayerMoments#compute(Column[], Column[])} would have
+	 *         computed them
+	 * @throws IllegalArgumentException
+	 *             if a variable is not in the matrix
+	 */
+	public LayerMoments moments(List<String> independent,
+			List<String> dependent) throws IllegalArgumentException {
+		PairMoments[][] out = new PairMoments[independent.size()][dependent
+				.size()];
+		for (int i = 0; i < out.length; i++) {
+			int x = this.require(independent.get(i));
+			for (int j = 0; j < out[i].length; j++)
+				out[i][j] = this.get(x, this.require(dependent.get(j)));
+		}
+		return new LayerMoments(out);
+	}
+
+	/**
+	 * Assembles the moments of every relation in {@code m}, looking up each
+	 * variable of each layer by name
+	 *
+	 * @param m
+	 *            the model whose relations are to be assembled
+	 * @return the moments of each relation, keyed by relation, as returned by
+	 *         {@link DependencyBuilder#moments(DomainKnowledge, Map)}
+	 * @throws IllegalArgumentException
+	 *             if a variable of a related layer is not in the matrix
+	 */
+	public Map<DirectedEdge, LayerMoments> moments(DomainKnowledge m)
+			throws IllegalArgumentException {
+		Map<DirectedEdge, LayerMoments> out = new LinkedHashMap<DirectedEdge, LayerMoments>();
+		for (String independent : m.layerSet())
+			for (String dependent : m.getDependents(independent))
+				out.put(new DirectedEdge(independent, dependent),
+						this.moments(m.getLayer(independent),
+								m.getLayer(dependent)));
+		return out;
+	}
+
+	/**
+	 * Stores in {@code m} the dependency table of every relation in it (see
+	 * {@link DependencyBuilder#build(DomainKnowledge, Map, double)}), assembled
+	 * from this matrix. The relations must already have been created, for
+	 * instance with {@link DomainKnowledge#addDependency(String, String)}.
+	 *
+	 * @param m
+	 *            the model whose dependency tables are to be computed
+	 * @param minimum
+	 *            Value for the forward dependency below which a cell is
+	 *            discarded
+	 * @return the moments each table was computed from, keyed by relation
+	 * @throws IllegalArgumentException
+	 *             if a variable of a related layer is not in the matrix
+	 */
+	public Map<DirectedEdge, LayerMoments> build(DomainKnowledge m,
+			double minimum) throws IllegalArgumentException {
+		Map<DirectedEdge, LayerMoments> out = this.moments(m);
+		DependencyBuilder.tabulate(m, out, minimum);
+		return out;
+	}
+
+	/**
+	 * Stores in {@code m} the dependency table of every relation in it using
+	 * the default minimum of 0.5 (see {@link #build(DomainKnowledge, double)})
+	 *
+	 * @param m
+	 *            the model whose dependency tables are to be computed
+	 * @return the moments each table was computed from, keyed by relation
+	 * @throws IllegalArgumentException
+	 *             if a variable of a related layer is not in the matrix
+	 */
+	public Map<DirectedEdge, LayerMoments> build(DomainKnowledge m)
+			throws IllegalArgumentException {
+		return this.build(m, 0.5);
+	}
+
+	/**
+	 * Saves this matrix to the given file, in a binary format that
+	 * {@link #read(File)} can read back
+	 *
+	 * @param file
+	 *            the file to be written
+	 * @throws IOException
+	 *             if the file could not be written
+	 */
+	public void write(File file) throws IOException {
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+				new FileOutputStream(file)));
+		try {
+			out.writeInt(MAGIC);
+			out.writeInt(FORMAT);
+			out.writeInt(this.size());
+			for (int i = 0; i < this.size(); i++) {
+				out.writeUTF(this.names.get(i));
+				out.writeLong(this.fingerprints[i]);
+			}
+			for (double d : this.stats)
+				out.writeDouble(d);
+		} finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * Reads a matrix saved with {@link #write(File)}
+	 *
+	 * @param file
+	 *            the file to be read
+	 * @return the matrix saved in the file
+	 * @throws IOException
+	 *             if the file could not be read, or does not hold a matrix
+	 */
+	public static DependencyMatrix read(File file) throws IOException {
+		DataInputStream in = new DataInputStream(new BufferedInputStream(
+				new FileInputStream(file)));
+		try {
+			if (in.readInt() != MAGIC)
+				throw new IOException(file + " does not hold a dependency matrix");
+			int format = in.readInt();
+			if (format != FORMAT)
+				throw new IOException("Unsupported matrix format " + format
+						+ " in " + file);
+			int k = in.readInt();
+			if (k < 0)
+				throw new IOException("Corrupt matrix in " + file);
+			String[] names = new String[k];
+			long[] fingerprints = new long[k];
+			for (int i = 0; i < k; i++) {
+				names[i] = in.readUTF();
+				fingerprints[i] = in.readLong();
+			}
+			double[] stats = new double[pairs(k) * STATS];
+			for (int s = 0; s < stats.length; s++)
+				stats[s] = in.readDouble();
+			try {
+				return new DependencyMatrix(names, fingerprints, stats);
+			} catch (IllegalArgumentException e) {
+				throw new IOException("Corrupt matrix in " + file, e);
+			}
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * Gets the index of the given variable
+	 *
+	 * @throws IllegalArgumentException
+	 *             if it is not in the matrix
+	 */
+	private int require(String name) throws IllegalArgumentException {
+		Integer i = this.index.get(name);
+		if (i == null)
+			throw new IllegalArgumentException("Variable " + name
+					+ " is not in the matrix");
+		return i.intValue();
+	}
+
+	/**
+	 * Checks that the tables assembled from the matrix of random variables,
+	 * for layers drawn from them at random, are identical to those of
+	 * {@link LayerMoments#compute(Column[], Column[])} on the same columns and
+	 * agree with those computed one cell after the other by the code the
+	 * moments replaced
+	 * ({@link Main#serialDependency(double[][], double[][], double)}) within
+	 * {@link Main#TOLERANCE}, also once the matrix is saved and read back;
+	 * and that {@link #matches(Map)} tells a saved matrix from one of other
+	 * data. Run with assertions enabled ({@code -ea}).
+	 *
+	 * @param args
+	 *            (ignored)
+	 * @throws IOException
+	 *             if the temporary file could not be written or read
+	 * @throws AssertionError
+	 *             if a check fails
+	 * @since 0.02 2026-10-16
+	 */
+	public static void main(String[] args) throws IOException, AssertionError {
+		System.err.println("Validating class...");
+		Random random = new Random(79);
+		File file = File.createTempFile("dependencies", ".matrix");
+		file.deleteOnExit();
+		for (int test = 0; test < 30; test++) {
+			int rows = 10 + random.nextInt(200);
+			double[][] values = Main.sample(random, Main.factor(random, rows),
+					1 + random.nextInt(15));
+			Map<String, Column> variables = new LinkedHashMap<String, Column>();
+			for (int k = 0; k < values.length; k++)
+				variables.put("v" + k, new Column(values[k]));
+			DependencyMatrix matrix = compute(variables);
+			matrix.write(file);
+			DependencyMatrix read = read(file);
+			assert read.names().equals(matrix.names());
+			assert read.matches(variables) : "The saved matrix does not match its data";
+			for (int layers = 0; layers < 5; layers++) {
+				List<String> independent = new ArrayList<String>();
+				List<String> dependent = new ArrayList<String>();
+				// no variable on both sides: the score of a variable on
+				// itself is only rounding error
+				for (String name : variables.keySet()) {
+					int side = random.nextInt(3);
+					if (side == 0)
+						independent.add(name);
+					else if (side == 1)
+						dependent.add(name);
+				}
+				Collections.shuffle(independent, random);
+				Collections.shuffle(dependent, random);
+				double[][] x = new double[independent.size()][];
+				Column[] cx = new Column[x.length];
+				for (int i = 0; i < x.length; i++) {
+					cx[i] = variables.get(independent.get(i));
+					x[i] = cx[i].values();
+				}
+				double[][] y = new double[dependent.size()][];
+				Column[] cy = new Column[y.length];
+				for (int j = 0; j < y.length; j++) {
+					cy[j] = variables.get(dependent.get(j));
+					y[j] = cy[j].values();
+				}
+				Double[][] expected = LayerMoments.compute(cx, cy).table(
+						Double.NEGATIVE_INFINITY);
+				assert Main.agree(expected, Main.serialDependency(x, y,
+						Double.NEGATIVE_INFINITY), Main.TOLERANCE) : "The moments disagree with the serial table";
+				assert Main.agree(matrix.moments(independent, dependent)
+						.table(Double.NEGATIVE_INFINITY), expected, 0) : independent
+						+ " -> " + dependent;
+				assert Main.agree(read.moments(independent, dependent)
+						.table(Double.NEGATIVE_INFINITY), expected, 0) : independent
+						+ " -> " + dependent + " read back";
+			}
+
+			int k = random.nextInt(values.length);
+			double[] changed = values[k].clone();
+			int t = random.nextInt(rows);
+			changed[t] = Double.isNaN(changed[t]) ? 0 : changed[t] + 1;
+			variables.put("v" + k, new Column(changed));
+			assert !read(file).matches(variables) : "The saved matrix matches other data";
+		}
+		System.err.println("Validation complete");
+	}
+
+	@Override
+	public String toString() {
+		return "DependencyMatrix[" + this.size() + " variables, "
+				+ pairs(this.size()) + " pairs]";
+	}
+}
@@ -0,0 +1,176 @@
+package edu.missouri.bayesianConstructor;
+
+import java.util.Random;
+
+/**
+ * A way of scoring how much a variable <i>Y</i> depends on a variable
+ * <i>X</i>, used to fill the dependency tables of a {@link DomainKnowledge}
+ * model (see {@link Main#getDependency(double[][], double[][], double,
+ * DependencyMeasure)} and {@link DependencyBuilder#build(DomainKnowledge,
+ * java.util.Map, double, DependencyMeasure)}).
+ * <p/>
+ * Every measure fills a table the same way: each cell holds the forward
+ * dependency (of the dependent variable on the independent one) minus the
+ * backward dependency, or {@code Double.NEGATIVE_INFINITY} if the forward
+ * dependency is not greater than the given minimum. Since measures score on
+ * different scales, each one suggests its own {@link #defaultMinimum()}.
+ * <p/>
+ * The default measure, {@link #DEFAULT}, is the standard-error-of-estimate
+ * score of {@link Main#dependency(java.util.List, java.util.List)}
+ * ({@link SteMeasure}).
+ * {@link MutualInformationMeasure} scores the variables after discretizing
+ * them, as the Bayesian networks built from the tables do, and
+ * {@link SpearmanMeasure} scores them by the correlation of their ranks.
+ *
+ * @author <a href="mailto:fthc8@missouri.edu">Fernando J. Torre-Mora</a>
+ * @version 0.04 2026-10-16
+ * @since {@code bayesianConstructor} version 0.35 2026-10-16
+ */
+public interface DependencyMeasure {
+	/** The measure used when none is specified */
+	DependencyMeasure DEFAULT = new SteMeasure();
+
+	/**
+	 * Gets a short name identifying this measure (see
+	 * {@link #forName(String)})
+	 *
+	 * @return the name of the measure
+	 */
+	String name();
+
+	/**
+	 * Gets the minimum forward dependency suited to this measure's scale,
+	 * used by the methods that are not given one
+	 *
+	 * @return the default minimum
+	 */
+	double defaultMinimum();
+
+	/**
+	 * Computes the dependency of {@code Y} on {@code X}. Only the rows where
+	 * both values are known are used.
+	 *
+	 * @param X
+	 *            The column of values for the variable thought to be
+	 *            independent
+	 * @param Y
+	 *            The column of values for the variable thought to be dependent
+	 * @return the forward dependency score, or {@code NaN} if it cannot be
+	 *         computed (e.g. if no row has both values)
+	 * @throws IllegalArgumentException
+	 *             If {@code X} and {@code Y} are not of equal size
+	 */
+	double dependency(Column X, Column Y) throws IllegalArgumentException;
+
+	/**
+	 * Computes the dependency table of {@code dependent} on
+	 * {@code independent}: in each position <i>i</i>, <i>j</i>, the forward
+	 * dependency of {@code dependent[j]} on {@code independent[i]} minus the
+	 * backward dependency, or {@code Double.NEGATIVE_INFINITY} if the forward
+	 * dependency is not greater than {@code minimum}
+	 *
+	 * @param independent
+	 *            The variables assumed to be independent
+	 * @param dependent
+	 *            The variables assumed to be dependent
+	 * @param minimum
+	 *            Value for the forward dependency below which the result is
+	 *            discarded
+	 * @return a {@code independent.length} by {@code dependent.length} table
+	 * @throws IllegalArgumentException
+	 *             If the columns are not all of the same size
+	 */
+	Double[][] getDependency(Column[] independent, Column[] dependent,
+			double minimum) throws IllegalArgumentException;
+
+	/**
+	 * Gets the measure with the given name, with its default settings:
+	 * {@code "ste"} for {@link SteMeasure}, {@code "mi"} for
+	 * {@link MutualInformationMeasure}, {@code "spearman"} for
+	 * {@link SpearmanMeasure} or {@code "sketch"} for {@link SketchScreen}
+	 *
+	 * @param name
+	 *            the name of the measure, in any case
+	 * @return the measure with that name
+	 * @throws IllegalArgumentException
+	 *             if no measure has that name
+	 */
+	static DependencyMeasure forName(String name)
+			throws IllegalArgumentException {
+		if (DEFAULT.name().equalsIgnoreCase(name))
+			return DEFAULT;
+		if (MutualInformationMeasure.NAME.equalsIgnoreCase(name))
+			return new MutualInformationMeasure();
+		if (SpearmanMeasure.NAME.equalsIgnoreCase(name))
+			return new SpearmanMeasure();
+		if (SketchScreen.NAME.equalsIgnoreCase(name))
+			return new SketchScreen();
+		throw new IllegalArgumentException("Unknown dependency measure "
+				+ name);
+	}
+
+	/**
+	 * Checks that {@link #forName(String)} finds every measure by its name in
+	 * any case, and rejects unknown names; that the default measure agrees
+	 * with the two-pass computation it replaced
+	 * ({@link Main#serialDependency(double[][], double[][], double)}) within
+	 * {@link Main#TOLERANCE}; and that the table of every measure is filled
+	 * as described above from its own {@link #dependency(Column, Column)}
+	 * (except for the cells a {@link SketchScreen} discards). Run with
+	 * assertions enabled ({@code -ea}).
+	 *
+	 * @param args
+	 *            (ignored)
+	 * @throws AssertionError
+	 *             if a measure disagrees
+	 * @since 0.04 2026-10-16
+	 */
+	static void main(String[] args) throws AssertionError {
+		System.err.println("Validating class...");
+		String[] names = { SteMeasure.NAME, MutualInformationMeasure.NAME,
+				SpearmanMeasure.NAME, SketchScreen.NAME };
+		try {
+			forName("none");
+			assert false : "An unknown measure was found";
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+		Random random = new Random(61);
+		for (String name : names) {
+			DependencyMeasure measure = forName(name.toUpperCase());
+			assert measure.name().equals(name) : measure.name()
+					+ " instead of " + name;
+			for (int test = 0; test < 50; test++) {
+				int rows = 10 + random.nextInt(200);
+				double[] factor = Main.factor(random, rows);
+				double[][] x = Main.sample(random, factor, 1 + random.nextInt(5));
+				double[][] y = Main.sample(random, factor, 1 + random.nextInt(5));
+				double minimum = random.nextBoolean() ? Double.NEGATIVE_INFINITY
+						: measure.defaultMinimum();
+				Double[][] table = measure.getDependency(Column.of(x),
+						Column.of(y), minimum);
+				if (measure == DEFAULT)
+					assert Main.agree(table, Main.serialDependency(x, y,
+							minimum), Main.TOLERANCE) : "Table of " + rows
+							+ " rows";
+				for (int i = 0; i < x.length; i++)
+					for (int j = 0; j < y.length; j++) {
+						Column X = new Column(x[i]);
+						Column Y = new Column(y[j]);
+						double forward = measure.dependency(X, Y);
+						double expected = forward > minimum ? forward
+								- measure.dependency(Y, X)
+								: Double.NEGATIVE_INFINITY;
+						double actual = table[i][j].doubleValue();
+						assert Main.agree(actual, expected, Main.TOLERANCE)
+								|| measure instanceof SketchScreen
+								&& actual == Double.NEGATIVE_INFINITY : name
+								+ ": cell " + i + ", " + j + " holds " + actual
+								+ " instead of " + expected;
+					}
+			}
+		}
+		System.err.println("Validation complete");
+	}
+
+}
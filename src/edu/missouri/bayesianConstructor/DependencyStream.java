@@ -0,0 +1,406 @@
+package edu.missouri.bayesianConstructor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import edu.ucla.structure.DirectedEdge;
+import edu.ucla.structure.DirectedGraph;
+
+/**
+ * Keeps the dependency tables of a model up to date as new rows of data
+ * (typically, a new year of indicators) arrive, without going back over the
+ * rows already seen.
+ * <p/>
+ * The stream stores the moments of every pair of variables of every relation
+ * of the model (see {@link LayerMoments}), which are all the dependency
+ * tables are computed from. Each batch of rows given to
+ * {@link #ingest(Map)} is summarized on its own and merged into the stored
+ * moments (see {@link PairMoments#merge(PairMoments)}); only the tables of
+ * the relations that gained pairs are then recomputed, and the variable graph
+ * only if any table was. The cost of an update therefore depends on the
+ * number of new rows, not on the number of rows seen before. The tables are
+ * the ones {@link DependencyBuilder} computes from all the rows at once, up to
+ * rounding.
+ * <p/>
+ * Variables derived from other ones, such as the previous year's value of an
+ * indicator, are declared with {@link #derive(String, String, int)}; the
+ * stream keeps the last values of their sources, so that the first rows of a
+ * batch are paired with the last rows of the one before it.
+ * <p/>
+ * This class is not thread-safe.
+ *
+ * @author <a href="mailto:fthc8@missouri.edu">Fernando J. Torre-Mora</a>
+ * @version 0.03 2026-10-16
+ * @since {@code bayesianConstructor} version 0.41 2026-10-16
+ */
+public class DependencyStream {
+	/** The model whose tables are kept up to date */
+	private final DomainKnowledge model;
+
+	/** Value for the forward dependency below which a cell is discarded */
+	private final double minimum;
+
+	/** Minimum dependency for two variables to be related in the graph */
+	private final Double threshold;
+
+	/** The moments of each relation of the model */
+	private final Map<DirectedEdge, LayerMoments> moments;
+
+	/** The source and lag of each derived variable, keyed by its name */
+	private final Map<String, Derived> derived = new LinkedHashMap<String, Derived>();
+
+	/**
+	 * The last values of each source of a derived variable, oldest first, as
+	 * many as the largest lag it is derived with
+	 */
+	private final Map<String, double[]> tails = new LinkedHashMap<String, double[]>();
+
+	/** The number of rows ingested so far */
+	private long rows = 0;
+
+	/** The variable graph, or {@code null} if a table changed since */
+	private DirectedGraph graph = null;
+
+	/**
+	 * A variable holding the value of another one some rows earlier
+	 */
+	private static final class Derived {
+		/** The name of the variable the values are taken from */
+		final String source;
+
+		/** The number of rows the values are taken from */
+		final int lag;
+
+		Derived(String source, int lag) {
+			this.source = source;
+			this.lag = lag;
+		}
+	}
+
+	/**
+	 * Creates a stream with no rows for the given model, whose dependency
+	 * tables are all set to tables with no dependencies
+	 *
+	 * @param m
+	 *            the model whose tables are to be kept up to date, with its
+	 *            layers and relations already in place
+	 * @param minimum
+	 *            Value for the forward dependency below which a cell is
+	 *            discarded (see {@link PairMoments#netDependency(double)})
+	 * @param threshold
+	 *            Minimum dependency for two variables to be related in the
+	 *            variable graph (see
+	 *            {@link DomainKnowledge#variableDependency(Double)})
+	 */
+	public DependencyStream(DomainKnowledge m, double minimum, Double threshold) {
+		this.model = m;
+		this.minimum = minimum;
+		this.threshold = threshold;
+		this.moments = new LinkedHashMap<DirectedEdge, LayerMoments>();
+		for (String[] edge : DependencyBuilder.edges(m)) {
+			LayerMoments empty = new LayerMoments(m.getLayer(edge[0]).size(), m
+					.getLayer(edge[1]).size());
+			this.moments.put(new DirectedEdge(edge[0], edge[1]), empty);
+			m.setDependency(edge[0], edge[1], empty.table(minimum));
+		}
+	}
+
+	/**
+	 * Declares a variable whose value in each row is the value of
+	 * {@code source} {@code lag} rows earlier, such as the previous year's
+	 * value of an indicator. Rows before the first one ingested are missing.
+	 * Must be called before any rows are ingested.
+	 *
+	 * @param name
+	 *            the name of the derived variable, as it appears in the model
+	 * @param source
+	 *            the name of the variable its values are taken from, which is
+	 *            not itself derived
+	 * @param lag
+	 *            the number of rows back the values are taken from; 0 makes
+	 *            the variable a copy of its source
+	 * @return this stream, to allow chaining calls
+	 * @throws IllegalArgumentException
+	 *             if {@code lag} is negative or {@code source} is derived
+	 * @throws IllegalStateException
+	 *             if rows have already been ingested
+	 */
+	public DependencyStream derive(String name, String source, int lag)
+			throws IllegalArgumentException, IllegalStateException {
+		if (lag < 0)
+			throw new IllegalArgumentException("The lag can't be negative");
+		if (this.derived.containsKey(source))
+			throw new IllegalArgumentException(source
+					+ " is itself a derived variable");
+		if (this.rows > 0)
+			throw new IllegalStateException(
+					"Variables must be derived before ingesting any rows");
+		this.derived.put(name, new Derived(source, lag));
+		double[] tail = this.tails.get(source);
+		if (tail == null || tail.length < lag) {
+			tail = new double[lag];
+			Arrays.fill(tail, Double.NaN);
+			this.tails.put(source, tail);
+		}
+		return this;
+	}
+
+	/**
+	 * Adds new rows, which follow the ones already ingested, and updates the
+	 * dependency tables of the relations whose pairs gained observations
+	 *
+	 * @param data
+	 *            A {@code Map} representing a column-majoral table of the new
+	 *            rows, where each key is the table's header and the list
+	 *            mapped to is the contents of the column with that name.
+	 *            {@code null} and {@code NaN} mark a missing value; variables
+	 *            of the model that are not in {@code data} are missing in
+	 *            every new row. Derived variables are computed, not read.
+	 * @return the relations whose tables were recomputed
+	 * @throws IllegalArgumentException
+	 *             If the lists in {@code data} are not all the same size
+	 */
+	public Set<DirectedEdge> ingest(Map<String, List<Double>> data)
+			throws IllegalArgumentException {
+		int n = -1;
+		for (List<Double> values : data.values()) {
+			if (n >= 0 && values.size() != n)
+				throw new IllegalArgumentException(
+						"All columns must have the same number of elements");
+			n = values.size();
+		}
+		Set<DirectedEdge> out = new LinkedHashSet<DirectedEdge>();
+		if (n <= 0)
+			return out;
+
+		// only the new rows, plus the tails of the derived variables
+		Map<String, Column> columns = new LinkedHashMap<String, Column>();
+		for (List<String> layer : this.model.layerMap().values())
+			for (String name : layer)
+				columns.put(name, this.column(name, data, n));
+		for (Map.Entry<String, double[]> e : this.tails.entrySet())
+			e.setValue(tail(e.getValue(), values(data.get(e.getKey()), n)));
+
+		for (Map.Entry<DirectedEdge, LayerMoments> e : this.moments.entrySet()) {
+			String independent = (String) e.getKey().v1();
+			String dependent = (String) e.getKey().v2();
+			LayerMoments delta = LayerMoments.compute(
+					layer(this.model.getLayer(independent), columns),
+					layer(this.model.getLayer(dependent), columns));
+			if (!observed(delta))
+				continue;
+			e.getValue().merge(delta);
+			this.model.setDependency(independent, dependent, e.getValue()
+					.table(this.minimum));
+			out.add(e.getKey());
+		}
+		this.rows += n;
+		if (!out.isEmpty())
+			this.graph = null;
+		return out;
+	}
+
+	/**
+	 * Gets the model whose tables this stream keeps up to date
+	 *
+	 * @return the model, with the tables of every row ingested so far
+	 */
+	public DomainKnowledge model() {
+		return this.model;
+	}
+
+	/**
+	 * Gets the relationships between the variables of the model (see
+	 * {@link DomainKnowledge#variableDependency(Double)}), which are only
+	 * recomputed if a table changed since they were last asked for
+	 *
+	 * @return the variable graph of every row ingested so far
+	 */
+	public DirectedGraph graph() {
+		if (this.graph == null)
+			this.graph = this.model.variableDependency(this.threshold);
+		return this.graph;
+	}
+
+	/**
+	 * Gets the moments the tables are computed from
+	 *
+	 * @return the moments of each relation of the model, which must not be
+	 *         modified
+	 */
+	public Map<DirectedEdge, LayerMoments> moments() {
+		return Collections.unmodifiableMap(this.moments);
+	}
+
+	/**
+	 * Gets the number of rows ingested
+	 *
+	 * @return the number of rows ingested so far
+	 */
+	public long rows() {
+		return this.rows;
+	}
+
+	/**
+	 * Gets the new rows of a variable, computing them if it is derived
+	 */
+	private Column column(String name, Map<String, List<Double>> data, int n) {
+		Derived d = this.derived.get(name);
+		if (d == null)
+			return new Column(values(data.get(name), n));
+		double[] source = values(data.get(d.source), n);
+		double[] tail = this.tails.get(d.source);
+		double[] out = new double[n];
+		for (int t = 0; t < n; t++)
+			out[t] = t >= d.lag ? source[t - d.lag] : tail[tail.length + t
+					- d.lag];
+		return new Column(out);
+	}
+
+	/**
+	 * Gets the values of a column of new rows, all missing if there is no
+	 * such column
+	 */
+	private static double[] values(List<Double> values, int n) {
+		if (values != null)
+			return Main.toArray(values);
+		double[] out = new double[n];
+		Arrays.fill(out, Double.NaN);
+		return out;
+	}
+
+	/**
+	 * Gets the last values of the concatenation of {@code tail} and
+	 * {@code values}, as many as {@code tail} holds
+	 */
+	private static double[] tail(double[] tail, double[] values) {
+		double[] out = new double[tail.length];
+		int kept = Math.max(0, tail.length - values.length);
+		System.arraycopy(tail, tail.length - kept, out, 0, kept);
+		System.arraycopy(values, values.length - (out.length - kept), out,
+				kept, out.length - kept);
+		return out;
+	}
+
+	/**
+	 * Gets the columns of the variables of a layer
+	 */
+	private static Column[] layer(List<String> variables,
+			Map<String, Column> columns) {
+		Column[] out = new Column[variables.size()];
+		for (int i = 0; i < out.length; i++)
+			out[i] = columns.get(variables.get(i));
+		return out;
+	}
+
+	/**
+	 * Checks whether any pair of a table of moments has observations
+	 */
+	private static boolean observed(LayerMoments moments) {
+		for (int i = 0; i < moments.rows(); i++)
+			for (int j = 0; j < moments.columns(); j++)
+				if (moments.get(i, j).count() > 0)
+					return true;
+		return false;
+	}
+
+	/**
+	 * Checks that, as random series arrive in batches of random sizes, the
+	 * tables of a model relating the current values of some variables to
+	 * their values the row before, and to other variables, agree after every
+	 * batch with those computed one cell after the other over every row so
+	 * far by the code the moments replaced
+	 * ({@link Main#serialDependency(double[][], double[][], double)}), with
+	 * the lagged columns shifted by hand, within {@link Main#TOLERANCE}, from
+	 * the very first row on: cells with fewer than three rows where both
+	 * values are known must be discarded. Run with assertions enabled
+	 * ({@code -ea}).
+	 *
+	 * @param args
+	 *            (ignored)
+	 * @throws AssertionError
+	 *             if a table disagrees
+	 * @since 0.02 2026-10-16
+	 */
+	public static void main(String[] args) throws AssertionError {
+		System.err.println("Validating class...");
+		Random random = new Random(83);
+		for (int test = 0; test < 30; test++) {
+			int rows = 10 + random.nextInt(200);
+			double[] factor = Main.factor(random, rows);
+			double[][] a = Main.sample(random, factor, 1 + random.nextInt(4));
+			double[][] b = Main.sample(random, factor, 1 + random.nextInt(4));
+			List<String> current = new ArrayList<String>();
+			List<String> previous = new ArrayList<String>();
+			for (int i = 0; i < a.length; i++) {
+				current.add("a" + i);
+				previous.add("a" + i + "_1");
+			}
+			List<String> other = new ArrayList<String>();
+			for (int j = 0; j < b.length; j++)
+				other.add("b" + j);
+			DomainKnowledge m = new DomainKnowledge(3);
+			m.addLayer("previous", previous);
+			m.addLayer("current", current);
+			m.addLayer("other", other);
+			m.addDependency("previous", "current");
+			m.addDependency("current", "other");
+			DependencyStream stream = new DependencyStream(m,
+					Double.NEGATIVE_INFINITY, Double.valueOf(0));
+			for (int i = 0; i < a.length; i++)
+				stream.derive(previous.get(i), current.get(i), 1);
+
+			int seen = 0;
+			while (seen < rows) {
+				int n = Math.min(rows - seen, 1 + random.nextInt(40));
+				Map<String, List<Double>> batch = new LinkedHashMap<String, List<Double>>();
+				for (int i = 0; i < a.length; i++)
+					batch.put(current.get(i), Main.asList(Arrays.copyOfRange(
+							a[i], seen, seen + n)));
+				for (int j = 0; j < b.length; j++)
+					batch.put(other.get(j), Main.asList(Arrays.copyOfRange(
+							b[j], seen, seen + n)));
+				stream.ingest(batch);
+				seen += n;
+				assert stream.rows() == seen;
+
+				double[][] x = new double[a.length][];
+				double[][] lagged = new double[a.length][seen];
+				for (int i = 0; i < a.length; i++) {
+					x[i] = Arrays.copyOf(a[i], seen);
+					lagged[i][0] = Double.NaN;
+					System.arraycopy(a[i], 0, lagged[i], 1, seen - 1);
+				}
+				double[][] y = new double[b.length][];
+				for (int j = 0; j < b.length; j++)
+					y[j] = Arrays.copyOf(b[j], seen);
+				assert Main.agree(m.getDependencyTable("previous", "current"),
+						Main.serialDependency(lagged, x,
+								Double.NEGATIVE_INFINITY), Main.TOLERANCE) : "Lagged relation after "
+						+ seen + " rows";
+				assert Main.agree(m.getDependencyTable("current", "other"),
+						Main.serialDependency(x, y, Double.NEGATIVE_INFINITY),
+						Main.TOLERANCE) : "Relation after " + seen + " rows";
+				if (seen < 3)
+					for (Double[] row : m.getDependencyTable("current", "other"))
+						for (Double cell : row)
+							assert cell.doubleValue() == Double.NEGATIVE_INFINITY : "Cell of "
+									+ seen + " rows scored " + cell;
+			}
+		}
+		System.err.println("Validation complete");
+	}
+
+	@Override
+	public String toString() {
+		return "DependencyStream[" + this.moments.size() + " relations, "
+				+ this.rows + " rows]";
+	}
+}
@@ -0,0 +1,581 @@
+package edu.missouri.bayesianConstructor;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.regex.PatternSyntaxException;
+
+import com.opencsv.CSVReader;
+
+/**
+ * The rows of a CSV file, split into groups by the value of one of its
+ * columns (typically, the country), read in a single pass.
+ * <p/>
+ * Loading the data of every group with
+ * {@link Main#loadCSVwithFiltering(Reader, String, int)} reads the whole file
+ * once per group. This index instead reads it once, appending each row to the
+ * primitive columns of its group as it goes, so the data of any group can
+ * then be retrieved without reading the file again. Values are read the same
+ * way {@link Main#loadCSVwithFiltering(Reader, String, int)} reads them:
+ * empty cells and cells that are not numbers are missing ({@code NaN}).
+ * <p/>
+ * Groups are matched by the exact value of the group-by column, with
+ * surrounding blanks removed; rows where that value is blank belong to no
+ * group and are skipped. Groups are kept in the order they are first found.
+ *
+ * @author <a href="mailto:fthc8@missouri.edu">Fernando J. Torre-Mora</a>
+ * @version 0.03 2026-10-16
+ * @since {@code bayesianConstructor} version 0.43 2026-10-16
+ */
+public class GroupIndex {
+	/** Number of rows the columns of a new group are created with */
+	private static final int INITIAL_ROWS = 16;
+
+	/** The names of the columns, in order */
+	private final List<String> headers;
+
+	/** The position of each column, keyed by name */
+	private final Map<String, Integer> positions;
+
+	/** The position of each group in {@link #values}, keyed by group */
+	private final Map<String, Integer> groups;
+
+	/** The values of each column of each group, indexed by group and column */
+	private final double[][][] values;
+
+	/**
+	 * Creates an index over columns already split by group
+	 *
+	 * @param headers
+	 *            the names of the columns, in order
+	 * @param groups
+	 *            the position of each group in {@code values}
+	 * @param values
+	 *            the values of each column of each group
+	 */
+	protected GroupIndex(List<String> headers, Map<String, Integer> groups,
+			double[][][] values) {
+		this.headers = Collections.unmodifiableList(headers);
+		this.positions = new LinkedHashMap<String, Integer>();
+		for (int i = 0; i < headers.size(); i++)
+			this.positions.put(headers.get(i), Integer.valueOf(i));
+		this.groups = groups;
+		this.values = values;
+	}
+
+	/**
+	 * Reads the given file, splitting its rows by the value of column
+	 * {@code groupIndex}
+	 *
+	 * @param filename
+	 *            Name of the file to be read
+	 * @param groupIndex
+	 *            Index of the column holding the group of each row (indices
+	 *            start at zero)
+	 * @return the rows of every group
+	 * @throws IOException
+	 *             if the file could not be opened, or at any point it cannot
+	 *             read the next line of the file
+	 * @throws IllegalArgumentException
+	 *             if the file given contains zero columns in its column header
+	 * @throws IllegalStateException
+	 *             If not all rows contain the same number of columns
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             If {@code groupIndex} is greater than the number of columns,
+	 *             or if it's negative
+	 */
+	public static GroupIndex load(String filename, int groupIndex)
+			throws IOException, IllegalArgumentException,
+			IllegalStateException, ArrayIndexOutOfBoundsException {
+		return load(new FileReader(filename), groupIndex);
+	}
+
+	/**
+	 * Reads a CSV file, splitting its rows by the value of column
+	 * {@code groupIndex}. The reader is closed when done.
+	 *
+	 * @param inputFile
+	 *            A {@code Reader} that has opened the desired file
+	 * @param groupIndex
+	 *            Index of the column holding the group of each row (indices
+	 *            start at zero)
+	 * @return the rows of every group
+	 * @throws IOException
+	 *             if at any point it cannot read the next line of the file
+	 * @throws IllegalArgumentException
+	 *             if the file given contains zero columns in its column header
+	 * @throws IllegalStateException
+	 *             If not all rows contain the same number of columns
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             If {@code groupIndex} is greater than the number of columns,
+	 *             or if it's negative
+	 */
+	public static GroupIndex load(Reader inputFile, int groupIndex)
+			throws IOException, IllegalArgumentException,
+			IllegalStateException, ArrayIndexOutOfBoundsException {
+		CSVReader reader = new CSVReader(inputFile);
+		try {
+			String[] titles = reader.readNext();
+			int cols = titles == null ? 0 : titles.length;
+			if (cols < 1)
+				throw new IllegalArgumentException("No columns found");
+
+			Builder out = new Builder(cols);
+			String[] nextLine;
+			int line = 0;
+			while ((nextLine = reader.readNext()) != null) {
+				if (nextLine.length != cols)
+					throw new IllegalStateException(
+							"File contains an uneven number of columns in row "
+									+ line);
+				line++;
+				String group = nextLine[groupIndex].trim();
+				if (group.isEmpty())
+					continue;
+				int g = out.group(group);
+				int t = out.next(g);
+				double[][] columns = out.columns(g);
+				for (int i = 0; i < cols; i++)
+					columns[i][t] = parse(nextLine[i]);
+			}
+			return out.build(Arrays.asList(titles));
+		} finally {
+			reader.close();
+		}
+	}
+
+	/**
+	 * Accumulates the rows of each group while a file is read
+	 */
+	static final class Builder {
+		/** The number of columns of every row */
+		private final int cols;
+
+		/** The position of each group, keyed by group */
+		private final Map<String, Integer> groups = new LinkedHashMap<String, Integer>();
+
+		/** The values of each column of each group, with room to grow */
+		private final List<double[][]> values = new ArrayList<double[][]>();
+
+		/** The number of rows of each group */
+		private int[] rows = new int[INITIAL_ROWS];
+
+		/**
+		 * Creates a builder with no groups
+		 *
+		 * @param cols
+		 *            the number of columns of every row
+		 */
+		Builder(int cols) {
+			this.cols = cols;
+		}
+
+		/**
+		 * Gets the position of a group, adding it if it is new
+		 *
+		 * @param group
+		 *            the name of the group
+		 * @return the position of the group
+		 */
+		int group(String group) {
+			Integer g = this.groups.get(group);
+			if (g != null)
+				return g.intValue();
+			int out = this.groups.size();
+			this.groups.put(group, Integer.valueOf(out));
+			this.values.add(new double[this.cols][INITIAL_ROWS]);
+			if (out == this.rows.length)
+				this.rows = Arrays.copyOf(this.rows, 2 * out);
+			return out;
+		}
+
+		/**
+		 * Adds a row to a group, making room for it in every column
+		 *
+		 * @param g
+		 *            the position of the group
+		 * @return the index of the new row within its group
+		 */
+		int next(int g) {
+			int t = this.rows[g]++;
+			double[][] columns = this.values.get(g);
+			if (t == columns[0].length)
+				for (int i = 0; i < this.cols; i++)
+					columns[i] = Arrays.copyOf(columns[i], 2 * t);
+			return t;
+		}
+
+		/**
+		 * Gets the columns of a group, where the values of its rows are
+		 * stored
+		 *
+		 * @param g
+		 *            the position of the group
+		 * @return the columns of the group, indexed by column and row
+		 */
+		double[][] columns(int g) {
+			return this.values.get(g);
+		}
+
+		/**
+		 * Creates the index, trimming every column to the rows of its group
+		 *
+		 * @param headers
+		 *            the names of the columns, in order
+		 * @return the index of the rows added
+		 */
+		GroupIndex build(List<String> headers) {
+			double[][][] out = new double[this.values.size()][][];
+			for (int g = 0; g < out.length; g++) {
+				out[g] = this.values.get(g);
+				for (int i = 0; i < this.cols; i++)
+					out[g][i] = Arrays.copyOf(out[g][i], this.rows[g]);
+			}
+			return new GroupIndex(headers, this.groups, out);
+		}
+
+		/**
+		 * Creates the index of consecutive parts of a file, each read into
+		 * its own builder, as if they had been read into a single one: the
+		 * rows of each group are those of every part, in order, and groups are
+		 * kept in the order they are first found.
+		 *
+		 * @param headers
+		 *            the names of the columns, in order
+		 * @param parts
+		 *            the builders of the parts of the file, in file order
+		 * @return the index of the rows of every part
+		 * @since 0.02 2026-10-16
+		 */
+		static GroupIndex join(List<String> headers, List<Builder> parts) {
+			int cols = headers.size();
+			Map<String, Integer> groups = new LinkedHashMap<String, Integer>();
+			int[] rows = new int[INITIAL_ROWS];
+			for (Builder part : parts)
+				for (Map.Entry<String, Integer> e : part.groups.entrySet()) {
+					Integer g = groups.get(e.getKey());
+					if (g == null) {
+						g = Integer.valueOf(groups.size());
+						groups.put(e.getKey(), g);
+						if (g.intValue() == rows.length)
+							rows = Arrays.copyOf(rows, 2 * rows.length);
+					}
+					rows[g.intValue()] += part.rows[e.getValue().intValue()];
+				}
+
+			double[][][] out = new double[groups.size()][cols][];
+			for (int g = 0; g < out.length; g++)
+				for (int i = 0; i < cols; i++)
+					out[g][i] = new double[rows[g]];
+			int[] filled = new int[out.length];
+			for (Builder part : parts)
+				for (Map.Entry<String, Integer> e : part.groups.entrySet()) {
+					int g = groups.get(e.getKey()).intValue();
+					int p = e.getValue().intValue();
+					double[][] columns = part.values.get(p);
+					for (int i = 0; i < cols; i++)
+						System.arraycopy(columns[i], 0, out[g][i], filled[g],
+								part.rows[p]);
+					filled[g] += part.rows[p];
+				}
+			return new GroupIndex(headers, groups, out);
+		}
+	}
+
+	/**
+	 * Reads a single value, the way
+	 * {@link Main#loadCSVwithFiltering(Reader, String, int)} does
+	 *
+	 * @return the value, or {@code NaN} if it is empty or not a number
+	 */
+	static double parse(String value) {
+		if (value.isEmpty())
+			return Double.NaN;
+		try {
+			return Double.parseDouble(value);
+		} catch (NumberFormatException e) {
+			return Double.NaN;
+		}
+	}
+
+	/**
+	 * Gets the names of the columns
+	 *
+	 * @return an unmodifiable list of the column names, in the order of the
+	 *         file
+	 */
+	public List<String> headers() {
+		return this.headers;
+	}
+
+	/**
+	 * Gets the names of the groups
+	 *
+	 * @return an unmodifiable set of the group names, in the order they were
+	 *         first found
+	 */
+	public Set<String> groups() {
+		return Collections.unmodifiableSet(this.groups.keySet());
+	}
+
+	/**
+	 * Indicates whether the given group has any rows
+	 *
+	 * @param group
+	 *            the name of a group
+	 * @return {@code true} if the group was found
+	 */
+	public boolean contains(String group) {
+		return this.groups.containsKey(group);
+	}
+
+	/**
+	 * Gets the number of rows of a group
+	 *
+	 * @param group
+	 *            the name of the group
+	 * @return the number of rows of the group, 0 if it was not found
+	 */
+	public int rows(String group) {
+		Integer g = this.groups.get(group);
+		return g == null || this.headers.isEmpty() ? 0
+				: this.values[g.intValue()][0].length;
+	}
+
+	/**
+	 * Gets the values of one column of a group, without copying them
+	 *
+	 * @param group
+	 *            the name of the group
+	 * @param header
+	 *            the name of the column
+	 * @return the values of the column in the rows of the group, in file
+	 *         order, with {@code NaN} marking a missing value, or
+	 *         {@code null} if there is no such group or column. The array
+	 *         must not be modified.
+	 */
+	public double[] column(String group, String header) {
+		Integer g = this.groups.get(group);
+		Integer i = this.positions.get(header);
+		return g == null || i == null ? null
+				: this.values[g.intValue()][i.intValue()];
+	}
+
+	/**
+	 * Gets the data of a group in the same form as
+	 * {@link Main#loadCSVwithFiltering(Reader, String, int)}, with each column
+	 * wrapped (see {@link Main#asList(double[])}) rather than copied. The map
+	 * is new, so columns may be added to it, but the lists write through to
+	 * this index and must not be modified.
+	 *
+	 * @param group
+	 *            the name of the group
+	 * @return A {@code Map} representing a column-majoral table, where each key
+	 *         is the table's header and the list mapped to is the contents of
+	 *         the column with that name; {@code null} if there is no such
+	 *         group.
+	 */
+	public Map<String, List<Double>> data(String group) {
+		Integer g = this.groups.get(group);
+		if (g == null)
+			return null;
+		Map<String, List<Double>> out = new LinkedHashMap<String, List<Double>>();
+		for (int i = 0; i < this.headers.size(); i++)
+			out.put(this.headers.get(i),
+					Main.asList(this.values[g.intValue()][i]));
+		return out;
+	}
+
+	/**
+	 * Gets the columns of a group
+	 *
+	 * @param group
+	 *            the name of the group
+	 * @return the column of every header, keyed by name, in the order of the
+	 *         file; {@code null} if there is no such group.
+	 */
+	public Map<String, Column> columns(String group) {
+		Integer g = this.groups.get(group);
+		if (g == null)
+			return null;
+		Map<String, Column> out = new LinkedHashMap<String, Column>();
+		for (int i = 0; i < this.headers.size(); i++)
+			out.put(this.headers.get(i), new Column(
+					this.values[g.intValue()][i]));
+		return out;
+	}
+
+	/**
+	 * Lays out every group contiguously (see {@link Panel})
+	 *
+	 * @return a panel holding the rows of every group, in order
+	 */
+	public Panel panel() {
+		Map<String, Map<String, Column>> data = new LinkedHashMap<String, Map<String, Column>>();
+		for (String group : this.groups.keySet())
+			data.put(group, this.columns(group));
+		return new Panel(data);
+	}
+
+	/**
+	 * Checks whether two indices hold the same data
+	 *
+	 * @return {@code true} if both have the same headers and the same groups,
+	 *         in the same order, and every column of every group holds the
+	 *         same values (as by {@link Arrays#equals(double[], double[])})
+	 * @since 0.03 2026-10-16
+	 */
+	static boolean same(GroupIndex a, GroupIndex b) {
+		if (!a.headers.equals(b.headers)
+				|| !new ArrayList<String>(a.groups.keySet())
+						.equals(new ArrayList<String>(b.groups.keySet())))
+			return false;
+		for (String group : a.groups.keySet())
+			for (String header : a.headers)
+				if (!Arrays.equals(a.column(group, header),
+						b.column(group, header)))
+					return false;
+		return true;
+	}
+
+	/**
+	 * Checks that the data of each group is the data
+	 * {@link Main#loadCSVwithFiltering(Reader, String, int)} reads when
+	 * filtering by that group, as the code before this class did once per
+	 * group; that {@link #data(String)}, {@link #columns(String)} and
+	 * {@link #panel()} hold the same values as {@link #column(String, String)};
+	 * that {@link MappedCSV} and {@link ParallelCSV} build the same index; and
+	 * that joining the builders of consecutive parts of a file gives the same
+	 * index as reading it whole. The files checked are the data files of the
+	 * repository, read from the working directory; since each filtered read
+	 * goes through the whole file, only a sample of the groups of each file
+	 * is compared with them. A group is only sampled if its name, taken as a
+	 * regular expression (as the filter takes each value), matches itself
+	 * and no other group. Run with assertions enabled ({@code -ea}).
+	 *
+	 * @param args
+	 *            the files to be checked instead of those of the repository
+	 * @throws IOException
+	 *             if a file could not be read
+	 * @throws AssertionError
+	 *             if a check fails
+	 * @since 0.03 2026-10-16
+	 */
+	public static void main(String[] args) throws IOException, AssertionError {
+		System.err.println("Validating class...");
+		Random random = new Random(67);
+		for (String name : args.length > 0 ? args : new String[] {
+				"Data_Extract_From_World_Development_Indicators_Data.csv",
+				"classed data.csv", "smets woulters data.csv" }) {
+			GroupIndex index = load(name, 0);
+			List<String> groups = new ArrayList<String>(index.groups());
+			assert !groups.isEmpty() : "No groups in " + name;
+
+			List<String> alone = new ArrayList<String>();
+			try {
+				for (String group : groups) {
+					int matches = 0;
+					for (String other : groups)
+						if (group.matches(other))
+							matches++;
+					if (matches == 1 && group.matches(group))
+						alone.add(group);
+				}
+			} catch (PatternSyntaxException e) {
+				alone.clear(); // the filter fails on the rows of that group
+			}
+			Collections.shuffle(alone, random);
+			for (String group : alone.subList(0, Math.min(8, alone.size()))) {
+				Map<String, List<Double>> expected = Main.loadCSVwithFiltering(
+						new FileReader(name), group, 0);
+				assert expected.keySet().equals(
+						new HashSet<String>(index.headers()));
+				for (String header : index.headers())
+					assert Arrays.equals(index.column(group, header),
+							Main.toArray(expected.get(header))) : header
+							+ " of " + group + " in " + name
+							+ " is not what the filter reads";
+			}
+			System.err.println("Passed filter test on " + name);
+
+			Panel panel = index.panel();
+			for (int g = 0; g < groups.size(); g++) {
+				String group = groups.get(g);
+				Map<String, List<Double>> data = index.data(group);
+				Map<String, Column> columns = index.columns(group);
+				assert index.rows(group) == panel.rows(g);
+				for (String header : index.headers()) {
+					double[] values = index.column(group, header);
+					assert values.length == index.rows(group);
+					assert Arrays.equals(Main.toArray(data.get(header)), values);
+					Column column = panel.column(header);
+					for (int t = 0; t < values.length; t++) {
+						assert Double.compare(columns.get(header).get(t),
+								values[t]) == 0;
+						assert Double.compare(column.get(panel.offset(g) + t),
+								values[t]) == 0 : header + " of " + group
+								+ " in the panel";
+					}
+				}
+			}
+			System.err.println("Passed views test on " + name);
+
+			assert same(new MappedCSV().index(new File(name), 0), index) : "MappedCSV read "
+					+ name + " differently";
+			assert same(new ParallelCSV(ForkJoinPool.commonPool(), 4096,
+					MappedCSV.DEFAULT_MISSING).index(new File(name), 0), index) : "ParallelCSV read "
+					+ name + " differently";
+			System.err.println("Passed reader test on " + name);
+		}
+
+		// the rows of a file split at random into consecutive parts
+		for (int test = 0; test < 100; test++) {
+			int cols = 1 + random.nextInt(4);
+			List<String> headers = new ArrayList<String>();
+			for (int i = 0; i < cols; i++)
+				headers.add("c" + i);
+			Builder whole = new Builder(cols);
+			List<Builder> parts = new ArrayList<Builder>();
+			Builder part = null;
+			int rows = random.nextInt(200);
+			for (int r = 0; r < rows; r++) {
+				if (part == null || random.nextInt(20) == 0) {
+					part = new Builder(cols);
+					parts.add(part);
+				}
+				String group = "g" + random.nextInt(1 + random.nextInt(30));
+				double[] row = new double[cols];
+				for (int i = 0; i < cols; i++)
+					row[i] = random.nextInt(10) == 0 ? Double.NaN : random
+							.nextGaussian();
+				for (Builder b : new Builder[] { whole, part }) {
+					int g = b.group(group);
+					int t = b.next(g);
+					for (int i = 0; i < cols; i++)
+						b.columns(g)[i][t] = row[i];
+				}
+			}
+			assert same(Builder.join(headers, parts), whole.build(headers)) : "Joining "
+					+ parts.size() + " parts";
+		}
+		System.err.println("Passed join test");
+		System.err.println("Validation complete");
+	}
+
+	@Override
+	public String toString() {
+		return "GroupIndex[" + this.groups.size() + " groups, "
+				+ this.headers.size() + " columns]";
+	}
+}
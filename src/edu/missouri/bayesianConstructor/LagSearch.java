@@ -0,0 +1,477 @@
+package edu.missouri.bayesianConstructor;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Finds, for pairs of variables, the lag of the independent variable at
+ * which the dependent one depends on it the most. The models built so far
+ * lag their "Previous" variables by exactly one year; this class scores every
+ * lag from 1 to a maximum <i>K</i>, and can generate the lagged layers from
+ * the lags found (see {@link #laggedColumns(Map, Column[])}).
+ * <p/>
+ * Lagging <i>X</i> by <i>k</i> pairs <i>x</i><sub><i>t</i>&minus;<i>k</i></sub>
+ * with <i>y<sub>t</sub></i>. The moments of every lag are computed from the
+ * columns themselves, shifted once by their means (see {@link LayerMoments}),
+ * without making lagged copies. Where both columns are complete, the sums of
+ * <i>x</i>, <i>y</i>, <i>x</i>&sup2; and <i>y</i>&sup2; over the rows of
+ * each lag are differences of prefix sums computed once per column, so only
+ * the co-moment has to be slid along the rows, costing O(<i>n</i>) per lag
+ * and O(<i>n</i>&middot;<i>K</i>) for all of them. Where values are missing,
+ * the rows each lag can use depend on both masks, so all the sums of the lag
+ * are accumulated in that same single pass.
+ * <p/>
+ * The moments of lag <i>k</i> are those of
+ * {@link PairMoments#of(Column, Column) PairMoments.of(X.lag(k), Y)}, up to
+ * rounding.
+ *
+ * @author <a href="mailto:fthc8@missouri.edu">Fernando J. Torre-Mora</a>
+ * @version 0.04 2026-10-16
+ * @since {@code bayesianConstructor} version 0.39 2026-10-16
+ */
+public class LagSearch {
+	/**
+	 * The fewest pairs a lag must have to be scored, so that no lag is chosen
+	 * (nor a lagged layer generated) from a couple of data points
+	 */
+	public static final int MIN_PAIRS = 3;
+
+	/** The largest lag scored */
+	private final int maxLag;
+
+	/**
+	 * Creates a search over lags 1 to {@code maxLag}
+	 *
+	 * @param maxLag
+	 *            the largest lag to be scored
+	 * @throws IllegalArgumentException
+	 *             if {@code maxLag} is not positive
+	 */
+	public LagSearch(int maxLag) throws IllegalArgumentException {
+		if (maxLag <= 0)
+			throw new IllegalArgumentException("The maximum lag must be positive");
+		this.maxLag = maxLag;
+	}
+
+	/**
+	 * Gets the largest lag scored
+	 *
+	 * @return the maximum lag
+	 */
+	public int maxLag() {
+		return this.maxLag;
+	}
+
+	/**
+	 * Computes the moments of {@code Y} against {@code X} lagged by every lag
+	 * from 1 to {@link #maxLag()}
+	 *
+	 * @param X
+	 *            The column of values for the variable thought to be
+	 *            independent
+	 * @param Y
+	 *            The column of values for the variable thought to be dependent
+	 * @return an array whose position <i>k</i>&minus;1 holds the moments of
+	 *         lag <i>k</i>; lags with no rows left have no pairs
+	 * @throws IllegalArgumentException
+	 *             If {@code X} and {@code Y} are not of equal size
+	 */
+	public PairMoments[] moments(Column X, Column Y)
+			throws IllegalArgumentException {
+		if (X.size() != Y.size())
+			throw new IllegalArgumentException(
+					"Both columns must have the same number of elements");
+		return moments(new LayerMoments.ShiftedColumn(X),
+				X.validCount() == X.size(), new LayerMoments.ShiftedColumn(Y),
+				Y.validCount() == Y.size(), this.maxLag);
+	}
+
+	/**
+	 * Computes the dependency of {@code Y} on {@code X} lagged by every lag
+	 * from 1 to {@link #maxLag()} (see {@link PairMoments#dependency()})
+	 *
+	 * @param X
+	 *            The column of values for the variable thought to be
+	 *            independent
+	 * @param Y
+	 *            The column of values for the variable thought to be dependent
+	 * @return an array whose position <i>k</i>&minus;1 holds the dependency at
+	 *         lag <i>k</i>, or {@code NaN} if the lag has fewer than
+	 *         {@value #MIN_PAIRS} pairs
+	 * @throws IllegalArgumentException
+	 *             If {@code X} and {@code Y} are not of equal size
+	 */
+	public double[] dependencies(Column X, Column Y)
+			throws IllegalArgumentException {
+		PairMoments[] moments = this.moments(X, Y);
+		double[] out = new double[moments.length];
+		for (int k = 0; k < out.length; k++)
+			out[k] = score(moments[k]);
+		return out;
+	}
+
+	/**
+	 * Finds the lag of {@code X} on which {@code Y} depends the most
+	 *
+	 * @param X
+	 *            The column of values for the variable thought to be
+	 *            independent
+	 * @param Y
+	 *            The column of values for the variable thought to be dependent
+	 * @return the lag, from 1 to {@link #maxLag()}, with the highest
+	 *         dependency (the smallest one if several tie), or 0 if no lag has
+	 *         {@value #MIN_PAIRS} pairs and a dependency that can be computed
+	 * @throws IllegalArgumentException
+	 *             If {@code X} and {@code Y} are not of equal size
+	 */
+	public int bestLag(Column X, Column Y) throws IllegalArgumentException {
+		return best(this.dependencies(X, Y));
+	}
+
+	/**
+	 * Finds, for every pair of an independent and a dependent variable, the
+	 * lag of the independent one on which the dependent one depends the most
+	 * (see {@link #bestLag(Column, Column)}). Each column is prepared only
+	 * once.
+	 *
+	 * @param independent
+	 *            The variables assumed to be independent
+	 * @param dependent
+	 *            The variables assumed to be dependent
+	 * @return a {@code independent.length} by {@code dependent.length} table of
+	 *         lags
+	 * @throws IllegalArgumentException
+	 *             If the columns are not all of the same size
+	 */
+	public int[][] bestLags(Column[] independent, Column[] dependent)
+			throws IllegalArgumentException {
+		double[][][] scores = this.scores(independent, dependent);
+		int[][] out = new int[independent.length][dependent.length];
+		for (int i = 0; i < out.length; i++)
+			for (int j = 0; j < out[i].length; j++)
+				out[i][j] = best(scores[i][j]);
+		return out;
+	}
+
+	/**
+	 * Generates a lagged layer: each independent variable, lagged by the lag
+	 * at which any of the dependent variables depends on it the most, as a
+	 * {@link Column#lag(int) view} rather than a copy
+	 *
+	 * @param independent
+	 *            the columns of the variables to be lagged, keyed by name
+	 * @param dependent
+	 *            the variables the lags are chosen for
+	 * @return the lagged columns, in the same order as {@code independent},
+	 *         keyed by the names given by {@link #name(String, int)}.
+	 *         Variables for which no lag could be scored are left out.
+	 * @throws IllegalArgumentException
+	 *             If the columns are not all of the same size
+	 */
+	public Map<String, Column> laggedColumns(Map<String, Column> independent,
+			Column[] dependent) throws IllegalArgumentException {
+		String[] names = independent.keySet().toArray(new String[0]);
+		Column[] columns = new Column[names.length];
+		for (int i = 0; i < names.length; i++)
+			columns[i] = independent.get(names[i]);
+		double[][][] scores = this.scores(columns, dependent);
+		Map<String, Column> out = new LinkedHashMap<String, Column>();
+		for (int i = 0; i < names.length; i++) {
+			int lag = 0;
+			double score = Double.NEGATIVE_INFINITY;
+			for (int j = 0; j < dependent.length; j++) {
+				int k = best(scores[i][j]);
+				if (k > 0 && scores[i][j][k - 1] > score) {
+					lag = k;
+					score = scores[i][j][k - 1];
+				}
+			}
+			if (lag > 0)
+				out.put(name(names[i], lag), columns[i].lag(lag));
+		}
+		return out;
+	}
+
+	/**
+	 * Names a lagged variable the way the models do: "Previous " followed by
+	 * the name of the variable for a lag of one year, or "Lag <i>k</i> "
+	 * followed by it for a lag of <i>k</i>
+	 *
+	 * @param variable
+	 *            the name of the variable lagged
+	 * @param lag
+	 *            the lag
+	 * @return the name of the lagged variable
+	 */
+	public static String name(String variable, int lag) {
+		return lag == 1 ? "Previous " + variable : "Lag " + lag + " "
+				+ variable;
+	}
+
+	/**
+	 * Scores every lag of every pair
+	 *
+	 * @return the dependencies of each lag, indexed by independent variable,
+	 *         dependent variable and lag&minus;1
+	 * @throws IllegalArgumentException
+	 *             If the columns are not all of the same size
+	 */
+	private double[][][] scores(Column[] independent, Column[] dependent)
+			throws IllegalArgumentException {
+		LayerMoments.ShiftedColumn[] x = new LayerMoments.ShiftedColumn[independent.length];
+		LayerMoments.ShiftedColumn[] y = new LayerMoments.ShiftedColumn[dependent.length];
+		int rows = independent.length > 0 ? independent[0].size()
+				: dependent.length > 0 ? dependent[0].size() : 0;
+		for (int i = 0; i < x.length; i++)
+			x[i] = new LayerMoments.ShiftedColumn(independent[i]);
+		for (int j = 0; j < y.length; j++)
+			y[j] = new LayerMoments.ShiftedColumn(dependent[j]);
+		for (LayerMoments.ShiftedColumn c : x)
+			if (c.rows != rows)
+				throw new IllegalArgumentException(
+						"All columns must have the same number of elements");
+		for (LayerMoments.ShiftedColumn c : y)
+			if (c.rows != rows)
+				throw new IllegalArgumentException(
+						"All columns must have the same number of elements");
+
+		double[][][] out = new double[x.length][y.length][];
+		for (int i = 0; i < x.length; i++)
+			for (int j = 0; j < y.length; j++) {
+				PairMoments[] moments = moments(x[i],
+						independent[i].validCount() == rows, y[j],
+						dependent[j].validCount() == rows, this.maxLag);
+				out[i][j] = new double[moments.length];
+				for (int k = 0; k < moments.length; k++)
+					out[i][j][k] = score(moments[k]);
+			}
+		return out;
+	}
+
+	/**
+	 * Scores a lag
+	 *
+	 * @return the dependency of the lag, or {@code NaN} if it has fewer than
+	 *         {@value #MIN_PAIRS} pairs
+	 */
+	private static double score(PairMoments moments) {
+		return moments.count() < MIN_PAIRS ? Double.NaN : moments
+				.dependency();
+	}
+
+	/**
+	 * Finds the lag with the highest score
+	 *
+	 * @return the lag, or 0 if no score is a number
+	 */
+	private static int best(double[] scores) {
+		int out = 0;
+		for (int k = 0; k < scores.length; k++)
+			if (scores[k] > (out == 0 ? Double.NEGATIVE_INFINITY
+					: scores[out - 1]))
+				out = k + 1;
+		return out;
+	}
+
+	/**
+	 * Computes the moments of every lag of a pair of prepared columns
+	 *
+	 * @param completeX
+	 *            whether every value of {@code x} is known
+	 * @param completeY
+	 *            whether every value of {@code y} is known
+	 */
+	private static PairMoments[] moments(LayerMoments.ShiftedColumn x,
+			boolean completeX, LayerMoments.ShiftedColumn y,
+			boolean completeY, int maxLag) {
+		int n = x.rows;
+		PairMoments[] out = new PairMoments[maxLag];
+		if (completeX && completeY) {
+			// prefix sums of the shifted values and their squares
+			double[] sumX = prefix(x.value);
+			double[] sumXX = prefix(x.square);
+			double[] sumY = prefix(y.value);
+			double[] sumYY = prefix(y.square);
+			for (int k = 1; k <= maxLag; k++) {
+				int pairs = Math.max(0, n - k);
+				double sumXY = 0;
+				for (int t = k; t < n; t++)
+					sumXY += x.value[t - k] * y.value[t];
+				out[k - 1] = PairMoments.fromShiftedSums(pairs, x.shift,
+						y.shift, sumX[pairs], sumY[n] - sumY[n - pairs],
+						sumXX[pairs], sumYY[n] - sumYY[n - pairs], sumXY);
+			}
+			return out;
+		}
+		for (int k = 1; k <= maxLag; k++) {
+			long pairs = 0;
+			double sumX = 0;
+			double sumY = 0;
+			double sumXX = 0;
+			double sumYY = 0;
+			double sumXY = 0;
+			for (int t = k; t < n; t++) {
+				int s = t - k;
+				if ((x.mask[s >>> 6] & (1L << s)) == 0
+						|| (y.mask[t >>> 6] & (1L << t)) == 0)
+					continue;
+				pairs++;
+				sumX += x.value[s];
+				sumY += y.value[t];
+				sumXX += x.square[s];
+				sumYY += y.square[t];
+				sumXY += x.value[s] * y.value[t];
+			}
+			out[k - 1] = PairMoments.fromShiftedSums(pairs, x.shift, y.shift,
+					sumX, sumY, sumXX, sumYY, sumXY);
+		}
+		return out;
+	}
+
+	/**
+	 * Computes the prefix sums of the given values
+	 *
+	 * @return an array whose position <i>t</i> holds the sum of the first
+	 *         <i>t</i> values
+	 */
+	private static double[] prefix(double[] values) {
+		double[] out = new double[values.length + 1];
+		for (int t = 0; t < values.length; t++)
+			out[t + 1] = out[t] + values[t];
+		return out;
+	}
+
+	/**
+	 * Checks that the score of every lag of random pairs of columns, complete
+	 * or with missing values, agrees with the score the code the moments
+	 * replaced ({@link Main#serialDependency(double[], double[])}) gives to
+	 * the independent column shifted by hand, within {@link Main#TOLERANCE};
+	 * that the lag found is the best one by those scores (within the same
+	 * tolerance); and that the lagged layer holds views of the variables
+	 * lagged by the lags found. Lags with fewer than {@value #MIN_PAIRS} rows
+	 * where both values are known must score {@code NaN} and never be chosen,
+	 * even when the only other lags have no pairs at all. Run with assertions
+	 * enabled ({@code -ea}).
+	 *
+	 * @param args
+	 *            (ignored)
+	 * @throws AssertionError
+	 *             if a score disagrees
+	 * @since 0.02 2026-10-16
+	 */
+	public static void main(String[] args) throws AssertionError {
+		System.err.println("Validating class...");
+		Random random = new Random(89);
+		for (int test = 0; test < 200; test++) {
+			int rows = 5 + random.nextInt(150);
+			double[] factor = Main.factor(random, rows);
+			double[][] x = Main.sample(random, factor, 1 + random.nextInt(3));
+			double[][] y = Main.sample(random, factor, 1 + random.nextInt(3));
+			// about half the columns are complete
+			for (double[][] layer : new double[][][] { x, y })
+				for (double[] column : layer)
+					if (random.nextBoolean())
+						for (int t = 0; t < rows; t++)
+							if (Double.isNaN(column[t]))
+								column[t] = 10 + random.nextGaussian();
+			LagSearch search = new LagSearch(1 + random.nextInt(10));
+			Column[] cx = Column.of(x);
+			Column[] cy = Column.of(y);
+			int[][] lags = search.bestLags(cx, cy);
+			for (int i = 0; i < x.length; i++)
+				for (int j = 0; j < y.length; j++) {
+					PairMoments[] moments = search.moments(cx[i], cy[j]);
+					double[] scores = search.dependencies(cx[i], cy[j]);
+					assert moments.length == search.maxLag();
+					double best = Double.NEGATIVE_INFINITY;
+					for (int k = 1; k <= search.maxLag(); k++) {
+						double[] lagged = new double[rows];
+						Arrays.fill(lagged, Double.NaN);
+						if (k < rows)
+							System.arraycopy(x[i], 0, lagged, k, rows - k);
+						assert moments[k - 1].count() == PairMoments.of(
+								lagged, y[j]).count() : "Rows of lag " + k;
+						if (moments[k - 1].count() < MIN_PAIRS)
+							assert Double.isNaN(scores[k - 1]) : "Lag " + k
+									+ " has a score from "
+									+ moments[k - 1].count() + " rows";
+						double expected = Main.serialDependency(lagged, y[j]);
+						assert Main.agree(scores[k - 1], expected,
+								Main.TOLERANCE) : "Lag " + k + " of " + rows
+								+ " rows: " + scores[k - 1] + " instead of "
+								+ expected;
+						if (expected > best)
+							best = expected;
+					}
+					int lag = search.bestLag(cx[i], cy[j]);
+					assert lag == lags[i][j];
+					if (best > Double.NEGATIVE_INFINITY)
+						assert lag > 0
+								&& scores[lag - 1] >= best - Main.TOLERANCE : "Lag "
+								+ lag + " is not the best";
+				}
+
+			Map<String, Column> independent = new LinkedHashMap<String, Column>();
+			for (int i = 0; i < x.length; i++)
+				independent.put("x" + i, cx[i]);
+			for (Map.Entry<String, Column> e : search.laggedColumns(
+					independent, cy).entrySet()) {
+				String name = e.getKey();
+				int i = Integer.parseInt(name.substring(name.length() - 1));
+				int lag = 0;
+				while (lag <= search.maxLag()
+						&& !name.equals(name("x" + i, lag)))
+					lag++;
+				assert lag <= search.maxLag() : "Unexpected name " + name;
+				assert e.getValue().fingerprint() == cx[i].lag(lag)
+						.fingerprint() : name + " is not lagged by " + lag;
+			}
+		}
+		System.err.println("Passed random test");
+
+		// every lag of these has two pairs or fewer
+		Column x = new Column(new double[] { 1, 2, 3, 4, 5, 6 });
+		Column y = new Column(new double[] { Double.NaN, Double.NaN,
+				Double.NaN, Double.NaN, 5, 7 });
+		LagSearch search = new LagSearch(5);
+		assert search.bestLag(x, y) == 0 : "Lag " + search.bestLag(x, y)
+				+ " chosen from two pairs";
+		Map<String, Column> independent = new LinkedHashMap<String, Column>();
+		independent.put("x", x);
+		assert search.laggedColumns(independent, new Column[] { y })
+				.isEmpty() : "Lagged layer generated from two pairs";
+
+		for (int test = 0; test < 1000; test++) {
+			int rows = 3 + random.nextInt(6);
+			double[] values = new double[rows];
+			double[] known = new double[rows];
+			for (int t = 0; t < rows; t++) {
+				values[t] = 1 + random.nextDouble();
+				known[t] = random.nextInt(3) == 0 ? Double.NaN
+						: 1 + random.nextDouble();
+			}
+			x = new Column(values);
+			y = new Column(known);
+			search = new LagSearch(rows - 1);
+			PairMoments[] moments = search.moments(x, y);
+			int lag = search.bestLag(x, y);
+			assert lag == 0 || moments[lag - 1].count() >= MIN_PAIRS : "Lag "
+					+ lag + " chosen from " + moments[lag - 1].count()
+					+ " pairs";
+			independent.put("x", x);
+			for (String name : search.laggedColumns(independent,
+					new Column[] { y }).keySet())
+				assert name.equals(name("x", lag)) : name + " is not lag "
+						+ lag;
+		}
+		System.err.println("Passed sparse test");
+		System.err.println("Validation complete");
+	}
+
+	@Override
+	public String toString() {
+		return "LagSearch[lags 1 to " + this.maxLag + "]";
+	}
+}
@@ -0,0 +1,624 @@
+package edu.missouri.bayesianConstructor;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Stores the {@link PairMoments} of every pair of variables in a dependence
+ * relation <i>I</i>&rarr;<i>D</i>, arranged like the dependency tables of
+ * {@link DomainKnowledge}: one row for each variable in the independent layer
+ * and one column for each variable in the dependent layer.
+ * <p/>
+ * The moments of all the pairs are computed together by
+ * {@link #compute(double[][], double[][])}. Rather than scanning each pair of
+ * columns separately (which reads every column once per variable in the other
+ * layer), every column is shifted by its mean and split into a validity
+ * indicator <i>v</i>, a value <i>a</i> (zero where missing) and its square
+ * <i>a</i>&sup2;. All the sums needed by every pair are then the entries of
+ * the product [<i>v</i><sub>I</sub> <i>a</i><sub>I</sub>
+ * <i>a</i>&sup2;<sub>I</sub>]<sup>T</sup>&times;[<i>v</i><sub>D</sub>
+ * <i>a</i><sub>D</sub> <i>a</i>&sup2;<sub>D</sub>], which only counts the
+ * observations where both values are known (pairwise-complete observations).
+ * The product is computed in blocks of {@link #ROW_BLOCK} rows so that the
+ * part of each column being used stays in cache while it is combined with
+ * every column of the other layer.
+ * <p/>
+ * As of version 0.03, the validity indicators are kept as {@link Column}
+ * bitsets: the count of each pair is the population count of the AND of both
+ * masks, and the sums only visit the bits set in it, so the inner loop neither
+ * tests for {@code NaN} nor multiplies by the indicators.
+ * <p/>
+ * As of version 0.04 the sums of each block are computed by a
+ * {@link MomentKernel}, which may use the Java Vector API when it is available
+ * (see {@link #kernel()}).
+ * <p/>
+ * Once computed, the dependency table is obtained with {@link #table(double)}
+ * and relations computed over disjoint data can be combined with
+ * {@link #merge(LayerMoments)} (or a subset removed with
+ * {@link #subtract(LayerMoments)}).
+ *
+ * @author <a href="mailto:fthc8@missouri.edu">Fernando J. Torre-Mora</a>
+ * @version 0.10 2026-10-16
+ * @since {@code bayesianConstructor} version 0.26 2026-10-16
+ */
+public class LayerMoments {
+	/**
+	 * Number of rows processed together by
+	 * {@link #compute(double[][], double[][])}. Must be a multiple of 64, so
+	 * that each block covers whole words of the validity masks.
+	 */
+	public static final int ROW_BLOCK = 128;
+
+	/**
+	 * Number of sums accumulated for each pair of variables: the count, the
+	 * sums of <i>x</i>, <i>y</i>, <i>x</i>&sup2;, <i>y</i>&sup2;, and
+	 * <i>xy</i>
+	 */
+	private static final int SUMS = 6;
+
+	/** The kernel that computes the sums of each block */
+	private static final MomentKernel KERNEL = MomentKernel.INSTANCE;
+
+	/**
+	 * The moments of each pair, where {@code moments[i][j]} holds the moments
+	 * of the <i>i</i><sup>th</sup> independent variable and the
+	 * <i>j</i><sup>th</sup> dependent variable
+	 */
+	private final PairMoments[][] moments;
+
+	/**
+	 * Creates a table of moments with no observations
+	 *
+	 * @param independent
+	 *            number of variables in the independent layer
+	 * @param dependent
+	 *            number of variables in the dependent layer
+	 */
+	public LayerMoments(int independent, int dependent) {
+		this.moments = new PairMoments[independent][dependent];
+		for (int i = 0; i < independent; i++)
+			for (int j = 0; j < dependent; j++)
+				this.moments[i][j] = new PairMoments();
+	}
+
+	/**
+	 * Creates a deep copy of the given table of moments
+	 *
+	 * @param other
+	 *            the table to be copied
+	 * @since 0.06 2026-10-16
+	 */
+	public LayerMoments(LayerMoments other) {
+		this.moments = new PairMoments[other.rows()][other.columns()];
+		for (int i = 0; i < this.moments.length; i++)
+			for (int j = 0; j < this.moments[i].length; j++)
+				this.moments[i][j] = new PairMoments(other.moments[i][j]);
+	}
+
+	/**
+	 * Wraps the given moments without copying them
+	 *
+	 * @param moments
+	 *            the moments of each pair of variables
+	 */
+	protected LayerMoments(PairMoments[][] moments) {
+		this.moments = moments;
+	}
+
+	/**
+	 * Computes the moments of every pair formed by one column of
+	 * {@code independent} and one column of {@code dependent} in a single
+	 * blocked sweep. {@code NaN} marks a missing value; each pair only uses
+	 * the rows where both of its values are known.
+	 *
+	 * @param independent
+	 *            The columns of values for the variables assumed to be
+	 *            independent&mdash;each row is assumed to be a different
+	 *            variable.
+	 * @param dependent
+	 *            The columns of values for the variables assumed to be
+	 *            dependent&mdash;each row is assumed to be a different
+	 *            variable.
+	 * @return the moments of every pair of variables
+	 * @throws IllegalArgumentException
+	 *             If the columns are not all of the same length
+	 */
+	public static LayerMoments compute(double[][] independent,
+			double[][] dependent) throws IllegalArgumentException {
+		return compute(Column.of(independent), Column.of(dependent));
+	}
+
+	/**
+	 * Computes the moments of every pair formed by one column of
+	 * {@code independent} and one column of {@code dependent} (see
+	 * {@link #compute(double[][], double[][])}), reusing the validity masks
+	 * already stored in the columns.
+	 *
+	 * @param independent
+	 *            The variables assumed to be independent
+	 * @param dependent
+	 *            The variables assumed to be dependent
+	 * @return the moments of every pair of variables
+	 * @throws IllegalArgumentException
+	 *             If the columns are not all of the same size
+	 * @since 0.03 2026-10-16
+	 */
+	public static LayerMoments compute(Column[] independent,
+			Column[] dependent) throws IllegalArgumentException {
+		int rows = independent.length > 0 ? independent[0].size()
+				: dependent.length > 0 ? dependent[0].size() : 0;
+		ShiftedColumn[] x = ShiftedColumn.of(independent, rows);
+		ShiftedColumn[] y = ShiftedColumn.of(dependent, rows);
+		PairMoments[][] out = new PairMoments[x.length][];
+		for (int i = 0; i < x.length; i++)
+			out[i] = row(x[i], y);
+		return new LayerMoments(out);
+	}
+
+	/**
+	 * Computes the moments of one independent variable against every
+	 * dependent variable. The rows are processed in blocks of
+	 * {@link #ROW_BLOCK} so that the block of {@code x} stays in cache while
+	 * it is combined with every column of {@code y}.
+	 *
+	 * @param x
+	 *            the independent variable
+	 * @param y
+	 *            the dependent variables
+	 * @return the moments of {@code x} with each variable in {@code y}
+	 */
+	static PairMoments[] row(ShiftedColumn x, ShiftedColumn[] y) {
+		int m = y.length;
+		int rows = x.rows;
+		double[] sums = new double[m * SUMS];
+		for (int start = 0; start < rows; start += ROW_BLOCK) {
+			int end = Math.min(rows, start + ROW_BLOCK);
+			for (int j = 0; j < m; j++)
+				KERNEL.accumulate(x, y[j], start, end, sums, j * SUMS);
+		}
+		PairMoments[] out = new PairMoments[m];
+		for (int j = 0; j < m; j++)
+			out[j] = toMoments(x, y[j], sums, j * SUMS);
+		return out;
+	}
+
+	/**
+	 * Computes the moments of a single pair of variables. The result is
+	 * bit-for-bit identical to the corresponding cell of
+	 * {@link #row(ShiftedColumn, ShiftedColumn[])}, since each cell's sums are
+	 * accumulated in the same order in both methods.
+	 *
+	 * @param x
+	 *            the independent variable
+	 * @param y
+	 *            the dependent variable
+	 * @return the moments of {@code x} and {@code y}
+	 */
+	static PairMoments cell(ShiftedColumn x, ShiftedColumn y) {
+		int rows = x.rows;
+		double[] sums = new double[SUMS];
+		for (int start = 0; start < rows; start += ROW_BLOCK)
+			KERNEL.accumulate(x, y, start, Math.min(rows, start + ROW_BLOCK),
+					sums, 0);
+		return toMoments(x, y, sums, 0);
+	}
+
+	/**
+	 * Computes the moments of every pair formed by one column of {@code x}
+	 * and one column of {@code y} separately for each group of rows of a
+	 * {@link Panel}, in a single sweep over the groups. Group <i>g</i> spans
+	 * rows {@code starts[g]} (a multiple of 64) to {@code ends[g]}; each
+	 * column was shifted by its own mean within each group (see
+	 * {@link ShiftedColumn#ShiftedColumn(Column, int[], int[], double[])}).
+	 * The rows of each group are processed in blocks of {@link #ROW_BLOCK}
+	 * counted from the start of the group, so the moments of each group are
+	 * identical to the ones {@link #compute(Column[], Column[])} would
+	 * compute from that group's rows alone.
+	 *
+	 * @param x
+	 *            the independent variables
+	 * @param shiftX
+	 *            the shift of each independent variable in each group
+	 * @param y
+	 *            the dependent variables
+	 * @param shiftY
+	 *            the shift of each dependent variable in each group
+	 * @param starts
+	 *            the first row of each group
+	 * @param ends
+	 *            one past the last row of each group
+	 * @return the moments of each group
+	 */
+	static LayerMoments[] panel(ShiftedColumn[] x, double[][] shiftX,
+			ShiftedColumn[] y, double[][] shiftY, int[] starts, int[] ends) {
+		int m = y.length;
+		double[] sums = new double[x.length * m * SUMS];
+		LayerMoments[] out = new LayerMoments[starts.length];
+		for (int g = 0; g < starts.length; g++) {
+			Arrays.fill(sums, 0);
+			for (int start = starts[g]; start < ends[g]; start += ROW_BLOCK) {
+				int end = Math.min(ends[g], start + ROW_BLOCK);
+				for (int i = 0; i < x.length; i++)
+					for (int j = 0; j < m; j++)
+						KERNEL.accumulate(x[i], y[j], start, end, sums,
+								(i * m + j) * SUMS);
+			}
+			PairMoments[][] cells = new PairMoments[x.length][m];
+			for (int i = 0; i < x.length; i++)
+				for (int j = 0; j < m; j++) {
+					int k = (i * m + j) * SUMS;
+					cells[i][j] = PairMoments.fromShiftedSums((long) sums[k],
+							shiftX[i][g], shiftY[j][g], sums[k + 1],
+							sums[k + 2], sums[k + 3], sums[k + 4], sums[k + 5]);
+				}
+			out[g] = new LayerMoments(cells);
+		}
+		return out;
+	}
+
+	/** Converts the sums stored at {@code sums[k]} into moments */
+	private static PairMoments toMoments(ShiftedColumn x, ShiftedColumn y,
+			double[] sums, int k) {
+		return PairMoments.fromShiftedSums((long) sums[k], x.shift, y.shift,
+				sums[k + 1], sums[k + 2], sums[k + 3], sums[k + 4],
+				sums[k + 5]);
+	}
+
+	/**
+	 * A column prepared for {@link LayerMoments#compute(Column[], Column[])}:
+	 * its validity mask, its values shifted by the column's mean (zero where
+	 * missing) and the squares of those values
+	 */
+	static class ShiftedColumn {
+		/** the number of rows in the column */
+		final int rows;
+
+		/** the fingerprint of the column (see {@link Column#fingerprint()}) */
+		final long fingerprint;
+
+		/**
+		 * the constant subtracted from every value, or 0 for a column whose
+		 * groups were shifted separately
+		 */
+		final double shift;
+
+		/** the validity mask of the column (see {@link Column#mask()}) */
+		final long[] mask;
+
+		/** the value minus {@link #shift}, or 0 where it is missing */
+		final double[] value;
+
+		/** the square of {@link #value} */
+		final double[] square;
+
+		/**
+		 * Prepares the given column, shifting it by the mean of its known
+		 * values (or zero if there are none)
+		 *
+		 * @param column
+		 *            the values of the variable
+		 */
+		ShiftedColumn(Column column) {
+			double[] values = column.values();
+			int offset = column.offset();
+			this.rows = column.size();
+			this.fingerprint = column.fingerprint();
+			this.mask = column.mask();
+			double sum = 0;
+			for (int w = 0; w < this.mask.length; w++)
+				for (long bits = this.mask[w]; bits != 0; bits &= bits - 1)
+					sum += values[(w << 6) + Long.numberOfTrailingZeros(bits)
+							+ offset];
+			int known = column.validCount();
+			this.shift = known > 0 ? sum / known : 0;
+
+			this.value = new double[this.rows];
+			this.square = new double[this.rows];
+			for (int w = 0; w < this.mask.length; w++)
+				for (long bits = this.mask[w]; bits != 0; bits &= bits - 1) {
+					int t = (w << 6) + Long.numberOfTrailingZeros(bits);
+					double d = values[t + offset] - this.shift;
+					this.value[t] = d;
+					this.square[t] = d * d;
+				}
+		}
+
+		/**
+		 * Prepares a column of a {@link Panel}, shifting each group of rows by
+		 * the mean of that group's known values (or zero if there are none),
+		 * exactly as {@link #ShiftedColumn(Column)} would shift a column
+		 * holding only that group's rows
+		 *
+		 * @param column
+		 *            the values of the variable for every group
+		 * @param starts
+		 *            the first row of each group, a multiple of 64
+		 * @param ends
+		 *            one past the last row of each group
+		 * @param shifts
+		 *            where the shift of each group is stored
+		 */
+		ShiftedColumn(Column column, int[] starts, int[] ends, double[] shifts) {
+			double[] values = column.values();
+			int offset = column.offset();
+			this.rows = column.size();
+			this.fingerprint = column.fingerprint();
+			this.mask = column.mask();
+			this.shift = 0;
+			this.value = new double[this.rows];
+			this.square = new double[this.rows];
+			for (int g = 0; g < starts.length; g++) {
+				int first = starts[g] >>> 6, last = Column.words(ends[g]);
+				double sum = 0;
+				int known = 0;
+				for (int w = first; w < last; w++) {
+					known += Long.bitCount(this.mask[w]);
+					for (long bits = this.mask[w]; bits != 0; bits &= bits - 1)
+						sum += values[(w << 6)
+								+ Long.numberOfTrailingZeros(bits) + offset];
+				}
+				shifts[g] = known > 0 ? sum / known : 0;
+				for (int w = first; w < last; w++)
+					for (long bits = this.mask[w]; bits != 0; bits &= bits - 1) {
+						int t = (w << 6) + Long.numberOfTrailingZeros(bits);
+						double d = values[t + offset] - shifts[g];
+						this.value[t] = d;
+						this.square[t] = d * d;
+					}
+			}
+		}
+
+		/**
+		 * Prepares every column of a layer
+		 *
+		 * @throws IllegalArgumentException
+		 *             if any column does not have {@code rows} elements
+		 */
+		static ShiftedColumn[] of(Column[] columns, int rows)
+				throws IllegalArgumentException {
+			ShiftedColumn[] out = new ShiftedColumn[columns.length];
+			for (int i = 0; i < columns.length; i++) {
+				if (columns[i].size() != rows)
+					throw new IllegalArgumentException(
+							"All columns must have the same number of elements");
+				out[i] = new ShiftedColumn(columns[i]);
+			}
+			return out;
+		}
+	}
+
+	/**
+	 * Gets the name of the kernel used to compute the sums: {@code "vector"}
+	 * if the {@code jdk.incubator.vector} kernel was selected, or
+	 * {@code "scalar"} otherwise (see {@link MomentKernel})
+	 *
+	 * @return the name of the kernel in use
+	 * @since 0.04 2026-10-16
+	 */
+	public static String kernel() {
+		return KERNEL.name();
+	}
+
+	/**
+	 * Gets the number of variables in the independent layer
+	 *
+	 * @return the number of rows of the table
+	 */
+	public int rows() {
+		return this.moments.length;
+	}
+
+	/**
+	 * Gets the number of variables in the dependent layer
+	 *
+	 * @return the number of columns of the table
+	 */
+	public int columns() {
+		return this.moments.length > 0 ? this.moments[0].length : 0;
+	}
+
+	/**
+	 * Gets the moments of the given pair of variables. The object returned is
+	 * the one stored in this table, so changes to it are reflected here.
+	 *
+	 * @param i
+	 *            index of the variable in the independent layer
+	 * @param j
+	 *            index of the variable in the dependent layer
+	 * @return the moments of the <i>i</i><sup>th</sup> independent variable
+	 *         and the <i>j</i><sup>th</sup> dependent variable
+	 */
+	public PairMoments get(int i, int j) {
+		return this.moments[i][j];
+	}
+
+	/**
+	 * Combines the moments of {@code other} into this table, pair by pair
+	 * (see {@link PairMoments#merge(PairMoments)}). {@code other} is not
+	 * modified.
+	 *
+	 * @param other
+	 *            moments of the same relation computed over disjoint data
+	 * @return this table, to allow chaining calls
+	 * @throws IllegalArgumentException
+	 *             if {@code other} is not the same size as this table
+	 */
+	public LayerMoments merge(LayerMoments other)
+			throws IllegalArgumentException {
+		this.sameSize(other);
+		for (int i = 0; i < this.moments.length; i++)
+			for (int j = 0; j < this.moments[i].length; j++)
+				this.moments[i][j].merge(other.moments[i][j]);
+		return this;
+	}
+
+	/**
+	 * Removes the moments of {@code other} from this table, pair by pair (see
+	 * {@link PairMoments#subtract(PairMoments)}). {@code other} is not
+	 * modified.
+	 *
+	 * @param other
+	 *            moments of the same relation computed over a subset of the
+	 *            data of this table
+	 * @return this table, to allow chaining calls
+	 * @throws IllegalArgumentException
+	 *             if {@code other} is not the same size as this table, or has
+	 *             more observations of some pair
+	 * @since 0.06 2026-10-16
+	 */
+	public LayerMoments subtract(LayerMoments other)
+			throws IllegalArgumentException {
+		this.sameSize(other);
+		for (int i = 0; i < this.moments.length; i++)
+			for (int j = 0; j < this.moments[i].length; j++)
+				this.moments[i][j].subtract(other.moments[i][j]);
+		return this;
+	}
+
+	/**
+	 * Checks that the given table has the same dimensions as this one
+	 *
+	 * @throws IllegalArgumentException
+	 *             if it does not
+	 */
+	protected void sameSize(LayerMoments other)
+			throws IllegalArgumentException {
+		if (other.rows() != this.rows() || other.columns() != this.columns())
+			throw new IllegalArgumentException("Tables of moments must be "
+					+ "the same size (" + this.rows() + "x" + this.columns()
+					+ " and " + other.rows() + "x" + other.columns() + ")");
+	}
+
+	/**
+	 * Computes the dependency table for this relation (see
+	 * {@link Main#getDependency(double[][], double[][], double)}).
+	 *
+	 * @param minimum
+	 *            Value for the forward dependency below which the result is
+	 *            discarded
+	 * @return a table containing, in each position <i>i</i>, <i>j</i>,
+	 *         {@code get(i, j).netDependency(minimum)}
+	 */
+	public Double[][] table(double minimum) {
+		int n = this.rows();
+		int m = this.columns();
+		Double[][] out = new Double[n][m];
+		for (int i = 0; i < n; i++)
+			for (int j = 0; j < m; j++)
+				out[i][j] = Double.valueOf(this.moments[i][j]
+						.netDependency(minimum));
+		return out;
+	}
+
+	/**
+	 * Checks that the tables of random layers with missing values agree with
+	 * those computed one cell after the other by the code this class replaced
+	 * ({@link Main#serialDependency(double[][], double[][], double)}) within
+	 * {@link Main#TOLERANCE}, both with no minimum and with the default one;
+	 * that the tables computed from {@link Column}s, lagged views included,
+	 * are identical to those computed from arrays; and that merging the
+	 * moments of two parts of the rows gives the tables of the whole, and
+	 * subtracting the first part from the whole those of the second (when it
+	 * has enough rows for every cell to have a score). Also checks, on layers
+	 * of a handful of rows, that cells with fewer than three rows where both
+	 * values are known have no score and are discarded, and that the tables
+	 * are those {@link Main#dependency(java.util.List, java.util.List)} gives
+	 * cell by cell (see
+	 * {@link Main#pairDependency(double[][], double[][], double)}). Run with
+	 * assertions enabled ({@code -ea}).
+	 *
+	 * @param args
+	 *            (ignored)
+	 * @throws AssertionError
+	 *             if a table disagrees
+	 * @since 0.09 2026-10-16
+	 */
+	public static void main(String[] args) throws AssertionError {
+		System.err.println("Validating the " + kernel() + " kernel...");
+		Random random = new Random(43);
+		for (int test = 0; test < 200; test++) {
+			int rows = 3 + random.nextInt(2 * ROW_BLOCK + 50);
+			double[] factor = Main.factor(random, rows);
+			double[][] x = Main.sample(random, factor, 1 + random.nextInt(8));
+			double[][] y = Main.sample(random, factor, 1 + random.nextInt(8));
+			LayerMoments moments = compute(x, y);
+			assert moments.rows() == x.length && moments.columns() == y.length;
+			Double[][] table = moments.table(Double.NEGATIVE_INFINITY);
+			assert Main.agree(table, Main.serialDependency(x, y,
+					Double.NEGATIVE_INFINITY), Main.TOLERANCE) : "Rows "
+					+ rows + ": " + Arrays.deepToString(table);
+			assert Main.agree(moments.table(0.5), Main.serialDependency(x, y,
+					0.5), Main.TOLERANCE) : "Rows " + rows + ", minimum 0.5";
+
+			Column[] cx = Column.of(x);
+			Column[] cy = Column.of(y);
+			assert Main.agree(compute(cx, cy).table(Double.NEGATIVE_INFINITY),
+					table, 0) : "Columns differ from arrays";
+
+			int k = random.nextInt(5);
+			double[][] lagged = new double[y.length][rows];
+			Column[] ly = new Column[y.length];
+			for (int j = 0; j < y.length; j++) {
+				Arrays.fill(lagged[j], Double.NaN);
+				System.arraycopy(y[j], 0, lagged[j], Math.min(k, rows),
+						Math.max(0, rows - k));
+				ly[j] = cy[j].lag(k);
+			}
+			assert Main.agree(compute(cx, ly).table(Double.NEGATIVE_INFINITY),
+					compute(x, lagged).table(Double.NEGATIVE_INFINITY), 0) : "Lag "
+					+ k + " differs from the shifted arrays";
+
+			int part = random.nextInt(rows + 1);
+			Column[] x1 = new Column[x.length];
+			Column[] x2 = new Column[x.length];
+			for (int i = 0; i < x.length; i++) {
+				x1[i] = cx[i].slice(0, part);
+				x2[i] = cx[i].slice(part, rows);
+			}
+			Column[] y1 = new Column[y.length];
+			Column[] y2 = new Column[y.length];
+			for (int j = 0; j < y.length; j++) {
+				y1[j] = cy[j].slice(0, part);
+				y2[j] = cy[j].slice(part, rows);
+			}
+			LayerMoments first = compute(x1, y1);
+			LayerMoments second = compute(x2, y2);
+			assert Main.agree(new LayerMoments(first).merge(second).table(
+					Double.NEGATIVE_INFINITY), table, Main.TOLERANCE) : "Merged at row "
+					+ part;
+			if (rows - part < 30)
+				continue; // too few rows left for every cell to have a score
+			assert Main.agree(new LayerMoments(moments).subtract(first).table(
+					Double.NEGATIVE_INFINITY), second
+					.table(Double.NEGATIVE_INFINITY), Main.TOLERANCE) : "Subtracted at row "
+					+ part;
+		}
+		System.err.println("Passed random test");
+
+		for (int test = 0; test < 1000; test++) {
+			double[][] xy = Main.sparse(random, 2 + random.nextInt(6));
+			double[][] x = Arrays.copyOf(xy, 1 + random.nextInt(xy.length - 1));
+			double[][] y = Arrays.copyOfRange(xy, x.length, xy.length);
+			LayerMoments moments = compute(x, y);
+			for (double minimum : new double[] { Double.NEGATIVE_INFINITY,
+					0.5 }) {
+				Double[][] table = moments.table(minimum);
+				assert Main.agree(table, Main.pairDependency(x, y, minimum),
+						Main.TOLERANCE) : Arrays.deepToString(table)
+						+ " is not the table of Main.dependency";
+				assert Main.agree(compute(Column.of(x), Column.of(y)).table(
+						minimum), table, 0) : "Columns differ from arrays";
+				for (int i = 0; i < x.length; i++)
+					for (int j = 0; j < y.length; j++)
+						if (moments.get(i, j).count() < 3)
+							assert Double.isNaN(moments.get(i, j).dependency())
+									&& table[i][j].doubleValue() == Double.NEGATIVE_INFINITY : "Cell of "
+									+ moments.get(i, j).count()
+									+ " rows scored " + table[i][j];
+			}
+		}
+		System.err.println("Passed sparse test");
+		System.err.println("Validation complete");
+	}
+
+}
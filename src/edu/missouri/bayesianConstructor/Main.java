@@ -6,12 +6,15 @@ import java.io.FileReader;
 import java.io.IOException;
 import java.io.PrintStream;
 import java.io.Reader;
+import java.util.AbstractList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
+import java.util.RandomAccess;
 import java.util.Set;
 import java.util.Vector;
 
@@ -33,7 +36,7 @@ import com.opencsv.CSVReader;
  * classes.
  * 
  * @author <a href="mailto:fthc8@missouri.edu">Fernando J. Torre-Mora</a>
- * @version 0.14 2016-04-25
+ * @version 0.27 2026-10-16
  * @since {@code bayesianConstructor} version 0.03 2016-03-18
  */
 public class Main {
@@ -54,6 +57,10 @@ public class Main {
 	 * <p/>
 	 * If a value is {@code null} or {@code NaN}; it, and the corresponding value in the other
 	 * list, are ignored.
+	 * <p/>
+	 * As of version 0.15 the lists are unboxed once (see
+	 * {@link #toArray(List)}) and the computation is delegated to
+	 * {@link #dependency(double[], double[])}.
 	 * 
 	 * @param X
 	 *            The list of values for the variable thought to be independent
@@ -64,49 +71,62 @@ public class Main {
 	 *             If {@code X} and {@code Y} are not of equal size
 	 * @since 0.01 2016-03-15
 	 */
-	// TODO: There MUST be a way to make this more efficient (see
-	// https://en.wikipedia.org/wiki/Algorithms_for_calculating_variance#Online_algorithm
-	// )
 	public static double dependency(List<Double> X, List<Double> Y)
 			throws IllegalArgumentException {
-		int n = X.size();
-		if (n != Y.size())
+		if (X.size() != Y.size())
 			throw new IllegalArgumentException(
 					"Both lists must have the same number of elements");
+		return dependency(toArray(X), toArray(Y));
+	}
 
-		// total
-		double sumX = 0;
-		double sumY = 0;
-		int nx = 0;
-		for (int i = 0; i < n; i++) {
-			if (X.get(i) != null && !X.get(i).isNaN() && Y.get(i) != null && !Y.get(i).isNaN() ) {
-				sumX += X.get(i).doubleValue();
-				sumY += Y.get(i).doubleValue();
-				nx++;
-			}
-		}
-
-		double stdNumX = 0;// X's standard deviation numerator (x-avg(x))^2
-		double stdNumY = 0;// Y's standard deviation numerator (y-avg(y))^2
-		double covNum = 0;// covariance numerator ((x-avg(x))(y-avg(y))^2)
-		int processed = 0;
-		for (int i = 0; i < n; i++) {
-			if (X.get(i) != null && !X.get(i).isNaN() && Y.get(i) != null && !Y.get(i).isNaN() ) {
-				double xi = X.get(i).doubleValue();
-				double yi = Y.get(i).doubleValue();
-				stdNumX += Math.pow(xi - sumX / nx, 2);
-				stdNumY += Math.pow(yi - sumY / nx, 2);
-				covNum += (xi - sumX / nx) * (yi - sumY / nx);
-				processed++;
-			}
-		}
-		assert processed == nx;
+	/**
+	 * Computes the dependency between the two given columns of data. The
+	 * dependency is defined as in {@link #dependency(List, List)}, but the
+	 * columns are given as primitive arrays, with {@code NaN} marking a missing
+	 * value. If a value is {@code NaN}; it, and the corresponding value in the
+	 * other column, are ignored.
+	 * <p/>
+	 * The moments are accumulated in a single pass with a
+	 * {@link PairMoments} accumulator. As of version 0.27 they are looked up
+	 * in, and stored in, the {@link DependencyCache#shared() shared cache}, so
+	 * a pair already scored (by any entry point, in this run or, if the cache
+	 * is saved, in an earlier one) is not scanned again.
+	 * 
+	 * @param X
+	 *            The column of values for the variable thought to be
+	 *            independent
+	 * @param Y
+	 *            The column of values for the variable thought to be dependent
+	 * @return the dependency score, a number between 0 and <i>Y</i>&#x305;
+	 * @throws IllegalArgumentException
+	 *             If {@code X} and {@code Y} are not of equal length
+	 * @since 0.15 2026-10-16
+	 */
+	public static double dependency(double[] X, double[] Y)
+			throws IllegalArgumentException {
+		return dependency(new Column(X), new Column(Y));
+	}
 
-		double STE = Math.sqrt((stdNumY - Math.pow(covNum, 2) / stdNumX)
-				/ (nx - 2));
-		double out = 1 - STE / (sumY / nx);
-		//assert (out >= 0 && out <= 1);
-		return out;
+	/**
+	 * Computes the dependency between the two given columns of data (see
+	 * {@link #dependency(List, List)}). Only the rows where both values are
+	 * known, as given by the columns' validity masks, are visited. As of
+	 * version 0.27 the moments of the pair are taken from the
+	 * {@link DependencyCache#shared() shared cache} if they are in it.
+	 * 
+	 * @param X
+	 *            The column of values for the variable thought to be
+	 *            independent
+	 * @param Y
+	 *            The column of values for the variable thought to be dependent
+	 * @return the dependency score, a number between 0 and <i>Y</i>&#x305;
+	 * @throws IllegalArgumentException
+	 *             If {@code X} and {@code Y} are not of equal size
+	 * @since 0.20 2026-10-16
+	 */
+	public static double dependency(Column X, Column Y)
+			throws IllegalArgumentException {
+		return DependencyCache.shared().dependency(X, Y);
 	}
 
 	/**
@@ -147,25 +167,453 @@ public class Main {
 	 */
 	public static Double[][] getDependency(List<List<Double>> independent,
 			List<List<Double>> dependent, double minimum) {
-		int n = independent.size();
-		int m = dependent.size();
-		Double[][] out = new Double[n][m];
+		return getDependency(toArrays(independent), toArrays(dependent),
+				minimum);
+	}
+
+	/**
+	 * Compute the degree to which {@code dependent} depends on
+	 * {@code independent} as in {@link #getDependency(List, List, double)},
+	 * but taking each variable as a primitive column where {@code NaN} marks a
+	 * missing value. Each column is expected to have been unboxed once by the
+	 * caller (see {@link #toArrays(List)}), so that none of the
+	 * <i>n</i>&times;<i>m</i> cell computations has to unbox its values again.
+	 * <p/>
+	 * The moments of every cell are computed together in one blocked sweep
+	 * over both layers (see {@link LayerMoments}), and the forward and
+	 * backward dependencies of each cell are derived from them (see
+	 * {@link PairMoments#netDependency(double)}). As of version 0.27 the
+	 * moments of each cell are looked up in, and stored in, the
+	 * {@link DependencyCache#shared() shared cache} instead, which yields the
+	 * same table.
+	 * 
+	 * @param independent
+	 *            The columns of values for the variables assumed to be
+	 *            independent&mdash;each row is assumed to be a different
+	 *            variable.
+	 * @param dependent
+	 *            The columns of values for the variables assumed to be
+	 *            dependent&mdash;each row is assumed to be a different
+	 *            variable.
+	 * @param minimum
+	 *            Value for the forward dependency below which the result is
+	 *            discarded
+	 * @return a {@code independent.length} by {@code dependent.length} table of
+	 *         {@code Double}s containing, in each position <i>i</i>, <i>j</i>,
+	 *         the degree at which {@code dependent[j]} depends on
+	 *         {@code independent[i]}
+	 * @throws IllegalArgumentException
+	 *             If the columns are not all of the same length
+	 * @since 0.15 2026-10-16
+	 */
+	public static Double[][] getDependency(double[][] independent,
+			double[][] dependent, double minimum)
+			throws IllegalArgumentException {
+		return DependencyCache.shared().getDependency(independent, dependent,
+				minimum);
+	}
 
+	/**
+	 * Compute the degree to which {@code dependent} depends on
+	 * {@code independent} using the default minimum forward dependency of 0.5
+	 * (see {@link #getDependency(List, List)}).
+	 * 
+	 * @param independent
+	 *            the columns of values for the variables assumed to be
+	 *            independent&mdash;each row is assumed to be a different
+	 *            variable.
+	 * @param dependent
+	 *            the columns of values for the variables assumed to be
+	 *            dependent&mdash;each row is assumed to be a different
+	 *            variable.
+	 * @return a {@code independent.length} by {@code dependent.length} table of
+	 *         {@code Double}s containing, in each position <i>i</i>, <i>j</i>,
+	 *         the degree at which {@code dependent[j]} depends on
+	 *         {@code independent[i]}
+	 * @since 0.15 2026-10-16
+	 */
+	public static Double[][] getDependency(double[][] independent,
+			double[][] dependent) {
+		return getDependency(independent, dependent, 0.5);
+	}
+
+	/**
+	 * Compute the degree to which {@code dependent} depends on
+	 * {@code independent} as in
+	 * {@link #getDependency(double[][], double[][], double)}, but scoring each
+	 * cell with the given {@link DependencyMeasure} rather than the standard
+	 * error of estimate
+	 *
+	 * @param independent
+	 *            the columns of values for the variables assumed to be
+	 *            independent&mdash;each row is assumed to be a different
+	 *            variable.
+	 * @param dependent
+	 *            the columns of values for the variables assumed to be
+	 *            dependent&mdash;each row is assumed to be a different
+	 *            variable.
+	 * @param minimum
+	 *            Value for the forward dependency below which the result is
+	 *            discarded, on the scale of {@code measure}
+	 * @param measure
+	 *            the measure each cell is computed with
+	 * @return a {@code independent.length} by {@code dependent.length} table of
+	 *         {@code Double}s containing, in each position <i>i</i>, <i>j</i>,
+	 *         the degree at which {@code dependent[j]} depends on
+	 *         {@code independent[i]}
+	 * @throws IllegalArgumentException
+	 *             If the columns are not all of the same length
+	 * @since 0.22 2026-10-16
+	 */
+	public static Double[][] getDependency(double[][] independent,
+			double[][] dependent, double minimum, DependencyMeasure measure)
+			throws IllegalArgumentException {
+		return measure.getDependency(Column.of(independent),
+				Column.of(dependent), minimum);
+	}
+
+	/**
+	 * Compute the degree to which {@code dependent} depends on
+	 * {@code independent} with the given {@link DependencyMeasure}, using its
+	 * {@link DependencyMeasure#defaultMinimum() default minimum} (see
+	 * {@link #getDependency(double[][], double[][], double, DependencyMeasure)})
+	 *
+	 * @param independent
+	 *            the columns of values for the variables assumed to be
+	 *            independent
+	 * @param dependent
+	 *            the columns of values for the variables assumed to be
+	 *            dependent
+	 * @param measure
+	 *            the measure each cell is computed with
+	 * @return a {@code independent.length} by {@code dependent.length} table
+	 * @throws IllegalArgumentException
+	 *             If the columns are not all of the same length
+	 * @since 0.22 2026-10-16
+	 */
+	public static Double[][] getDependency(double[][] independent,
+			double[][] dependent, DependencyMeasure measure)
+			throws IllegalArgumentException {
+		return getDependency(independent, dependent, measure.defaultMinimum(),
+				measure);
+	}
+
+	/**
+	 * Largest difference allowed between a score computed by
+	 * {@link #serialDependency(double[], double[])} and the same score
+	 * computed from {@link PairMoments} by the faster paths, which only differ
+	 * from it in the order of their operations
+	 *
+	 * @since 0.25 2026-10-16
+	 */
+	static final double TOLERANCE = 1e-9;
+
+	/**
+	 * Computes the dependency between two columns the way
+	 * {@link #dependency(List, List)} did up to version 0.14: a first pass
+	 * over the rows where both values are known finds the means, and a second
+	 * sums the squared deviations from them and their products. It is kept as
+	 * the reference against which the self-checks of {@link PairMoments},
+	 * {@link LayerMoments}, {@link DependencyBuilder} and the rest compare the
+	 * scores they compute, which must agree with it within
+	 * {@link #TOLERANCE}. With fewer than three such rows the score is not a
+	 * number, as it is for {@link PairMoments#dependency()}; the version 0.14
+	 * code divided a rounding residue by zero there, which gave {@code NaN}
+	 * or, now and then, an infinite score.
+	 *
+	 * @param X
+	 *            The column of values for the variable thought to be
+	 *            independent, with {@code NaN} marking a missing value
+	 * @param Y
+	 *            The column of values for the variable thought to be dependent
+	 * @return the dependency score
+	 * @since 0.25 2026-10-16
+	 */
+	static double serialDependency(double[] X, double[] Y) {
+		int n = X.length;
+		double sumX = 0;
+		double sumY = 0;
+		int nx = 0;
 		for (int i = 0; i < n; i++)
-			for (int j = 0; j < m; j++) {
-				double x_to_y = dependency(independent.get(i), dependent.get(j));
-				if (x_to_y > minimum) {
-					double y_to_x = dependency(dependent.get(j),
-							independent.get(i));
-					out[i][j] = new Double(x_to_y - y_to_x);
-					//assert (out[i][j].doubleValue() > -1 && out[i][j] < 1);
-				} else {
-					out[i][j] = Double.NEGATIVE_INFINITY;
-				}
+			if (!Double.isNaN(X[i]) && !Double.isNaN(Y[i])) {
+				sumX += X[i];
+				sumY += Y[i];
+				nx++;
+			}
+		double stdNumX = 0;
+		double stdNumY = 0;
+		double covNum = 0;
+		for (int i = 0; i < n; i++)
+			if (!Double.isNaN(X[i]) && !Double.isNaN(Y[i])) {
+				stdNumX += Math.pow(X[i] - sumX / nx, 2);
+				stdNumY += Math.pow(Y[i] - sumY / nx, 2);
+				covNum += (X[i] - sumX / nx) * (Y[i] - sumY / nx);
+			}
+		if (nx < 3)
+			return Double.NaN;
+		double STE = Math.sqrt((stdNumY - Math.pow(covNum, 2) / stdNumX)
+				/ (nx - 2));
+		return 1 - STE / (sumY / nx);
+	}
+
+	/**
+	 * Computes a dependency table one cell after the other, the way
+	 * {@link #getDependency(List, List, double)} did up to version 0.14,
+	 * scoring each direction of each cell with
+	 * {@link #serialDependency(double[], double[])}
+	 *
+	 * @param independent
+	 *            the columns of values for the variables assumed to be
+	 *            independent
+	 * @param dependent
+	 *            the columns of values for the variables assumed to be
+	 *            dependent
+	 * @param minimum
+	 *            Value for the forward dependency below which the result is
+	 *            discarded
+	 * @return a {@code independent.length} by {@code dependent.length} table
+	 * @since 0.25 2026-10-16
+	 */
+	static Double[][] serialDependency(double[][] independent,
+			double[][] dependent, double minimum) {
+		Double[][] out = new Double[independent.length][dependent.length];
+		for (int i = 0; i < independent.length; i++)
+			for (int j = 0; j < dependent.length; j++) {
+				double x_to_y = serialDependency(independent[i], dependent[j]);
+				if (x_to_y > minimum)
+					out[i][j] = Double.valueOf(x_to_y
+							- serialDependency(dependent[j], independent[i]));
+				else
+					out[i][j] = Double.valueOf(Double.NEGATIVE_INFINITY);
+			}
+		return out;
+	}
+
+	/**
+	 * Computes a dependency table one cell after the other through
+	 * {@link #dependency(List, List)}, the entry point that scores single
+	 * pairs, so that the self-checks can compare the table paths against it
+	 *
+	 * @param independent
+	 *            the columns of values for the variables assumed to be
+	 *            independent
+	 * @param dependent
+	 *            the columns of values for the variables assumed to be
+	 *            dependent
+	 * @param minimum
+	 *            Value for the forward dependency below which the result is
+	 *            discarded
+	 * @return a {@code independent.length} by {@code dependent.length} table
+	 * @since 0.26 2026-10-16
+	 */
+	static Double[][] pairDependency(double[][] independent,
+			double[][] dependent, double minimum) {
+		Double[][] out = new Double[independent.length][dependent.length];
+		for (int i = 0; i < independent.length; i++)
+			for (int j = 0; j < dependent.length; j++) {
+				List<Double> X = asList(independent[i]);
+				List<Double> Y = asList(dependent[j]);
+				double x_to_y = dependency(X, Y);
+				if (x_to_y > minimum)
+					out[i][j] = Double.valueOf(x_to_y - dependency(Y, X));
+				else
+					out[i][j] = Double.valueOf(Double.NEGATIVE_INFINITY);
 			}
 		return out;
 	}
 
+	/**
+	 * Checks whether two dependency tables hold the same scores
+	 *
+	 * @param tolerance
+	 *            the largest difference allowed between two scores; 0 if they
+	 *            must be identical
+	 * @return {@code true} if the tables have the same size and every pair of
+	 *         cells is equal (as by {@link Double#compare(double, double)}) or
+	 *         within {@code tolerance}
+	 * @since 0.25 2026-10-16
+	 */
+	static boolean agree(Double[][] a, Double[][] b, double tolerance) {
+		if (a.length != b.length)
+			return false;
+		for (int i = 0; i < a.length; i++) {
+			if (a[i].length != b[i].length)
+				return false;
+			for (int j = 0; j < a[i].length; j++)
+				if (!agree(a[i][j].doubleValue(), b[i][j].doubleValue(),
+						tolerance))
+					return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Checks whether two scores are the same
+	 *
+	 * @param tolerance
+	 *            the largest difference allowed between them; 0 if they must
+	 *            be identical
+	 * @return {@code true} if they are equal (as by
+	 *         {@link Double#compare(double, double)}) or within
+	 *         {@code tolerance}
+	 * @since 0.25 2026-10-16
+	 */
+	static boolean agree(double a, double b, double tolerance) {
+		return Double.compare(a, b) == 0 || Math.abs(a - b) <= tolerance;
+	}
+
+	/**
+	 * Draws the columns of a layer for the self-checks: each variable is a
+	 * positive multiple of a factor shared by the layer plus noise of its
+	 * own, so that some pairs depend strongly on each other and others
+	 * barely do, and about one value in ten is missing
+	 *
+	 * @param random
+	 *            the source of the values
+	 * @param factor
+	 *            the shared factor, one value per row
+	 * @param variables
+	 *            the number of variables of the layer
+	 * @return the column of each variable, as long as {@code factor}
+	 * @since 0.25 2026-10-16
+	 */
+	static double[][] sample(Random random, double[] factor, int variables) {
+		double[][] out = new double[variables][factor.length];
+		for (int i = 0; i < variables; i++) {
+			double weight = random.nextDouble();
+			double level = 10 * (1 + random.nextDouble());
+			for (int t = 0; t < factor.length; t++)
+				out[i][t] = random.nextDouble() < .1 ? Double.NaN : level
+						+ weight * factor[t] + (1 - weight)
+						* random.nextGaussian();
+		}
+		return out;
+	}
+
+	/**
+	 * Draws the columns of a layer of at most six rows, each value missing
+	 * half the time, so that most pairs of columns have fewer than three rows
+	 * where both values are known and have no score
+	 *
+	 * @param random
+	 *            the source of the values
+	 * @param variables
+	 *            the number of variables of the layer
+	 * @return the column of each variable, all of the same random length
+	 * @since 0.26 2026-10-16
+	 */
+	static double[][] sparse(Random random, int variables) {
+		double[][] out = new double[variables][random.nextInt(7)];
+		for (double[] column : out)
+			for (int t = 0; t < column.length; t++)
+				column[t] = random.nextBoolean() ? Double.NaN
+						: 1 + random.nextDouble();
+		return out;
+	}
+
+	/**
+	 * Draws the shared factor of {@link #sample(Random, double[], int)}: a
+	 * random walk, as the yearly indicators of a country tend to be
+	 *
+	 * @param random
+	 *            the source of the values
+	 * @param rows
+	 *            the number of rows
+	 * @return one value per row
+	 * @since 0.25 2026-10-16
+	 */
+	static double[] factor(Random random, int rows) {
+		double[] out = new double[rows];
+		for (int t = 1; t < rows; t++)
+			out[t] = out[t - 1] + random.nextGaussian();
+		return out;
+	}
+
+	/**
+	 * Unboxes the given list into a primitive column. {@code null} values are
+	 * converted into {@code NaN}, which is the missing value marker used by
+	 * {@link #dependency(double[], double[])}. If the list is a view created by
+	 * {@link #asList(double[])}, the array backing it is returned without
+	 * copying.
+	 * 
+	 * @param list
+	 *            the values to be unboxed
+	 * @return an array with one position for every element in {@code list}
+	 * @since 0.15 2026-10-16
+	 */
+	public static double[] toArray(List<Double> list) {
+		if (list instanceof DoubleList)
+			return ((DoubleList) list).values;
+		double[] out = new double[list.size()];
+		int i = 0;
+		for (Double d : list)
+			out[i++] = d == null ? Double.NaN : d.doubleValue();
+		return out;
+	}
+
+	/**
+	 * Unboxes each of the given lists (see {@link #toArray(List)}). Typically
+	 * used to convert all the variables of a layer at once.
+	 * 
+	 * @param lists
+	 *            the lists to be unboxed
+	 * @return an array where each position <i>i</i> contains
+	 *         {@code toArray(lists.get(i))}
+	 * @since 0.15 2026-10-16
+	 */
+	public static double[][] toArrays(List<List<Double>> lists) {
+		double[][] out = new double[lists.size()][];
+		for (int i = 0; i < out.length; i++)
+			out[i] = toArray(lists.get(i));
+		return out;
+	}
+
+	/**
+	 * Wraps the given column in a fixed-size {@code List} without copying or
+	 * boxing it. Values are only boxed when they are retrieved with
+	 * {@code get}; {@link #toArray(List)} recovers {@code values} directly.
+	 * Changes to the list write through to the array and vice versa.
+	 * 
+	 * @param values
+	 *            the column to be wrapped
+	 * @return a fixed-size {@code List} backed by {@code values}
+	 * @since 0.15 2026-10-16
+	 */
+	public static List<Double> asList(double[] values) {
+		return new DoubleList(values);
+	}
+
+	/**
+	 * A fixed-size {@code List} view of a primitive column (see
+	 * {@link Main#asList(double[])})
+	 */
+	private static class DoubleList extends AbstractList<Double> implements
+			RandomAccess {
+		private final double[] values;
+
+		DoubleList(double[] values) {
+			this.values = values;
+		}
+
+		@Override
+		public Double get(int index) {
+			return Double.valueOf(this.values[index]);
+		}
+
+		@Override
+		public Double set(int index, Double element) {
+			double old = this.values[index];
+			this.values[index] = element == null ? Double.NaN : element
+					.doubleValue();
+			return Double.valueOf(old);
+		}
+
+		@Override
+		public int size() {
+			return this.values.length;
+		}
+	}
+
 	/**
 	 * Compute the degree to which {@code dependent} depends on
 	 * {@code independent} by subtracting the forward dependency minus the
@@ -609,16 +1057,16 @@ public class Main {
 		String PPP = "GDP per capita, PPP (constant 2011 international $) [NY.GDP.PCAP.PP.KD]";
 
 		// set categories
-		List<List<Double>> education = Arrays.asList(data.get(primary),
-				data.get(secondary), data.get(tertiary));
-		List<List<Double>> innovation = Arrays
+		double[][] education = toArrays(Arrays.asList(data.get(primary),
+				data.get(secondary), data.get(tertiary)));
+		double[][] innovation = toArrays(Arrays
 				.asList(data.get(journal), data.get(trademark),
-						data.get(government), data.get(foreignAid));
-		List<List<Double>> production = Arrays.asList(data.get(agriculture),
+						data.get(government), data.get(foreignAid)));
+		double[][] production = toArrays(Arrays.asList(data.get(agriculture),
 				data.get(industry), data.get(manufacture), data.get(services),
-				data.get(unemployed));
-		List<List<Double>> economic = Arrays.asList(data.get(growth),
-				data.get(PPP));
+				data.get(unemployed)));
+		double[][] economic = toArrays(Arrays.asList(data.get(growth),
+				data.get(PPP)));
 
 		// Structure
 		DomainKnowledge m = new DomainKnowledge();
@@ -628,16 +1076,18 @@ public class Main {
 				Arrays.asList(journal, trademark, government, foreignAid));
 		m.addLayer("Production", Arrays.asList(agriculture, industry,
 				manufacture, services, unemployed));
-		m.addDependency("Education", "Innovation",
-				getDependency(education, innovation));
-		m.addDependency("Education", "Production",
-				getDependency(education, production));
+		Map<String, double[][]> columns = new HashMap<String, double[][]>();
+		columns.put("Education", education);
+		columns.put("Innovation", innovation);
+		columns.put("Production", production);
+		columns.put("Economic", economic);
+		m.addDependency("Education", "Innovation");
+		m.addDependency("Education", "Production");
 		// m.addDependency("Innovation", "Production", getDependency(innovation,
 		// production));
-		m.addDependency("Innovation", "Economic",
-				Main.getDependency(innovation, economic));
-		m.addDependency("Production", "Economic",
-				getDependency(production, economic));
+		m.addDependency("Innovation", "Economic");
+		m.addDependency("Production", "Economic");
+		new DependencyBuilder(DependencyCache.shared()).build(m, columns);
 		return m;
 	}
 
@@ -714,6 +1164,43 @@ public class Main {
 		return data;
 	}
 
+	/**
+	 * Loads the rows from a CSV file that match the given criterion, mapping
+	 * the file into memory and parsing its bytes in place, in parallel for
+	 * large files (see {@link ParallelCSV}). The result is the same as that of
+	 * {@link #loadCSVwithFiltering(Reader, String, int)}, but "..", which the
+	 * World Bank uses to mark missing values, is recognized without trying to
+	 * parse it. If all rows are desired, set {@code filterExp} to {@code null}
+	 * 
+	 * @param inputFile
+	 *            The file to be read
+	 * @param filterExp
+	 *            A regular expression indicating how to filter the
+	 *            {@code filterIndex}<sup>th</sup> column
+	 * @param filterIndex
+	 *            Index of the column desired to be filtered (indices start at
+	 *            zero)
+	 * @return A {@code Map} representing a column-majoral table, where each key
+	 *         is the table's header and the list mapped to is the contents of
+	 *         the column with that name.
+	 * @throws IOException
+	 *             if the file could not be mapped into memory
+	 * @throws IllegalArgumentException
+	 *             if the file given contains zero columns in its column header
+	 * @throws IllegalStateException
+	 *             If not all rows contain the same number of columns
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             If {@code filterIndex} is greater than the number of columns,
+	 *             or if it's negative
+	 * @since 0.23 2026-10-16
+	 */
+	public static Map<String, List<Double>> loadCSVwithFiltering(
+			File inputFile, String filterExp, int filterIndex)
+			throws IOException, IllegalArgumentException,
+			IllegalStateException, ArrayIndexOutOfBoundsException {
+		return new ParallelCSV().load(inputFile, filterExp, filterIndex);
+	}
+
 	/**
 	 * Loads the rows from a CSV file whose first column match the given
 	 * criterion. If all rows are desired, set {@code filterExp} to {@code null}
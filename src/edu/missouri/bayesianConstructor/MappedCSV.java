@@ -0,0 +1,834 @@
+package edu.missouri.bayesianConstructor;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.regex.Pattern;
+
+/**
+ * Reads CSV files by mapping them into memory and parsing their bytes in
+ * place, instead of decoding every line into {@code String}s first.
+ * <p/>
+ * Fields are found by scanning the bytes of each row once. Numbers are
+ * parsed directly from the bytes of their field: a value with at most 15
+ * significant digits and a small exponent, which covers the indicators of the
+ * World Bank, is computed exactly from its digits with a single
+ * multiplication or division by a power of ten, and any other number falls
+ * back to {@link Double#parseDouble(String)}. Fields matching one of the
+ * missing markers (by default, empty fields and the World Bank's "..") are
+ * recognized by comparing their bytes, and fields that cannot be numbers,
+ * such as names, are recognized by their first character, so neither throws
+ * an exception. Only headers and the values of the group-by column are
+ * decoded into {@code String}s, and the group of a row is only decoded if it
+ * differs from the group of the row before it.
+ * <p/>
+ * The results are the same as those of
+ * {@link Main#loadCSVwithFiltering(java.io.Reader, String, int)} and
+ * {@link GroupIndex#load(java.io.Reader, int)}, which read files through
+ * opencsv with its default settings, because rows are split and fields
+ * unquoted by the rules of opencsv's parser, quirks included:
+ * <ul>
+ * <li>fields are separated by commas, and rows end in a line feed, a carriage
+ * return or both;</li>
+ * <li>a double quote starts or ends a quoted section, in which commas and
+ * line breaks belong to the field (line breaks are read as a line feed);</li>
+ * <li>two double quotes stand for one, unless they start an unquoted
+ * field;</li>
+ * <li>a backslash is always dropped, but if it is followed by a double quote
+ * or a backslash and does not start an unquoted field, that character is
+ * kept as is; so {@code Foo\Bar} reads as {@code FooBar};</li>
+ * <li>a double quote that is not among the first three characters of its
+ * line, nor next to a comma or the end of its line, is kept as well as
+ * starting or ending a quoted section; so {@code ab"c"d} reads as
+ * {@code abc"d}, but the same field after a comma reads as
+ * {@code ab"c"d}. It is dropped instead if the field holds only blanks
+ * before it, and so are those blanks;</li>
+ * <li>a quoted section still open at the end of the file loses the field it
+ * started.</li>
+ * </ul>
+ * Files must be encoded in UTF-8 (or ASCII) and be smaller than 2GB.
+ * <p/>
+ * This class is thread-safe.
+ *
+ * @author <a href="mailto:fthc8@missouri.edu">Fernando J. Torre-Mora</a>
+ * @version 0.04 2026-10-16
+ * @since {@code bayesianConstructor} version 0.44 2026-10-16
+ */
+public class MappedCSV {
+	/** The missing markers recognized by default */
+	public static final String[] DEFAULT_MISSING = { "", ".." };
+
+	/** The powers of ten that can be represented exactly */
+	private static final double[] POW10 = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5,
+			1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17,
+			1e18, 1e19, 1e20, 1e21, 1e22 };
+
+	/**
+	 * The group that the rows kept by a filter are read into
+	 *
+	 * @since 0.03 2026-10-16
+	 */
+	static final String MATCHED = "";
+
+	/** The largest number of digits whose value is always exact */
+	private static final int EXACT_DIGITS = 15;
+
+	/** The bytes of each missing marker */
+	private final byte[][] missing;
+
+	/**
+	 * Creates a parser recognizing the {@link #DEFAULT_MISSING default missing
+	 * markers}
+	 */
+	public MappedCSV() {
+		this(DEFAULT_MISSING);
+	}
+
+	/**
+	 * Creates a parser recognizing the given missing markers. Empty fields are
+	 * always missing.
+	 *
+	 * @param missing
+	 *            the values that mark a missing value
+	 */
+	public MappedCSV(String... missing) {
+		this.missing = new byte[missing.length][];
+		for (int i = 0; i < missing.length; i++)
+			this.missing[i] = missing[i].getBytes(StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * The fields of one row, as ranges of the buffer, and the field being read
+	 */
+	static final class Fields {
+		/** The number of fields in the row */
+		int count;
+
+		/** The first byte of each field */
+		int[] from = new int[16];
+
+		/** The byte after the last byte of each field */
+		int[] to = new int[16];
+
+		/**
+		 * The value of each field whose value is not a range of the buffer, or
+		 * {@code null} if its bytes are its value
+		 */
+		String[] values = new String[16];
+
+		/** The first byte of the field being read */
+		private int start;
+
+		/** The byte after the last byte of the field being read */
+		private int end;
+
+		/**
+		 * The bytes of the field being read, if they are not the range from
+		 * {@link #start} to {@link #end}; otherwise, {@code null}
+		 */
+		private byte[] bytes;
+
+		/** The number of bytes in {@link #bytes} */
+		private int size;
+
+		/** Starts reading a new, empty field */
+		void clear() {
+			this.start = -1;
+			this.end = -1;
+			this.bytes = null;
+			this.size = 0;
+		}
+
+		/** Adds the byte at {@code pos} to the field being read */
+		void append(ByteBuffer in, int pos) {
+			if (this.bytes == null) {
+				if (this.start < 0) {
+					this.start = pos;
+					this.end = pos + 1;
+					return;
+				}
+				if (this.end == pos) {
+					this.end++;
+					return;
+				}
+				this.copy(in);
+			}
+			this.append(in.get(pos));
+		}
+
+		/**
+		 * Adds a line feed to the field being read, for the line break at
+		 * {@code pos}
+		 */
+		void newline(ByteBuffer in, int pos) {
+			if (in.get(pos) == '\n')
+				this.append(in, pos);
+			else {
+				if (this.bytes == null)
+					this.copy(in);
+				this.append((byte) '\n');
+			}
+		}
+
+		/**
+		 * Copies the field being read, which is no longer a range, into
+		 * {@link #bytes}
+		 */
+		private void copy(ByteBuffer in) {
+			int length = this.start < 0 ? 0 : this.end - this.start;
+			this.bytes = new byte[Math.max(16, 2 * length)];
+			for (int k = 0; k < length; k++)
+				this.bytes[this.size++] = in.get(this.start + k);
+		}
+
+		/** Adds a byte to {@link #bytes} */
+		private void append(byte b) {
+			if (this.size == this.bytes.length)
+				this.bytes = Arrays.copyOf(this.bytes, 2 * this.size);
+			this.bytes[this.size++] = b;
+		}
+
+		/**
+		 * Checks whether the field being read is not empty and holds only
+		 * {@link Character#isWhitespace(char) blanks}
+		 */
+		boolean blank(ByteBuffer in) {
+			if (this.bytes == null ? this.start < 0 : this.size == 0)
+				return false;
+			String value = this.value(in);
+			for (int k = 0; k < value.length(); k++)
+				if (!Character.isWhitespace(value.charAt(k)))
+					return false;
+			return true;
+		}
+
+		/** Decodes the field being read */
+		private String value(ByteBuffer in) {
+			if (this.bytes != null)
+				return new String(this.bytes, 0, this.size,
+						StandardCharsets.UTF_8);
+			return this.start < 0 ? "" : string(in, this.start, this.end);
+		}
+
+		/** Adds the field being read to the row, and starts a new one */
+		void add(ByteBuffer in, int pos) {
+			if (this.count == this.from.length) {
+				this.from = Arrays.copyOf(this.from, 2 * this.count);
+				this.to = Arrays.copyOf(this.to, 2 * this.count);
+				this.values = Arrays.copyOf(this.values, 2 * this.count);
+			}
+			if (this.bytes != null) {
+				this.from[this.count] = pos;
+				this.to[this.count] = pos;
+				this.values[this.count] = this.value(in);
+			} else {
+				this.from[this.count] = this.start < 0 ? pos : this.start;
+				this.to[this.count] = this.start < 0 ? pos : this.end;
+				this.values[this.count] = null;
+			}
+			this.count++;
+			this.clear();
+		}
+	}
+
+	/**
+	 * Reads the given file, splitting its rows by the value of column
+	 * {@code groupIndex} (see {@link GroupIndex#load(java.io.Reader, int)})
+	 *
+	 * @param file
+	 *            the file to be read
+	 * @param groupIndex
+	 *            Index of the column holding the group of each row (indices
+	 *            start at zero)
+	 * @return the rows of every group
+	 * @throws IOException
+	 *             if the file could not be mapped
+	 * @throws IllegalArgumentException
+	 *             if the file given contains zero columns in its column header
+	 * @throws IllegalStateException
+	 *             If not all rows contain the same number of columns
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             If {@code groupIndex} is greater than the number of columns,
+	 *             or if it's negative
+	 */
+	public GroupIndex index(File file, int groupIndex) throws IOException,
+			IllegalArgumentException, IllegalStateException,
+			ArrayIndexOutOfBoundsException {
+		ByteBuffer in = map(file);
+		Fields fields = new Fields();
+		int pos = header(in, fields);
+		List<String> headers = strings(in, fields);
+		int cols = headers.size();
+		if (groupIndex < 0 || groupIndex >= cols)
+			throw new ArrayIndexOutOfBoundsException(groupIndex);
+		GroupIndex.Builder out = new GroupIndex.Builder(cols);
+		this.rows(in, pos, in.limit(), 0, cols, groupIndex, fields, out);
+		return out.build(headers);
+	}
+
+	/**
+	 * Loads the rows of a CSV file that match the given criterion (see
+	 * {@link Main#loadCSVwithFiltering(java.io.Reader, String, int)}). If all
+	 * rows are desired, set {@code filterExp} to {@code null}
+	 *
+	 * @param file
+	 *            the file to be read
+	 * @param filterExp
+	 *            A regular expression indicating how to filter the
+	 *            {@code filterIndex}<sup>th</sup> column
+	 * @param filterIndex
+	 *            Index of the column desired to be filtered (indices start at
+	 *            zero)
+	 * @return A {@code Map} representing a column-majoral table, where each key
+	 *         is the table's header and the list mapped to is the contents of
+	 *         the column with that name.
+	 * @throws IOException
+	 *             if the file could not be mapped
+	 * @throws IllegalArgumentException
+	 *             if the file given contains zero columns in its column header
+	 * @throws IllegalStateException
+	 *             If not all rows contain the same number of columns
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             If {@code filterIndex} is greater than the number of columns,
+	 *             or if it's negative
+	 */
+	public Map<String, List<Double>> load(File file, String filterExp,
+			int filterIndex) throws IOException, IllegalArgumentException,
+			IllegalStateException, ArrayIndexOutOfBoundsException {
+		ByteBuffer in = map(file);
+		Fields fields = new Fields();
+		int pos = header(in, fields);
+		List<String> headers = strings(in, fields);
+		int cols = headers.size();
+		if (filterExp != null && (filterIndex < 0 || filterIndex >= cols))
+			throw new ArrayIndexOutOfBoundsException(filterIndex);
+		GroupIndex.Builder out = new GroupIndex.Builder(cols);
+		this.filter(in, pos, in.limit(), 0, cols, filterExp, filterIndex,
+				fields, out);
+		return matched(out.build(headers));
+	}
+
+	/**
+	 * Gets the rows kept by
+	 * {@link #filter(ByteBuffer, int, int, int, int, String, int, Fields, GroupIndex.Builder)}
+	 * as a column-majoral table
+	 *
+	 * @since 0.03 2026-10-16
+	 */
+	static Map<String, List<Double>> matched(GroupIndex index) {
+		List<String> headers = index.headers();
+		Map<String, List<Double>> out = new HashMap<String, List<Double>>(
+				headers.size());
+		for (String header : headers)
+			out.put(header, Main.asList(index.column(MATCHED, header)));
+		return out;
+	}
+
+	/**
+	 * Maps the whole of a file into memory
+	 *
+	 * @throws IOException
+	 *             if the file could not be mapped, or is too large
+	 */
+	static ByteBuffer map(File file) throws IOException {
+		FileChannel channel = FileChannel.open(file.toPath(),
+				StandardOpenOption.READ);
+		try {
+			long size = channel.size();
+			if (size > Integer.MAX_VALUE)
+				throw new IOException(file + " is too large to be mapped");
+			return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+		} finally {
+			channel.close();
+		}
+	}
+
+	/**
+	 * Reads the header row
+	 *
+	 * @return the position of the first row after the header
+	 * @throws IllegalArgumentException
+	 *             if the file has no columns
+	 */
+	static int header(ByteBuffer in, Fields fields)
+			throws IllegalArgumentException {
+		int pos = row(in, 0, in.limit(), fields);
+		if (in.limit() == 0 || fields.count == 0)
+			throw new IllegalArgumentException("No columns found");
+		return pos;
+	}
+
+	/**
+	 * Reads the rows from {@code pos} to {@code end} into {@code out}, skipping
+	 * the rows with no group
+	 *
+	 * @param line
+	 *            the number of the first row, for error messages
+	 * @return the number of the row after the last row read
+	 * @throws IllegalStateException
+	 *             If not all rows contain {@code cols} columns
+	 */
+	int rows(ByteBuffer in, int pos, int end, int line, int cols,
+			int groupIndex, Fields fields, GroupIndex.Builder out)
+			throws IllegalStateException {
+		int lastFrom = -1;
+		int lastTo = -1;
+		int g = -1;
+		while (pos < end) {
+			pos = row(in, pos, end, fields);
+			if (fields.count == 0)
+				break; // an unterminated quote ends the file
+			if (fields.count != cols)
+				throw new IllegalStateException(
+						"File contains an uneven number of columns in row "
+								+ line);
+			line++;
+			int from = fields.from[groupIndex];
+			int to = fields.to[groupIndex];
+			// consecutive rows usually belong to the same group
+			if (lastFrom < 0 || fields.values[groupIndex] != null
+					|| !same(in, lastFrom, lastTo, from, to)) {
+				String group = string(in, fields, groupIndex).trim();
+				g = group.isEmpty() ? -1 : out.group(group);
+				lastFrom = fields.values[groupIndex] != null ? -1 : from;
+				lastTo = to;
+			}
+			if (g < 0)
+				continue;
+			int t = out.next(g);
+			double[][] columns = out.columns(g);
+			for (int i = 0; i < cols; i++)
+				columns[i][t] = this.number(in, fields, i);
+		}
+		return line;
+	}
+
+	/**
+	 * Reads the rows from {@code pos} to {@code end} that match the given
+	 * criterion into the group {@value #MATCHED} of {@code out}, which is
+	 * created even if no row matches
+	 *
+	 * @param line
+	 *            the number of the first row, for error messages
+	 * @return the number of the row after the last row read
+	 * @throws IllegalStateException
+	 *             If not all rows contain {@code cols} columns
+	 * @since 0.03 2026-10-16
+	 */
+	int filter(ByteBuffer in, int pos, int end, int line, int cols,
+			String filterExp, int filterIndex, Fields fields,
+			GroupIndex.Builder out) throws IllegalStateException {
+		int g = out.group(MATCHED);
+		int lastFrom = -1;
+		int lastTo = -1;
+		boolean lastMatch = false;
+		while (pos < end) {
+			pos = row(in, pos, end, fields);
+			if (fields.count == 0)
+				break; // an unterminated quote ends the file
+			if (fields.count != cols)
+				throw new IllegalStateException(
+						"File contains an uneven number of columns in row "
+								+ line);
+			line++;
+			if (filterExp != null) {
+				int from = fields.from[filterIndex];
+				int to = fields.to[filterIndex];
+				// consecutive rows usually have the same value
+				if (lastFrom < 0 || fields.values[filterIndex] != null
+						|| !same(in, lastFrom, lastTo, from, to)) {
+					lastMatch = filterExp.matches(string(in, fields,
+							filterIndex));
+					lastFrom = fields.values[filterIndex] != null ? -1 : from;
+					lastTo = to;
+				}
+				if (!lastMatch)
+					continue;
+			}
+			int t = out.next(g);
+			double[][] columns = out.columns(g);
+			for (int i = 0; i < cols; i++)
+				columns[i][t] = this.number(in, fields, i);
+		}
+		return line;
+	}
+
+	/**
+	 * Finds the fields of the row starting at {@code pos}, the way opencsv's
+	 * parser splits and unquotes them (see {@link MappedCSV}): the fields read
+	 * are left in {@code fields}. A field whose quotes are still open at the
+	 * end of the file is not added, so the row may have no fields.
+	 *
+	 * @return the position of the next row
+	 */
+	static int row(ByteBuffer in, int pos, int end, Fields fields) {
+		fields.count = 0;
+		fields.clear();
+		int line = pos; // the start of the line
+		boolean inQuotes = false;
+		boolean inField = false;
+		while (pos < end) {
+			byte b = in.get(pos);
+			if (b == '\n' || b == '\r') {
+				int next = b == '\r' && pos + 1 < end && in.get(pos + 1) == '\n' ? pos + 2
+						: pos + 1;
+				if (!inQuotes) {
+					fields.add(in, pos);
+					return next;
+				}
+				fields.newline(in, pos);
+				pos = line = next;
+				continue;
+			}
+			boolean escapes = inQuotes || inField;
+			if (b == '\\') {
+				if (escapes && pos + 1 < end
+						&& (in.get(pos + 1) == '"' || in.get(pos + 1) == '\\'))
+					fields.append(in, ++pos);
+			} else if (b == '"') {
+				if (escapes && pos + 1 < end && in.get(pos + 1) == '"')
+					fields.append(in, ++pos);
+				else {
+					inQuotes = !inQuotes;
+					// a quote in the middle of a field is also part of it
+					if (chars(in, line, pos) > 2 && in.get(pos - 1) != ','
+							&& pos + 1 < end && in.get(pos + 1) != ','
+							&& in.get(pos + 1) != '\n' && in.get(pos + 1) != '\r') {
+						if (fields.blank(in))
+							fields.clear();
+						else
+							fields.append(in, pos);
+					}
+				}
+				inField = !inField;
+			} else if (b == ',' && !inQuotes) {
+				fields.add(in, pos);
+				inField = false;
+			} else {
+				fields.append(in, pos);
+				inField = true;
+			}
+			pos++;
+		}
+		if (!inQuotes)
+			fields.add(in, end);
+		return end;
+	}
+
+	/**
+	 * Counts the characters from {@code from} to {@code to}, up to three
+	 *
+	 * @return the number of UTF-16 characters the bytes decode to, or 3 if it
+	 *         is more
+	 */
+	private static int chars(ByteBuffer in, int from, int to) {
+		int out = 0;
+		for (int p = from; p < to && out < 3; p++) {
+			int b = in.get(p) & 0xFF;
+			if (b >= 0xF0)
+				out += 2; // a surrogate pair
+			else if ((b & 0xC0) != 0x80)
+				out++;
+		}
+		return Math.min(out, 3);
+	}
+
+	/**
+	 * Decodes the fields of a row
+	 */
+	static List<String> strings(ByteBuffer in, Fields fields) {
+		List<String> out = new ArrayList<String>(fields.count);
+		for (int i = 0; i < fields.count; i++)
+			out.add(string(in, fields, i));
+		return out;
+	}
+
+	/**
+	 * Decodes a field of a row
+	 */
+	static String string(ByteBuffer in, Fields fields, int i) {
+		return fields.values[i] != null ? fields.values[i] : string(in,
+				fields.from[i], fields.to[i]);
+	}
+
+	/**
+	 * Decodes a range of the buffer
+	 */
+	static String string(ByteBuffer in, int from, int to) {
+		return new String(bytes(in, from, to), StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Checks whether two ranges of the buffer hold the same bytes
+	 */
+	static boolean same(ByteBuffer in, int from1, int to1, int from2, int to2) {
+		if (to1 - from1 != to2 - from2)
+			return false;
+		for (int k = 0; k < to1 - from1; k++)
+			if (in.get(from1 + k) != in.get(from2 + k))
+				return false;
+		return true;
+	}
+
+	/**
+	 * Reads a field of a row as a number
+	 *
+	 * @return the value of the field, or {@code NaN} if it is missing or not
+	 *         a number
+	 */
+	double number(ByteBuffer in, Fields fields, int i) {
+		if (fields.values[i] != null)
+			return GroupIndex.parse(fields.values[i]);
+		int from = fields.from[i];
+		int to = fields.to[i];
+		if (from == to)
+			return Double.NaN;
+		for (byte[] marker : this.missing)
+			if (marker.length == to - from && matches(in, from, marker))
+				return Double.NaN;
+		return parse(in, from, to);
+	}
+
+	/**
+	 * Checks whether the buffer holds the given bytes at {@code from}
+	 */
+	private static boolean matches(ByteBuffer in, int from, byte[] marker) {
+		for (int k = 0; k < marker.length; k++)
+			if (in.get(from + k) != marker[k])
+				return false;
+		return true;
+	}
+
+	/**
+	 * Parses the decimal number held by a range of bytes, the way
+	 * {@link Double#parseDouble(String)} would
+	 *
+	 * @param in
+	 *            the buffer holding the number
+	 * @param from
+	 *            the first byte of the number
+	 * @param to
+	 *            the byte after the last byte of the number
+	 * @return the value of the number, or {@code NaN} if it is not a number
+	 */
+	public static double parse(ByteBuffer in, int from, int to) {
+		// surrounding blanks are ignored, as by Double.parseDouble
+		while (from < to && (in.get(from) & 0xFF) <= ' ')
+			from++;
+		while (to > from && (in.get(to - 1) & 0xFF) <= ' ')
+			to--;
+		int p = from;
+		boolean negative = false;
+		if (p < to && (in.get(p) == '-' || in.get(p) == '+'))
+			negative = in.get(p++) == '-';
+
+		long mantissa = 0;
+		int digits = 0; // significant digits kept in the mantissa, at most 18
+		int exponent = 0;
+		boolean any = false;
+		boolean exact = true;
+		for (; p < to && isDigit(in.get(p)); p++, any = true)
+			if (digits < 18) {
+				mantissa = 10 * mantissa + (in.get(p) - '0');
+				if (mantissa > 0)
+					digits++;
+			} else {
+				exponent++;
+				exact = false;
+			}
+		if (p < to && in.get(p) == '.')
+			for (p++; p < to && isDigit(in.get(p)); p++, any = true)
+				if (digits < 18) {
+					mantissa = 10 * mantissa + (in.get(p) - '0');
+					exponent--;
+					if (mantissa > 0)
+						digits++;
+				} else
+					exact = false;
+		if (any && p < to && (in.get(p) == 'e' || in.get(p) == 'E')) {
+			int q = p + 1;
+			boolean negativeExponent = false;
+			if (q < to && (in.get(q) == '-' || in.get(q) == '+'))
+				negativeExponent = in.get(q++) == '-';
+			int e = 0;
+			boolean expDigits = false;
+			for (; q < to && isDigit(in.get(q)); q++, expDigits = true)
+				e = Math.min(10 * e + (in.get(q) - '0'), 100000);
+			if (expDigits) {
+				exponent += negativeExponent ? -e : e;
+				p = q;
+			}
+		}
+
+		if (!any || p != to) {
+			// hexadecimal, suffixed or special values; names are not numbers
+			int s = from < to && (in.get(from) == '-' || in.get(from) == '+') ? from + 1
+					: from;
+			if (s < to) {
+				byte first = in.get(s);
+				if (isDigit(first) || first == '.' || first == 'N'
+						|| first == 'I')
+					return GroupIndex.parse(new String(bytes(in, from, to),
+							StandardCharsets.US_ASCII));
+			}
+			return Double.NaN;
+		}
+		if (exact && digits <= EXACT_DIGITS && exponent >= -22
+				&& exponent <= 22) {
+			// both exact, so their quotient or product is correctly rounded
+			double value = exponent < 0 ? mantissa / POW10[-exponent]
+					: mantissa * POW10[exponent];
+			return negative ? -value : value;
+		}
+		return Double.parseDouble(new String(bytes(in, from, to),
+				StandardCharsets.US_ASCII));
+	}
+
+	/**
+	 * Copies a range of the buffer
+	 */
+	private static byte[] bytes(ByteBuffer in, int from, int to) {
+		byte[] out = new byte[to - from];
+		for (int k = 0; k < out.length; k++)
+			out[k] = in.get(from + k);
+		return out;
+	}
+
+	/**
+	 * Checks whether a byte is a decimal digit
+	 */
+	private static boolean isDigit(byte b) {
+		return b >= '0' && b <= '9';
+	}
+
+	/**
+	 * Gets the missing markers recognized
+	 *
+	 * @return the values that mark a missing value, in the order given
+	 * @since 0.02 2026-10-16
+	 */
+	List<String> markers() {
+		List<String> out = new ArrayList<String>();
+		for (byte[] marker : this.missing)
+			out.add(new String(marker, StandardCharsets.UTF_8));
+		return out;
+	}
+
+	/**
+	 * Checks that files are read the same way as through opencsv (see
+	 * {@link GroupIndex#load(java.io.Reader, int)} and
+	 * {@link Main#loadCSVwithFiltering(java.io.Reader, String, int)}), both by
+	 * this class and by {@link ParallelCSV} split into small chunks: the
+	 * headers, the groups of the first column, every value of every group, and
+	 * the rows of the first group when they are kept by a filter. The files
+	 * checked are the data files of the repository, read from the working
+	 * directory, and one of awkward fields (see {@link #AWKWARD}). Run with
+	 * assertions enabled ({@code -ea}).
+	 *
+	 * @param args
+	 *            the files to be checked instead of those of the repository
+	 * @throws IOException
+	 *             if a file could not be read
+	 * @throws AssertionError
+	 *             if a check fails
+	 * @since 0.04 2026-10-16
+	 */
+	public static void main(String[] args) throws IOException, AssertionError {
+		System.err.println("Validating class...");
+		List<File> files = new ArrayList<File>();
+		for (String name : args.length > 0 ? args : new String[] {
+				"Data_Extract_From_World_Development_Indicators_Data.csv",
+				"classed data.csv", "smets woulters data.csv" })
+			files.add(new File(name));
+		File awkward = File.createTempFile("awkward", ".csv");
+		awkward.deleteOnExit();
+		Writer writer = new OutputStreamWriter(new FileOutputStream(awkward),
+				StandardCharsets.UTF_8);
+		try {
+			writer.write(AWKWARD);
+		} finally {
+			writer.close();
+		}
+		files.add(awkward);
+
+		MappedCSV[] readers = { new MappedCSV(),
+				new ParallelCSV(ForkJoinPool.commonPool(), 64, DEFAULT_MISSING) };
+		for (File file : files) {
+			GroupIndex expected = GroupIndex.load(reader(file), 0);
+			String first = expected.groups().iterator().next();
+			String filter = Pattern.quote(first);
+			Map<String, List<Double>> kept = Main.loadCSVwithFiltering(
+					reader(file), filter, 0);
+			for (MappedCSV csv : readers) {
+				GroupIndex actual = csv.index(file, 0);
+				assert actual.headers().equals(expected.headers()) : csv
+						+ " read the headers of " + file + " as "
+						+ actual.headers();
+				assert new ArrayList<String>(actual.groups())
+						.equals(new ArrayList<String>(expected.groups())) : csv
+						+ " read the groups of " + file + " as "
+						+ actual.groups();
+				for (String group : expected.groups())
+					for (String header : expected.headers())
+						assert Arrays.equals(actual.column(group, header),
+								expected.column(group, header)) : csv + " read "
+								+ header + " of " + group + " in " + file
+								+ " differently";
+				Map<String, List<Double>> matched = csv.load(file, filter, 0);
+				assert matched.keySet().equals(kept.keySet());
+				for (String header : kept.keySet())
+					assert Arrays.equals(Main.toArray(matched.get(header)),
+							Main.toArray(kept.get(header))) : csv + " filtered "
+							+ header + " of " + file + " differently";
+			}
+		}
+		System.err.println("Validation complete");
+	}
+
+	/**
+	 * A file whose first column and headers hold the fields where quotes,
+	 * escapes and line breaks are treated the most unexpectedly, with a row of
+	 * numbers in the most unusual forms
+	 */
+	private static final String AWKWARD = "Name, \"A, b\",Foo\\Bar,ab\"c\"d,\"x\"\"y\",z\\\"\n"
+			+ "Foo\\Bar,1,2,3,4,5\n"
+			+ "ab\"c\"d,1,..,\"3\",4e1,-5\r\n"
+			+ "x,ab\"c\"d,\" 2 \",+3.,.4,0x5p0\r"
+			+ "\"Quote \"\"x\"\"\",1,2,3,4,5\n"
+			+ "\"Line\r\nbreak\",1,2,3,4,5\n"
+			+ " \"Blank\",1,2,3,4,5\n"
+			+ "\"\\\"Escaped\\\"\",NaN,-Infinity,1e400,4,5\n"
+			+ "C\u00f4te d'Ivoire,1,2,3,4,5\n"
+			+ "Foo\\Bar,9,9,9,9,9";
+
+	/**
+	 * Opens a file as opencsv would read it, if it is encoded in UTF-8
+	 */
+	private static Reader reader(File file) throws IOException {
+		return new InputStreamReader(new FileInputStream(file),
+				StandardCharsets.UTF_8);
+	}
+
+	@Override
+	public String toString() {
+		List<String> markers = new ArrayList<String>();
+		for (String marker : this.markers())
+			markers.add('"' + marker + '"');
+		return "MappedCSV[missing " + markers + "]";
+	}
+}
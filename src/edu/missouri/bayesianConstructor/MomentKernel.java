@@ -0,0 +1,196 @@
+package edu.missouri.bayesianConstructor;
+
+import java.util.Random;
+
+/**
+ * Computes the sums behind the moments of a pair of columns for
+ * {@link LayerMoments}. This class is the scalar kernel, which runs on any
+ * Java 8 virtual machine. An optional subclass, {@code VectorMomentKernel}
+ * (kept in the {@code src-vector} source folder, since it needs Java 16 or
+ * later), computes the same sums with the {@code jdk.incubator.vector} API.
+ * <p/>
+ * The kernel is chosen once, when the class is loaded: the vector kernel is
+ * used if it has been compiled, the {@code jdk.incubator.vector} module is
+ * present (i.e. the program was started with
+ * {@code --add-modules jdk.incubator.vector}) and the system property
+ * {@value #PROPERTY} is not set to {@code scalar}. Otherwise the scalar kernel
+ * is used.
+ * <p/>
+ * Both kernels add the same terms, but the vector kernel adds them in a
+ * different order (one partial sum per lane), so the results differ by
+ * rounding: each sum agrees with the scalar one to within
+ * <i>n</i>&middot;2<sup>&minus;52</sup> times the sum of the absolute values
+ * of its terms, and the resulting dependency scores agree within
+ * {@link #TOLERANCE}, which {@link #main(String[])} checks. Since only one kernel is used during a run, results
+ * within a run (e.g. serial and parallel, see {@link DependencyBuilder}) are
+ * still identical.
+ *
+ * @author <a href="mailto:fthc8@missouri.edu">Fernando J. Torre-Mora</a>
+ * @version 0.03 2026-10-16
+ * @since {@code bayesianConstructor} version 0.29 2026-10-16
+ */
+class MomentKernel {
+	/**
+	 * System property that selects the kernel: {@code scalar} forces the
+	 * scalar kernel; any other value (or none) uses the vector kernel when
+	 * available
+	 */
+	static final String PROPERTY = "bayesianConstructor.kernel";
+
+	/**
+	 * Maximum absolute difference between the dependency scores computed by
+	 * the scalar and the vector kernels
+	 */
+	static final double TOLERANCE = 1e-9;
+
+	/** Fully qualified name of the vector kernel */
+	private static final String VECTOR_KERNEL = "edu.missouri.bayesianConstructor.VectorMomentKernel";
+
+	/** The kernel used by {@link LayerMoments} */
+	static final MomentKernel INSTANCE = select();
+
+	/**
+	 * Chooses the kernel to be used
+	 *
+	 * @return the vector kernel if it is available and allowed; the scalar
+	 *         kernel otherwise
+	 */
+	private static MomentKernel select() {
+		if ("scalar".equalsIgnoreCase(System.getProperty(PROPERTY)))
+			return new MomentKernel();
+		try {
+			Class.forName("jdk.incubator.vector.DoubleVector");
+			return (MomentKernel) Class.forName(VECTOR_KERNEL)
+					.getDeclaredConstructor().newInstance();
+		} catch (ReflectiveOperationException | LinkageError e) {
+			// module not present, kernel not compiled, or compiled for a newer
+			// virtual machine
+			return new MomentKernel();
+		}
+	}
+
+	/**
+	 * Gets the name of this kernel
+	 *
+	 * @return {@code "scalar"}
+	 */
+	String name() {
+		return "scalar";
+	}
+
+	/**
+	 * Adds the sums of rows {@code start} (inclusive) to {@code end}
+	 * (exclusive) of the given pair to {@code sums[k]} through
+	 * {@code sums[k+5]}: the count, the sums of <i>x</i>, <i>y</i>,
+	 * <i>x</i>&sup2;, <i>y</i>&sup2;, and <i>xy</i>. {@code start} must be a
+	 * multiple of 64. Only the rows set in both validity masks are visited.
+	 *
+	 * @param x
+	 *            the independent variable
+	 * @param y
+	 *            the dependent variable
+	 * @param start
+	 *            the first row
+	 * @param end
+	 *            one past the last row
+	 * @param sums
+	 *            where the sums are accumulated
+	 * @param k
+	 *            the index of the first sum for this pair
+	 */
+	void accumulate(LayerMoments.ShiftedColumn x,
+			LayerMoments.ShiftedColumn y, int start, int end, double[] sums,
+			int k) {
+		long[] mx = x.mask;
+		double[] ax = x.value;
+		double[] qx = x.square;
+		long[] my = y.mask;
+		double[] ay = y.value;
+		double[] qy = y.square;
+		long count = 0;
+		double sumX = 0, sumY = 0, sumXX = 0, sumYY = 0, sumXY = 0;
+		for (int w = start >>> 6, last = Column.words(end); w < last; w++) {
+			long both = mx[w] & my[w];
+			count += Long.bitCount(both);
+			for (; both != 0; both &= both - 1) {
+				int t = (w << 6) + Long.numberOfTrailingZeros(both);
+				sumX += ax[t];
+				sumY += ay[t];
+				sumXX += qx[t];
+				sumYY += qy[t];
+				sumXY += ax[t] * ay[t];
+			}
+		}
+		sums[k] += count;
+		sums[k + 1] += sumX;
+		sums[k + 2] += sumY;
+		sums[k + 3] += sumXX;
+		sums[k + 4] += sumYY;
+		sums[k + 5] += sumXY;
+	}
+
+	/**
+	 * Checks that the scores computed from the sums of the scalar kernel and
+	 * of the kernel selected for this run ({@link #INSTANCE}) agree with those
+	 * of {@link PairMoments#of(double[], double[])} within {@link #TOLERANCE},
+	 * on random columns with missing values, and that the scores of columns
+	 * with fewer than three rows where both are known are not a number. Run
+	 * with assertions enabled ({@code -ea}), and with
+	 * {@code --add-modules jdk.incubator.vector} to check the vector kernel.
+	 *
+	 * @param args
+	 *            (ignored)
+	 * @throws AssertionError
+	 *             if a kernel disagrees
+	 * @since 0.02 2026-10-16
+	 */
+	public static void main(String[] args) throws AssertionError {
+		System.err.println("Validating the " + INSTANCE.name()
+				+ " kernel...");
+		Random random = new Random(29);
+		MomentKernel[] kernels = { new MomentKernel(), INSTANCE };
+		for (int test = 0; test < 500; test++) {
+			// the first tests have a handful of rows
+			int rows = 1 + random.nextInt(test < 100 ? 6 : 300);
+			double scale = Math.pow(10, random.nextInt(13));
+			double[] x = new double[rows];
+			double[] y = new double[rows];
+			for (int t = 0; t < rows; t++) {
+				x[t] = random.nextDouble() < .1 ? Double.NaN : scale
+						* (1 + random.nextDouble());
+				y[t] = random.nextDouble() < .1 ? Double.NaN : scale
+						* (1 + .5 * random.nextDouble()) + .3 * x[t];
+			}
+			PairMoments expected = PairMoments.of(x, y);
+			LayerMoments.ShiftedColumn sx = new LayerMoments.ShiftedColumn(
+					new Column(x));
+			LayerMoments.ShiftedColumn sy = new LayerMoments.ShiftedColumn(
+					new Column(y));
+			for (MomentKernel kernel : kernels) {
+				double[] sums = new double[6];
+				kernel.accumulate(sx, sy, 0, rows, sums, 0);
+				PairMoments actual = PairMoments.fromShiftedSums(
+						(long) sums[0], sx.shift, sy.shift, sums[1], sums[2],
+						sums[3], sums[4], sums[5]);
+				assert actual.count() == expected.count();
+				if (actual.count() < 3)
+					assert Double.isNaN(actual.dependency())
+							&& Double.isNaN(actual.reverseDependency()) : kernel
+							.name() + " kernel: " + actual + " has a score";
+				assert agree(actual.dependency(), expected.dependency()) : kernel
+						.name() + " kernel: " + actual + " vs " + expected;
+				assert agree(actual.reverseDependency(),
+						expected.reverseDependency()) : kernel.name()
+						+ " kernel: " + actual + " vs " + expected;
+			}
+		}
+		System.err.println("Validation complete");
+	}
+
+	/**
+	 * Checks whether two scores agree within {@link #TOLERANCE}
+	 */
+	private static boolean agree(double a, double b) {
+		return Double.compare(a, b) == 0 || Math.abs(a - b) <= TOLERANCE;
+	}
+}
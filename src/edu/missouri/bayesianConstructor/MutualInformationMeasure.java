@@ -0,0 +1,342 @@
+package edu.missouri.bayesianConstructor;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Scores dependencies by the mutual information between the discretized
+ * variables, as seen by a Bayesian network whose nodes have a fixed number of
+ * states (three, <i>low</i>, <i>med</i> and <i>high</i>, by default).
+ * <p/>
+ * Each column is first coded as one byte per row: the index of the bin its
+ * value falls in, or {@link #states()} where the value is missing (see
+ * {@link #discretize(Column)}). The joint distribution of a pair is then a
+ * contingency table counted in a single integer loop without branches,
+ * missing values being counted in an extra row and column that are ignored
+ * afterwards, so only the rows where both values are known are used.
+ * <p/>
+ * Since mutual information is symmetric, the dependency of <i>Y</i> on
+ * <i>X</i> is taken to be the uncertainty coefficient
+ * <i>I</i>(<i>X</i>;<i>Y</i>)/<i>H</i>(<i>Y</i>): the fraction of the
+ * entropy of <i>Y</i> explained by <i>X</i>, a number between 0 and 1. The
+ * backward dependency is then <i>I</i>(<i>X</i>;<i>Y</i>)/<i>H</i>(<i>X</i>),
+ * so a table cell is positive when <i>X</i> is the less uncertain of the two.
+ *
+ * @author <a href="mailto:fthc8@missouri.edu">Fernando J. Torre-Mora</a>
+ * @version 0.02 2026-10-16
+ * @since {@code bayesianConstructor} version 0.35 2026-10-16
+ */
+public class MutualInformationMeasure implements DependencyMeasure {
+	/** The name of this measure */
+	public static final String NAME = "mi";
+
+	/** The number of states used by default */
+	public static final int DEFAULT_STATES = 3;
+
+	/** The number of bins each variable is discretized into */
+	private final int states;
+
+	/**
+	 * Whether the bins hold the same number of values (instead of spanning
+	 * the same width)
+	 */
+	private final boolean useEqualFrequency;
+
+	/**
+	 * Creates a measure that discretizes each variable into
+	 * {@value #DEFAULT_STATES} bins of equal width
+	 */
+	public MutualInformationMeasure() {
+		this(DEFAULT_STATES, false);
+	}
+
+	/**
+	 * Creates a measure that discretizes each variable into the given number
+	 * of bins
+	 *
+	 * @param states
+	 *            the number of bins, which should match the number of states
+	 *            of the nodes of the Bayesian network
+	 * @param useEqualFrequency
+	 *            {@code true} to make each bin hold about the same number of
+	 *            values (as {@code Trainer} does when asked for frequency
+	 *            discretization); {@code false} to make each bin span the same
+	 *            width
+	 * @throws IllegalArgumentException
+	 *             if {@code states} is not between 2 and 127
+	 */
+	public MutualInformationMeasure(int states, boolean useEqualFrequency)
+			throws IllegalArgumentException {
+		if (states < 2 || states > Byte.MAX_VALUE)
+			throw new IllegalArgumentException(
+					"The number of states must be between 2 and "
+							+ Byte.MAX_VALUE);
+		this.states = states;
+		this.useEqualFrequency = useEqualFrequency;
+	}
+
+	/**
+	 * Gets the number of bins each variable is discretized into
+	 *
+	 * @return the number of states
+	 */
+	public int states() {
+		return this.states;
+	}
+
+	@Override
+	public String name() {
+		return NAME;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @return 0.1, i.e. a tenth of the entropy of the dependent variable
+	 */
+	@Override
+	public double defaultMinimum() {
+		return 0.1;
+	}
+
+	/**
+	 * Codes the given column as the bin of each of its values. With bins of
+	 * equal width, the range between the smallest and largest known value is
+	 * split evenly; with bins of equal frequency, the cut points are the
+	 * values found at every 1/{@link #states()} of the sorted known values
+	 * (the smallest one where there are fewer known values than bins), and
+	 * each value goes in the first bin whose cut point it does not exceed.
+	 *
+	 * @param column
+	 *            the values of the variable
+	 * @return an array with, in each row, the bin of the value (between 0 and
+	 *         {@code states()-1}) or {@code states()} if the value is missing
+	 */
+	public byte[] discretize(Column column) {
+		byte[] out = new byte[column.size()];
+		Arrays.fill(out, (byte) this.states);
+		long[] mask = column.mask();
+		if (column.validCount() == 0)
+			return out;
+		if (this.useEqualFrequency) {
+			double[] sorted = new double[column.validCount()];
+			int k = 0;
+			for (int w = 0; w < mask.length; w++)
+				for (long bits = mask[w]; bits != 0; bits &= bits - 1)
+					sorted[k++] = column.get((w << 6)
+							+ Long.numberOfTrailingZeros(bits));
+			Arrays.sort(sorted);
+			double[] cuts = new double[this.states - 1];
+			for (int c = 0; c < cuts.length; c++)
+				cuts[c] = sorted[Math.max(0, (int) ((long) (c + 1)
+						* sorted.length / this.states) - 1)];
+			for (int w = 0; w < mask.length; w++)
+				for (long bits = mask[w]; bits != 0; bits &= bits - 1) {
+					int t = (w << 6) + Long.numberOfTrailingZeros(bits);
+					double v = column.get(t);
+					int bin = 0;
+					while (bin < cuts.length && v > cuts[bin])
+						bin++;
+					out[t] = (byte) bin;
+				}
+		} else {
+			double min = Double.POSITIVE_INFINITY;
+			double max = Double.NEGATIVE_INFINITY;
+			for (int w = 0; w < mask.length; w++)
+				for (long bits = mask[w]; bits != 0; bits &= bits - 1) {
+					double v = column.get((w << 6)
+							+ Long.numberOfTrailingZeros(bits));
+					min = Math.min(min, v);
+					max = Math.max(max, v);
+				}
+			double scale = max > min ? this.states / (max - min) : 0;
+			for (int w = 0; w < mask.length; w++)
+				for (long bits = mask[w]; bits != 0; bits &= bits - 1) {
+					int t = (w << 6) + Long.numberOfTrailingZeros(bits);
+					int bin = (int) ((column.get(t) - min) * scale);
+					out[t] = (byte) Math.min(bin, this.states - 1);
+				}
+		}
+		return out;
+	}
+
+	/**
+	 * Counts the joint occurrences of the codes of two discretized columns
+	 *
+	 * @param x
+	 *            the codes of the independent variable (see
+	 *            {@link #discretize(Column)})
+	 * @param y
+	 *            the codes of the dependent variable
+	 * @return a ({@code states()}+1)&sup2; table where position
+	 *         <i>a</i>&middot;({@code states()}+1)+<i>b</i> holds the number
+	 *         of rows where {@code x} is <i>a</i> and {@code y} is <i>b</i>
+	 * @throws IllegalArgumentException
+	 *             if the columns are not of the same length
+	 */
+	public int[] contingency(byte[] x, byte[] y)
+			throws IllegalArgumentException {
+		if (x.length != y.length)
+			throw new IllegalArgumentException(
+					"Both columns must have the same number of elements");
+		int width = this.states + 1;
+		int[] out = new int[width * width];
+		for (int t = 0; t < x.length; t++)
+			out[x[t] * width + y[t]]++;
+		return out;
+	}
+
+	/**
+	 * Computes the forward and backward uncertainty coefficients from a
+	 * contingency table, ignoring the rows where either value is missing
+	 *
+	 * @return {<i>I</i>/<i>H</i>(<i>Y</i>), <i>I</i>/<i>H</i>(<i>X</i>)}, each
+	 *         0 if the corresponding entropy is, or {@code NaN} if no row has
+	 *         both values
+	 */
+	private double[] coefficients(int[] counts) {
+		int s = this.states;
+		int width = s + 1;
+		long[] rowSums = new long[s];
+		long[] columnSums = new long[s];
+		long n = 0;
+		for (int a = 0; a < s; a++)
+			for (int b = 0; b < s; b++) {
+				int c = counts[a * width + b];
+				rowSums[a] += c;
+				columnSums[b] += c;
+				n += c;
+			}
+		if (n == 0)
+			return new double[] { Double.NaN, Double.NaN };
+		double hX = entropy(rowSums, n);
+		double hY = entropy(columnSums, n);
+		double info = 0;
+		for (int a = 0; a < s; a++)
+			for (int b = 0; b < s; b++) {
+				int c = counts[a * width + b];
+				if (c > 0)
+					info += c
+							* Math.log((double) c * n
+									/ ((double) rowSums[a] * columnSums[b]));
+			}
+		info = Math.max(0, info / n);
+		return new double[] { hY > 0 ? Math.min(1, info / hY) : 0,
+				hX > 0 ? Math.min(1, info / hX) : 0 };
+	}
+
+	/**
+	 * Computes the entropy (in nats) of the given counts, which add up to
+	 * {@code n}
+	 */
+	private static double entropy(long[] counts, long n) {
+		double out = 0;
+		for (long c : counts)
+			if (c > 0)
+				out -= (double) c / n * Math.log((double) c / n);
+		return out;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p/>
+	 * The dependency is the uncertainty coefficient
+	 * <i>I</i>(<i>X</i>;<i>Y</i>)/<i>H</i>(<i>Y</i>) of the discretized
+	 * variables, a number between 0 and 1; it is 0 if <i>Y</i> takes a single
+	 * state.
+	 */
+	@Override
+	public double dependency(Column X, Column Y)
+			throws IllegalArgumentException {
+		return this.coefficients(this.contingency(this.discretize(X),
+				this.discretize(Y)))[0];
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p/>
+	 * Each column is discretized only once, no matter how many cells it
+	 * takes part in.
+	 */
+	@Override
+	public Double[][] getDependency(Column[] independent, Column[] dependent,
+			double minimum) throws IllegalArgumentException {
+		byte[][] x = new byte[independent.length][];
+		for (int i = 0; i < x.length; i++)
+			x[i] = this.discretize(independent[i]);
+		byte[][] y = new byte[dependent.length][];
+		for (int j = 0; j < y.length; j++)
+			y[j] = this.discretize(dependent[j]);
+		Double[][] out = new Double[x.length][y.length];
+		for (int i = 0; i < x.length; i++)
+			for (int j = 0; j < y.length; j++) {
+				double[] u = this.coefficients(this.contingency(x[i], y[j]));
+				if (u[0] > minimum)
+					out[i][j] = Double.valueOf(u[0] - u[1]);
+				else
+					out[i][j] = Double.valueOf(Double.NEGATIVE_INFINITY);
+			}
+		return out;
+	}
+
+	/**
+	 * Checks that every value is coded in a bin and every missing value as
+	 * {@link #states()}, with bins of either kind and any number of known
+	 * values (including fewer than there are bins), that equal-frequency bins
+	 * of distinct values hold the same number of values when it divides
+	 * evenly, and that a variable explains itself fully and a constant
+	 * nothing. Run with assertions enabled ({@code -ea}).
+	 *
+	 * @param args
+	 *            (ignored)
+	 * @throws AssertionError
+	 *             if a check fails
+	 * @since 0.02 2026-10-16
+	 */
+	public static void main(String[] args) throws AssertionError {
+		System.err.println("Validating class...");
+		Random random = new Random(13);
+		for (int states = 2; states <= 6; states++)
+			for (boolean equalFrequency : new boolean[] { false, true }) {
+				MutualInformationMeasure measure = new MutualInformationMeasure(
+						states, equalFrequency);
+				for (int known = 0; known <= 3 * states; known++) {
+					double[] values = new double[known + 2];
+					Arrays.fill(values, Double.NaN);
+					for (int t = 0; t < known; t++)
+						values[t + 1] = random.nextGaussian();
+					byte[] codes = measure.discretize(new Column(values));
+					int[] perBin = new int[states + 1];
+					for (int t = 0; t < values.length; t++) {
+						assert Double.isNaN(values[t]) == (codes[t] == states) : measure
+								+ ", " + known + " known values";
+						assert codes[t] >= 0 && codes[t] <= states;
+						perBin[codes[t]]++;
+					}
+					assert perBin[states] == values.length - known;
+					if (equalFrequency && known > 0 && known % states == 0)
+						for (int bin = 0; bin < states; bin++)
+							assert perBin[bin] == known / states : measure
+									+ ", " + known + " known values";
+				}
+				double[] x = new double[60];
+				double[] constant = new double[x.length];
+				for (int t = 0; t < x.length; t++) {
+					x[t] = t % 7 == 3 ? Double.NaN : random.nextDouble();
+					constant[t] = 1;
+				}
+				Column X = new Column(x);
+				assert Math.abs(measure.dependency(X, X) - 1) < 1e-12 : measure;
+				assert measure.dependency(X, new Column(constant)) == 0 : measure;
+				assert measure.dependency(new Column(constant), X) == 0 : measure;
+			}
+		System.err.println("Validation complete");
+	}
+
+	@Override
+	public String toString() {
+		return NAME + "(" + this.states + " states, "
+				+ (this.useEqualFrequency ? "equal frequency" : "equal width")
+				+ ")";
+	}
+}
@@ -0,0 +1,566 @@
+package edu.missouri.bayesianConstructor;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Accumulates the sufficient statistics needed to compute the dependency
+ * between two variables <i>X</i> and <i>Y</i> (see
+ * {@link Main#dependency(double[], double[])}) in a single pass over the data.
+ * The statistics kept are the number of observations <i>n</i>, the means
+ * <i>X</i>&#x305; and <i>Y</i>&#x305;, the sums of squared deviations
+ * <i>M2<sub>X</sub></i>=&sum;(<i>X</i>&minus;<i>X</i>&#x305;)&sup2; and
+ * <i>M2<sub>Y</sub></i>=&sum;(<i>Y</i>&minus;<i>Y</i>&#x305;)&sup2;, and the
+ * co-moment <i>C</i>=&sum;(<i>X</i>&minus;<i>X</i>&#x305;)(<i>Y</i>&minus;
+ * <i>Y</i>&#x305;). Observations are added one at a time using <a href=
+ * "https://en.wikipedia.org/wiki/Algorithms_for_calculating_variance#Online_algorithm"
+ * >Welford's online algorithm</a>, which avoids the second pass over the data
+ * and the loss of precision of the naive sum-of-squares formula.
+ * <p/>
+ * Two accumulators computed over disjoint sets of observations can be combined
+ * with {@link #merge(PairMoments)} (using the pairwise update by Chan
+ * <i>et al.</i>). This allows the data to be partitioned (by country, year or
+ * fold), each partition to be accumulated independently, possibly in
+ * parallel, and the results reduced without scanning the data again.
+ * Conversely, {@link #subtract(PairMoments)} removes the observations of a
+ * subset from an accumulator.
+ * <p/>
+ * Only pairs where both values are known are accumulated: if either value is
+ * {@code NaN}, the pair is ignored. When the columns are given as {@link Column}s
+ * those pairs are skipped using the columns' validity masks.
+ *
+ * @author <a href="mailto:fthc8@missouri.edu">Fernando J. Torre-Mora</a>
+ * @version 0.10 2026-10-16
+ * @since {@code bayesianConstructor} version 0.24 2026-10-16
+ */
+public class PairMoments {
+	/** Number of observations accumulated */
+	private long n;
+
+	/** Running mean of <i>X</i> */
+	private double meanX;
+
+	/** Running mean of <i>Y</i> */
+	private double meanY;
+
+	/** Sum of squared deviations of <i>X</i> from its mean */
+	private double m2X;
+
+	/** Sum of squared deviations of <i>Y</i> from its mean */
+	private double m2Y;
+
+	/** Sum of the products of the deviations of <i>X</i> and <i>Y</i> */
+	private double coMoment;
+
+	/**
+	 * Creates an accumulator with no observations
+	 */
+	public PairMoments() {
+	}
+
+	/**
+	 * Creates a copy of the given accumulator
+	 *
+	 * @param other
+	 *            the accumulator to be copied
+	 */
+	public PairMoments(PairMoments other) {
+		this.n = other.n;
+		this.meanX = other.meanX;
+		this.meanY = other.meanY;
+		this.m2X = other.m2X;
+		this.m2Y = other.m2Y;
+		this.coMoment = other.coMoment;
+	}
+
+	/**
+	 * Computes the moments of the given columns in a single pass, straight
+	 * from the arrays, without building a {@link Column} for either. If a
+	 * value is {@code NaN}; it, and the corresponding value in the other
+	 * column, are ignored.
+	 *
+	 * @param X
+	 *            The column of values for the variable thought to be
+	 *            independent
+	 * @param Y
+	 *            The column of values for the variable thought to be dependent
+	 * @return an accumulator containing every pair ({@code X[i]},
+	 *         {@code Y[i]}) where both values are known
+	 * @throws IllegalArgumentException
+	 *             If {@code X} and {@code Y} are not of equal length
+	 */
+	public static PairMoments of(double[] X, double[] Y)
+			throws IllegalArgumentException {
+		if (X.length != Y.length)
+			throw new IllegalArgumentException(
+					"Both columns must have the same number of elements");
+		PairMoments out = new PairMoments();
+		for (int i = 0; i < X.length; i++)
+			out.add(X[i], Y[i]);
+		return out;
+	}
+
+	/**
+	 * Computes the moments of the given columns in a single pass, visiting
+	 * only the rows where both values are known. Those rows are found a word
+	 * at a time from the columns' validity masks, so no value is tested for
+	 * {@code NaN}.
+	 *
+	 * @param X
+	 *            The column of values for the variable thought to be
+	 *            independent
+	 * @param Y
+	 *            The column of values for the variable thought to be dependent
+	 * @return an accumulator containing every pair ({@code X.get(i)},
+	 *         {@code Y.get(i)}) where both values are known
+	 * @throws IllegalArgumentException
+	 *             If {@code X} and {@code Y} are not of equal size
+	 * @since 0.04 2026-10-16
+	 */
+	public static PairMoments of(Column X, Column Y)
+			throws IllegalArgumentException {
+		long[] both = Column.both(X, Y);
+		double[] x = X.values();
+		double[] y = Y.values();
+		int dx = X.offset();
+		int dy = Y.offset();
+		PairMoments out = new PairMoments();
+		for (int w = 0; w < both.length; w++)
+			for (long bits = both[w]; bits != 0; bits &= bits - 1) {
+				int t = (w << 6) + Long.numberOfTrailingZeros(bits);
+				out.accumulate(x[t + dx], y[t + dy]);
+			}
+		return out;
+	}
+
+	/**
+	 * Creates an accumulator from sums computed over data that was shifted by
+	 * a constant (see {@link LayerMoments}). Shifting each variable by a value
+	 * close to its mean before summing makes the usual
+	 * <i>M2</i>=&sum;<i>x</i>&sup2;&minus;(&sum;<i>x</i>)&sup2;/<i>n</i>
+	 * formula numerically stable, and lets the sums be computed by plain
+	 * (vectorizable) dot products rather than by {@link #add(double, double)}.
+	 *
+	 * @param n
+	 *            number of pairs where both values were known
+	 * @param shiftX
+	 *            the constant subtracted from every <i>X</i> value
+	 * @param shiftY
+	 *            the constant subtracted from every <i>Y</i> value
+	 * @param sumX
+	 *            &sum;(<i>x</i>&minus;{@code shiftX})
+	 * @param sumY
+	 *            &sum;(<i>y</i>&minus;{@code shiftY})
+	 * @param sumXX
+	 *            &sum;(<i>x</i>&minus;{@code shiftX})&sup2;
+	 * @param sumYY
+	 *            &sum;(<i>y</i>&minus;{@code shiftY})&sup2;
+	 * @param sumXY
+	 *            &sum;(<i>x</i>&minus;{@code shiftX})(<i>y</i>&minus;
+	 *            {@code shiftY})
+	 * @return an accumulator equivalent (up to rounding) to one that had every
+	 *         pair added to it
+	 * @since 0.03 2026-10-16
+	 */
+	public static PairMoments fromShiftedSums(long n, double shiftX,
+			double shiftY, double sumX, double sumY, double sumXX,
+			double sumYY, double sumXY) {
+		PairMoments out = new PairMoments();
+		if (n == 0)
+			return out;
+		out.n = n;
+		out.meanX = shiftX + sumX / n;
+		out.meanY = shiftY + sumY / n;
+		out.m2X = Math.max(0, sumXX - sumX * sumX / n);
+		out.m2Y = Math.max(0, sumYY - sumY * sumY / n);
+		out.coMoment = sumXY - sumX * sumY / n;
+		return out;
+	}
+
+	/**
+	 * Creates an accumulator holding the given statistics, as returned by
+	 * {@link #count()}, {@link #meanX()}, {@link #meanY()}, {@link #m2X()},
+	 * {@link #m2Y()} and {@link #coMoment()}
+	 *
+	 * @return an accumulator equal to the one the statistics were taken from
+	 * @since 0.07 2026-10-16
+	 */
+	static PairMoments fromMoments(long n, double meanX, double meanY,
+			double m2X, double m2Y, double coMoment) {
+		PairMoments out = new PairMoments();
+		out.n = n;
+		out.meanX = meanX;
+		out.meanY = meanY;
+		out.m2X = m2X;
+		out.m2Y = m2Y;
+		out.coMoment = coMoment;
+		return out;
+	}
+
+	/**
+	 * Creates an accumulator with the roles of <i>X</i> and <i>Y</i> swapped.
+	 * Since every statistic is symmetric in the pair, the result is identical
+	 * to the one obtained by accumulating the columns in the opposite order.
+	 *
+	 * @return an accumulator whose {@link #dependency()} is this one's
+	 *         {@link #reverseDependency()} and vice versa
+	 * @since 0.07 2026-10-16
+	 */
+	public PairMoments reverse() {
+		return fromMoments(this.n, this.meanY, this.meanX, this.m2Y, this.m2X,
+				this.coMoment);
+	}
+
+	/**
+	 * Adds an observation to the accumulator. If either value is {@code NaN},
+	 * the observation is ignored.
+	 *
+	 * @param x
+	 *            the value observed for <i>X</i>
+	 * @param y
+	 *            the value observed for <i>Y</i>
+	 */
+	public void add(double x, double y) {
+		if (Double.isNaN(x) || Double.isNaN(y))
+			return;
+		this.accumulate(x, y);
+	}
+
+	/**
+	 * Adds an observation known to have both values to the accumulator
+	 *
+	 * @param x
+	 *            the value observed for <i>X</i>
+	 * @param y
+	 *            the value observed for <i>Y</i>
+	 */
+	private void accumulate(double x, double y) {
+		this.n++;
+		double dx = x - this.meanX;
+		double dy = y - this.meanY;
+		this.meanX += dx / this.n;
+		this.meanY += dy / this.n;
+		double dy2 = y - this.meanY;
+		this.m2X += dx * (x - this.meanX);
+		this.m2Y += dy * dy2;
+		this.coMoment += dx * dy2;
+	}
+
+	/**
+	 * Combines the observations of {@code other} into this accumulator. The
+	 * result is the same (up to rounding) as if every observation of
+	 * {@code other} had been added to this instance with
+	 * {@link #add(double, double)}. {@code other} is not modified.
+	 *
+	 * @param other
+	 *            an accumulator computed over a set of observations disjoint
+	 *            from this one's
+	 * @return this accumulator, to allow chaining calls
+	 */
+	public PairMoments merge(PairMoments other) {
+		if (other.n == 0)
+			return this;
+		if (this.n == 0) {
+			this.n = other.n;
+			this.meanX = other.meanX;
+			this.meanY = other.meanY;
+			this.m2X = other.m2X;
+			this.m2Y = other.m2Y;
+			this.coMoment = other.coMoment;
+			return this;
+		}
+		long total = this.n + other.n;
+		double dx = other.meanX - this.meanX;
+		double dy = other.meanY - this.meanY;
+		double weight = (double) this.n * other.n / total;
+		this.meanX += dx * other.n / total;
+		this.meanY += dy * other.n / total;
+		this.m2X += other.m2X + dx * dx * weight;
+		this.m2Y += other.m2Y + dy * dy * weight;
+		this.coMoment += other.coMoment + dx * dy * weight;
+		this.n = total;
+		return this;
+	}
+
+	/**
+	 * Removes the observations of {@code other} from this accumulator; the
+	 * inverse of {@link #merge(PairMoments)}. If {@code other} was computed
+	 * over a subset of the observations accumulated here, the result is the
+	 * same (up to rounding) as accumulating only the remaining observations.
+	 * This allows, for instance, the moments of a training set to be obtained
+	 * from the moments of the whole dataset and those of the (smaller) test
+	 * set. {@code other} is not modified.
+	 *
+	 * @param other
+	 *            an accumulator computed over a subset of the observations of
+	 *            this one
+	 * @return this accumulator, to allow chaining calls
+	 * @throws IllegalArgumentException
+	 *             if {@code other} has more observations than this accumulator
+	 * @since 0.05 2026-10-16
+	 */
+	public PairMoments subtract(PairMoments other)
+			throws IllegalArgumentException {
+		if (other.n == 0)
+			return this;
+		if (other.n > this.n)
+			throw new IllegalArgumentException("Cannot remove " + other.n
+					+ " observations from an accumulator with " + this.n);
+		long rest = this.n - other.n;
+		if (rest == 0) {
+			this.n = 0;
+			this.meanX = 0;
+			this.meanY = 0;
+			this.m2X = 0;
+			this.m2Y = 0;
+			this.coMoment = 0;
+			return this;
+		}
+		double meanX = this.meanX + (this.meanX - other.meanX) * other.n
+				/ rest;
+		double meanY = this.meanY + (this.meanY - other.meanY) * other.n
+				/ rest;
+		double dx = other.meanX - meanX;
+		double dy = other.meanY - meanY;
+		double weight = (double) rest * other.n / this.n;
+		this.m2X = Math.max(0, this.m2X - other.m2X - dx * dx * weight);
+		this.m2Y = Math.max(0, this.m2Y - other.m2Y - dy * dy * weight);
+		this.coMoment -= other.coMoment + dx * dy * weight;
+		this.meanX = meanX;
+		this.meanY = meanY;
+		this.n = rest;
+		return this;
+	}
+
+	/**
+	 * Gets the number of observations accumulated
+	 *
+	 * @return the number of pairs where both values were known
+	 */
+	public long count() {
+		return this.n;
+	}
+
+	/**
+	 * Gets the arithmetic mean of the <i>X</i> values accumulated
+	 *
+	 * @return <i>X</i>&#x305;, or 0 if no observations have been accumulated
+	 */
+	public double meanX() {
+		return this.meanX;
+	}
+
+	/**
+	 * Gets the arithmetic mean of the <i>Y</i> values accumulated
+	 *
+	 * @return <i>Y</i>&#x305;, or 0 if no observations have been accumulated
+	 */
+	public double meanY() {
+		return this.meanY;
+	}
+
+	/**
+	 * Gets the sum of the squared deviations of <i>X</i>
+	 *
+	 * @return &sum;(<i>X</i>&minus;<i>X</i>&#x305;)&sup2;
+	 */
+	public double m2X() {
+		return this.m2X;
+	}
+
+	/**
+	 * Gets the sum of the squared deviations of <i>Y</i>
+	 *
+	 * @return &sum;(<i>Y</i>&minus;<i>Y</i>&#x305;)&sup2;
+	 */
+	public double m2Y() {
+		return this.m2Y;
+	}
+
+	/**
+	 * Gets the co-moment of <i>X</i> and <i>Y</i>
+	 *
+	 * @return &sum;(<i>X</i>&minus;<i>X</i>&#x305;)(<i>Y</i>&minus;
+	 *         <i>Y</i>&#x305;)
+	 */
+	public double coMoment() {
+		return this.coMoment;
+	}
+
+	/**
+	 * Computes the dependency score of <i>Y</i> on <i>X</i>, defined as
+	 * 1&minus;<i>STE</i>(<i>X</i>&rarr;<i>Y</i>)/<i>Y</i>&#x305; (see
+	 * {@link Main#dependency(double[], double[])}). If fewer than three
+	 * observations have been accumulated, the result is not a number (before
+	 * version 0.10, two observations gave an infinite score).
+	 *
+	 * @return the dependency score, a number between 0 and <i>Y</i>&#x305;
+	 */
+	public double dependency() {
+		if (this.n < 3)
+			return Double.NaN;
+		double STE = Math.sqrt((this.m2Y - this.coMoment * this.coMoment
+				/ this.m2X)
+				/ (this.n - 2));
+		return 1 - STE / this.meanY;
+	}
+
+	/**
+	 * Computes the dependency score of <i>X</i> on <i>Y</i>, defined as
+	 * 1&minus;<i>STE</i>(<i>Y</i>&rarr;<i>X</i>)/<i>X</i>&#x305;. This is the
+	 * same value that {@link #dependency()} would return if the roles of the
+	 * variables were swapped, but it is derived from the same statistics, so
+	 * no second pass over the data is needed. If fewer than three
+	 * observations have been accumulated, the result is not a number.
+	 *
+	 * @return the reverse dependency score, a number between 0 and
+	 *         <i>X</i>&#x305;
+	 * @since 0.02 2026-10-16
+	 */
+	public double reverseDependency() {
+		if (this.n < 3)
+			return Double.NaN;
+		double STE = Math.sqrt((this.m2X - this.coMoment * this.coMoment
+				/ this.m2Y)
+				/ (this.n - 2));
+		return 1 - STE / this.meanX;
+	}
+
+	/**
+	 * Computes the degree to which <i>Y</i> depends on <i>X</i>, as stored in
+	 * the tables returned by
+	 * {@link Main#getDependency(double[][], double[][], double)}: the forward
+	 * dependency ({@link #dependency()}) minus the backward dependency (
+	 * {@link #reverseDependency()}). Both directions come from the same
+	 * statistics. If the forward dependency is not greater than
+	 * {@code minimum}, the backward dependency is not computed and
+	 * {@code Double.NEGATIVE_INFINITY} is returned instead.
+	 *
+	 * @param minimum
+	 *            Value for the forward dependency below which the result is
+	 *            discarded
+	 * @return <i>x_to_y</i>&minus;<i>y_to_x</i>, or
+	 *         {@code Double.NEGATIVE_INFINITY} if <i>x_to_y</i> is not greater
+	 *         than {@code minimum}
+	 * @since 0.02 2026-10-16
+	 */
+	public double netDependency(double minimum) {
+		double x_to_y = this.dependency();
+		if (x_to_y > minimum)
+			return x_to_y - this.reverseDependency();
+		else
+			return Double.NEGATIVE_INFINITY;
+	}
+
+	/**
+	 * Checks that the scores of random pairs of columns with missing values
+	 * agree with those of the two-pass computation this class replaced
+	 * ({@link Main#serialDependency(double[], double[])}) within
+	 * {@link Main#TOLERANCE}, whether the moments are accumulated from arrays,
+	 * from {@link Column}s, one observation at a time, reversed, or merged
+	 * from two halves of the rows, and that subtracting one half from the
+	 * whole leaves the other. Also checks that pairs with fewer than three
+	 * rows where both values are known score {@code NaN} both ways, from
+	 * every path, including
+	 * {@link Main#dependency(java.util.List, java.util.List)}, and that
+	 * their cells are discarded. Run with assertions enabled ({@code -ea}).
+	 *
+	 * @param args
+	 *            (ignored)
+	 * @throws AssertionError
+	 *             if a score disagrees with the two-pass computation
+	 * @since 0.09 2026-10-16
+	 */
+	public static void main(String[] args) throws AssertionError {
+		System.err.println("Validating class...");
+		Random random = new Random(41);
+		for (int test = 0; test < 1000; test++) {
+			int rows = 3 + random.nextInt(300);
+			double[][] xy = Main.sample(random, Main.factor(random, rows), 2);
+			double[] x = xy[0];
+			double[] y = xy[1];
+			PairMoments expected = of(x, y);
+			double forward = Main.serialDependency(x, y);
+			double backward = Main.serialDependency(y, x);
+			assert agree(expected, forward, backward) : "Arrays: " + expected;
+
+			PairMoments columns = of(new Column(x), new Column(y));
+			assert agree(columns, forward, backward) : "Columns: " + columns;
+
+			PairMoments added = new PairMoments();
+			for (int t = 0; t < rows; t++)
+				added.add(x[t], y[t]);
+			assert agree(added, forward, backward) : "Added: " + added;
+
+			PairMoments reversed = of(y, x).reverse();
+			assert agree(reversed, forward, backward) : "Reversed: " + reversed;
+
+			int half = random.nextInt(rows + 1);
+			Column cx = new Column(x);
+			Column cy = new Column(y);
+			PairMoments first = of(cx.slice(0, half), cy.slice(0, half));
+			PairMoments second = of(cx.slice(half, rows),
+					cy.slice(half, rows));
+			PairMoments merged = new PairMoments(first).merge(second);
+			assert merged.count() == expected.count();
+			assert agree(merged, forward, backward) : "Merged: " + merged;
+
+			PairMoments rest = new PairMoments(expected).subtract(first);
+			assert rest.count() == second.count();
+			assert agree(rest, Main.serialDependency(
+					Arrays.copyOfRange(x, half, rows),
+					Arrays.copyOfRange(y, half, rows)), Main.serialDependency(
+					Arrays.copyOfRange(y, half, rows),
+					Arrays.copyOfRange(x, half, rows))) : "Subtracted: " + rest;
+		}
+		System.err.println("Passed random test");
+
+		for (int test = 0; test < 1000; test++) {
+			double[][] xy = Main.sparse(random, 2);
+			double[] x = xy[0];
+			double[] y = xy[1];
+			PairMoments[] paths = new PairMoments[3];
+			paths[0] = of(x, y);
+			paths[1] = of(new Column(x), new Column(y));
+			paths[2] = new PairMoments();
+			for (int t = 0; t < x.length; t++)
+				paths[2].add(x[t], y[t]);
+			long n = paths[0].count();
+			double[] forward = { Main.dependency(x, y),
+					Main.dependency(Main.asList(x), Main.asList(y)),
+					Main.dependency(new Column(x), new Column(y)) };
+			if (n < 3) {
+				for (PairMoments p : paths)
+					assert p.count() == n && Double.isNaN(p.dependency())
+							&& Double.isNaN(p.reverseDependency())
+							&& p.netDependency(Double.NEGATIVE_INFINITY) == Double.NEGATIVE_INFINITY : n
+							+ " rows score " + p;
+				for (double f : forward)
+					assert Double.isNaN(f) : n + " rows score " + f;
+			} else
+				for (double f : forward)
+					assert Main.agree(f, Main.serialDependency(x, y),
+							Main.TOLERANCE) : n + " rows score " + f;
+		}
+		System.err.println("Passed sparse test");
+		System.err.println("Validation complete");
+	}
+
+	/**
+	 * Checks whether both scores of {@code moments} agree with the given ones
+	 * within {@link Main#TOLERANCE}
+	 */
+	private static boolean agree(PairMoments moments, double forward,
+			double backward) {
+		return Main.agree(moments.dependency(), forward, Main.TOLERANCE)
+				&& Main.agree(moments.reverseDependency(), backward,
+						Main.TOLERANCE);
+	}
+
+	@Override
+	public String toString() {
+		return "PairMoments[n=" + this.n + ", meanX=" + this.meanX
+				+ ", meanY=" + this.meanY + ", m2X=" + this.m2X + ", m2Y="
+				+ this.m2Y + ", coMoment=" + this.coMoment + "]";
+	}
+}
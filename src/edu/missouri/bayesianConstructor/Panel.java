@@ -0,0 +1,575 @@
+package edu.missouri.bayesianConstructor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import edu.ucla.structure.DirectedEdge;
+
+/**
+ * The data of several groups of rows (typically, the yearly indicators of
+ * every country) laid out contiguously, so that the dependency tables of a
+ * relation can be computed for every group in a single sweep rather than one
+ * small job per group.
+ * <p/>
+ * Each variable is stored as a single {@link Column} holding the rows of
+ * every group, one group after the other (group-major). Each group starts at
+ * a multiple of {@value #ALIGN} rows, so that it covers whole words of the
+ * validity masks; the rows between the end of a group and the start of the
+ * next are missing. The rows of group <i>g</i> are
+ * [{@link #offset(int) offset(g)}, {@code offset(g)+}{@link #rows(int)
+ * rows(g)}).
+ * <p/>
+ * {@link #moments(List, List)} prepares each variable once, shifting each
+ * group by its own mean, and then streams through the groups, computing every
+ * cell of the table of one group before moving on to the next, while that
+ * group's block of every column is in cache. The moments of each group are
+ * identical to the ones {@link LayerMoments#compute(Column[], Column[])}
+ * computes from that group's columns alone.
+ * <p/>
+ * Since they are identical, they can also be kept in a
+ * {@link DependencyCache} under the fingerprints of each group's columns, as
+ * any model builder would: {@link #moments(List, List, DependencyCache)}
+ * takes the groups whose every pair is cached from the cache, and sweeps
+ * only the others, storing their pairs.
+ *
+ * @author <a href="mailto:fthc8@missouri.edu">Fernando J. Torre-Mora</a>
+ * @version 0.03 2026-10-16
+ * @since {@code bayesianConstructor} version 0.34 2026-10-16
+ */
+public class Panel {
+	/** The row each group is aligned to a multiple of */
+	public static final int ALIGN = 64;
+
+	/** The names of the groups, in order */
+	private final List<String> groups;
+
+	/** The names of the variables, in order */
+	private final List<String> variables;
+
+	/** The index of each variable */
+	private final Map<String, Integer> index;
+
+	/** The first row of each group */
+	private final int[] starts;
+
+	/** One past the last row of each group */
+	private final int[] ends;
+
+	/** The values of each variable, for every group */
+	private final Column[] columns;
+
+	/**
+	 * The fingerprint of the rows of each group of each variable (see
+	 * {@link Column#fingerprint()})
+	 */
+	private final long[][] fingerprints;
+
+	/**
+	 * Lays out the given groups contiguously. Each group may have a different
+	 * number of rows, but all the columns of a group must have the same
+	 * number. A variable that a group does not have is missing in all of that
+	 * group's rows.
+	 *
+	 * @param data
+	 *            the columns of each group, keyed by group name and then by
+	 *            variable name. The variables of the panel are every variable
+	 *            of any group, in the order they are first found.
+	 * @throws IllegalArgumentException
+	 *             if the columns of a group are not all the same size
+	 */
+	public Panel(Map<String, Map<String, Column>> data)
+			throws IllegalArgumentException {
+		this.groups = Collections.unmodifiableList(new ArrayList<String>(data
+				.keySet()));
+		this.index = new LinkedHashMap<String, Integer>();
+		this.starts = new int[this.groups.size()];
+		this.ends = new int[this.groups.size()];
+		int row = 0;
+		for (int g = 0; g < this.groups.size(); g++) {
+			Map<String, Column> group = data.get(this.groups.get(g));
+			int rows = -1;
+			for (Map.Entry<String, Column> e : group.entrySet()) {
+				if (rows >= 0 && e.getValue().size() != rows)
+					throw new IllegalArgumentException("All columns of group "
+							+ this.groups.get(g)
+							+ " must have the same number of elements");
+				rows = e.getValue().size();
+				if (!this.index.containsKey(e.getKey()))
+					this.index.put(e.getKey(),
+							Integer.valueOf(this.index.size()));
+			}
+			this.starts[g] = row;
+			this.ends[g] = row + Math.max(0, rows);
+			row += (Math.max(0, rows) + ALIGN - 1) / ALIGN * ALIGN;
+		}
+		this.variables = Collections.unmodifiableList(new ArrayList<String>(
+				this.index.keySet()));
+
+		double[][] values = new double[this.variables.size()][row];
+		for (double[] v : values)
+			Arrays.fill(v, Double.NaN);
+		for (int g = 0; g < this.groups.size(); g++)
+			for (Map.Entry<String, Column> e : data.get(this.groups.get(g))
+					.entrySet()) {
+				double[] v = values[this.index.get(e.getKey()).intValue()];
+				Column c = e.getValue();
+				long[] mask = c.mask();
+				for (int w = 0; w < mask.length; w++)
+					for (long bits = mask[w]; bits != 0; bits &= bits - 1) {
+						int t = (w << 6) + Long.numberOfTrailingZeros(bits);
+						v[this.starts[g] + t] = c.get(t);
+					}
+			}
+		this.columns = Column.of(values);
+		this.fingerprints = new long[this.columns.length][this.groups.size()];
+		for (int v = 0; v < this.columns.length; v++)
+			for (int g = 0; g < this.groups.size(); g++)
+				this.fingerprints[v][g] = this.columns[v].slice(
+						this.starts[g], this.ends[g]).fingerprint();
+	}
+
+	/**
+	 * Gets the names of the groups in this panel
+	 *
+	 * @return an unmodifiable list of the group names, in order
+	 */
+	public List<String> groups() {
+		return this.groups;
+	}
+
+	/**
+	 * Gets the index of the given group
+	 *
+	 * @param group
+	 *            the name of the group
+	 * @return its index, or -1 if it is not in the panel
+	 */
+	public int indexOf(String group) {
+		return this.groups.indexOf(group);
+	}
+
+	/**
+	 * Gets the names of the variables in this panel
+	 *
+	 * @return an unmodifiable list of the variable names, in order
+	 */
+	public List<String> variables() {
+		return this.variables;
+	}
+
+	/**
+	 * Gets the first row of the given group
+	 *
+	 * @param g
+	 *            the index of the group
+	 * @return the row of the panel where the group starts, a multiple of
+	 *         {@link #ALIGN}
+	 */
+	public int offset(int g) {
+		return this.starts[g];
+	}
+
+	/**
+	 * Gets the number of rows of the given group
+	 *
+	 * @param g
+	 *            the index of the group
+	 * @return the number of rows the group was created with
+	 */
+	public int rows(int g) {
+		return this.ends[g] - this.starts[g];
+	}
+
+	/**
+	 * Gets the values of the given variable for every group
+	 *
+	 * @param variable
+	 *            the name of the variable
+	 * @return a column where row {@code offset(g)+t} holds the
+	 *         <i>t</i><sup>th</sup> value of group <i>g</i>
+	 * @throws IllegalArgumentException
+	 *             if the variable is not in the panel
+	 */
+	public Column column(String variable) throws IllegalArgumentException {
+		return this.columns[this.require(variable)];
+	}
+
+	/**
+	 * Computes the moments of every pair formed by one variable of
+	 * {@code independent} and one of {@code dependent}, for every group, in a
+	 * single sweep
+	 *
+	 * @param independent
+	 *            the names of the variables of the independent layer
+	 * @param dependent
+	 *            the names of the variables of the dependent layer
+	 * @return the moments of the relation in each group, indexed like
+	 *         {@link #groups()}
+	 * @throws IllegalArgumentException
+	 *             if a variable is not in the panel
+	 */
+	public LayerMoments[] moments(List<String> independent,
+			List<String> dependent) throws IllegalArgumentException {
+		int[] all = new int[this.groups.size()];
+		for (int g = 0; g < all.length; g++)
+			all[g] = g;
+		return this.sweep(independent, dependent, all);
+	}
+
+	/**
+	 * Computes the moments of every pair formed by one variable of
+	 * {@code independent} and one of {@code dependent}, for every group,
+	 * taking those of the groups whose every pair is in {@code cache} from it
+	 * and computing the rest in a single sweep, which are then stored in it.
+	 * The moments are identical to those of {@link #moments(List, List)}.
+	 *
+	 * @param independent
+	 *            the names of the variables of the independent layer
+	 * @param dependent
+	 *            the names of the variables of the dependent layer
+	 * @param cache
+	 *            the cache the moments of each group's pairs are looked up in
+	 *            and stored in, or {@code null} to compute every group
+	 * @return the moments of the relation in each group, indexed like
+	 *         {@link #groups()}
+	 * @throws IllegalArgumentException
+	 *             if a variable is not in the panel
+	 * @since 0.03 2026-10-16
+	 */
+	public LayerMoments[] moments(List<String> independent,
+			List<String> dependent, DependencyCache cache)
+			throws IllegalArgumentException {
+		if (cache == null)
+			return this.moments(independent, dependent);
+		int[] x = new int[independent.size()];
+		for (int i = 0; i < x.length; i++)
+			x[i] = this.require(independent.get(i));
+		int[] y = new int[dependent.size()];
+		for (int j = 0; j < y.length; j++)
+			y[j] = this.require(dependent.get(j));
+
+		LayerMoments[] out = new LayerMoments[this.groups.size()];
+		int[] missing = new int[out.length];
+		int misses = 0;
+		for (int g = 0; g < out.length; g++) {
+			PairMoments[][] cells = new PairMoments[x.length][y.length];
+			found: for (int i = 0; i < x.length; i++)
+				for (int j = 0; j < y.length; j++) {
+					cells[i][j] = cache.get(this.fingerprints[x[i]][g],
+							this.fingerprints[y[j]][g]);
+					if (cells[i][j] == null) {
+						missing[misses++] = g;
+						cells = null;
+						break found;
+					}
+				}
+			if (cells != null)
+				out[g] = new LayerMoments(cells);
+		}
+		if (misses == 0)
+			return out;
+
+		missing = Arrays.copyOf(missing, misses);
+		LayerMoments[] swept = this.sweep(independent, dependent, missing);
+		for (int k = 0; k < misses; k++) {
+			int g = missing[k];
+			out[g] = swept[k];
+			for (int i = 0; i < x.length; i++)
+				for (int j = 0; j < y.length; j++)
+					cache.put(this.fingerprints[x[i]][g],
+							this.fingerprints[y[j]][g], swept[k].get(i, j));
+		}
+		return out;
+	}
+
+	/**
+	 * Computes the moments of a relation for the given groups in a single
+	 * sweep
+	 *
+	 * @return the moments of each of the given groups, in the same order
+	 * @throws IllegalArgumentException
+	 *             if a variable is not in the panel
+	 */
+	private LayerMoments[] sweep(List<String> independent,
+			List<String> dependent, int[] groups)
+			throws IllegalArgumentException {
+		Map<String, double[]> shifts = new HashMap<String, double[]>();
+		Map<String, LayerMoments.ShiftedColumn> prepared = new HashMap<String, LayerMoments.ShiftedColumn>();
+		LayerMoments.ShiftedColumn[] x = this.prepare(independent, prepared,
+				shifts);
+		LayerMoments.ShiftedColumn[] y = this.prepare(dependent, prepared,
+				shifts);
+		double[][] shiftX = new double[x.length][];
+		for (int i = 0; i < x.length; i++)
+			shiftX[i] = select(shifts.get(independent.get(i)), groups);
+		double[][] shiftY = new double[y.length][];
+		for (int j = 0; j < y.length; j++)
+			shiftY[j] = select(shifts.get(dependent.get(j)), groups);
+		int[] starts = new int[groups.length];
+		int[] ends = new int[groups.length];
+		for (int k = 0; k < groups.length; k++) {
+			starts[k] = this.starts[groups[k]];
+			ends[k] = this.ends[groups[k]];
+		}
+		return LayerMoments.panel(x, shiftX, y, shiftY, starts, ends);
+	}
+
+	/**
+	 * Gets the values of the given groups
+	 */
+	private static double[] select(double[] values, int[] groups) {
+		double[] out = new double[groups.length];
+		for (int k = 0; k < groups.length; k++)
+			out[k] = values[groups[k]];
+		return out;
+	}
+
+	/**
+	 * Computes the dependency table of a relation for every group (see
+	 * {@link #moments(List, List)} and {@link LayerMoments#table(double)})
+	 *
+	 * @param independent
+	 *            the names of the variables of the independent layer
+	 * @param dependent
+	 *            the names of the variables of the dependent layer
+	 * @param minimum
+	 *            Value for the forward dependency below which a cell is
+	 *            discarded
+	 * @return the table of each group, indexed like {@link #groups()}
+	 * @throws IllegalArgumentException
+	 *             if a variable is not in the panel
+	 */
+	public Double[][][] tables(List<String> independent,
+			List<String> dependent, double minimum)
+			throws IllegalArgumentException {
+		LayerMoments[] moments = this.moments(independent, dependent);
+		Double[][][] out = new Double[moments.length][][];
+		for (int g = 0; g < out.length; g++)
+			out[g] = moments[g].table(minimum);
+		return out;
+	}
+
+	/**
+	 * Computes the moments of every relation of {@code structure} for every
+	 * group, one relation at a time
+	 *
+	 * @param structure
+	 *            a model whose layers name variables of this panel
+	 * @return for each group (indexed like {@link #groups()}), the moments of
+	 *         each relation, as returned by
+	 *         {@link DependencyBuilder#moments(DomainKnowledge, Map)}; they can
+	 *         be stored in a model with the same structure with
+	 *         {@link DependencyBuilder#tabulate(DomainKnowledge, Map, double)}
+	 * @throws IllegalArgumentException
+	 *             if a variable of a related layer is not in the panel
+	 */
+	public List<Map<DirectedEdge, LayerMoments>> moments(
+			DomainKnowledge structure) throws IllegalArgumentException {
+		return this.moments(structure, null);
+	}
+
+	/**
+	 * Computes the moments of every relation of {@code structure} for every
+	 * group, one relation at a time, looking each group's pairs up in, and
+	 * storing them in, the given cache (see
+	 * {@link #moments(List, List, DependencyCache)})
+	 *
+	 * @param structure
+	 *            a model whose layers name variables of this panel
+	 * @param cache
+	 *            the cache of pair moments, or {@code null} to compute every
+	 *            group
+	 * @return for each group (indexed like {@link #groups()}), the moments of
+	 *         each relation, as returned by
+	 *         {@link DependencyBuilder#moments(DomainKnowledge, Map)}
+	 * @throws IllegalArgumentException
+	 *             if a variable of a related layer is not in the panel
+	 * @since 0.03 2026-10-16
+	 */
+	public List<Map<DirectedEdge, LayerMoments>> moments(
+			DomainKnowledge structure, DependencyCache cache)
+			throws IllegalArgumentException {
+		List<Map<DirectedEdge, LayerMoments>> out = new ArrayList<Map<DirectedEdge, LayerMoments>>(
+				this.groups.size());
+		for (int g = 0; g < this.groups.size(); g++)
+			out.add(new LinkedHashMap<DirectedEdge, LayerMoments>());
+		for (String independent : structure.layerSet())
+			for (String dependent : structure.getDependents(independent)) {
+				LayerMoments[] moments = this.moments(
+						structure.getLayer(independent),
+						structure.getLayer(dependent), cache);
+				DirectedEdge edge = new DirectedEdge(independent, dependent);
+				for (int g = 0; g < moments.length; g++)
+					out.get(g).put(edge, moments[g]);
+			}
+		return out;
+	}
+
+	/**
+	 * Prepares the columns of the given variables, reusing those already
+	 * prepared
+	 *
+	 * @throws IllegalArgumentException
+	 *             if a variable is not in the panel
+	 */
+	private LayerMoments.ShiftedColumn[] prepare(List<String> names,
+			Map<String, LayerMoments.ShiftedColumn> prepared,
+			Map<String, double[]> shifts) throws IllegalArgumentException {
+		LayerMoments.ShiftedColumn[] out = new LayerMoments.ShiftedColumn[names
+				.size()];
+		for (int i = 0; i < out.length; i++) {
+			String name = names.get(i);
+			out[i] = prepared.get(name);
+			if (out[i] == null) {
+				double[] shift = new double[this.groups.size()];
+				out[i] = new LayerMoments.ShiftedColumn(this.column(name),
+						this.starts, this.ends, shift);
+				prepared.put(name, out[i]);
+				shifts.put(name, shift);
+			}
+		}
+		return out;
+	}
+
+	/**
+	 * Gets the index of the given variable
+	 *
+	 * @throws IllegalArgumentException
+	 *             if it is not in the panel
+	 */
+	private int require(String variable) throws IllegalArgumentException {
+		Integer i = this.index.get(variable);
+		if (i == null)
+			throw new IllegalArgumentException("Variable " + variable
+					+ " is not in the panel");
+		return i.intValue();
+	}
+
+	/**
+	 * Checks that, for random panels of groups of different sizes where some
+	 * variables are missing from some groups, the tables of every group are
+	 * identical, bit for bit, to those
+	 * {@link LayerMoments#compute(Column[], Column[])} computes from that
+	 * group's columns alone, and agree with those computed one cell after the
+	 * other by the code this class replaced
+	 * ({@link Main#serialDependency(double[][], double[][], double)}) within
+	 * {@link Main#TOLERANCE}; and that each group's rows are where
+	 * {@link #offset(int)} says. Also checks that the moments are the same when
+	 * taken from a {@link DependencyCache}, whether cached from the group's
+	 * columns alone or by an earlier call. Run with assertions enabled
+	 * ({@code -ea}).
+	 *
+	 * @param args
+	 *            (ignored)
+	 * @throws AssertionError
+	 *             if a group disagrees, alone or through a cache
+	 * @since 0.02 2026-10-16
+	 */
+	public static void main(String[] args) throws AssertionError {
+		System.err.println("Validating class...");
+		Random random = new Random(53);
+		for (int test = 0; test < 50; test++) {
+			int n = 1 + random.nextInt(6);
+			int m = 1 + random.nextInt(6);
+			List<String> independent = new ArrayList<String>();
+			for (int i = 0; i < n; i++)
+				independent.add("x" + i);
+			List<String> dependent = new ArrayList<String>();
+			for (int j = 0; j < m; j++)
+				dependent.add("y" + j);
+
+			// every group but the first lacks a variable now and then
+			int groups = 1 + random.nextInt(12);
+			Map<String, Map<String, Column>> data = new LinkedHashMap<String, Map<String, Column>>();
+			double[][][] x = new double[groups][][];
+			double[][][] y = new double[groups][][];
+			for (int g = 0; g < groups; g++) {
+				int rows = 3 + random.nextInt(3 * ALIGN);
+				double[] factor = Main.factor(random, rows);
+				x[g] = Main.sample(random, factor, n);
+				y[g] = Main.sample(random, factor, m);
+				Map<String, Column> group = new LinkedHashMap<String, Column>();
+				for (int i = 0; i < n; i++)
+					if (g > 0 && random.nextInt(10) == 0)
+						Arrays.fill(x[g][i], Double.NaN);
+					else
+						group.put(independent.get(i), new Column(x[g][i]));
+				for (int j = 0; j < m; j++)
+					if (g > 0 && random.nextInt(10) == 0)
+						Arrays.fill(y[g][j], Double.NaN);
+					else
+						group.put(dependent.get(j), new Column(y[g][j]));
+				data.put("g" + g, group);
+			}
+			Panel panel = new Panel(data);
+			assert panel.groups().size() == groups;
+			for (int g = 0; g < groups; g++) {
+				assert panel.offset(g) % ALIGN == 0 : "Group " + g
+						+ " starts at " + panel.offset(g);
+				assert panel.rows(g) == x[g][0].length;
+				for (int i = 0; i < n; i++)
+					for (int t = 0; t < panel.rows(g); t++)
+						assert Double.compare(panel.column(independent.get(i))
+								.get(panel.offset(g) + t), x[g][i][t]) == 0 : "Row "
+								+ t + " of group " + g;
+			}
+
+			LayerMoments[] moments = panel.moments(independent, dependent);
+			Double[][][] tables = panel.tables(independent, dependent, 0.5);
+			for (int g = 0; g < groups; g++) {
+				Double[][] expected = LayerMoments.compute(Column.of(x[g]),
+						Column.of(y[g])).table(Double.NEGATIVE_INFINITY);
+				assert Main.agree(moments[g].table(Double.NEGATIVE_INFINITY),
+						expected, 0) : "Group " + g + " of " + groups
+						+ " is not the same as alone";
+				assert Main.agree(tables[g], LayerMoments.compute(
+						Column.of(x[g]), Column.of(y[g])).table(0.5), 0) : "Group "
+						+ g + " at minimum 0.5";
+				assert Main.agree(expected, Main.serialDependency(x[g], y[g],
+						Double.NEGATIVE_INFINITY), Main.TOLERANCE) : "Group "
+						+ g + " disagrees with the serial table";
+			}
+
+			// the first group's pairs are cached from its columns alone; the
+			// other groups' are stored by the first call, and looked up by
+			// the second
+			DependencyCache cache = new DependencyCache(4096);
+			for (int i = 0; i < n; i++)
+				for (int j = 0; j < m; j++)
+					cache.moments(new Column(x[0][i]), new Column(y[0][j]));
+			long hits = cache.hits();
+			LayerMoments[] cached = panel.moments(independent, dependent,
+					cache);
+			assert cache.hits() - hits == n * m : "The first group was not"
+					+ " taken from the cache";
+			hits = cache.hits();
+			long misses = cache.misses();
+			LayerMoments[] again = panel.moments(independent, dependent,
+					cache);
+			assert cache.hits() - hits == groups * n * m
+					&& cache.misses() == misses : "Not every pair was cached";
+			for (int g = 0; g < groups; g++) {
+				Double[][] expected = moments[g].table(Double.NEGATIVE_INFINITY);
+				assert Main.agree(cached[g].table(Double.NEGATIVE_INFINITY),
+						expected, 0) : "Group " + g + " differs when cached";
+				assert Main.agree(again[g].table(Double.NEGATIVE_INFINITY),
+						expected, 0) : "Group " + g + " differs from the cache";
+			}
+		}
+		System.err.println("Validation complete");
+	}
+
+	@Override
+	public String toString() {
+		return "Panel[" + this.groups.size() + " groups, "
+				+ this.variables.size() + " variables, "
+				+ (this.columns.length > 0 ? this.columns[0].size() : 0)
+				+ " rows]";
+	}
+}
@@ -0,0 +1,608 @@
+package edu.missouri.bayesianConstructor;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the data read from a CSV file (see {@link GroupIndex}) in a binary
+ * columnar file, so that later runs can copy the values into memory in bulk
+ * instead of parsing the text again.
+ * <p/>
+ * Caches are kept in the directory named by the system property
+ * {@value #PROPERTY} or, if it is not set, in the directory
+ * {@value #DIRECTORY} under the temporary directory, rather than next to the
+ * data; each is named after its CSV file and the path of that file (see
+ * {@link #cacheOf(File)}), so that files with the same name in different
+ * directories do not share a cache.
+ * <p/>
+ * The cache file holds, in little-endian order:
+ * <ol>
+ * <li>a header: a magic number, the format version, the size, modification
+ * time and 64-bit hash of the CSV file it was made from, the group-by column
+ * and the missing markers it was read with, and the number of columns,
+ * groups and rows;</li>
+ * <li>the column dictionary: the name of each column;</li>
+ * <li>the group table: the name of each group, and the first row and number
+ * of rows of its block;</li>
+ * <li>for each column, the values of every row, group after group, as
+ * doubles aligned to 8 bytes, with {@code NaN} marking a missing value.</li>
+ * </ol>
+ * Names are written as a length followed by their UTF-8 bytes.
+ * <p/>
+ * A cache is only used if it was made from the same file: its size must be
+ * the same and, unless its modification time is also the same, so must the
+ * hash of its contents, which is only computed in that case; if the hash
+ * matches, the new modification time is written into the cache, so that the
+ * hash is not computed again. Otherwise, or if the cache is missing or
+ * unreadable, the CSV file is parsed (see {@link MappedCSV}) and the cache is
+ * written again. A cache that cannot be written is simply not kept.
+ * <p/>
+ * Caches are read whole and closed before they are used, rather than mapped
+ * into memory, so that a stale cache can be replaced right away even where
+ * files that are mapped cannot be replaced, as on Windows.
+ *
+ * @author <a href="mailto:fthc8@missouri.edu">Fernando J. Torre-Mora</a>
+ * @version 0.04 2026-10-16
+ * @since {@code bayesianConstructor} version 0.45 2026-10-16
+ */
+public class PanelCache {
+	/** The suffix added to the name of a CSV file to name its cache */
+	public static final String SUFFIX = ".panel";
+
+	/**
+	 * System property naming the directory caches are kept in
+	 *
+	 * @since 0.04 2026-10-16
+	 */
+	public static final String PROPERTY = "bayesianConstructor.panels";
+
+	/**
+	 * The directory, under the temporary directory, caches are kept in if
+	 * {@value #PROPERTY} is not set
+	 *
+	 * @since 0.04 2026-10-16
+	 */
+	public static final String DIRECTORY = "bayesianConstructor-panels";
+
+	/** Marks the start of a cache file */
+	private static final int MAGIC = 0x4C4F4350; // "PCOL"
+
+	/** Version of the file format */
+	private static final int FORMAT = 2;
+
+	/** The position of the modification time in the header */
+	private static final int MODIFIED = 16;
+
+	/** The parser used when the cache cannot be used */
+	private final MappedCSV parser;
+
+	/** The directory caches are kept in */
+	private final File directory;
+
+	/**
+	 * Creates a cache parsing CSV files with the default missing markers
+	 */
+	public PanelCache() {
+		this(new MappedCSV());
+	}
+
+	/**
+	 * Creates a cache parsing CSV files with the given parser
+	 *
+	 * @param parser
+	 *            the parser used when the cache cannot be used
+	 */
+	public PanelCache(MappedCSV parser) {
+		this(parser, directory());
+	}
+
+	/**
+	 * Creates a cache parsing CSV files with the given parser, keeping the
+	 * caches in the given directory
+	 *
+	 * @param parser
+	 *            the parser used when the cache cannot be used
+	 * @param directory
+	 *            the directory caches are kept in; it is created when the
+	 *            first cache is written
+	 * @since 0.04 2026-10-16
+	 */
+	public PanelCache(MappedCSV parser, File directory) {
+		this.parser = parser;
+		this.directory = directory;
+	}
+
+	/**
+	 * Gets the directory caches are kept in by default: the one named by
+	 * {@value #PROPERTY} if it is set, or {@value #DIRECTORY} under the
+	 * temporary directory otherwise
+	 *
+	 * @return the default directory of caches
+	 * @since 0.04 2026-10-16
+	 */
+	public static File directory() {
+		String directory = System.getProperty(PROPERTY);
+		if (directory != null)
+			return new File(directory);
+		return new File(System.getProperty("java.io.tmpdir"), DIRECTORY);
+	}
+
+	/**
+	 * Gets the cache of the given file: a file in the directory of this
+	 * cache named like it, followed by the hash of its absolute path and
+	 * {@value #SUFFIX}
+	 *
+	 * @param source
+	 *            the CSV file
+	 * @return the file its cache is kept in
+	 * @since 0.04 2026-10-16
+	 */
+	public File cacheOf(File source) {
+		String path = source.getAbsolutePath();
+		return new File(this.directory, source.getName() + "-"
+				+ Integer.toHexString(path.hashCode()) + SUFFIX);
+	}
+
+	/**
+	 * Gets the rows of the given file split by group, from its cache (see
+	 * {@link #cacheOf(File)}) if it is valid
+	 *
+	 * @param source
+	 *            the CSV file
+	 * @param groupIndex
+	 *            Index of the column holding the group of each row (indices
+	 *            start at zero)
+	 * @return the rows of every group
+	 * @throws IOException
+	 *             if the CSV file had to be parsed and could not be read
+	 * @throws IllegalArgumentException
+	 *             if the CSV file contains zero columns in its column header
+	 * @throws IllegalStateException
+	 *             If not all rows of the CSV file contain the same number of
+	 *             columns
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             If {@code groupIndex} is greater than the number of columns,
+	 *             or if it's negative
+	 */
+	public GroupIndex load(File source, int groupIndex) throws IOException,
+			IllegalArgumentException, IllegalStateException,
+			ArrayIndexOutOfBoundsException {
+		return this.load(source, this.cacheOf(source), groupIndex);
+	}
+
+	/**
+	 * Gets the rows of the given file split by group, from the given cache if
+	 * it is valid; otherwise, parses the file and writes the cache
+	 *
+	 * @param source
+	 *            the CSV file
+	 * @param cache
+	 *            the cache file
+	 * @param groupIndex
+	 *            Index of the column holding the group of each row (indices
+	 *            start at zero)
+	 * @return the rows of every group
+	 * @throws IOException
+	 *             if the CSV file had to be parsed and could not be read
+	 * @throws IllegalArgumentException
+	 *             if the CSV file contains zero columns in its column header
+	 * @throws IllegalStateException
+	 *             If not all rows of the CSV file contain the same number of
+	 *             columns
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             If {@code groupIndex} is greater than the number of columns,
+	 *             or if it's negative
+	 */
+	public GroupIndex load(File source, File cache, int groupIndex)
+			throws IOException, IllegalArgumentException,
+			IllegalStateException, ArrayIndexOutOfBoundsException {
+		long size = source.length();
+		long modified = source.lastModified();
+		long[] hash = { 0 };
+		if (cache.isFile()) {
+			try {
+				GroupIndex out = this.read(cache, source, size, modified,
+						groupIndex, hash);
+				if (out != null) {
+					if (hash[0] != 0) // touched, but not changed
+						touch(cache, modified);
+					return out;
+				}
+			} catch (IOException e) {
+				// unreadable: parse the source again
+			} catch (RuntimeException e) {
+				// corrupt: parse the source again
+			}
+		}
+		GroupIndex out = this.parser.index(source, groupIndex);
+		try {
+			this.write(out, cache, size, modified, hash[0] != 0 ? hash[0]
+					: hash(source), groupIndex);
+		} catch (IOException e) {
+			// the cache is an optimization; carry on without it
+		}
+		return out;
+	}
+
+	/**
+	 * Computes the hash of the contents of a file
+	 *
+	 * @param file
+	 *            the file to be hashed
+	 * @return a 64-bit hash of every byte of the file, never 0
+	 * @throws IOException
+	 *             if the file could not be read
+	 */
+	public static long hash(File file) throws IOException {
+		ByteBuffer in = MappedCSV.map(file).order(ByteOrder.LITTLE_ENDIAN);
+		long hash = in.limit();
+		int p = 0;
+		for (; p + 8 <= in.limit(); p += 8)
+			hash = mix(hash, in.getLong(p));
+		long tail = 0;
+		for (int k = 0; p < in.limit(); p++, k += 8)
+			tail |= (in.get(p) & 0xFFL) << k;
+		hash = mix(hash, tail);
+		// the finalizer of SplitMix64
+		hash = (hash ^ (hash >>> 30)) * 0xBF58476D1CE4E5B9L;
+		hash = (hash ^ (hash >>> 27)) * 0x94D049BB133111EBL;
+		hash ^= hash >>> 31;
+		return hash == 0 ? 1 : hash;
+	}
+
+	/**
+	 * Adds eight bytes to the hash of the bytes before them
+	 */
+	private static long mix(long hash, long bits) {
+		return Long.rotateLeft(hash ^ (bits * 0x9E3779B97F4A7C15L), 31)
+				* 0xBF58476D1CE4E5B9L;
+	}
+
+	/**
+	 * Reads a cache if it was made from the given source
+	 *
+	 * @param hash
+	 *            where the hash of the source is left, if it had to be
+	 *            computed because the modification times differ
+	 * @return the rows of every group, or {@code null} if the cache does not
+	 *         match the source
+	 * @throws IOException
+	 *             if either file could not be read
+	 */
+	private GroupIndex read(File cache, File source, long size, long modified,
+			int groupIndex, long[] hash) throws IOException {
+		ByteBuffer in = readFully(cache);
+		if (in.getInt() != MAGIC || in.getInt() != FORMAT)
+			return null;
+		long cachedSize = in.getLong();
+		long cachedModified = in.getLong();
+		long cachedHash = in.getLong();
+		if (cachedSize != size || in.getInt() != groupIndex)
+			return null;
+		List<String> markers = new ArrayList<String>();
+		for (int m = in.getInt(); m > 0; m--)
+			markers.add(string(in));
+		if (!markers.equals(this.parser.markers()))
+			return null;
+		if (cachedModified != modified) {
+			// touched, but possibly not changed
+			hash[0] = hash(source);
+			if (hash[0] != cachedHash)
+				return null;
+		}
+
+		int cols = in.getInt();
+		int groups = in.getInt();
+		int rows = in.getInt();
+		List<String> headers = new ArrayList<String>(cols);
+		for (int i = 0; i < cols; i++)
+			headers.add(string(in));
+		Map<String, Integer> names = new LinkedHashMap<String, Integer>();
+		int[] starts = new int[groups];
+		int[] counts = new int[groups];
+		for (int g = 0; g < groups; g++) {
+			names.put(string(in), Integer.valueOf(g));
+			starts[g] = in.getInt();
+			counts[g] = in.getInt();
+		}
+		in.position(align(in.position()));
+		DoubleBuffer doubles = in.slice().order(ByteOrder.LITTLE_ENDIAN)
+				.asDoubleBuffer();
+		double[][][] values = new double[groups][cols][];
+		for (int i = 0; i < cols; i++)
+			for (int g = 0; g < groups; g++) {
+				values[g][i] = new double[counts[g]];
+				doubles.position(i * rows + starts[g]);
+				doubles.get(values[g][i]);
+			}
+		return new GroupIndex(headers, names, values);
+	}
+
+	/**
+	 * Reads the whole of a file into memory, closing it before returning
+	 *
+	 * @return the bytes of the file, in little-endian order
+	 * @throws IOException
+	 *             if the file could not be read, or is too large
+	 */
+	private static ByteBuffer readFully(File file) throws IOException {
+		FileChannel channel = FileChannel.open(file.toPath(),
+				StandardOpenOption.READ);
+		try {
+			long size = channel.size();
+			if (size > Integer.MAX_VALUE)
+				throw new IOException(file + " is too large to be read");
+			ByteBuffer out = ByteBuffer.allocate((int) size);
+			while (out.hasRemaining() && channel.read(out) >= 0)
+				;
+			out.flip();
+			return out.order(ByteOrder.LITTLE_ENDIAN);
+		} finally {
+			channel.close();
+		}
+	}
+
+	/**
+	 * Writes the given modification time of the source into a cache whose
+	 * contents were found to match it. If the cache cannot be written, it is
+	 * left as it is, and its hash will be checked again next time.
+	 */
+	private static void touch(File cache, long modified) {
+		try {
+			FileChannel channel = FileChannel.open(cache.toPath(),
+					StandardOpenOption.WRITE);
+			try {
+				ByteBuffer bytes = ByteBuffer.allocate(8).order(
+						ByteOrder.LITTLE_ENDIAN);
+				bytes.putLong(0, modified);
+				channel.write(bytes, MODIFIED);
+			} finally {
+				channel.close();
+			}
+		} catch (IOException e) {
+			// the cache is still valid; carry on without updating it
+		}
+	}
+
+	/**
+	 * Writes a cache, first to a temporary file that then replaces the cache,
+	 * so that a cache is never left half written
+	 *
+	 * @throws IOException
+	 *             if the cache could not be written
+	 */
+	private void write(GroupIndex index, File cache, long size,
+			long modified, long hash, int groupIndex) throws IOException {
+		List<String> headers = index.headers();
+		List<String> groups = new ArrayList<String>(index.groups());
+		int rows = 0;
+		for (String group : groups)
+			rows += index.rows(group);
+
+		File parent = cache.getAbsoluteFile().getParentFile();
+		if (parent != null)
+			parent.mkdirs();
+		File temp = new File(cache.getPath() + ".tmp");
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+				new FileOutputStream(temp)));
+		try {
+			int position = 0;
+			position += writeInt(out, MAGIC);
+			position += writeInt(out, FORMAT);
+			position += writeLong(out, size);
+			position += writeLong(out, modified);
+			position += writeLong(out, hash);
+			position += writeInt(out, groupIndex);
+			List<String> markers = this.parser.markers();
+			position += writeInt(out, markers.size());
+			for (String marker : markers)
+				position += writeString(out, marker);
+			position += writeInt(out, headers.size());
+			position += writeInt(out, groups.size());
+			position += writeInt(out, rows);
+			for (String header : headers)
+				position += writeString(out, header);
+			int start = 0;
+			for (String group : groups) {
+				position += writeString(out, group);
+				position += writeInt(out, start);
+				position += writeInt(out, index.rows(group));
+				start += index.rows(group);
+			}
+			for (; position < align(position); position++)
+				out.writeByte(0);
+
+			for (String header : headers)
+				for (String group : groups)
+					for (double d : index.column(group, header))
+						writeLong(out, Double.doubleToRawLongBits(d));
+		} catch (IOException e) {
+			out.close();
+			temp.delete();
+			throw e;
+		}
+		out.close();
+		Files.move(temp.toPath(), cache.toPath(),
+				StandardCopyOption.REPLACE_EXISTING);
+	}
+
+	/**
+	 * Rounds a position up to a multiple of 8 bytes
+	 */
+	private static int align(int position) {
+		return (position + 7) & ~7;
+	}
+
+	/**
+	 * Reads a name written by {@link #writeString(DataOutputStream, String)}
+	 */
+	private static String string(ByteBuffer in) {
+		byte[] bytes = new byte[in.getInt()];
+		in.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Writes an {@code int} in little-endian order
+	 *
+	 * @return the number of bytes written
+	 */
+	private static int writeInt(DataOutputStream out, int v)
+			throws IOException {
+		out.writeInt(Integer.reverseBytes(v));
+		return 4;
+	}
+
+	/**
+	 * Writes a {@code long} in little-endian order
+	 *
+	 * @return the number of bytes written
+	 */
+	private static int writeLong(DataOutputStream out, long v)
+			throws IOException {
+		out.writeLong(Long.reverseBytes(v));
+		return 8;
+	}
+
+	/**
+	 * Writes a name as its length followed by its UTF-8 bytes
+	 *
+	 * @return the number of bytes written
+	 */
+	private static int writeString(DataOutputStream out, String s)
+			throws IOException {
+		byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+		writeInt(out, bytes.length);
+		out.write(bytes);
+		return 4 + bytes.length;
+	}
+
+	/**
+	 * Checks, on copies of the data files of the repository (read from the
+	 * working directory) in a temporary directory, that the index read back
+	 * from a cache is the same as the one {@link MappedCSV} parses; that the
+	 * file is only parsed again when it changes, or is read by another column
+	 * or with other missing markers, or when the cache is corrupt or cut
+	 * short; that no temporary file is left behind; and that a file touched
+	 * but not changed has its new modification time written into the cache;
+	 * and that caches are kept in the directory given, not next to the data.
+	 * Run with assertions enabled ({@code -ea}).
+	 *
+	 * @param args
+	 *            the files to be checked instead of those of the repository
+	 * @throws IOException
+	 *             if a file could not be read or written
+	 * @throws AssertionError
+	 *             if a check fails
+	 * @since 0.03 2026-10-16
+	 */
+	public static void main(String[] args) throws IOException, AssertionError {
+		System.err.println("Validating class...");
+		final int[] parsed = { 0 };
+		MappedCSV counting = new MappedCSV() {
+			@Override
+			public GroupIndex index(File file, int groupIndex)
+					throws IOException {
+				parsed[0]++;
+				return super.index(file, groupIndex);
+			}
+		};
+		File dir = Files.createTempDirectory("panels").toFile();
+		File caches = new File(dir, DIRECTORY);
+		PanelCache panels = new PanelCache(counting, caches);
+		for (String name : args.length > 0 ? args : new String[] {
+				"Data_Extract_From_World_Development_Indicators_Data.csv",
+				"classed data.csv", "smets woulters data.csv" }) {
+			File source = new File(dir, new File(name).getName());
+			File cache = panels.cacheOf(source);
+			File temp = new File(cache.getPath() + ".tmp");
+			Files.copy(new File(name).toPath(), source.toPath());
+			try {
+				GroupIndex expected = new MappedCSV().index(source, 0);
+				int before = parsed[0];
+				assert GroupIndex.same(panels.load(source, 0), expected);
+				assert parsed[0] == before + 1 : "The file was not parsed";
+				assert cache.isFile() && !temp.exists() : "The cache of "
+						+ name + " was not written in place";
+				assert !new File(source.getPath() + SUFFIX).exists() : "The cache of "
+						+ name + " was written next to it";
+				assert GroupIndex.same(panels.load(source, 0), expected) : "The cache of "
+						+ name + " was read back differently";
+				assert parsed[0] == before + 1 : "The cache was not used";
+
+				// touched, but not changed
+				long modified = source.lastModified() - 100000;
+				assert source.setLastModified(modified);
+				modified = source.lastModified();
+				assert GroupIndex.same(panels.load(source, 0), expected);
+				assert parsed[0] == before + 1 : "A touched file was parsed";
+				assert readFully(cache).getLong(MODIFIED) == modified : "The new time was not kept";
+				System.err.println("Passed reuse test on " + name);
+
+				// read by another column, or with other markers
+				assert GroupIndex.same(panels.load(source, 1), new MappedCSV()
+						.index(source, 1));
+				assert parsed[0] == before + 2 : "The cache of another column was used";
+				assert GroupIndex.same(new PanelCache(new MappedCSV(""),
+						caches).load(source, 0), new MappedCSV("").index(
+						source, 0)) : "The cache of other markers was used";
+
+				assert GroupIndex.same(panels.load(source, 0), expected);
+				assert parsed[0] == before + 3 : "The cache of other markers was used";
+
+				// changed without changing its size
+				byte[] bytes = Files.readAllBytes(source.toPath());
+				int digit = 0;
+				while (bytes[digit] != '\n')
+					digit++;
+				while (bytes[digit] < '0' || bytes[digit] > '8')
+					digit++;
+				bytes[digit]++;
+				Files.write(source.toPath(), bytes);
+				assert source.setLastModified(modified + 100000);
+				expected = new MappedCSV().index(source, 0);
+				assert GroupIndex.same(panels.load(source, 0), expected) : "A changed file was read from its cache";
+				assert parsed[0] == before + 4 : "A changed file was not parsed";
+
+				// corrupt or cut short
+				byte[] whole = Files.readAllBytes(cache.toPath());
+				Files.write(cache.toPath(), Arrays.copyOf(whole, whole.length / 2));
+				assert GroupIndex.same(panels.load(source, 0), expected);
+				assert parsed[0] == before + 5 : "A short cache was used";
+				Files.write(cache.toPath(), new byte[] { 1, 2, 3 });
+				assert GroupIndex.same(panels.load(source, 0), expected);
+				assert parsed[0] == before + 6 : "A corrupt cache was used";
+				assert cache.length() == whole.length && !temp.exists() : "A corrupt cache was not replaced";
+				System.err.println("Passed replacement test on " + name);
+			} finally {
+				source.delete();
+				cache.delete();
+				temp.delete();
+			}
+		}
+		caches.delete();
+		dir.delete();
+		System.err.println("Validation complete");
+	}
+
+	@Override
+	public String toString() {
+		return "PanelCache[" + this.parser + "]";
+	}
+}
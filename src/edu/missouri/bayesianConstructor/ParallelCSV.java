@@ -0,0 +1,476 @@
+package edu.missouri.bayesianConstructor;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.regex.Pattern;
+
+/**
+ * Reads CSV files the same way {@link MappedCSV} does, but parses large files
+ * over a {@link ForkJoinPool}, a chunk of rows per task.
+ * <p/>
+ * The rows after the header are split into chunks of roughly the same number
+ * of bytes. A chunk must start at the beginning of a row, so each split is
+ * moved forward to the first line feed that is not inside quotes. Whether a
+ * position is inside quotes depends on every byte before it (and, since
+ * opencsv only unescapes quotes inside quotes or inside a field, so does
+ * whether it is inside a field), so the bytes of each chunk are first scanned
+ * in parallel assuming each of the four ways it could start; following the
+ * first chunk's result from one chunk to the next then tells which assumption
+ * was right for each, and only the bytes between each split and the next row
+ * are scanned again. Each chunk is then parsed into its own columns, and the
+ * columns of every chunk are joined in file order, so the result, including
+ * the row reported when a row has the wrong number of columns, is the same as
+ * that of {@link MappedCSV}.
+ * <p/>
+ * Files smaller than a chunk are read in a single task.
+ * <p/>
+ * This class is thread-safe.
+ *
+ * @author <a href="mailto:fthc8@missouri.edu">Fernando J. Torre-Mora</a>
+ * @version 0.03 2026-10-16
+ * @since {@code bayesianConstructor} version 0.46 2026-10-16
+ */
+public class ParallelCSV extends MappedCSV {
+	/** The number of bytes of each chunk by default */
+	public static final int DEFAULT_CHUNK = 1 << 20;
+
+	/** The flag of a position inside quotes */
+	private static final int IN_QUOTES = 1;
+
+	/** The flag of a position inside a field */
+	private static final int IN_FIELD = 2;
+
+	/** The number of combinations of flags */
+	private static final int STATES = 4;
+
+	/** The pool the chunks are parsed on */
+	private final ForkJoinPool pool;
+
+	/** The number of bytes of each chunk */
+	private final int chunk;
+
+	/**
+	 * Parses one chunk of rows
+	 */
+	private interface Parser {
+		/**
+		 * Reads the rows from {@code pos} to {@code end} into {@code out}
+		 *
+		 * @param line
+		 *            the number of the first row, for error messages
+		 * @return the number of the row after the last row read
+		 * @throws IllegalStateException
+		 *             If not all rows have the same number of columns as the
+		 *             header
+		 */
+		int parse(ByteBuffer in, int pos, int end, int line, Fields fields,
+				GroupIndex.Builder out) throws IllegalStateException;
+	}
+
+	/**
+	 * Creates a reader that runs on the common {@link ForkJoinPool} with the
+	 * default missing markers and chunks of {@value #DEFAULT_CHUNK} bytes
+	 */
+	public ParallelCSV() {
+		this(ForkJoinPool.commonPool(), DEFAULT_CHUNK, DEFAULT_MISSING);
+	}
+
+	/**
+	 * Creates a reader that runs on the common {@link ForkJoinPool} with
+	 * chunks of {@value #DEFAULT_CHUNK} bytes
+	 *
+	 * @param missing
+	 *            the values that mark a missing value (see
+	 *            {@link MappedCSV#MappedCSV(String...)})
+	 */
+	public ParallelCSV(String... missing) {
+		this(ForkJoinPool.commonPool(), DEFAULT_CHUNK, missing);
+	}
+
+	/**
+	 * Creates a reader that runs on the given pool
+	 *
+	 * @param pool
+	 *            the pool the chunks are parsed on
+	 * @param chunk
+	 *            the number of bytes of each chunk
+	 * @param missing
+	 *            the values that mark a missing value (see
+	 *            {@link MappedCSV#MappedCSV(String...)})
+	 * @throws IllegalArgumentException
+	 *             if {@code chunk} is not positive
+	 */
+	public ParallelCSV(ForkJoinPool pool, int chunk, String... missing)
+			throws IllegalArgumentException {
+		super(missing);
+		if (chunk <= 0)
+			throw new IllegalArgumentException("The chunk size must be positive");
+		this.pool = pool;
+		this.chunk = chunk;
+	}
+
+	@Override
+	public GroupIndex index(File file, final int groupIndex)
+			throws IOException, IllegalArgumentException,
+			IllegalStateException, ArrayIndexOutOfBoundsException {
+		ByteBuffer in = map(file);
+		Fields fields = new Fields();
+		int pos = header(in, fields);
+		List<String> headers = strings(in, fields);
+		final int cols = headers.size();
+		if (groupIndex < 0 || groupIndex >= cols)
+			throw new ArrayIndexOutOfBoundsException(groupIndex);
+		return GroupIndex.Builder.join(headers, this.parse(in, pos, cols,
+				new Parser() {
+					@Override
+					public int parse(ByteBuffer in, int pos, int end,
+							int line, Fields fields, GroupIndex.Builder out) {
+						return ParallelCSV.this.rows(in, pos, end, line, cols,
+								groupIndex, fields, out);
+					}
+				}));
+	}
+
+	@Override
+	public Map<String, List<Double>> load(File file, final String filterExp,
+			final int filterIndex) throws IOException,
+			IllegalArgumentException, IllegalStateException,
+			ArrayIndexOutOfBoundsException {
+		ByteBuffer in = map(file);
+		Fields fields = new Fields();
+		int pos = header(in, fields);
+		List<String> headers = strings(in, fields);
+		final int cols = headers.size();
+		if (filterExp != null && (filterIndex < 0 || filterIndex >= cols))
+			throw new ArrayIndexOutOfBoundsException(filterIndex);
+		return matched(GroupIndex.Builder.join(headers, this.parse(in, pos,
+				cols, new Parser() {
+					@Override
+					public int parse(ByteBuffer in, int pos, int end,
+							int line, Fields fields, GroupIndex.Builder out) {
+						return ParallelCSV.this.filter(in, pos, end, line,
+								cols, filterExp, filterIndex, fields, out);
+					}
+				})));
+	}
+
+	/**
+	 * Parses the rows from {@code pos} to the end of the file, a chunk per
+	 * task
+	 *
+	 * @return the builder of each chunk, in file order
+	 * @throws IllegalStateException
+	 *             If not all rows contain {@code cols} columns
+	 */
+	private List<GroupIndex.Builder> parse(final ByteBuffer in, int pos,
+			final int cols, final Parser parser) throws IllegalStateException {
+		final int[] splits = this.split(in, pos, in.limit());
+		final int chunks = splits.length - 1;
+		final GroupIndex.Builder[] parts = new GroupIndex.Builder[chunks];
+		final int[] lines = new int[chunks];
+		this.pool.invoke(new DependencyBuilder.Fan(0, chunks, 1,
+				new DependencyBuilder.Job() {
+					@Override
+					public void run(int k) {
+						parts[k] = new GroupIndex.Builder(cols);
+						try {
+							lines[k] = parser.parse(in, splits[k],
+									splits[k + 1], 0, new Fields(), parts[k]);
+						} catch (RuntimeException e) {
+							// reported in order below
+							lines[k] = -1;
+						}
+					}
+				}));
+
+		// the first bad row is only known once the rows before it are counted,
+		// so a chunk that failed is read again to fail the way MappedCSV does
+		int line = 0;
+		for (int k = 0; k < chunks; k++) {
+			if (lines[k] < 0)
+				parser.parse(in, splits[k], splits[k + 1], line, new Fields(),
+						new GroupIndex.Builder(cols));
+			line += lines[k];
+		}
+		return Arrays.asList(parts);
+	}
+
+	/**
+	 * Splits the rows from {@code pos} to {@code end} into chunks, each
+	 * starting at the beginning of a row
+	 *
+	 * @return the start of each chunk, in order, followed by {@code end}
+	 */
+	int[] split(final ByteBuffer in, int pos, final int end) {
+		final int chunks = (int) Math.min(Integer.MAX_VALUE - 1,
+				((long) end - pos + this.chunk - 1) / this.chunk);
+		if (chunks <= 1)
+			return new int[] { pos, end };
+		final int[] guesses = new int[chunks + 1];
+		for (int k = 0; k <= chunks; k++)
+			guesses[k] = (int) (pos + ((long) end - pos) * k / chunks);
+
+		// where each chunk's scan ends, from each state it could start in
+		final long[][] scans = new long[chunks][STATES];
+		this.pool.invoke(new DependencyBuilder.Fan(0, chunks, 1,
+				new DependencyBuilder.Job() {
+					@Override
+					public void run(int k) {
+						for (int flags = 0; flags < STATES; flags++)
+							scans[k][flags] = scan(in, guesses[k],
+									guesses[k + 1], end, flags);
+					}
+				}));
+
+		int[] out = new int[chunks + 1];
+		int n = 0;
+		out[n++] = pos;
+		long state = state(pos, 0);
+		for (int k = 0; k < chunks - 1; k++) {
+			if (position(state) == guesses[k])
+				state = scans[k][flags(state)];
+			else // an escape ran into this chunk
+				state = scan(in, position(state), guesses[k + 1], end,
+						flags(state));
+			int start = next(in, position(state), end, flags(state));
+			if (start > out[n - 1] && start < end)
+				out[n++] = start;
+		}
+		out[n++] = end;
+		return Arrays.copyOf(out, n);
+	}
+
+	/**
+	 * Follows which bytes are inside quotes and inside a field, the way
+	 * {@link MappedCSV#row(ByteBuffer, int, int, Fields)} does, from
+	 * {@code pos} to {@code to}
+	 *
+	 * @param end
+	 *            the end of the file
+	 * @param flags
+	 *            whether {@code pos} is inside quotes ({@link #IN_QUOTES}) and
+	 *            inside a field ({@link #IN_FIELD})
+	 * @return the position where the scan stopped, which may be past
+	 *         {@code to} if an escape started right before it, and its flags
+	 *         (see {@link #state(int, int)})
+	 */
+	private static long scan(ByteBuffer in, int pos, int to, int end,
+			int flags) {
+		boolean inQuotes = (flags & IN_QUOTES) != 0;
+		boolean inField = (flags & IN_FIELD) != 0;
+		while (pos < to) {
+			byte b = in.get(pos);
+			if (b == '\n' || b == '\r') {
+				if (!inQuotes)
+					inField = false;
+			} else if (b == '\\') {
+				if ((inQuotes || inField) && pos + 1 < end
+						&& (in.get(pos + 1) == '"' || in.get(pos + 1) == '\\'))
+					pos++;
+			} else if (b == '"') {
+				if ((inQuotes || inField) && pos + 1 < end
+						&& in.get(pos + 1) == '"')
+					pos++;
+				else
+					inQuotes = !inQuotes;
+				inField = !inField;
+			} else
+				inField = b != ',' || inQuotes;
+			pos++;
+		}
+		return state(pos, (inQuotes ? IN_QUOTES : 0) | (inField ? IN_FIELD : 0));
+	}
+
+	/**
+	 * Finds the beginning of the first row after {@code pos}
+	 *
+	 * @param flags
+	 *            whether {@code pos} is inside quotes and inside a field (see
+	 *            {@link #scan(ByteBuffer, int, int, int, int)})
+	 * @return the position after the first line feed outside quotes, or
+	 *         {@code end} if there is none
+	 */
+	private static int next(ByteBuffer in, int pos, int end, int flags) {
+		while (pos < end) {
+			if ((flags & IN_QUOTES) == 0 && in.get(pos) == '\n')
+				return pos + 1;
+			long state = scan(in, pos, pos + 1, end, flags);
+			pos = position(state);
+			flags = flags(state);
+		}
+		return end;
+	}
+
+	/** Packs a position and its flags */
+	private static long state(int pos, int flags) {
+		return (long) pos << 2 | flags;
+	}
+
+	/** Gets the position of a state packed by {@link #state(int, int)} */
+	private static int position(long state) {
+		return (int) (state >>> 2);
+	}
+
+	/** Gets the flags of a state packed by {@link #state(int, int)} */
+	private static int flags(long state) {
+		return (int) state & (STATES - 1);
+	}
+
+	/**
+	 * Checks that files are read the same way as by {@link MappedCSV}, with
+	 * chunks of many sizes: the data files of the repository, read from the
+	 * working directory, with and without a filter, and random files of
+	 * awkward fields, quoted line breaks and mixed line endings, some of which
+	 * have rows with the wrong number of columns, for which the same row must
+	 * be reported. It also checks that every chunk of the random files starts
+	 * at the beginning of a row. Run with assertions enabled ({@code -ea}).
+	 *
+	 * @param args
+	 *            the files to be checked instead of those of the repository
+	 * @throws IOException
+	 *             if a file could not be read or written
+	 * @throws AssertionError
+	 *             if a check fails
+	 * @since 0.03 2026-10-16
+	 */
+	public static void main(String[] args) throws IOException, AssertionError {
+		System.err.println("Validating class...");
+		MappedCSV serial = new MappedCSV();
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			for (String name : args.length > 0 ? args : new String[] {
+					"Data_Extract_From_World_Development_Indicators_Data.csv",
+					"classed data.csv", "smets woulters data.csv" }) {
+				File file = new File(name);
+				GroupIndex expected = serial.index(file, 0);
+				String filter = Pattern.quote(expected.groups().iterator()
+						.next());
+				Map<String, List<Double>> kept = serial.load(file, filter, 0);
+				for (int chunk : new int[] { 64, 4096, DEFAULT_CHUNK }) {
+					ParallelCSV csv = new ParallelCSV(pool, chunk,
+							DEFAULT_MISSING);
+					assert GroupIndex.same(csv.index(file, 0), expected) : csv
+							+ " read " + file + " differently";
+					Map<String, List<Double>> matched = csv.load(file, filter, 0);
+					assert matched.keySet().equals(kept.keySet());
+					for (String header : kept.keySet())
+						assert Arrays.equals(Main.toArray(matched.get(header)),
+								Main.toArray(kept.get(header))) : csv
+								+ " filtered " + header + " of " + file
+								+ " differently";
+				}
+			}
+			System.err.println("Passed data files test");
+
+			Random random = new Random(71);
+			int uneven = 0;
+			for (int test = 0; test < 300; test++) {
+				// a new file each time, since a mapped file cannot be
+				// overwritten on every system
+				File file = File.createTempFile("random", ".csv");
+				file.deleteOnExit();
+				byte[] bytes = sample(random).getBytes(StandardCharsets.UTF_8);
+				OutputStream out = new FileOutputStream(file);
+				try {
+					out.write(bytes);
+				} finally {
+					out.close();
+				}
+				GroupIndex expected = null;
+				String error = null;
+				try {
+					expected = serial.index(file, 0);
+				} catch (IllegalStateException e) {
+					error = e.getMessage();
+					uneven++;
+				}
+				ByteBuffer in = map(file);
+				Set<Integer> starts = starts(in);
+				for (int chunk : new int[] { 1, 2, 3, 7, 64, 1000 }) {
+					ParallelCSV csv = new ParallelCSV(pool, chunk,
+							DEFAULT_MISSING);
+					int pos = header(in, new Fields());
+					for (int split : csv.split(in, pos, in.limit()))
+						assert split == in.limit()
+								|| starts.contains(Integer.valueOf(split)) : "Chunk of "
+								+ csv + " at " + split + " is not a row in "
+								+ new String(bytes, StandardCharsets.UTF_8);
+					try {
+						GroupIndex actual = csv.index(file, 0);
+						assert error == null : csv + " read a file with "
+								+ error;
+						assert GroupIndex.same(actual, expected) : csv
+								+ " read "
+								+ new String(bytes, StandardCharsets.UTF_8)
+								+ " differently";
+					} catch (IllegalStateException e) {
+						assert e.getMessage().equals(error) : csv + ": "
+								+ e.getMessage() + " instead of " + error;
+					}
+				}
+			}
+			assert uneven > 0 : "No random file had uneven rows";
+			System.err.println("Passed random files test");
+		} finally {
+			pool.shutdown();
+		}
+		System.err.println("Validation complete");
+	}
+
+	/**
+	 * Draws a file of four columns with awkward fields and line endings
+	 */
+	private static String sample(Random random) {
+		String[] groups = { "A", "B", "\"C,D\"", "\"E\nF\"", "", " A ",
+				"G\\H", "\"I\"\"J\"" };
+		String[] values = { "1", "2.5", "..", "", "-3e2", "\"4\"",
+				"\"a,b\"", "\"line\r\nbreak\"", "\"x\"\"y\"",
+				"Foo\\Bar", "ab\"c\"d", "\"\\\"e\\\"\"", " 7 ",
+				"\"\"", "C\u00f4te", "\"" };
+		String[] endings = { "\n", "\r\n", "\r" };
+		StringBuilder out = new StringBuilder("Group,x,y,z\n");
+		int rows = random.nextInt(40);
+		for (int r = 0; r < rows; r++) {
+			out.append(groups[random.nextInt(groups.length)]);
+			for (int i = 0; i < 3; i++)
+				out.append(',').append(values[random.nextInt(values.length)]);
+			if (r < rows - 1 || random.nextBoolean())
+				out.append(endings[random.nextInt(endings.length)]);
+		}
+		return out.toString();
+	}
+
+	/**
+	 * Finds the start of every row after the header, reading the rows one
+	 * after the other
+	 */
+	private static Set<Integer> starts(ByteBuffer in) {
+		Set<Integer> out = new HashSet<Integer>();
+		Fields fields = new Fields();
+		int pos = header(in, fields);
+		while (pos < in.limit()) {
+			out.add(Integer.valueOf(pos));
+			pos = row(in, pos, in.limit(), fields);
+			if (fields.count == 0)
+				break; // an unterminated quote ends the file
+		}
+		return out;
+	}
+
+	@Override
+	public String toString() {
+		return "ParallelCSV[" + this.chunk + " bytes per chunk, "
+				+ super.toString() + "]";
+	}
+}
@@ -0,0 +1,408 @@
+package edu.missouri.bayesianConstructor;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Tests whether the cells of dependency tables are significant by comparing
+ * each dependency with those obtained after randomly permuting the rows of
+ * the independent variable, which breaks any relation between the two.
+ * <p/>
+ * Permuting the rows where both values are known changes neither their
+ * means nor their second moments, so the forward dependency of <i>Y</i> on
+ * <i>X</i> (see {@link PairMoments#dependency()}) only changes through the
+ * square of their co-moment: it grows with it when the mean of <i>Y</i> is
+ * positive, shrinks with it when the mean is negative, and does not change
+ * when the mean is zero. Each permutation therefore costs a single dot
+ * product of the centered values, taken through an array of indices, without
+ * moving the values themselves.
+ * <p/>
+ * Permutations are drawn sequentially and stop early following Besag and
+ * Clifford: as soon as {@code exceedances} permutations have scored at least
+ * as high as the data, the p-value is estimated as {@code exceedances}
+ * divided by the number of permutations drawn, since the cell is clearly not
+ * significant. When the cells are filtered by a p-value
+ * (see {@link #getDependency(Column[], Column[], double, double)}), a cell
+ * also stops as soon as it would stay significant even if every permutation
+ * left scored as high as the data, and its p-value is then estimated from
+ * the permutations drawn, which gives a value no greater than the
+ * threshold. Only the cells whose outcome is still open go on to the maximum
+ * number of permutations.
+ * <p/>
+ * Cells are tested in parallel over a {@link ForkJoinPool}. Each task draws
+ * its permutations from its own generator, seeded with the seed of the test
+ * plus the position of the cell in the table, and shuffles its own array of
+ * indices, so the p-values do not depend on the number of threads.
+ *
+ * @author <a href="mailto:fthc8@missouri.edu">Fernando J. Torre-Mora</a>
+ * @version 0.02 2026-10-16
+ * @since {@code bayesianConstructor} version 0.38 2026-10-16
+ */
+public class PermutationTest {
+	/** Maximum number of permutations per cell used by default */
+	public static final int DEFAULT_PERMUTATIONS = 1000;
+
+	/** Number of exceedances that stop the test used by default */
+	public static final int DEFAULT_EXCEEDANCES = 10;
+
+	/** The pool the cells are tested in */
+	private final ForkJoinPool pool;
+
+	/** The maximum number of permutations per cell */
+	private final int permutations;
+
+	/**
+	 * The number of permutations scoring at least as high as the data after
+	 * which a cell is decided not to be significant
+	 */
+	private final int exceedances;
+
+	/** The seed of the first cell */
+	private final long seed;
+
+	/**
+	 * Creates a test of up to {@value #DEFAULT_PERMUTATIONS} permutations per
+	 * cell that stops after {@value #DEFAULT_EXCEEDANCES} exceedances, running
+	 * on the common {@link ForkJoinPool}
+	 *
+	 * @param seed
+	 *            the seed the permutations are drawn from
+	 */
+	public PermutationTest(long seed) {
+		this(DEFAULT_PERMUTATIONS, DEFAULT_EXCEEDANCES, seed);
+	}
+
+	/**
+	 * Creates a test running on the common {@link ForkJoinPool}
+	 *
+	 * @param permutations
+	 *            the maximum number of permutations per cell
+	 * @param exceedances
+	 *            the number of permutations scoring at least as high as the
+	 *            data after which a cell stops being tested
+	 * @param seed
+	 *            the seed the permutations are drawn from
+	 * @throws IllegalArgumentException
+	 *             if either number is not positive
+	 */
+	public PermutationTest(int permutations, int exceedances, long seed)
+			throws IllegalArgumentException {
+		this(ForkJoinPool.commonPool(), permutations, exceedances, seed);
+	}
+
+	/**
+	 * Creates a test running on the given pool
+	 *
+	 * @param pool
+	 *            the pool the cells will be tested in
+	 * @param permutations
+	 *            the maximum number of permutations per cell
+	 * @param exceedances
+	 *            the number of permutations scoring at least as high as the
+	 *            data after which a cell stops being tested
+	 * @param seed
+	 *            the seed the permutations are drawn from
+	 * @throws IllegalArgumentException
+	 *             if either number is not positive
+	 */
+	public PermutationTest(ForkJoinPool pool, int permutations,
+			int exceedances, long seed) throws IllegalArgumentException {
+		if (permutations <= 0 || exceedances <= 0)
+			throw new IllegalArgumentException(
+					"The numbers of permutations and exceedances must be positive");
+		this.pool = pool;
+		this.permutations = permutations;
+		this.exceedances = exceedances;
+		this.seed = seed;
+	}
+
+	/**
+	 * Computes the p-value of the dependency of {@code Y} on {@code X}
+	 *
+	 * @param X
+	 *            The column of values for the variable thought to be
+	 *            independent
+	 * @param Y
+	 *            The column of values for the variable thought to be dependent
+	 * @return the estimated probability of a dependency at least as high if
+	 *         the variables were unrelated, or {@code NaN} if fewer than three
+	 *         rows have both values
+	 * @throws IllegalArgumentException
+	 *             If {@code X} and {@code Y} are not of equal size
+	 */
+	public double pValue(Column X, Column Y) throws IllegalArgumentException {
+		return this.test(X, Y, this.seed, 0);
+	}
+
+	/**
+	 * Computes the p-value of every cell of the dependency table of
+	 * {@code dependent} on {@code independent} whose forward dependency is
+	 * greater than {@code minimum}; the others are not tested
+	 *
+	 * @param independent
+	 *            The variables assumed to be independent
+	 * @param dependent
+	 *            The variables assumed to be dependent
+	 * @param minimum
+	 *            Value for the forward dependency below which a cell is not
+	 *            tested
+	 * @return a table holding the p-value of each cell, 1 for the cells that
+	 *         were not tested
+	 * @throws IllegalArgumentException
+	 *             If the columns are not all of the same size
+	 */
+	public Double[][] pValues(final Column[] independent,
+			final Column[] dependent, double minimum)
+			throws IllegalArgumentException {
+		return this.pValues(LayerMoments.compute(independent, dependent),
+				independent, dependent, minimum, 0);
+	}
+
+	/**
+	 * Tests the cells of a table whose moments have already been computed,
+	 * stopping a cell once its p-value cannot exceed {@code alpha} (see
+	 * {@link #test(Column, Column, long, double)})
+	 */
+	private Double[][] pValues(LayerMoments moments,
+			final Column[] independent, final Column[] dependent,
+			double minimum, final double alpha) {
+		final int width = dependent.length;
+		final double[] out = new double[independent.length * width];
+		final boolean[] tested = new boolean[out.length];
+		for (int k = 0; k < out.length; k++)
+			tested[k] = moments.get(k / width, k % width).dependency() > minimum;
+		this.pool.invoke(new DependencyBuilder.Fan(0, out.length, 1,
+				new DependencyBuilder.Job() {
+					@Override
+					public void run(int k) {
+						out[k] = tested[k] ? PermutationTest.this.test(
+								independent[k / width], dependent[k % width],
+								PermutationTest.this.seed + k, alpha) : 1;
+					}
+				}));
+		Double[][] table = new Double[independent.length][width];
+		for (int k = 0; k < out.length; k++)
+			table[k / width][k % width] = Double.valueOf(out[k]);
+		return table;
+	}
+
+	/**
+	 * Computes the dependency table of {@code dependent} on
+	 * {@code independent} (see
+	 * {@link Main#getDependency(double[][], double[][], double)}), discarding
+	 * the cells that are not significant
+	 *
+	 * @param independent
+	 *            The variables assumed to be independent
+	 * @param dependent
+	 *            The variables assumed to be dependent
+	 * @param minimum
+	 *            Value for the forward dependency below which a cell is
+	 *            discarded
+	 * @param alpha
+	 *            the p-value above which a cell is discarded
+	 * @return the dependency table, with {@code Double.NEGATIVE_INFINITY} in
+	 *         the cells discarded
+	 * @throws IllegalArgumentException
+	 *             If the columns are not all of the same size
+	 */
+	public Double[][] getDependency(Column[] independent, Column[] dependent,
+			double minimum, double alpha) throws IllegalArgumentException {
+		LayerMoments moments = LayerMoments.compute(independent, dependent);
+		Double[][] out = moments.table(minimum);
+		Double[][] p = this.pValues(moments, independent, dependent, minimum,
+				alpha);
+		for (int i = 0; i < out.length; i++)
+			for (int j = 0; j < out[i].length; j++)
+				if (!(p[i][j].doubleValue() <= alpha))
+					out[i][j] = Double.valueOf(Double.NEGATIVE_INFINITY);
+		return out;
+	}
+
+	/**
+	 * Computes every dependency table of {@code m} and stores it, discarding
+	 * the cells that are not significant (see
+	 * {@link #getDependency(Column[], Column[], double, double)})
+	 *
+	 * @param m
+	 *            the model whose dependency tables are to be computed
+	 * @param columns
+	 *            the columns of each layer, keyed by layer name, in the same
+	 *            order as the layer's variables
+	 * @param minimum
+	 *            Value for the forward dependency below which a cell is
+	 *            discarded
+	 * @param alpha
+	 *            the p-value above which a cell is discarded
+	 * @throws IllegalArgumentException
+	 *             if the columns do not match the layers of {@code m}
+	 */
+	public void build(DomainKnowledge m, Map<String, Column[]> columns,
+			double minimum, double alpha) throws IllegalArgumentException {
+		List<String[]> edges = DependencyBuilder.edges(m);
+		DependencyBuilder.layers(m, edges, columns);
+		for (String[] edge : edges)
+			m.setDependency(edge[0], edge[1], this.getDependency(
+					columns.get(edge[0]), columns.get(edge[1]), minimum, alpha));
+	}
+
+	/**
+	 * Tests a single pair with permutations drawn from the given seed,
+	 * stopping early once the p-value either clearly exceeds or cannot
+	 * exceed {@code alpha}
+	 *
+	 * @throws IllegalArgumentException
+	 *             If {@code X} and {@code Y} are not of equal size
+	 */
+	private double test(Column X, Column Y, long seed, double alpha)
+			throws IllegalArgumentException {
+		long[] both = Column.both(X, Y);
+		int n = Column.pairwiseCount(X, Y);
+		if (n < 3)
+			return Double.NaN;
+
+		// the known pairs, centered
+		double[] x = new double[n];
+		double[] y = new double[n];
+		double meanX = 0;
+		double meanY = 0;
+		int k = 0;
+		for (int w = 0; w < both.length; w++)
+			for (long bits = both[w]; bits != 0; bits &= bits - 1) {
+				int t = (w << 6) + Long.numberOfTrailingZeros(bits);
+				x[k] = X.get(t);
+				y[k] = Y.get(t);
+				meanX += x[k];
+				meanY += y[k];
+				k++;
+			}
+		meanX /= n;
+		meanY /= n;
+		for (k = 0; k < n; k++) {
+			x[k] -= meanX;
+			y[k] -= meanY;
+		}
+		double observed = 0;
+		for (k = 0; k < n; k++)
+			observed += x[k] * y[k];
+		observed *= observed;
+		// how the dependency follows the squared co-moment
+		int sign = meanY > 0 ? 1 : meanY < 0 ? -1 : 0;
+
+		// the most exceedances that still leave the p-value below alpha
+		double allowed = alpha * (this.permutations + 1.0) - 1;
+		SplittableRandom random = new SplittableRandom(seed);
+		int[] order = new int[n];
+		for (k = 0; k < n; k++)
+			order[k] = k;
+		int exceeded = 0;
+		for (int l = 1; l <= this.permutations; l++) {
+			// Fisher-Yates; reshuffling the last order is still uniform
+			for (k = n - 1; k > 0; k--) {
+				int r = random.nextInt(k + 1);
+				int swap = order[k];
+				order[k] = order[r];
+				order[r] = swap;
+			}
+			double coMoment = 0;
+			for (k = 0; k < n; k++)
+				coMoment += x[order[k]] * y[k];
+			if (sign * Double.compare(coMoment * coMoment, observed) >= 0
+					&& ++exceeded == this.exceedances)
+				return (double) this.exceedances / l;
+			if (exceeded + (this.permutations - l) <= allowed)
+				return (exceeded + 1.0) / (l + 1.0);
+		}
+		return (exceeded + 1.0) / (this.permutations + 1.0);
+	}
+
+	/**
+	 * Checks the p-values against those found by scoring every permutation
+	 * with {@link PairMoments#dependency()}, for dependent variables with
+	 * positive and negative means (and that they are 1 when the mean is zero),
+	 * and that stopping a cell once it is significant does not change which
+	 * cells are. Run with assertions
+	 * enabled ({@code -ea}).
+	 *
+	 * @param args
+	 *            (ignored)
+	 * @throws AssertionError
+	 *             if a check fails
+	 * @since 0.02 2026-10-16
+	 */
+	public static void main(String[] args) throws AssertionError {
+		System.err.println("Validating class...");
+		Random random = new Random(16);
+		int permutations = 200;
+		PermutationTest full = new PermutationTest(permutations,
+				permutations + 1, 16);
+		for (int test = 0; test < 60; test++) {
+			int n = 5 + random.nextInt(30);
+			double mean = test % 3 == 0 ? 40 : test % 3 == 1 ? -40 : 0;
+			double slope = random.nextInt(3) * .5;
+			double[] x = new double[n];
+			double[] y = new double[n];
+			for (int t = 0; t < n; t++) {
+				x[t] = random.nextGaussian();
+				y[t] = slope * x[t] + random.nextGaussian()
+						+ (test % 3 == 2 ? 0 : mean);
+			}
+			if (test % 3 == 2) { // integers adding up to exactly zero
+				double sum = 0;
+				for (int t = 0; t < n - 1; t++) {
+					y[t] = Math.rint(4 * y[t]);
+					sum += y[t];
+				}
+				y[n - 1] = -sum;
+			}
+			PairMoments moments = PairMoments.of(x, y);
+
+			// every permutation, in the same order, scored in full
+			double observed = moments.dependency();
+			SplittableRandom drawn = new SplittableRandom(16);
+			int[] order = new int[n];
+			for (int k = 0; k < n; k++)
+				order[k] = k;
+			double[] shuffled = new double[n];
+			int exceeded = 0;
+			for (int l = 1; l <= permutations; l++) {
+				for (int k = n - 1; k > 0; k--) {
+					int r = drawn.nextInt(k + 1);
+					int swap = order[k];
+					order[k] = order[r];
+					order[r] = swap;
+				}
+				for (int k = 0; k < n; k++)
+					shuffled[k] = x[order[k]];
+				double score = PairMoments.of(shuffled, y).dependency();
+				if (score >= observed - 1e-12 * Math.abs(observed)
+						|| Double.compare(score, observed) == 0)
+					exceeded++;
+			}
+			// with a mean of zero, every permutation scores the same
+			double expected = test % 3 == 2 ? 1 : (exceeded + 1.0)
+					/ (permutations + 1.0);
+			double p = full.pValue(new Column(x), new Column(y));
+			assert Math.abs(p - expected) < 1e-12 : "mean " + mean + ": " + p
+					+ " vs " + expected;
+
+			for (double alpha : new double[] { .01, .05, .2 }) {
+				double early = full.test(new Column(x), new Column(y), 16,
+						alpha);
+				assert (early <= alpha) == (p <= alpha) : "alpha " + alpha
+						+ ": " + early + " vs " + p;
+			}
+		}
+		System.err.println("Validation complete");
+	}
+
+	@Override
+	public String toString() {
+		return "PermutationTest[up to " + this.permutations
+				+ " permutations, stopping after " + this.exceedances
+				+ " exceedances]";
+	}
+}
@@ -0,0 +1,531 @@
+package edu.missouri.bayesianConstructor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Screens pairs of variables before scoring them, so that layers can be
+ * built from thousands of indicators without computing the exact dependency
+ * of every pair. Each column is summarized once by a signature, pairs that
+ * are likely to be correlated are found by grouping equal parts of the
+ * signatures, without looking at the other pairs, and only those candidates
+ * are scored exactly, by another {@link DependencyMeasure}; the others are
+ * discarded.
+ * <p/>
+ * The signature of a column is the sign of its dot product with each of a
+ * number of random Gaussian vectors, after centering it on the mean of its
+ * known values (missing values count as the mean). Two columns with
+ * correlation &rho; get the same sign from each vector with probability
+ * <i>p</i>&nbsp;=&nbsp;1&minus;arccos(&rho;)/&pi;. The signature is split
+ * into {@link #bands()} bands of {@value #BAND_BITS} signs, and two columns
+ * are candidates if any of their bands are equal, or opposite (so that
+ * negative correlations are found as well). A pair with correlation of
+ * absolute value |&rho;| is therefore a candidate with probability at least
+ * 1&minus;(1&minus;<i>p</i><sup>{@value #BAND_BITS}</sup>)<sup>bands</sup>,
+ * with <i>p</i> taken for |&rho;| (see {@link #recall(double)}); the number
+ * of bands is chosen for this to reach the requested recall at the bound.
+ * Less correlated pairs are increasingly unlikely to be candidates: with the
+ * defaults, a pair correlated at 0.7 is found at least 95% of the time, one
+ * correlated at 0.3 about one time in five, and two unrelated columns of a
+ * few dozen rows (whose sample correlation is seldom zero) fewer than one
+ * time in ten.
+ * <p/>
+ * Since the columns are bucketed by band, the pairs examined are those
+ * sharing a bucket, not every pair: the cost of screening grows with the
+ * number of variables and the number of candidates, not with the square of
+ * the number of variables. The signatures themselves cost
+ * {@value #BAND_BITS}&middot;{@link #bands()} operations per known value,
+ * so screening only pays off on layers of hundreds of variables or more; on
+ * the few dozen variables of a model, scoring every pair exactly is cheaper.
+ * <p/>
+ * Screening does change the tables: pairs that are not candidates are
+ * discarded even when they would have reached the minimum, which is bound to
+ * happen to some pairs with a correlation below the bound, and to a fraction
+ * (at most one minus the recall) of the others. Moreover, the standard error
+ * of estimate also rewards dependent variables that vary little relative to
+ * their mean, so pairs that are barely correlated may still reach the
+ * minimum of {@link SteMeasure}. Every cell that is kept holds the same
+ * value as without screening.
+ * <p/>
+ * The random vectors depend only on the seed, so signatures of columns of
+ * the same size made by the same screen can be compared with each other.
+ * This class is thread-safe.
+ *
+ * @author <a href="mailto:fthc8@missouri.edu">Fernando J. Torre-Mora</a>
+ * @version 0.02 2026-10-16
+ * @since {@code bayesianConstructor} version 0.40 2026-10-16
+ */
+public class SketchScreen implements DependencyMeasure {
+	/** The name of this measure */
+	public static final String NAME = "sketch";
+
+	/** The number of signs in each band of a signature */
+	public static final int BAND_BITS = 12;
+
+	/** Bound on the absolute correlation used by default */
+	public static final double DEFAULT_BOUND = 0.7;
+
+	/** Probability of finding a pair correlated at the bound used by default */
+	public static final double DEFAULT_RECALL = 0.95;
+
+	/** The seed used by default */
+	public static final long DEFAULT_SEED = 0;
+
+	/** The bits of a band */
+	private static final int MASK = (1 << BAND_BITS) - 1;
+
+	/** The measure candidate pairs are scored with */
+	private final DependencyMeasure exact;
+
+	/** The absolute correlation at which pairs are found with {@link #recall} */
+	private final double bound;
+
+	/** The number of bands of each signature */
+	private final int bands;
+
+	/** The seed the random vectors are drawn with */
+	private final long seed;
+
+	/**
+	 * Creates a screen that finds pairs correlated at
+	 * {@value #DEFAULT_BOUND} or more with probability at least
+	 * {@value #DEFAULT_RECALL}, scoring candidates with the
+	 * {@link DependencyMeasure#DEFAULT default measure}, from random vectors
+	 * drawn with seed {@value #DEFAULT_SEED}
+	 */
+	public SketchScreen() {
+		this(DEFAULT_SEED);
+	}
+
+	/**
+	 * Creates a screen that finds pairs correlated at
+	 * {@value #DEFAULT_BOUND} or more with probability at least
+	 * {@value #DEFAULT_RECALL}, scoring candidates with the
+	 * {@link DependencyMeasure#DEFAULT default measure}
+	 *
+	 * @param seed
+	 *            the seed the random vectors are drawn with
+	 */
+	public SketchScreen(long seed) {
+		this(DependencyMeasure.DEFAULT, DEFAULT_BOUND, DEFAULT_RECALL, seed);
+	}
+
+	/**
+	 * Creates a screen
+	 *
+	 * @param exact
+	 *            the measure candidate pairs are scored with
+	 * @param bound
+	 *            the absolute correlation, greater than 0 and at most 1, at
+	 *            which pairs must be found with probability {@code recall}
+	 * @param recall
+	 *            the probability, greater than 0 and less than 1, of finding
+	 *            a pair correlated at {@code bound}
+	 * @param seed
+	 *            the seed the random vectors are drawn with
+	 * @throws IllegalArgumentException
+	 *             if {@code bound} or {@code recall} is out of range
+	 */
+	public SketchScreen(DependencyMeasure exact, double bound, double recall,
+			long seed) throws IllegalArgumentException {
+		if (!(bound > 0 && bound <= 1))
+			throw new IllegalArgumentException(
+					"The bound must be greater than 0 and at most 1");
+		if (!(recall > 0 && recall < 1))
+			throw new IllegalArgumentException(
+					"The recall must be between 0 and 1");
+		this.exact = exact;
+		this.bound = bound;
+		double band = Math.pow(collision(bound), BAND_BITS);
+		this.bands = band < 1 ? Math.max(1,
+				(int) Math.ceil(Math.log(1 - recall) / Math.log(1 - band)))
+				: 1;
+		this.seed = seed;
+	}
+
+	@Override
+	public String name() {
+		return NAME;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @return the default minimum of the exact measure
+	 */
+	@Override
+	public double defaultMinimum() {
+		return this.exact.defaultMinimum();
+	}
+
+	/**
+	 * Gets the number of bands of each signature
+	 *
+	 * @return the number of bands, each of {@value #BAND_BITS} signs
+	 */
+	public int bands() {
+		return this.bands;
+	}
+
+	/**
+	 * Gets the probability that each random vector gives two columns with the
+	 * given correlation the same sign
+	 */
+	private static double collision(double correlation) {
+		return 1 - Math.acos(Math.min(1, Math.abs(correlation))) / Math.PI;
+	}
+
+	/**
+	 * Gets the least probability that a pair of columns with the given
+	 * correlation is a candidate. The probability is over the random
+	 * vectors, i.e. over the seed; missing values count as the mean of their
+	 * column.
+	 *
+	 * @param correlation
+	 *            the correlation of the pair
+	 * @return the probability that the pair is found
+	 */
+	public double recall(double correlation) {
+		return 1 - Math.pow(1 - Math.pow(collision(correlation), BAND_BITS),
+				this.bands);
+	}
+
+	/**
+	 * Summarizes the given column
+	 *
+	 * @param column
+	 *            the values of a variable
+	 * @return the signs of each band, with the opposite signs of the band
+	 *         folded onto the same value, or {@code null} if the column has no
+	 *         variance
+	 */
+	public int[] signature(Column column) {
+		return this.signature(column, this.vectors(column.size()));
+	}
+
+	/**
+	 * Draws the random vectors for columns of the given size
+	 *
+	 * @return the vectors, row-major: the components of row <i>t</i> start at
+	 *         <i>t</i>&middot;{@value #BAND_BITS}&middot;{@link #bands()}
+	 */
+	private double[] vectors(int rows) {
+		int bits = BAND_BITS * this.bands;
+		double[] out = new double[rows * bits];
+		Random random = new Random(this.seed);
+		for (int k = 0; k < out.length; k++)
+			out[k] = random.nextGaussian();
+		return out;
+	}
+
+	/**
+	 * Summarizes the given column with the given random vectors (see
+	 * {@link #signature(Column)})
+	 */
+	private int[] signature(Column column, double[] vectors) {
+		int bits = BAND_BITS * this.bands;
+		long[] mask = column.mask();
+		double mean = 0;
+		int k = 0;
+		for (int w = 0; w < mask.length; w++)
+			for (long m = mask[w]; m != 0; m &= m - 1)
+				mean += (column.get((w << 6) + Long.numberOfTrailingZeros(m)) - mean)
+						/ ++k;
+		double[] dot = new double[bits];
+		boolean varies = false;
+		for (int w = 0; w < mask.length; w++)
+			for (long m = mask[w]; m != 0; m &= m - 1) {
+				int t = (w << 6) + Long.numberOfTrailingZeros(m);
+				double d = column.get(t) - mean;
+				if (d == 0)
+					continue;
+				varies = true;
+				for (int b = 0, v = t * bits; b < bits; b++, v++)
+					dot[b] += d * vectors[v];
+			}
+		if (!varies)
+			return null;
+		int[] out = new int[this.bands];
+		for (int band = 0; band < out.length; band++) {
+			int signs = 0;
+			for (int b = 0; b < BAND_BITS; b++)
+				if (dot[band * BAND_BITS + b] > 0)
+					signs |= 1 << b;
+			out[band] = Math.min(signs, signs ^ MASK);
+		}
+		return out;
+	}
+
+	/**
+	 * Finds the pairs of an independent and a dependent variable that share
+	 * a band (see {@link #recall(double)})
+	 *
+	 * @param independent
+	 *            The variables assumed to be independent
+	 * @param dependent
+	 *            The variables assumed to be dependent
+	 * @return a {@code independent.length} by {@code dependent.length} table
+	 *         holding {@code true} for the candidate pairs
+	 * @throws IllegalArgumentException
+	 *             If the columns are not all of the same size
+	 */
+	public boolean[][] candidates(Column[] independent, Column[] dependent)
+			throws IllegalArgumentException {
+		Column[] columns = Arrays.copyOf(independent, independent.length
+				+ dependent.length);
+		System.arraycopy(dependent, 0, columns, independent.length,
+				dependent.length);
+		boolean[][] out = new boolean[independent.length][dependent.length];
+		for (long pair : this.pairs(columns, independent.length)) {
+			int i = (int) (pair >>> 32);
+			int j = (int) pair - independent.length;
+			out[i][j] = true;
+		}
+		return out;
+	}
+
+	/**
+	 * Finds the pairs of the given variables that share a band, signing each
+	 * variable once (see {@link #recall(double)})
+	 *
+	 * @param variables
+	 *            the column of each variable, keyed by name
+	 * @return the candidate pairs, as {first, second} in the order of
+	 *         {@code variables}
+	 * @throws IllegalArgumentException
+	 *             If the columns are not all of the same size
+	 */
+	public List<String[]> candidates(Map<String, Column> variables)
+			throws IllegalArgumentException {
+		String[] names = variables.keySet().toArray(new String[0]);
+		Column[] columns = new Column[names.length];
+		for (int i = 0; i < names.length; i++)
+			columns[i] = variables.get(names[i]);
+		long[] pairs = this.pairs(columns, 0);
+		Arrays.sort(pairs);
+		List<String[]> out = new ArrayList<String[]>(pairs.length);
+		for (long pair : pairs)
+			out.add(new String[] { names[(int) (pair >>> 32)],
+					names[(int) pair] });
+		return out;
+	}
+
+	/**
+	 * Finds the pairs of columns that share a band, by bucketing the columns
+	 * of each band by its signs
+	 *
+	 * @param split
+	 *            if positive, only pairs of a column before {@code split} and
+	 *            one after it are kept
+	 * @return the pairs, each as the index of the first column in the high
+	 *         half and that of the second in the low half
+	 * @throws IllegalArgumentException
+	 *             If the columns are not all of the same size
+	 */
+	private long[] pairs(Column[] columns, int split)
+			throws IllegalArgumentException {
+		int rows = columns.length > 0 ? columns[0].size() : 0;
+		for (Column c : columns)
+			if (c.size() != rows)
+				throw new IllegalArgumentException(
+						"All columns must have the same number of elements");
+		double[] vectors = this.vectors(rows);
+		int[][] signatures = new int[columns.length][];
+		for (int i = 0; i < columns.length; i++)
+			signatures[i] = this.signature(columns[i], vectors);
+
+		// one list of columns per value of the band, linked through next
+		int[] head = new int[1 << (BAND_BITS - 1)];
+		int[] next = new int[columns.length];
+		Set<Long> out = new HashSet<Long>();
+		for (int band = 0; band < this.bands; band++) {
+			Arrays.fill(head, -1);
+			for (int i = columns.length - 1; i >= 0; i--)
+				if (signatures[i] != null) {
+					int key = signatures[i][band];
+					next[i] = head[key];
+					head[key] = i;
+				}
+			for (int first : head)
+				for (int i = first; i >= 0; i = next[i])
+					for (int j = next[i]; j >= 0; j = next[j])
+						if (split <= 0 || (i < split && j >= split))
+							out.add(Long.valueOf((long) i << 32 | j));
+		}
+		long[] pairs = new long[out.size()];
+		int k = 0;
+		for (Long pair : out)
+			pairs[k++] = pair.longValue();
+		return pairs;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p/>
+	 * The dependency is computed exactly, without screening.
+	 */
+	@Override
+	public double dependency(Column X, Column Y)
+			throws IllegalArgumentException {
+		return this.exact.dependency(X, Y);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p/>
+	 * Only the candidate pairs (see {@link #candidates(Column[], Column[])})
+	 * are scored, by the exact measure; the other cells are
+	 * {@code Double.NEGATIVE_INFINITY}.
+	 */
+	@Override
+	public Double[][] getDependency(Column[] independent, Column[] dependent,
+			double minimum) throws IllegalArgumentException {
+		boolean[][] candidates = this.candidates(independent, dependent);
+		Double[][] out = new Double[independent.length][dependent.length];
+		boolean moments = this.exact instanceof SteMeasure;
+		for (int i = 0; i < out.length; i++)
+			for (int j = 0; j < out[i].length; j++) {
+				if (candidates[i][j] && moments) {
+					// both directions from a single pass
+					out[i][j] = Double.valueOf(PairMoments.of(independent[i],
+							dependent[j]).netDependency(minimum));
+					continue;
+				}
+				double forward = candidates[i][j] ? this.exact.dependency(
+						independent[i], dependent[j]) : Double.NaN;
+				if (forward > minimum)
+					out[i][j] = Double.valueOf(forward
+							- this.exact.dependency(dependent[j],
+									independent[i]));
+				else
+					out[i][j] = Double.valueOf(Double.NEGATIVE_INFINITY);
+			}
+		return out;
+	}
+
+	/**
+	 * Checks that pairs correlated at the bound (either way) are found at
+	 * least as often as {@link #recall(double)} promises, over many seeds,
+	 * that few unrelated pairs are candidates, that the candidates are scored
+	 * as by the exact measure (within rounding), and that the screen can be
+	 * found by name. Run with assertions enabled ({@code -ea}).
+	 *
+	 * @param args
+	 *            (ignored)
+	 * @throws AssertionError
+	 *             if a check fails
+	 * @since 0.02 2026-10-16
+	 */
+	public static void main(String[] args) throws AssertionError {
+		System.err.println("Validating class...");
+		Random random = new Random(18);
+		int rows = 40;
+		int trials = 400;
+		for (double correlation : new double[] { DEFAULT_BOUND,
+				-DEFAULT_BOUND, 0.9 }) {
+			int found = 0;
+			double promised = 0;
+			for (int trial = 0; trial < trials; trial++) {
+				SketchScreen screen = new SketchScreen(trial);
+				promised = screen.recall(correlation);
+				double[][] pair = correlated(random, rows, correlation);
+				Map<String, Column> variables = new LinkedHashMap<String, Column>();
+				variables.put("x", new Column(pair[0]));
+				variables.put("y", new Column(pair[1]));
+				found += screen.candidates(variables).size();
+			}
+			double error = Math.sqrt(promised * (1 - promised) / trials);
+			assert (double) found / trials >= promised - 3 * error : correlation
+					+ ": found " + found + " of " + trials + ", promised "
+					+ promised;
+		}
+
+		// unrelated columns rarely share a band
+		SketchScreen screen = new SketchScreen();
+		int variables = 300;
+		Map<String, Column> unrelated = new LinkedHashMap<String, Column>();
+		for (int i = 0; i < variables; i++)
+			unrelated.put(Integer.toString(i), new Column(correlated(random,
+					rows, 0)[0]));
+		int candidates = screen.candidates(unrelated).size();
+		assert candidates < .15 * variables * (variables - 1) / 2 : candidates
+				+ " candidates";
+
+		// the candidates are scored exactly; the others are discarded
+		Column[] independent = new Column[20];
+		Column[] dependent = new Column[20];
+		for (int i = 0; i < independent.length; i++) {
+			double[][] pair = correlated(random, rows, random.nextDouble());
+			independent[i] = new Column(pair[0]);
+			dependent[i] = new Column(pair[1]);
+		}
+		boolean[][] kept = screen.candidates(independent, dependent);
+		Double[][] screened = screen.getDependency(independent, dependent, .5);
+		Double[][] exact = DependencyMeasure.DEFAULT.getDependency(
+				independent, dependent, .5);
+		for (int i = 0; i < kept.length; i++)
+			for (int j = 0; j < kept[i].length; j++) {
+				double expected = kept[i][j] ? exact[i][j].doubleValue()
+						: Double.NEGATIVE_INFINITY;
+				double actual = screened[i][j].doubleValue();
+				assert actual == expected || Math.abs(actual - expected) < 1e-9 : actual
+						+ " vs " + expected;
+			}
+
+		assert DependencyMeasure.forName(NAME) instanceof SketchScreen;
+		System.err.println("Validation complete");
+	}
+
+	/**
+	 * Draws two columns whose sample correlation is exactly the given one
+	 */
+	private static double[][] correlated(Random random, int rows,
+			double correlation) {
+		double[] x = new double[rows];
+		double[] z = new double[rows];
+		for (int t = 0; t < rows; t++) {
+			x[t] = random.nextGaussian();
+			z[t] = random.nextGaussian();
+		}
+		// center both, make z orthogonal to x and give both unit length
+		for (double[] v : new double[][] { x, z }) {
+			double mean = 0;
+			for (double d : v)
+				mean += d / rows;
+			for (int t = 0; t < rows; t++)
+				v[t] -= mean;
+		}
+		double xz = 0;
+		double xx = 0;
+		for (int t = 0; t < rows; t++) {
+			xz += x[t] * z[t];
+			xx += x[t] * x[t];
+		}
+		for (int t = 0; t < rows; t++)
+			z[t] -= xz / xx * x[t];
+		double zz = 0;
+		for (int t = 0; t < rows; t++)
+			zz += z[t] * z[t];
+		double[] y = new double[rows];
+		for (int t = 0; t < rows; t++) {
+			x[t] /= Math.sqrt(xx);
+			y[t] = correlation * x[t] + Math.sqrt(1 - correlation * correlation)
+					* z[t] / Math.sqrt(zz) + 10;
+			x[t] += 10;
+		}
+		return new double[][] { x, y };
+	}
+
+	@Override
+	public String toString() {
+		return NAME + "(" + this.bands + " bands of " + BAND_BITS
+				+ " signs, recall " + this.recall(this.bound) + " at "
+				+ this.bound + ", then " + this.exact + ")";
+	}
+}
@@ -0,0 +1,464 @@
+package edu.missouri.bayesianConstructor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import edu.ucla.structure.DirectedEdge;
+import edu.ucla.structure.DirectedGraph;
+
+/**
+ * Follows how the structure of a model changes with the years, by building
+ * it over a window of consecutive rows that slides along the data.
+ * <p/>
+ * Windows hold {@code width} rows and start every {@code stride} rows. Rather
+ * than building each window from scratch, the moments of every relation are
+ * kept from one window to the next: the rows entering the window are merged
+ * into them and the rows leaving it are removed (see
+ * {@link PairMoments#subtract(PairMoments)}), so every row is summarized at
+ * most twice and the whole report costs about as much as a single build. When
+ * the stride is larger than the width, windows do not overlap and each one is
+ * summarized on its own. Measures other than the
+ * {@link DependencyMeasure#DEFAULT default} cannot be kept this way, so with
+ * them each window is built from its own rows.
+ * <p/>
+ * For each window, the report holds the relations between variables (as
+ * {@link DomainKnowledge#variableDependency(Double)} finds them) and the
+ * relations gained and lost since the window before it.
+ *
+ * @author <a href="mailto:fthc8@missouri.edu">Fernando J. Torre-Mora</a>
+ * @version 0.04 2026-10-16
+ * @since {@code bayesianConstructor} version 0.42 2026-10-16
+ */
+public class SlidingWindow {
+	/** The number of rows of each window */
+	private final int width;
+
+	/** The number of rows between the starts of consecutive windows */
+	private final int stride;
+
+	/** The measure the dependencies are scored with */
+	private final DependencyMeasure measure;
+
+	/** Value for the forward dependency below which a cell is discarded */
+	private final double minimum;
+
+	/** Minimum dependency for two variables to be related */
+	private final Double threshold;
+
+	/**
+	 * The structure of the model over one window
+	 */
+	public static final class Window {
+		/** The first row of the window */
+		private final int start;
+
+		/** The row after the last row of the window */
+		private final int end;
+
+		/** The relations between variables */
+		private final DirectedGraph graph;
+
+		/** The relations between variables, as {parent, child} edges */
+		private final Set<DirectedEdge> edges;
+
+		/** The relations not in the window before */
+		private final Set<DirectedEdge> added;
+
+		/** The relations of the window before that are not in this one */
+		private final Set<DirectedEdge> removed;
+
+		Window(int start, int end, DirectedGraph graph, Set<DirectedEdge> edges,
+				Set<DirectedEdge> previous) {
+			this.start = start;
+			this.end = end;
+			this.graph = graph;
+			this.edges = Collections.unmodifiableSet(edges);
+			Set<DirectedEdge> added = new LinkedHashSet<DirectedEdge>(edges);
+			added.removeAll(previous);
+			Set<DirectedEdge> removed = new LinkedHashSet<DirectedEdge>(
+					previous);
+			removed.removeAll(edges);
+			this.added = Collections.unmodifiableSet(added);
+			this.removed = Collections.unmodifiableSet(removed);
+		}
+
+		/**
+		 * Gets the first row of the window
+		 *
+		 * @return the index of the first row
+		 */
+		public int start() {
+			return this.start;
+		}
+
+		/**
+		 * Gets the end of the window
+		 *
+		 * @return the index of the row after the last row
+		 */
+		public int end() {
+			return this.end;
+		}
+
+		/**
+		 * Gets the relations between the variables of the model over this
+		 * window (see {@link DomainKnowledge#variableDependency(Double)})
+		 *
+		 * @return the variable graph
+		 */
+		public DirectedGraph graph() {
+			return this.graph;
+		}
+
+		/**
+		 * Gets the relations between the variables of the model over this
+		 * window
+		 *
+		 * @return the arcs of {@link #graph()}, as edges from the independent
+		 *         variable to the dependent one
+		 */
+		public Set<DirectedEdge> edges() {
+			return this.edges;
+		}
+
+		/**
+		 * Gets the relations gained since the window before
+		 *
+		 * @return the edges of this window that were not in the window before;
+		 *         for the first window, all of them
+		 */
+		public Set<DirectedEdge> added() {
+			return this.added;
+		}
+
+		/**
+		 * Gets the relations lost since the window before
+		 *
+		 * @return the edges of the window before that are not in this one
+		 */
+		public Set<DirectedEdge> removed() {
+			return this.removed;
+		}
+
+		@Override
+		public String toString() {
+			return "rows " + this.start + "-" + (this.end - 1) + ": "
+					+ this.edges.size() + " arcs, +" + this.added.size() + " -"
+					+ this.removed.size();
+		}
+	}
+
+	/**
+	 * Creates a report over windows of the given size, scoring the
+	 * dependencies with the {@link DependencyMeasure#DEFAULT default measure}
+	 *
+	 * @param width
+	 *            the number of rows of each window
+	 * @param stride
+	 *            the number of rows between the starts of consecutive windows
+	 * @param minimum
+	 *            Value for the forward dependency below which a cell is
+	 *            discarded (see {@link PairMoments#netDependency(double)})
+	 * @param threshold
+	 *            Minimum dependency for two variables to be related (see
+	 *            {@link DomainKnowledge#variableDependency(Double)})
+	 * @throws IllegalArgumentException
+	 *             if {@code width} or {@code stride} is not positive
+	 */
+	public SlidingWindow(int width, int stride, double minimum,
+			Double threshold) throws IllegalArgumentException {
+		this(width, stride, DependencyMeasure.DEFAULT, minimum, threshold);
+	}
+
+	/**
+	 * Creates a report over windows of the given size, scoring the
+	 * dependencies with the given measure
+	 *
+	 * @param width
+	 *            the number of rows of each window
+	 * @param stride
+	 *            the number of rows between the starts of consecutive windows
+	 * @param measure
+	 *            the measure the dependencies are scored with
+	 * @param minimum
+	 *            Value for the forward dependency below which a cell is
+	 *            discarded (see {@link DependencyMeasure#defaultMinimum()})
+	 * @param threshold
+	 *            Minimum dependency for two variables to be related (see
+	 *            {@link DomainKnowledge#variableDependency(Double)})
+	 * @throws IllegalArgumentException
+	 *             if {@code width} or {@code stride} is not positive
+	 * @since 0.02 2026-10-16
+	 */
+	public SlidingWindow(int width, int stride, DependencyMeasure measure,
+			double minimum, Double threshold) throws IllegalArgumentException {
+		if (width <= 0 || stride <= 0)
+			throw new IllegalArgumentException(
+					"The width and stride must be positive");
+		this.width = width;
+		this.stride = stride;
+		this.measure = measure;
+		this.minimum = minimum;
+		this.threshold = threshold;
+	}
+
+	/**
+	 * Builds the structure of {@code m} over every window of the given data.
+	 * When done, the dependency tables of {@code m} are those of the last
+	 * window.
+	 *
+	 * @param m
+	 *            the model whose structure is followed, with its layers and
+	 *            relations already in place
+	 * @param columns
+	 *            the columns of each layer, keyed by layer name, in the same
+	 *            order as the layer's variables, with one row per year
+	 * @return the structure over each window, in order; no windows if there
+	 *         are fewer rows than {@code width}
+	 * @throws IllegalArgumentException
+	 *             if the columns do not match the layers of {@code m} or are
+	 *             not all of the same size
+	 */
+	public List<Window> evolve(DomainKnowledge m, Map<String, Column[]> columns)
+			throws IllegalArgumentException {
+		List<String[]> edges = DependencyBuilder.edges(m);
+		int rows = -1;
+		for (String layer : DependencyBuilder.layers(m, edges, columns))
+			for (Column c : columns.get(layer)) {
+				if (rows >= 0 && c.size() != rows)
+					throw new IllegalArgumentException(
+							"All columns must have the same number of elements");
+				rows = c.size();
+			}
+
+		List<Window> out = new ArrayList<Window>();
+		if (!(this.measure instanceof SteMeasure)) {
+			DependencyBuilder builder = new DependencyBuilder();
+			Set<DirectedEdge> previous = Collections.emptySet();
+			int start = 0;
+			for (int end = this.width; end <= rows; start += this.stride, end = start
+					+ this.width) {
+				builder.buildColumns(m, slices(edges, columns, start, end),
+						this.minimum, this.measure);
+				DirectedGraph graph = m.variableDependency(this.threshold);
+				Set<DirectedEdge> current = edges(graph);
+				out.add(new Window(start, end, graph, current, previous));
+				previous = current;
+			}
+			return out;
+		}
+		Map<DirectedEdge, LayerMoments> moments = null;
+		Set<DirectedEdge> previous = Collections.emptySet();
+		int start = 0;
+		for (int end = this.width; end <= rows; start += this.stride, end = start
+				+ this.width) {
+			if (moments == null || this.stride >= this.width)
+				moments = segment(edges, columns, start, end);
+			else {
+				// slide: the rows entering and the rows leaving
+				Map<DirectedEdge, LayerMoments> entering = segment(edges,
+						columns, end - this.stride, end);
+				Map<DirectedEdge, LayerMoments> leaving = segment(edges,
+						columns, start - this.stride, start);
+				for (Map.Entry<DirectedEdge, LayerMoments> e : moments
+						.entrySet())
+					e.getValue().merge(entering.get(e.getKey()))
+							.subtract(leaving.get(e.getKey()));
+			}
+			DependencyBuilder.tabulate(m, moments, this.minimum);
+			DirectedGraph graph = m.variableDependency(this.threshold);
+			Set<DirectedEdge> current = edges(graph);
+			out.add(new Window(start, end, graph, current, previous));
+			previous = current;
+		}
+		return out;
+	}
+
+	/**
+	 * Lists the arcs of a variable graph (see
+	 * {@link DomainKnowledge#variableDependency(Double)})
+	 *
+	 * @return the arcs, as edges from the parent to the child
+	 */
+	private static Set<DirectedEdge> edges(DirectedGraph graph) {
+		Set<DirectedEdge> out = new LinkedHashSet<DirectedEdge>();
+		for (Object parent : graph.vertices())
+			for (Object child : graph.outGoing(parent))
+				out.add(new DirectedEdge(parent, child));
+		return out;
+	}
+
+	/**
+	 * Gets the rows {@code from} to {@code to} (exclusive) of the columns of
+	 * every layer in a relation
+	 */
+	private static Map<String, Column[]> slices(List<String[]> edges,
+			Map<String, Column[]> columns, int from, int to) {
+		Map<String, Column[]> out = new LinkedHashMap<String, Column[]>();
+		for (String layer : DependencyBuilder.layers(edges, columns)) {
+			Column[] layerColumns = columns.get(layer);
+			Column[] slice = new Column[layerColumns.length];
+			for (int i = 0; i < slice.length; i++)
+				slice[i] = layerColumns[i].slice(from, to);
+			out.put(layer, slice);
+		}
+		return out;
+	}
+
+	/**
+	 * Computes the moments of every relation over rows {@code from} to
+	 * {@code to} (exclusive)
+	 */
+	private static Map<DirectedEdge, LayerMoments> segment(
+			List<String[]> edges, Map<String, Column[]> columns, int from,
+			int to) {
+		Map<String, Column[]> slices = slices(edges, columns, from, to);
+		Map<DirectedEdge, LayerMoments> out = new LinkedHashMap<DirectedEdge, LayerMoments>();
+		for (String[] edge : edges)
+			out.put(new DirectedEdge(edge[0], edge[1]), LayerMoments.compute(
+					slices.get(edge[0]), slices.get(edge[1])));
+		return out;
+	}
+
+	/**
+	 * Checks, for random data and windows that overlap, touch or leave gaps,
+	 * that the tables of every window agree with those the code the moments
+	 * replaced ({@link Main#serialDependency(double[][], double[][], double)})
+	 * computes from the rows of that window alone, within
+	 * {@link Main#TOLERANCE}, and that its relations are those of a model
+	 * holding the serial tables; that the relations gained and lost are the
+	 * difference with the window before; and that, with a measure the moments
+	 * cannot keep, every window holds the measure's own tables over its rows.
+	 * Since only the tables of the last window are kept, the report is made
+	 * again with the rows up to the end of each window. Windows are at least
+	 * 30 rows wide, since the removal of rows from smaller ones is only exact
+	 * up to rounding on the rows left. Run with assertions enabled
+	 * ({@code -ea}).
+	 *
+	 * @param args
+	 *            (ignored)
+	 * @throws AssertionError
+	 *             if a window disagrees
+	 * @since 0.04 2026-10-16
+	 */
+	public static void main(String[] args) throws AssertionError {
+		System.err.println("Validating class...");
+		Random random = new Random(97);
+		for (int test = 0; test < 30; test++) {
+			int rows = 40 + random.nextInt(200);
+			double[] factor = Main.factor(random, rows);
+			List<String> layers = new ArrayList<String>();
+			Map<String, List<String>> variables = new LinkedHashMap<String, List<String>>();
+			Map<String, double[][]> values = new LinkedHashMap<String, double[][]>();
+			DomainKnowledge expected = new DomainKnowledge(3);
+			for (int l = 0; l < 3; l++) {
+				String layer = "L" + l;
+				double[][] x = Main.sample(random, factor,
+						1 + random.nextInt(5));
+				List<String> names = new ArrayList<String>();
+				for (int i = 0; i < x.length; i++)
+					names.add(layer + "v" + i);
+				layers.add(layer);
+				values.put(layer, x);
+				variables.put(layer, names);
+				expected.addLayer(layer, names);
+			}
+			expected.addDependency("L0", "L1");
+			expected.addDependency("L0", "L2");
+			expected.addDependency("L1", "L2");
+			int width = 30 + random.nextInt(rows - 30);
+			int stride = 1 + random.nextInt(width + 10);
+			double minimum = random.nextBoolean() ? Double.NEGATIVE_INFINITY
+					: 0.5;
+			Double threshold = new Double(random.nextDouble());
+			DependencyMeasure measure = test % 3 == 2 ? new SpearmanMeasure()
+					: DependencyMeasure.DEFAULT;
+			SlidingWindow sliding = new SlidingWindow(width, stride, measure,
+					minimum, threshold);
+
+			List<Window> windows = null;
+			Set<DirectedEdge> previous = Collections.emptySet();
+			for (int start = 0, w = 0; start + width <= rows; start += stride, w++) {
+				int end = start + width;
+				Map<String, Column[]> columns = new LinkedHashMap<String, Column[]>();
+				for (String layer : layers)
+					columns.put(layer, Column.of(values.get(layer)));
+				for (Column[] layer : columns.values())
+					for (int i = 0; i < layer.length; i++)
+						layer[i] = layer[i].slice(0, end);
+				DomainKnowledge m = new DomainKnowledge(3);
+				for (String layer : layers)
+					m.addLayer(layer, variables.get(layer));
+				for (String[] e : DependencyBuilder.edges(expected))
+					m.addDependency(e[0], e[1]);
+				List<Window> report = sliding.evolve(m, columns);
+				assert report.size() == w + 1 : "Window " + w + " of "
+						+ report.size();
+				if (windows != null)
+					for (int k = 0; k < w; k++)
+						assert report.get(k).edges()
+								.equals(windows.get(k).edges()) : "Window "
+								+ k + " changed with more rows";
+				windows = report;
+
+				for (String[] e : DependencyBuilder.edges(expected)) {
+					double[][] x = window(values.get(e[0]), start, end);
+					double[][] y = window(values.get(e[1]), start, end);
+					Double[][] actual = m.getDependencyTable(e[0], e[1]);
+					if (measure instanceof SteMeasure) {
+						Double[][] serial = Main.serialDependency(x, y, minimum);
+						assert Main.agree(actual, serial, Main.TOLERANCE) : "Rows "
+								+ start + "-" + end + ": " + e[0] + "->" + e[1]
+								+ " disagrees with the serial table";
+						expected.setDependency(e[0], e[1], serial);
+					} else {
+						assert Main.agree(actual, measure.getDependency(
+								Column.of(x), Column.of(y), minimum), 0) : "Rows "
+								+ start + "-" + end + ": " + e[0] + "->" + e[1]
+								+ " is not the measure's table";
+						expected.setDependency(e[0], e[1], actual);
+					}
+				}
+				Window window = report.get(w);
+				assert window.start() == start && window.end() == end;
+				assert window.edges().equals(
+						edges(expected.variableDependency(threshold))) : "Rows "
+						+ start + "-" + end + " have other relations";
+				Set<DirectedEdge> added = new LinkedHashSet<DirectedEdge>(
+						window.edges());
+				added.removeAll(previous);
+				Set<DirectedEdge> removed = new LinkedHashSet<DirectedEdge>(
+						previous);
+				removed.removeAll(window.edges());
+				assert window.added().equals(added)
+						&& window.removed().equals(removed) : "Rows " + start
+						+ "-" + end + " changed otherwise";
+				previous = window.edges();
+			}
+		}
+		System.err.println("Validation complete");
+	}
+
+	/**
+	 * Copies rows {@code from} to {@code to} (exclusive) of every column
+	 */
+	private static double[][] window(double[][] columns, int from, int to) {
+		double[][] out = new double[columns.length][];
+		for (int i = 0; i < out.length; i++)
+			out[i] = Arrays.copyOfRange(columns[i], from, to);
+		return out;
+	}
+
+	@Override
+	public String toString() {
+		return "SlidingWindow[width " + this.width + ", stride " + this.stride
+				+ ", " + this.measure + "]";
+	}
+}
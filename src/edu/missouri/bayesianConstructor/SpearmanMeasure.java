@@ -0,0 +1,400 @@
+package edu.missouri.bayesianConstructor;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Scores dependencies like {@link SteMeasure}, but measures the strength of
+ * the association by Spearman's rank correlation rather than by the linear
+ * correlation of the values, so that a few extreme values of heavy-tailed
+ * indicators (portfolio investment, trademark counts) do not dominate it.
+ * <p/>
+ * The standard error of estimate of the regression of <i>Y</i> on <i>X</i>
+ * can be written as <i>s<sub>Y</sub></i>&radic;((1&minus;&rho;&sup2;)
+ * (<i>n</i>&minus;1)/(<i>n</i>&minus;2)), where &rho; is the correlation of
+ * <i>X</i> and <i>Y</i> and <i>s<sub>Y</sub></i> the standard deviation of
+ * <i>Y</i>. This measure takes &rho; to be the rank correlation instead, so
+ * the dependency of <i>Y</i> on <i>X</i> is
+ * 1&minus;&radic;((1&minus;&rho;<sub><i>s</i></sub>&sup2;)
+ * (<i>n</i>&minus;1)/(<i>n</i>&minus;2))&middot;<i>s<sub>Y</sub></i>/<i>Y</i>&#x305;,
+ * on the same scale as the standard error of estimate, so the same minimum
+ * and thresholds apply. The coefficient of variation
+ * <i>s<sub>Y</sub></i>/<i>Y</i>&#x305; is taken from every known value of
+ * <i>Y</i>, and is what makes the forward and backward dependencies differ.
+ * <p/>
+ * The ranks of each column (the average rank for tied values, {@code NaN}
+ * where the value is missing) are computed once and kept in a bounded cache
+ * keyed by the column's {@link Column#fingerprint() fingerprint}, so a column
+ * is sorted only once no matter how many pairs or tables it takes part in.
+ * Each pair then costs a single pass of the blocked moment kernel of
+ * {@link LayerMoments} over the ranks. Rows where either value is missing
+ * are skipped; the ranks of the other rows are not recomputed, so with
+ * missing values &rho;<sub><i>s</i></sub> is the correlation of the
+ * per-column ranks over the rows both variables share. This class is
+ * thread-safe.
+ *
+ * @author <a href="mailto:fthc8@missouri.edu">Fernando J. Torre-Mora</a>
+ * @version 0.02 2026-10-16
+ * @since {@code bayesianConstructor} version 0.36 2026-10-16
+ */
+public class SpearmanMeasure implements DependencyMeasure {
+	/** The name of this measure */
+	public static final String NAME = "spearman";
+
+	/** Number of ranked columns kept by default */
+	public static final int DEFAULT_CAPACITY = 1 << 12;
+
+	/** The ranked columns, in access order */
+	private final LinkedHashMap<Long, Ranked> ranked;
+
+	/**
+	 * Creates a measure that keeps the ranks of up to
+	 * {@value #DEFAULT_CAPACITY} columns
+	 */
+	public SpearmanMeasure() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Creates a measure that keeps the ranks of up to the given number of
+	 * columns
+	 *
+	 * @param capacity
+	 *            the maximum number of ranked columns to be kept
+	 * @throws IllegalArgumentException
+	 *             if {@code capacity} is not positive
+	 */
+	public SpearmanMeasure(final int capacity) throws IllegalArgumentException {
+		if (capacity <= 0)
+			throw new IllegalArgumentException("capacity must be positive");
+		this.ranked = new LinkedHashMap<Long, Ranked>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Long, Ranked> eldest) {
+				return this.size() > capacity;
+			}
+		};
+	}
+
+	@Override
+	public String name() {
+		return NAME;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @return 0.5, as for {@link SteMeasure}
+	 */
+	@Override
+	public double defaultMinimum() {
+		return 0.5;
+	}
+
+	/**
+	 * Gets the ranks of the given column, computing them only if they are not
+	 * cached
+	 *
+	 * @param column
+	 *            the values of a variable
+	 * @return a column of the same size holding, in each row, the rank (from
+	 *         1 to {@code column.validCount()}) of the value among the known
+	 *         values of the column, the average rank if it is tied, or
+	 *         {@code NaN} if it is missing
+	 */
+	public Column ranks(Column column) {
+		return this.rank(column).ranks;
+	}
+
+	/**
+	 * Gets the ranks and coefficient of variation of the given column,
+	 * computing them only if they are not cached
+	 */
+	private Ranked rank(Column column) {
+		Long key = Long.valueOf(column.fingerprint());
+		synchronized (this.ranked) {
+			Ranked found = this.ranked.get(key);
+			if (found != null)
+				return found;
+		}
+		Ranked out = new Ranked(column);
+		synchronized (this.ranked) {
+			this.ranked.put(key, out);
+		}
+		return out;
+	}
+
+	/**
+	 * Computes the dependency of <i>Y</i> on <i>X</i> from the moments of
+	 * their ranks and the coefficient of variation of <i>Y</i>
+	 */
+	private static double score(PairMoments ranks, double variation) {
+		if (ranks.count() == 0)
+			return Double.NaN;
+		double n = ranks.count();
+		double rho = ranks.coMoment() / Math.sqrt(ranks.m2X() * ranks.m2Y());
+		return 1 - Math.sqrt((1 - rho * rho) * (n - 1) / (n - 2)) * variation;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p/>
+	 * The ranks of each column are looked up in, or stored in, the cache.
+	 */
+	@Override
+	public double dependency(Column X, Column Y)
+			throws IllegalArgumentException {
+		Ranked x = this.rank(X);
+		Ranked y = this.rank(Y);
+		return score(PairMoments.of(x.ranks, y.ranks), y.variation);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p/>
+	 * The moments of the ranks of every cell are computed in one blocked sweep
+	 * (see {@link LayerMoments#compute(Column[], Column[])}).
+	 */
+	@Override
+	public Double[][] getDependency(Column[] independent, Column[] dependent,
+			double minimum) throws IllegalArgumentException {
+		Ranked[] x = new Ranked[independent.length];
+		Column[] xRanks = new Column[x.length];
+		for (int i = 0; i < x.length; i++) {
+			x[i] = this.rank(independent[i]);
+			xRanks[i] = x[i].ranks;
+		}
+		Ranked[] y = new Ranked[dependent.length];
+		Column[] yRanks = new Column[y.length];
+		for (int j = 0; j < y.length; j++) {
+			y[j] = this.rank(dependent[j]);
+			yRanks[j] = y[j].ranks;
+		}
+		LayerMoments moments = LayerMoments.compute(xRanks, yRanks);
+		Double[][] out = new Double[x.length][y.length];
+		for (int i = 0; i < x.length; i++)
+			for (int j = 0; j < y.length; j++) {
+				PairMoments p = moments.get(i, j);
+				double forward = score(p, y[j].variation);
+				if (forward > minimum)
+					out[i][j] = Double.valueOf(forward
+							- score(p.reverse(), x[i].variation));
+				else
+					out[i][j] = Double.valueOf(Double.NEGATIVE_INFINITY);
+			}
+		return out;
+	}
+
+	@Override
+	public String toString() {
+		synchronized (this.ranked) {
+			return NAME + "(" + this.ranked.size() + " ranked columns)";
+		}
+	}
+
+	/**
+	 * Checks, for random columns with missing values and ties, that the ranks
+	 * are those found by counting the smaller and equal values of each row;
+	 * that every score agrees, within {@link Main#TOLERANCE}, with the one
+	 * computed in two passes over those ranks (as
+	 * {@link Main#serialDependency(double[], double[])} does over the
+	 * values); that the tables hold the forward score minus the backward one
+	 * above the minimum; and that copies of a column share its ranks. Run with
+	 * assertions enabled ({@code -ea}).
+	 *
+	 * @param args
+	 *            (ignored)
+	 * @throws AssertionError
+	 *             if a score disagrees
+	 * @since 0.02 2026-10-16
+	 */
+	public static void main(String[] args) throws AssertionError {
+		System.err.println("Validating class...");
+		Random random = new Random(103);
+		for (int test = 0; test < 100; test++) {
+			int rows = 5 + random.nextInt(200);
+			double[] factor = Main.factor(random, rows);
+			double[][] x = Main.sample(random, factor, 1 + random.nextInt(4));
+			double[][] y = Main.sample(random, factor, 1 + random.nextInt(4));
+			// about half the columns have ties
+			for (double[][] layer : new double[][][] { x, y })
+				for (double[] column : layer)
+					if (random.nextBoolean())
+						for (int t = 0; t < rows; t++)
+							column[t] = Math.rint(column[t]);
+			SpearmanMeasure measure = new SpearmanMeasure(2 + random.nextInt(8));
+			double[][] rx = new double[x.length][];
+			double[][] ry = new double[y.length][];
+			for (int i = 0; i < x.length; i++)
+				rx[i] = check(measure, x[i]);
+			for (int j = 0; j < y.length; j++)
+				ry[j] = check(measure, y[j]);
+
+			double minimum = random.nextBoolean() ? Double.NEGATIVE_INFINITY
+					: 0.5;
+			Double[][] table = measure.getDependency(Column.of(x),
+					Column.of(y), minimum);
+			for (int i = 0; i < x.length; i++)
+				for (int j = 0; j < y.length; j++) {
+					double forward = serial(rx[i], ry[j], y[j]);
+					double backward = serial(ry[j], rx[i], x[i]);
+					assert Main.agree(measure.dependency(new Column(x[i]),
+							new Column(y[j])), forward, Main.TOLERANCE) : "Test "
+							+ test + ": the score of " + i + ", " + j
+							+ " disagrees";
+					double expected = forward > minimum ? forward - backward
+							: Double.NEGATIVE_INFINITY;
+					assert Main.agree(table[i][j].doubleValue(), expected,
+							Main.TOLERANCE) : "Test " + test + ": cell " + i
+							+ ", " + j + " is " + table[i][j] + " instead of "
+							+ expected;
+				}
+		}
+		System.err.println("Validation complete");
+	}
+
+	/**
+	 * Checks the ranks of a column against those found by counting, and that
+	 * a copy of the column shares them
+	 *
+	 * @return the ranks found by counting
+	 */
+	private static double[] check(SpearmanMeasure measure, double[] values)
+			throws AssertionError {
+		double[] expected = new double[values.length];
+		for (int t = 0; t < values.length; t++) {
+			expected[t] = Double.NaN;
+			if (Double.isNaN(values[t]))
+				continue;
+			int less = 0;
+			int equal = 0;
+			for (double v : values)
+				if (v < values[t])
+					less++;
+				else if (v == values[t])
+					equal++;
+			expected[t] = less + (equal + 1) / 2.0;
+		}
+		Column ranks = measure.ranks(new Column(values));
+		for (int t = 0; t < values.length; t++)
+			assert Double.compare(ranks.get(t), expected[t]) == 0 : "Row " + t
+					+ " is ranked " + ranks.get(t) + " instead of "
+					+ expected[t];
+		assert measure.ranks(new Column(values.clone())) == ranks : "A copy was ranked again";
+		return expected;
+	}
+
+	/**
+	 * Computes the score of <i>Y</i> on <i>X</i> in two passes, from their
+	 * ranks over the rows both are known and the coefficient of variation of
+	 * every known value of <i>Y</i>
+	 */
+	private static double serial(double[] rankX, double[] rankY, double[] Y) {
+		double n = 0;
+		double meanX = 0;
+		double meanY = 0;
+		for (int t = 0; t < rankX.length; t++)
+			if (!Double.isNaN(rankX[t]) && !Double.isNaN(rankY[t])) {
+				n++;
+				meanX += rankX[t];
+				meanY += rankY[t];
+			}
+		if (n == 0)
+			return Double.NaN;
+		meanX /= n;
+		meanY /= n;
+		double sxx = 0;
+		double syy = 0;
+		double sxy = 0;
+		for (int t = 0; t < rankX.length; t++)
+			if (!Double.isNaN(rankX[t]) && !Double.isNaN(rankY[t])) {
+				sxx += (rankX[t] - meanX) * (rankX[t] - meanX);
+				syy += (rankY[t] - meanY) * (rankY[t] - meanY);
+				sxy += (rankX[t] - meanX) * (rankY[t] - meanY);
+			}
+		double rho = sxy / Math.sqrt(sxx * syy);
+
+		double known = 0;
+		double mean = 0;
+		for (double v : Y)
+			if (!Double.isNaN(v)) {
+				known++;
+				mean += v;
+			}
+		mean /= known;
+		double squares = 0;
+		for (double v : Y)
+			if (!Double.isNaN(v))
+				squares += (v - mean) * (v - mean);
+		double variation = Math.sqrt(squares / (known - 1)) / mean;
+		return 1 - Math.sqrt((1 - rho * rho) * (n - 1) / (n - 2)) * variation;
+	}
+
+	/** The ranks of a column and its coefficient of variation */
+	private static class Ranked {
+		/** The rank of each value, or {@code NaN} if it is missing */
+		final Column ranks;
+
+		/**
+		 * The sample standard deviation of the known values over their mean
+		 */
+		final double variation;
+
+		/**
+		 * Ranks the given column. Tied values get the average of the ranks
+		 * they span, found as the midpoint of their run in the sorted values.
+		 */
+		Ranked(Column column) {
+			long[] mask = column.mask();
+			double[] sorted = new double[column.validCount()];
+			int k = 0;
+			for (int w = 0; w < mask.length; w++)
+				for (long bits = mask[w]; bits != 0; bits &= bits - 1)
+					sorted[k++] = column.get((w << 6)
+							+ Long.numberOfTrailingZeros(bits));
+
+			// Welford, in the order the values appear
+			double mean = 0;
+			double m2 = 0;
+			for (int t = 0; t < sorted.length; t++) {
+				double delta = sorted[t] - mean;
+				mean += delta / (t + 1);
+				m2 += delta * (sorted[t] - mean);
+			}
+			this.variation = Math.sqrt(m2 / (sorted.length - 1)) / mean;
+
+			Arrays.sort(sorted);
+			double[] out = new double[column.size()];
+			Arrays.fill(out, Double.NaN);
+			for (int w = 0; w < mask.length; w++)
+				for (long bits = mask[w]; bits != 0; bits &= bits - 1) {
+					int t = (w << 6) + Long.numberOfTrailingZeros(bits);
+					double v = column.get(t);
+					int first = firstIndex(sorted, v);
+					int last = firstIndex(sorted, Math.nextUp(v)) - 1;
+					out[t] = (first + last) / 2.0 + 1;
+				}
+			this.ranks = new Column(out);
+		}
+
+		/**
+		 * Finds the first position of the sorted array holding a value not
+		 * less than {@code v}
+		 */
+		private static int firstIndex(double[] sorted, double v) {
+			int low = 0;
+			int high = sorted.length;
+			while (low < high) {
+				int middle = (low + high) >>> 1;
+				if (sorted[middle] < v)
+					low = middle + 1;
+				else
+					high = middle;
+			}
+			return low;
+		}
+	}
+}
@@ -0,0 +1,96 @@
+package edu.missouri.bayesianConstructor;
+
+import java.util.Random;
+
+/**
+ * The dependency measure used since the first version of this package: the
+ * dependency of <i>Y</i> on <i>X</i> is
+ * 1&minus;<i>STE</i>(<i>X</i>&rarr;<i>Y</i>)/<i>Y</i>&#x305;, where
+ * <i>STE</i> is the standard error of estimate of the regression of <i>Y</i>
+ * on <i>X</i> (see {@link Main#dependency(java.util.List, java.util.List)}).
+ * <p/>
+ * Both directions of every cell are derived from the {@link PairMoments} of
+ * the pair, and whole tables are computed with the blocked kernel of
+ * {@link LayerMoments}, so the results are identical to those of
+ * {@link Main#getDependency(double[][], double[][], double)}. Like those, as
+ * of version 0.03 the moments are looked up in, and stored in, the
+ * {@link DependencyCache#shared() shared cache}, and only tables with a pair
+ * missing from it are swept.
+ *
+ * @author <a href="mailto:fthc8@missouri.edu">Fernando J. Torre-Mora</a>
+ * @version 0.03 2026-10-16
+ * @since {@code bayesianConstructor} version 0.35 2026-10-16
+ */
+public class SteMeasure implements DependencyMeasure {
+	/** The name of this measure */
+	public static final String NAME = "ste";
+
+	@Override
+	public String name() {
+		return NAME;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @return 0.5
+	 */
+	@Override
+	public double defaultMinimum() {
+		return 0.5;
+	}
+
+	@Override
+	public double dependency(Column X, Column Y)
+			throws IllegalArgumentException {
+		return DependencyCache.shared().dependency(X, Y);
+	}
+
+	@Override
+	public Double[][] getDependency(Column[] independent, Column[] dependent,
+			double minimum) throws IllegalArgumentException {
+		return DependencyCache.shared().getDependency(independent, dependent,
+				minimum);
+	}
+
+	/**
+	 * Checks that the scores and tables of random columns with missing values
+	 * agree with those of the two-pass computation this measure replaced
+	 * ({@link Main#serialDependency(double[], double[])} and
+	 * {@link Main#serialDependency(double[][], double[][], double)}) within
+	 * {@link Main#TOLERANCE}. Run with assertions enabled ({@code -ea}).
+	 *
+	 * @param args
+	 *            (ignored)
+	 * @throws AssertionError
+	 *             if a score disagrees
+	 * @since 0.02 2026-10-16
+	 */
+	public static void main(String[] args) throws AssertionError {
+		System.err.println("Validating class...");
+		DependencyMeasure measure = new SteMeasure();
+		Random random = new Random(59);
+		for (int test = 0; test < 200; test++) {
+			int rows = 10 + random.nextInt(200);
+			double[] factor = Main.factor(random, rows);
+			double[][] x = Main.sample(random, factor, 1 + random.nextInt(5));
+			double[][] y = Main.sample(random, factor, 1 + random.nextInt(5));
+			for (int i = 0; i < x.length; i++)
+				for (int j = 0; j < y.length; j++)
+					assert Main.agree(measure.dependency(new Column(x[i]),
+							new Column(y[j])), Main.serialDependency(x[i],
+							y[j]), Main.TOLERANCE) : "Cell " + i + ", " + j;
+			double minimum = random.nextBoolean() ? Double.NEGATIVE_INFINITY
+					: measure.defaultMinimum();
+			assert Main.agree(measure.getDependency(Column.of(x),
+					Column.of(y), minimum), Main.serialDependency(x, y,
+					minimum), Main.TOLERANCE) : "Table of " + rows + " rows";
+		}
+		System.err.println("Validation complete");
+	}
+
+	@Override
+	public String toString() {
+		return NAME;
+	}
+}
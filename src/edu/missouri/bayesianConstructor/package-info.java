@@ -11,7 +11,7 @@
  *  
  * 
  * @author	<a href="mailto:fthc8@missouri.edu">Fernando J. Torre-Mora</a> 
- * @version	0.22 2016-04-25
+ * @version	0.77 2026-10-16
  * 
  * <h2>Version history</h2>
  * <table>
@@ -21,6 +21,408 @@
  * 		<th>Changes</th>
  * 	</tr>
  * 	<tr>
+ * 		<td>0.77</td>
+ * 		<td>2026-10-16</td>
+ * 		<td>{@link PanelCache} keeps its caches in the directory named by
+ * 			{@value PanelCache#PROPERTY}, or under the temporary directory, rather
+ * 			than next to the CSV files they are made from</td>
+ * 	</tr>
+ * 	<tr>
+ * 		<td>0.76</td>
+ * 		<td>2026-10-16</td>
+ * 		<td>Main.dependency, Main.getDependency and the SteMeasure look their pairs up
+ * 			in the shared DependencyCache; its class doc states that the measures not
+ * 			derived from moments (mutual information, Spearman) are not cached</td>
+ * 	</tr>
+ * 	<tr>
+ * 		<td>0.75</td>
+ * 		<td>2026-10-16</td>
+ * 		<td>The moments of a {@link Panel} can be looked up in and stored in a
+ * 			{@link DependencyCache}, under the fingerprints of each group's columns</td>
+ * 	</tr>
+ * 	<tr>
+ * 		<td>0.74</td>
+ * 		<td>2026-10-16</td>
+ * 		<td>{@link LagSearch} only scores lags with at least
+ * 			{@link LagSearch#MIN_PAIRS} pairs, so no lag or lagged layer is chosen
+ * 			from two data points</td>
+ * 	</tr>
+ * 	<tr>
+ * 		<td>0.73</td>
+ * 		<td>2026-10-16</td>
+ * 		<td>PairMoments scores fewer than three pairs as NaN, as the two-pass code
+ * 			did, instead of an infinite score from two; the self-checks of the
+ * 			moment paths check those pairs instead of skipping them</td>
+ * 	</tr>
+ * 	<tr>
+ * 		<td>0.72</td>
+ * 		<td>2026-10-16</td>
+ * 		<td>ParallelCSV checks itself against MappedCSV with chunks of many sizes
+ * 			in its main method</td>
+ * 	</tr>
+ * 	<tr>
+ * 		<td>0.71</td>
+ * 		<td>2026-10-16</td>
+ * 		<td>PanelCache checks the round trip of its caches in its main method</td>
+ * 	</tr>
+ * 	<tr>
+ * 		<td>0.70</td>
+ * 		<td>2026-10-16</td>
+ * 		<td>GroupIndex checks itself against the filtered reads of Main and the
+ * 			byte readers in its main method</td>
+ * 	</tr>
+ * 	<tr>
+ * 		<td>0.69</td>
+ * 		<td>2026-10-16</td>
+ * 		<td>SlidingWindow checks every window against the serial tables of its own
+ * 			rows in its main method</td>
+ * 	</tr>
+ * 	<tr>
+ * 		<td>0.68</td>
+ * 		<td>2026-10-16</td>
+ * 		<td>DependencyStream checks its tables after every batch against the serial
+ * 			tables of the rows so far in its main method</td>
+ * 	</tr>
+ * 	<tr>
+ * 		<td>0.67</td>
+ * 		<td>2026-10-16</td>
+ * 		<td>LagSearch checks the score of every lag against the serial score of
+ * 			the column shifted by hand in its main method</td>
+ * 	</tr>
+ * 	<tr>
+ * 		<td>0.66</td>
+ * 		<td>2026-10-16</td>
+ * 		<td>Bootstrap checks its bounds against resamples drawn row by row and
+ * 			scored by the serial tables of Main in its main method</td>
+ * 	</tr>
+ * 	<tr>
+ * 		<td>0.65</td>
+ * 		<td>2026-10-16</td>
+ * 		<td>SpearmanMeasure checks its ranks and scores against ranks counted by
+ * 			hand in its main method</td>
+ * 	</tr>
+ * 	<tr>
+ * 		<td>0.64</td>
+ * 		<td>2026-10-16</td>
+ * 		<td>SteMeasure and DependencyMeasure check every registered measure against
+ * 			its documented table rule in their main methods</td>
+ * 	</tr>
+ * 	<tr>
+ * 		<td>0.63</td>
+ * 		<td>2026-10-16</td>
+ * 		<td>Panel checks each group against LayerMoments on that group alone in its
+ * 			main method</td>
+ * 	</tr>
+ * 	<tr>
+ * 		<td>0.62</td>
+ * 		<td>2026-10-16</td>
+ * 		<td>DependencyMatrix checks its tables and saved files against the serial
+ * 			tables of Main in its main method</td>
+ * 	</tr>
+ * 	<tr>
+ * 		<td>0.61</td>
+ * 		<td>2026-10-16</td>
+ * 		<td>DependencyCache checks its scores, counts, eviction and files against
+ * 			the serial scores of Main in its main method</td>
+ * 	</tr>
+ * 	<tr>
+ * 		<td>0.60</td>
+ * 		<td>2026-10-16</td>
+ * 		<td>Column checks its masks, counts, lags, slices and fingerprints against
+ * 			the raw arrays in its main method</td>
+ * 	</tr>
+ * 	<tr>
+ * 		<td>0.59</td>
+ * 		<td>2026-10-16</td>
+ * 		<td>DependencyBuilder checks every pool, cache and matrix path against the
+ * 			serial tables of Main in its main method</td>
+ * 	</tr>
+ * 	<tr>
+ * 		<td>0.58</td>
+ * 		<td>2026-10-16</td>
+ * 		<td>LayerMoments checks its tables against the serial ones of Main, and
+ * 			its column and lag paths against its array path, in its main method</td>
+ * 	</tr>
+ * 	<tr>
+ * 		<td>0.57</td>
+ * 		<td>2026-10-16</td>
+ * 		<td>Main keeps the two-pass dependency of its version 0.14 as the reference
+ * 			the faster paths are checked against; PairMoments checks itself against
+ * 			it in its main method ({@link Main} is now version 0.25)</td>
+ * 	</tr>
+ * 	<tr>
+ * 		<td>0.56</td>
+ * 		<td>2026-10-16</td>
+ * 		<td>PanelCache reads caches into memory instead of mapping them, so that
+ * 			stale ones can be replaced on every system, no longer writes validity
+ * 			bitmaps, and records the new modification time of a file touched but
+ * 			not changed</td>
+ * 	</tr>
+ * 	<tr>
+ * 		<td>0.55</td>
+ * 		<td>2026-10-16</td>
+ * 		<td>MappedCSV now follows the rules of opencsv's parser, including its
+ * 			handling of backslashes, of quotes in the middle of a field and of
+ * 			carriage returns, and checks itself against opencsv on the data files;
+ * 			ParallelCSV finds rows the same way</td>
+ * 	</tr>
+ * 	<tr>
+ * 		<td>0.54</td>
+ * 		<td>2026-10-16</td>
+ * 		<td>{@link SlidingWindow} takes the relations of each window from the
+ * 			graph {@link DomainKnowledge#variableDependency(Double)} builds</td>
+ * 	</tr>
+ * 	<tr>
+ * 		<td>0.53</td>
+ * 		<td>2026-10-16</td>
+ * 		<td>{@link SketchScreen} finds its candidates by bucketing bands of
+ * 			random-projection signs, with a known recall at its bound, and is
+ * 			registered as {@code "sketch"}</td>
+ * 	</tr>
+ * 	<tr>
+ * 		<td>0.52</td>
+ * 		<td>2026-10-16</td>
+ * 		<td>{@link PermutationTest} follows the direction of the dependency
+ * 			when the mean of the dependent variable is negative, and stops a
+ * 			cell once it is sure to be significant</td>
+ * 	</tr>
+ * 	<tr>
+ * 		<td>0.51</td>
+ * 		<td>2026-10-16</td>
+ * 		<td>Equal-frequency bins no longer fail on columns with fewer known
+ * 			values than bins; sliding windows can score with any measure</td>
+ * 	</tr>
+ * 	<tr>
+ * 		<td>0.50</td>
+ * 		<td>2026-10-16</td>
+ * 		<td>{@link DependencyCache} can be saved to and loaded from a file, so that its
+ * 			entries serve later runs; the shared cache is kept in the file named by
+ * 			{@value DependencyCache#PROPERTY} ({@link DependencyCache} is now version 0.02)</td>
+ * 	</tr>
+ * 	<tr>
+ * 		<td>0.49</td>
+ * 		<td>2026-10-16</td>
+ * 		<td>{@link MomentKernel} loads the vector kernel through its constructor rather
+ * 			than the deprecated {@code Class.newInstance()}, and its {@code main} checks that
+ * 			both kernels agree with {@link PairMoments} within its tolerance
+ * 			({@link MomentKernel} is now version 0.02)</td>
+ * 	</tr>
+ * 	<tr>
+ * 		<td>0.48</td>
+ * 		<td>2026-10-16</td>
+ * 		<td>{@link DependencyBuilder} checks that every layer taking part in a relation
+ * 			has one column per variable before computing anything, as documented; so do
+ * 			{@link Bootstrap}, {@link PermutationTest} and {@link SlidingWindow}
+ * 			({@link DependencyBuilder} is now version 0.08)</td>
+ * 	</tr>
+ * 	<tr>
+ * 		<td>0.47</td>
+ * 		<td>2026-10-16</td>
+ * 		<td>The primitive {@link PairMoments#of(double[], double[])} no longer wraps
+ * 			its arrays in {@link Column}s ({@link PairMoments} is now version 0.08)</td>
+ * 	</tr>
+ * 	<tr>
+ * 		<td>0.46</td>
+ * 		<td>2026-10-16</td>
+ * 		<td>Added {@link ParallelCSV}, which splits large CSV files into chunks of
+ * 			rows that are parsed in parallel and joined in file order.
+ * 			{@link Main#loadCSVwithFiltering(java.io.File, String, int)} uses it
+ * 			({@link Main} is now version 0.24, {@link MappedCSV} is now version
+ * 			0.03, {@link GroupIndex} is now version 0.02)</td>
+ * 	</tr>
+ * 	<tr>
+ * 		<td>0.45</td>
+ * 		<td>2026-10-16</td>
+ * 		<td>Added {@link PanelCache}, which keeps the data read from a CSV file
+ * 			in a binary columnar file that later runs map into memory, until
+ * 			the CSV file changes ({@link MappedCSV} is now version 0.02)</td>
+ * 	</tr>
+ * 	<tr>
+ * 		<td>0.44</td>
+ * 		<td>2026-10-16</td>
+ * 		<td>Added {@link MappedCSV}, which maps CSV files into memory and parses
+ * 			numbers and missing markers directly from their bytes ({@link Main}
+ * 			is now version 0.23)</td>
+ * 	</tr>
+ * 	<tr>
+ * 		<td>0.43</td>
+ * 		<td>2026-10-16</td>
+ * 		<td>Added {@link GroupIndex}, which reads a CSV file once and splits its
+ * 			rows into the primitive columns of each group</td>
+ * 	</tr>
+ * 	<tr>
+ * 		<td>0.42</td>
+ * 		<td>2026-10-16</td>
+ * 		<td>Added {@link SlidingWindow}, which builds a model over windows of
+ * 			years, merging the rows entering each window into the moments and
+ * 			removing the rows leaving it, and reports the relations gained and
+ * 			lost ({@link Column} is now version 0.04)</td>
+ * 	</tr>
+ * 	<tr>
+ * 		<td>0.41</td>
+ * 		<td>2026-10-16</td>
+ * 		<td>Added {@link DependencyStream}, which merges the moments of new rows
+ * 			into the stored ones and recomputes only the tables of the relations
+ * 			that gained pairs</td>
+ * 	</tr>
+ * 	<tr>
+ * 		<td>0.40</td>
+ * 		<td>2026-10-16</td>
+ * 		<td>Added {@link SketchScreen}, a {@link DependencyMeasure} that estimates
+ * 			the correlation of every pair from count sketches of the
+ * 			standardized columns and only scores the candidate pairs exactly</td>
+ * 	</tr>
+ * 	<tr>
+ * 		<td>0.39</td>
+ * 		<td>2026-10-16</td>
+ * 		<td>Added {@link LagSearch}, which scores lags 1 to <i>K</i> of every
+ * 			pair from prefix sums and a sliding co-moment, and generates lagged
+ * 			layers from the best lags</td>
+ * 	</tr>
+ * 	<tr>
+ * 		<td>0.38</td>
+ * 		<td>2026-10-16</td>
+ * 		<td>Added {@link PermutationTest}, a sequential permutation test of the
+ * 			significance of each dependency that stops early by the
+ * 			Besag-Clifford rule</td>
+ * 	</tr>
+ * 	<tr>
+ * 		<td>0.37</td>
+ * 		<td>2026-10-16</td>
+ * 		<td>Added {@link Bootstrap}, which computes lower confidence bounds for
+ * 			the cells of dependency tables from parallel resamples of the rows</td>
+ * 	</tr>
+ * 	<tr>
+ * 		<td>0.36</td>
+ * 		<td>2026-10-16</td>
+ * 		<td>Added {@link SpearmanMeasure}, which scores dependencies by rank
+ * 			correlation from ranks computed once per column and cached
+ * 			({@link DependencyMeasure} is now version 0.02)</td>
+ * 	</tr>
+ * 	<tr>
+ * 		<td>0.35</td>
+ * 		<td>2026-10-16</td>
+ * 		<td>Added the {@link DependencyMeasure} interface, with the standard
+ * 			error of estimate ({@link SteMeasure}) as the default and a mutual
+ * 			information measure over byte-coded discretized columns
+ * 			({@link MutualInformationMeasure}); {@link Main} and
+ * 			{@link DependencyBuilder} accept a measure ({@link Main} is now version
+ * 			0.22, {@link DependencyBuilder} is now version 0.07)</td>
+ * 	</tr>
+ * 	<tr>
+ * 		<td>0.34</td>
+ * 		<td>2026-10-16</td>
+ * 		<td>Added {@link Panel}, which lays the data of many groups (e.g. countries)
+ * 			out contiguously in aligned blocks and computes a relation's moments for
+ * 			every group in a single sweep ({@link LayerMoments} is now version
+ * 			0.08)</td>
+ * 	</tr>
+ * 	<tr>
+ * 		<td>0.33</td>
+ * 		<td>2026-10-16</td>
+ * 		<td>Added {@link DependencyMatrix}, the moments of every pair of variables of
+ * 			a dataset stored as a packed triangle, from which the tables of any
+ * 			{@link DomainKnowledge} layering are assembled by lookup; it is computed by
+ * 			{@link DependencyBuilder#matrix(java.util.Map)} and can be saved and read
+ * 			back. Added {@link PairMoments#reverse()} ({@link PairMoments} is now
+ * 			version 0.07; {@link DependencyBuilder} is now version 0.06)</td>
+ * 	</tr>
+ * 	<tr>
+ * 		<td>0.32</td>
+ * 		<td>2026-10-16</td>
+ * 		<td>Added lagged views of a {@link Column} ({@link Column#lag(int)}), which
+ * 			share the values of the original column, and {@link Column#asList()};
+ * 			{@link PairMoments}, {@link LayerMoments} and {@link DependencyBuilder}
+ * 			read such views directly, and {@link DependencyBuilder} accepts layers of
+ * 			{@link Column}s ({@link Column} is now version 0.03; {@link PairMoments}
+ * 			is now version 0.06; {@link LayerMoments} is now version 0.07;
+ * 			{@link DependencyBuilder} is now version 0.05)</td>
+ * 	</tr>
+ * 	<tr>
+ * 		<td>0.31</td>
+ * 		<td>2026-10-16</td>
+ * 		<td>Moments can now be removed as well as merged:
+ * 			{@link PairMoments#subtract(PairMoments)} and
+ * 			{@link LayerMoments#subtract(LayerMoments)} downdate them, and
+ * 			{@link DependencyBuilder} can return the moments of a model and tabulate
+ * 			them separately ({@link PairMoments} is now version 0.05;
+ * 			{@link LayerMoments} is now version 0.06; {@link DependencyBuilder} is now
+ * 			version 0.04)</td>
+ * 	</tr>
+ * 	<tr>
+ * 		<td>0.30</td>
+ * 		<td>2026-10-16</td>
+ * 		<td>Added {@link DependencyCache}, a bounded LRU cache of pair moments keyed by
+ * 			the new {@link Column#fingerprint()}, with hit and miss counters;
+ * 			{@link DependencyBuilder} can use it and {@link Main} uses the shared cache
+ * 			({@link Main} is now version 0.21; {@link Column} is now version 0.02;
+ * 			{@link DependencyBuilder} is now version 0.03; {@link LayerMoments} is now
+ * 			version 0.05)</td>
+ * 	</tr>
+ * 	<tr>
+ * 		<td>0.29</td>
+ * 		<td>2026-10-16</td>
+ * 		<td>The sums computed by {@link LayerMoments} are now delegated to a
+ * 			{@link MomentKernel}, chosen at runtime: an optional kernel built on
+ * 			{@code jdk.incubator.vector} (in the {@code src-vector} folder) when it is
+ * 			available, or the scalar kernel otherwise ({@link LayerMoments} is now
+ * 			version 0.04)</td>
+ * 	</tr>
+ * 	<tr>
+ * 		<td>0.28</td>
+ * 		<td>2026-10-16</td>
+ * 		<td>Added {@link Column}, a primitive column with a precomputed validity bitset;
+ * 			{@link PairMoments} and {@link LayerMoments} now find pairwise-complete
+ * 			observations by AND-ing masks and visit only their set bits, and
+ * 			{@link Main#dependency(Column, Column)} was added ({@link Main} is now
+ * 			version 0.20; {@link PairMoments} is now version 0.04; {@link LayerMoments}
+ * 			is now version 0.03; {@link DependencyBuilder} is now version 0.02)</td>
+ * 	</tr>
+ * 	<tr>
+ * 		<td>0.27</td>
+ * 		<td>2026-10-16</td>
+ * 		<td>Added {@link DependencyBuilder}, which computes every dependency table of a
+ * 			{@link DomainKnowledge} model in parallel on a fork/join pool, with the same
+ * 			results as the serial path; {@link Main} now uses it
+ * 			({@link Main} is now version 0.19; {@link LayerMoments} is now version 0.02)</td>
+ * 	</tr>
+ * 	<tr>
+ * 		<td>0.26</td>
+ * 		<td>2026-10-16</td>
+ * 		<td>Added {@link LayerMoments}, which computes the moments of every pair of variables
+ * 			of a dependence relation in one cache-blocked, Gram-style sweep over
+ * 			pairwise-complete observations;
+ * 			{@link Main#getDependency(double[][], double[][], double)} now uses it
+ * 			({@link Main} is now version 0.18; {@link PairMoments} is now version 0.03)</td>
+ * 	</tr>
+ * 	<tr>
+ * 		<td>0.25</td>
+ * 		<td>2026-10-16</td>
+ * 		<td>Added {@link PairMoments#reverseDependency()} and
+ * 			{@link PairMoments#netDependency(double)} so that
+ * 			{@link Main#getDependency(double[][], double[][], double)} computes both directions
+ * 			of each cell from a single pass over the pair of columns
+ * 			({@link Main} is now version 0.17; {@link PairMoments} is now version 0.02)</td>
+ * 	</tr>
+ * 	<tr>
+ * 		<td>0.24</td>
+ * 		<td>2026-10-16</td>
+ * 		<td>Added {@link PairMoments}, a mergeable single-pass (Welford) accumulator of the
+ * 			moments behind the dependency score; {@link Main#dependency(double[], double[])}
+ * 			now uses it instead of two passes with {@code Math.pow}
+ * 			({@link Main} is now version 0.16)</td>
+ * 	</tr>
+ * 	<tr>
+ * 		<td>0.23</td>
+ * 		<td>2026-10-16</td>
+ * 		<td>Added primitive overloads {@link Main#dependency(double[], double[])} and
+ * 			{@link Main#getDependency(double[][], double[][], double)}, which use
+ * 			{@code NaN} as the missing value marker, and the adapters
+ * 			{@link Main#toArray(java.util.List)}, {@link Main#toArrays(java.util.List)} and
+ * 			{@link Main#asList(double[])}; the {@code List} versions now unbox once and delegate
+ * 			({@link Main} is now version 0.15)</td>
+ * 	</tr>
+ * 	<tr>
  * 		<td>0.22</td>
  * 		<td>2016-04-25</td>
  * 		<td>Made Main more generalizable by adding support for {@code NaN}s to
@@ -9,7 +9,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Vector;
 
-import edu.missouri.WorldBankModelBuilder.ReconstructionTest;
+import edu.missouri.bayesianConstructor.Column;
 import edu.missouri.bayesianConstructor.Main;
 import weka.classifiers.bayes.BayesNet;
 import weka.classifiers.bayes.net.EditableBayesNet;
@@ -31,7 +31,7 @@ import weka.filters.unsupervised.attribute.Discretize;
  * {@code java Trainer <input data file> <input XMLBIF file> <output XMLBIF file> [Filter criterion] [UseFrequencyDiscretization]}
  * 
  * @author <a href="mailto:fthc8@missouri.edu">Fernando J. Torre-Mora</a>
- * @version 0.15 2016-04-28
+ * @version 0.17 2026-10-16
  * @since {@code bayesianEvaluator} version 0.02 2016-04-02
  */
 // TODO: create non-static versions of all methods
@@ -205,6 +205,48 @@ public class Trainer {
 		assert Arrays.equals(values, data.attributeToDoubleArray(index));
 	}
 
+	/**
+	 * Adds an attribute {@code a} at {@code index} to {@code data}, with the
+	 * values of the given column. Only the known values of the column are
+	 * visited; every other instance is left missing. The column may be a
+	 * {@link Column#lag(int) lagged view}, in which case no shifted copy of
+	 * the values is ever made.
+	 * 
+	 * @param data
+	 *            The data to add the new attribute to
+	 * @param a
+	 *            The description of the new attribute
+	 * @param index
+	 *            Where to insert the new attribute
+	 * @param values
+	 *            The column of values of the new attribute
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the size of {@code values} does not match the number of
+	 *             instances in {@code data}
+	 * @since 0.16 2026-10-16
+	 */
+	public static void addAttributeAt(Instances data, Attribute a, int index,
+			Column values) throws IllegalArgumentException {
+		if (data.numInstances() != values.size())
+			throw new IllegalArgumentException("A value must be provided "
+					+ "for every instance (" + values.size()
+					+ " values found, " + data.numInstances()
+					+ " values needed)");
+		data.insertAttributeAt(a, index);
+		assert data.attribute(index).equals(a);
+		long[] mask = values.mask();
+		for (int w = 0; w < mask.length; w++)
+			for (long bits = mask[w]; bits != 0; bits &= bits - 1) {
+				int j = (w << 6) + Long.numberOfTrailingZeros(bits);
+				data.instance(j).setValue(index, values.get(j));
+				assert data.instance(j).value(index) == values.get(j);
+			}
+
+		assert Arrays.equals(values.asList().toArray(),
+				Main.asList(data.attributeToDoubleArray(index)).toArray());
+	}
+
 	/**
 	 * Reorders the attributes in the given dataset to be in the order specified
 	 * </P> Note: {@code data} <em>will be modified</em> by this function
@@ -423,39 +465,44 @@ public class Trainer {
 	}
 
 	/**
-	 * Creates a copy of the list where all element indices are shifted ahead by
-	 * the amount indicated. Specifically, the value at each position
+	 * Creates a copy of the list where all element indices are shifted ahead
+	 * by the amount indicated. Specifically, the value at each position
 	 * {@code list.get(j)} will be found in position {@code j+i} in the returned
 	 * list.
 	 * <p/>
 	 * The size of the list is preserved: Elements near the end are dropped off,
-	 * and {@code NaN} is used as a filler element
+	 * and {@code NaN} is used as a filler element. If {@code i} is negative,
+	 * the elements are shifted back instead, and the filler is used for the
+	 * last -{@code i} positions.
+	 * <p/>
+	 * Since version 0.16 the values are shifted through a lagged view (see
+	 * {@link Column#lag(int)}), which callers that do not need a copy can use
+	 * directly, as {@link #addShifted(Instances, String, String, int)} does.
+	 * As of version 0.17 the view is copied into a {@code Vector} again, so
+	 * the result is mutable as it was before version 0.16.
 	 * <p/>
-	 * Note that, for now, {@code i} should be positive; support for negative
-	 * shifts may be added at a later date
+	 * Before version 0.16 the last element of {@code list} was dropped before
+	 * the {@code i} fillers were added, so that the list grew by
+	 * {@code i}&minus;1 elements; an empty {@code list} threw an
+	 * {@code ArrayIndexOutOfBoundsException} and a shift of {@code i}&le;0
+	 * threw an {@code UnsupportedOperationException}. The size is now
+	 * preserved, as documented, an empty {@code list} gives an empty list,
+	 * and a shift of 0 gives a copy of {@code list}.
 	 * 
 	 * @param list
 	 *            The list to be shifted
 	 * @param i
 	 *            The number of positions to shift the contents of {@code list}
 	 *            by
-	 * @return A {@code List} where the first {@code i} positions are
-	 *         {@code null} and, excepting the last {@code i} positions of
-	 *         {@code list}, all the elements from {@code list} are in it
+	 * @return A mutable {@code List} of the same size as {@code list} (and
+	 *         not, as before version 0.16, {@code i}&minus;1 elements longer)
+	 *         where the first {@code i} positions are {@code NaN} and,
+	 *         excepting the last {@code i} positions of {@code list}, all the
+	 *         elements from {@code list} are in it; empty if {@code list} is
 	 * @since 0.15 2016-04-28
 	 */
 	public static List<Double> shiftBy(List<Double> list, int i) {
-		List<Double> out = new Vector<Double>(list);
-		out.remove(list.size() - 1);
-		if (i > 0) {
-			for (; i > 0; i--)
-				out.add(0, new Double(Double.NaN));
-			return out;
-		} else {
-			throw new UnsupportedOperationException(
-					"No support yet for negative i");
-			// TODO (but is it worth it?)
-		}
+		return new Vector<Double>(Column.of(list).lag(i).asList());
 	}
 
 	/**
@@ -472,19 +519,18 @@ public class Trainer {
 	 *            The name of the attribute to be copied and shifted
 	 * @param amount
 	 *            number of instance positions by which to shift the values by.
+	 *            A negative amount shifts them back.
 	 * @throws ArrayIndexOutOfBoundsException
 	 *             if {@code name} does not exist in {@code data}
-	 * @see #shiftBy(List, int)
+	 * @see Column#lag(int)
 	 */
 	public static void addShifted(Instances data, String prefix, String name,
 			int amount) throws ArrayIndexOutOfBoundsException {
 		Attribute a = data.attribute(name).copy(prefix + name);
 		List<String> atts = getAttributeNames(data);
 		int index = atts.indexOf(name);
-		List<Double> values = ReconstructionTest.arrayToList(data
-				.attributeToDoubleArray(index));
-		ReconstructionTest.addAttributeAt(data, a, data.numAttributes() - 1,
-				shiftBy(values, amount));
+		Column values = new Column(data.attributeToDoubleArray(index));
+		addAttributeAt(data, a, data.numAttributes() - 1, values.lag(amount));
 	}
 
 	/**
@@ -9,7 +9,7 @@
  * need to have been computed) 
  * 
  * @author	<a href="mailto:fthc8@missouri.edu">Fernando J. Torre-Mora</a> 
- * @version	0.25 2016-04-28
+ * @version	0.27 2026-10-16
  * 
  * <h2>Version history</h2>
  * <table>
@@ -19,6 +19,23 @@
  * 		<th>Changes</th>
  * 	</tr>
  * 	<tr>
+ * 		<td>0.27</td>
+ * 		<td>2026-10-16</td>
+ * 		<td>{@link Trainer#shiftBy(java.util.List, int)} returns a mutable copy of the
+ * 			lagged view again, and documents that it keeps the size of the list (the
+ * 			code before 0.26 made it {@code i}&minus;1 longer) and accepts empty lists
+ * 			and shifts of 0 ({@link Trainer} is now version 0.17)</td>
+ * 	</tr>
+ * 	<tr>
+ * 		<td>0.26</td>
+ * 		<td>2026-10-16</td>
+ * 		<td>{@link Trainer#shiftBy(java.util.List, int)} now returns a lagged view
+ * 			rather than a copy, and supports negative shifts;
+ * 			{@link Trainer#addShifted(weka.core.Instances, String, String, int)}
+ * 			inserts the lagged view directly
+ * 			({@link Trainer} is now version 0.16)</td>
+ * 	</tr>
+ * 	<tr>
  * 		<td>0.25</td>
  * 		<td>2016-04-28</td>
  * 		<td>Added {@link Trainer